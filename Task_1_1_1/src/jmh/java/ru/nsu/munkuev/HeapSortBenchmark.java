@@ -0,0 +1,140 @@
+package ru.nsu.munkuev;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Arrays;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Сравнение {@link HeapSort#sort(int[])} с сортировками JDK на разных формах входных данных.
+ * <p>
+ * Каждый бенчмарк сначала копирует исходный массив в рабочий, поэтому все они сортируют
+ * одинаковые данные. Копирование входит в измерение: настройка {@link Level#Invocation}
+ * ненадёжна для вызовов короче миллисекунды, а сортировка {@code 1000} элементов занимает
+ * микросекунды. Время самого копирования измеряет {@link #copyOnly()}, его нужно вычитать
+ * из результатов остальных бенчмарков.
+ * <p>
+ * Для самых больших размеров исходный и рабочий массивы занимают по {@code 400} МБ, ещё
+ * столько же берут вспомогательные буферы {@link Arrays#parallelSort(int[])} и
+ * {@link RadixSorter}, поэтому куча в {@code 2} ГБ задаётся в {@link Fork#jvmArgsAppend()}.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@State(Scope.Benchmark)
+@Fork(value = 1, jvmArgsAppend = {"-Xms2g", "-Xmx2g"})
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class HeapSortBenchmark {
+
+    /**
+     * Форма входных данных.
+     */
+    public enum Shape {
+        RANDOM,
+        SORTED,
+        REVERSE_SORTED,
+        FEW_DISTINCT,
+        ORGAN_PIPE;
+
+        int[] generate(int size, long seed) {
+            SplittableRandom random = new SplittableRandom(seed);
+            int[] arr = new int[size];
+            for (int i = 0; i < size; i++) {
+                switch (this) {
+                    case RANDOM -> arr[i] = random.nextInt();
+                    case SORTED -> arr[i] = i;
+                    case REVERSE_SORTED -> arr[i] = size - i;
+                    case FEW_DISTINCT -> arr[i] = random.nextInt(16);
+                    case ORGAN_PIPE -> arr[i] = i < size / 2 ? i : size - i;
+                }
+            }
+            return arr;
+        }
+    }
+
+    @Param({"1000", "100000", "10000000", "100000000"})
+    private int size;
+
+    @Param({"RANDOM", "SORTED", "REVERSE_SORTED", "FEW_DISTINCT", "ORGAN_PIPE"})
+    private Shape shape;
+
+    private int[] source;
+    private int[] work;
+    private final RadixSorter radixSorter = new RadixSorter();
+
+    @Setup(Level.Trial)
+    public void generate() {
+        source = shape.generate(size, 42);
+        work = new int[size];
+    }
+
+    /**
+     * Копирует исходный массив в рабочий перед сортировкой.
+     */
+    private int[] reset() {
+        System.arraycopy(source, 0, work, 0, size);
+        return work;
+    }
+
+    /**
+     * Базовая линия: только копирование, которое делают все остальные бенчмарки.
+     */
+    @Benchmark
+    public int[] copyOnly() {
+        return reset();
+    }
+
+    @Benchmark
+    public int[] heapSort() {
+        int[] arr = reset();
+        HeapSort.sort(arr);
+        return arr;
+    }
+
+    @Benchmark
+    public int[] parallelHeapSort() {
+        int[] arr = reset();
+        ParallelHeapSort.sort(arr);
+        return arr;
+    }
+
+    @Benchmark
+    public int[] hybridSort() {
+        int[] arr = reset();
+        HybridSort.sort(arr);
+        return arr;
+    }
+
+    @Benchmark
+    public int[] radixSort() {
+        int[] arr = reset();
+        radixSorter.sort(arr);
+        return arr;
+    }
+
+    @Benchmark
+    public int[] arraysSort() {
+        int[] arr = reset();
+        Arrays.sort(arr);
+        return arr;
+    }
+
+    @Benchmark
+    public int[] arraysParallelSort() {
+        int[] arr = reset();
+        Arrays.parallelSort(arr);
+        return arr;
+    }
+}
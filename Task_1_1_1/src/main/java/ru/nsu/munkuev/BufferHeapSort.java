@@ -0,0 +1,197 @@
+package ru.nsu.munkuev;
+
+import java.nio.ByteBuffer;
+import java.nio.IntBuffer;
+import java.nio.LongBuffer;
+
+/**
+ * Пирамидальная сортировка на месте для буферов NIO.
+ * <p>
+ * Позволяет сортировать данные, лежащие вне кучи Java (например, в прямых
+ * {@link ByteBuffer#allocateDirect(int) direct}-буферах или в отображённых в память файлах),
+ * не копируя их в {@code int[]}. Все обращения к буферу абсолютные, поэтому позиция, предел
+ * и метка буфера не меняются. Для буферов {@link ByteBuffer} учитывается их порядок байт.
+ * <p>
+ * Размер одного буфера ограничен {@code 2^31 - 1} байт. Более длинные колонки нужно
+ * отображать несколькими буферами и сливать результаты, например как в {@link ExternalHeapSort}.
+ */
+public final class BufferHeapSort {
+
+    private BufferHeapSort() {
+        throw new UnsupportedOperationException("This class can not be instantiated");
+    }
+
+    /**
+     * Сортирует элементы буфера между его позицией и пределом.
+     *
+     * @param buffer буфер
+     * @throws java.nio.ReadOnlyBufferException если буфер только для чтения
+     */
+    public static void sort(IntBuffer buffer) {
+        sort(buffer, buffer.position(), buffer.limit());
+    }
+
+    /**
+     * Сортирует элементы буфера с абсолютными индексами из {@code [from, to)}.
+     *
+     * @param buffer буфер
+     * @param from индекс первого элемента (включительно)
+     * @param to индекс последнего элемента (невключительно)
+     * @throws IndexOutOfBoundsException если диапазон выходит за предел буфера
+     * @throws java.nio.ReadOnlyBufferException если буфер только для чтения
+     */
+    public static void sort(IntBuffer buffer, int from, int to) {
+        rangeCheck(buffer.limit(), from, to);
+        int n = to - from;
+
+        for (int i = n / 2 - 1; i >= 0; i--) {
+            siftDown(buffer, from, n, i, buffer.get(from + i));
+        }
+
+        for (int i = n - 1; i > 0; i--) {
+            int last = buffer.get(from + i);
+            buffer.put(from + i, buffer.get(from));
+            siftDown(buffer, from, i, 0, last);
+        }
+    }
+
+    /**
+     * Сортирует элементы буфера между его позицией и пределом.
+     *
+     * @param buffer буфер
+     * @throws java.nio.ReadOnlyBufferException если буфер только для чтения
+     */
+    public static void sort(LongBuffer buffer) {
+        sort(buffer, buffer.position(), buffer.limit());
+    }
+
+    /**
+     * Сортирует элементы буфера с абсолютными индексами из {@code [from, to)}.
+     *
+     * @param buffer буфер
+     * @param from индекс первого элемента (включительно)
+     * @param to индекс последнего элемента (невключительно)
+     * @throws IndexOutOfBoundsException если диапазон выходит за предел буфера
+     * @throws java.nio.ReadOnlyBufferException если буфер только для чтения
+     */
+    public static void sort(LongBuffer buffer, int from, int to) {
+        rangeCheck(buffer.limit(), from, to);
+        int n = to - from;
+
+        for (int i = n / 2 - 1; i >= 0; i--) {
+            siftDown(buffer, from, n, i, buffer.get(from + i));
+        }
+
+        for (int i = n - 1; i > 0; i--) {
+            long last = buffer.get(from + i);
+            buffer.put(from + i, buffer.get(from));
+            siftDown(buffer, from, i, 0, last);
+        }
+    }
+
+    /**
+     * Сортирует числа {@code int} с номерами из {@code [from, to)}: число с номером {@code i}
+     * занимает байты {@code [4 * i, 4 * i + 4)} буфера.
+     *
+     * @param buffer буфер
+     * @param from номер первого числа (включительно)
+     * @param to номер последнего числа (невключительно)
+     * @throws IndexOutOfBoundsException если диапазон выходит за предел буфера
+     * @throws java.nio.ReadOnlyBufferException если буфер только для чтения
+     */
+    public static void sortInts(ByteBuffer buffer, int from, int to) {
+        sort(view(buffer).asIntBuffer(), from, to);
+    }
+
+    /**
+     * Сортирует числа {@code long} с номерами из {@code [from, to)}: число с номером {@code i}
+     * занимает байты {@code [8 * i, 8 * i + 8)} буфера.
+     *
+     * @param buffer буфер
+     * @param from номер первого числа (включительно)
+     * @param to номер последнего числа (невключительно)
+     * @throws IndexOutOfBoundsException если диапазон выходит за предел буфера
+     * @throws java.nio.ReadOnlyBufferException если буфер только для чтения
+     */
+    public static void sortLongs(ByteBuffer buffer, int from, int to) {
+        sort(view(buffer).asLongBuffer(), from, to);
+    }
+
+    /**
+     * Возвращает копию дескриптора буфера (не данных) с позицией {@code 0}, тем же пределом
+     * и тем же порядком байт. Нужна, чтобы представления {@code asIntBuffer/asLongBuffer}
+     * начинались с нулевого байта и не трогали состояние исходного буфера.
+     */
+    private static ByteBuffer view(ByteBuffer buffer) {
+        ByteBuffer view = buffer.duplicate().order(buffer.order());
+        view.position(0);
+        return view;
+    }
+
+    /**
+     * Просейка вниз в двоичной куче, лежащей в буфере начиная с индекса {@code from}.
+     * Элемент {@code value} ставится на место дыры {@code i}.
+     */
+    private static void siftDown(IntBuffer buffer, int from, int n, int i, int value) {
+        while (true) {
+            int child = 2 * i + 1;
+            if (child >= n) {
+                break;
+            }
+
+            int childValue = buffer.get(from + child);
+            if (child + 1 < n) {
+                int rightValue = buffer.get(from + child + 1);
+                if (rightValue > childValue) {
+                    child++;
+                    childValue = rightValue;
+                }
+            }
+
+            if (childValue <= value) {
+                break;
+            }
+
+            buffer.put(from + i, childValue);
+            i = child;
+        }
+
+        buffer.put(from + i, value);
+    }
+
+    /**
+     * Аналог {@link #siftDown(IntBuffer, int, int, int, int)} для {@link LongBuffer}.
+     */
+    private static void siftDown(LongBuffer buffer, int from, int n, int i, long value) {
+        while (true) {
+            int child = 2 * i + 1;
+            if (child >= n) {
+                break;
+            }
+
+            long childValue = buffer.get(from + child);
+            if (child + 1 < n) {
+                long rightValue = buffer.get(from + child + 1);
+                if (rightValue > childValue) {
+                    child++;
+                    childValue = rightValue;
+                }
+            }
+
+            if (childValue <= value) {
+                break;
+            }
+
+            buffer.put(from + i, childValue);
+            i = child;
+        }
+
+        buffer.put(from + i, value);
+    }
+
+    private static void rangeCheck(int limit, int from, int to) {
+        if (from < 0 || from > to || to > limit) {
+            throw new IndexOutOfBoundsException("Range [" + from + ", " + to + ") out of bounds for limit " + limit);
+        }
+    }
+}
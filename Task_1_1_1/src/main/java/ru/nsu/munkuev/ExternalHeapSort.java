@@ -0,0 +1,329 @@
+package ru.nsu.munkuev;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.IntBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Внешняя сортировка двоичных файлов из чисел {@code int}, которые не помещаются в память.
+ * <p>
+ * Файл рассматривается как последовательность 4-байтовых чисел в порядке big-endian
+ * (так их пишет {@link java.io.DataOutputStream}). Сортировка идёт в два этапа:
+ * <ol>
+ *     <li>Файл читается отрезками по {@code runLength} чисел через отображение в память
+ *         ({@link FileChannel#map}). Каждый отрезок сортируется {@link HeapSort} и сбрасывается
+ *         во временный файл.</li>
+ *     <li>Временные файлы сливаются k-путевым слиянием. Курсоры отрезков хранятся в куче из
+ *         {@code long}: в старших 32 битах лежит текущее значение отрезка, в младших его номер.
+ *         Куча поддерживается методом {@link HeapSort#heapify(long[], int, int, int)}.</li>
+ * </ol>
+ * Результат записывается в выходной файл через отображение окон файла в память, без
+ * промежуточных массивов байт. Если весь файл умещается в один отрезок, временные файлы
+ * не создаются.
+ * <p>
+ * Временные файлы, наоборот, в память не отображаются: они пишутся и читаются через
+ * {@link FileChannel#write}/{@link FileChannel#read} и небольшой буфер на каждый отрезок.
+ * Отображение нельзя освободить явно, а пока оно живо, на Windows файл не удаляется, и
+ * k отображённых целиком отрезков заняли бы адресное пространство размером со входной файл.
+ * <p>
+ * Входной и выходной файлы должны различаться.
+ */
+public final class ExternalHeapSort {
+    /**
+     * Длина отрезка по умолчанию: {@code 2^24} чисел, то есть 64 МБ.
+     */
+    public static final int DEFAULT_RUN_LENGTH = 1 << 24;
+
+    /**
+     * Максимальная длина отрезка, при которой отрезок ещё можно отобразить одним буфером.
+     */
+    public static final int MAX_RUN_LENGTH = Integer.MAX_VALUE / Integer.BYTES;
+
+    /**
+     * Размер окна выходного файла, отображаемого в память за один раз, в числах.
+     */
+    private static final int OUTPUT_WINDOW = 1 << 22;
+
+    /**
+     * Размер буфера чтения и записи одного временного файла, в числах.
+     */
+    private static final int RUN_BUFFER = 1 << 14;
+
+    private ExternalHeapSort() {
+        throw new UnsupportedOperationException("This class can not be instantiated");
+    }
+
+    /**
+     * Сортирует файл с длиной отрезка по умолчанию, временные файлы создаются в каталоге
+     * временных файлов системы.
+     *
+     * @param input входной файл
+     * @param output выходной файл, создаётся или перезаписывается
+     * @throws IOException при ошибке ввода-вывода или если размер входного файла не кратен 4
+     */
+    public static void sort(Path input, Path output) throws IOException {
+        sort(input, output, DEFAULT_RUN_LENGTH, null);
+    }
+
+    /**
+     * Сортирует файл.
+     *
+     * @param input входной файл
+     * @param output выходной файл, создаётся или перезаписывается
+     * @param runLength сколько чисел сортируется в памяти за один раз
+     * @param tempDir каталог для временных файлов, {@code null} для системного каталога
+     * @throws IllegalArgumentException если {@code runLength} вне {@code [1, MAX_RUN_LENGTH]}
+     * @throws IOException при ошибке ввода-вывода или если размер входного файла не кратен 4
+     */
+    public static void sort(Path input, Path output, int runLength, Path tempDir) throws IOException {
+        if (runLength < 1 || runLength > MAX_RUN_LENGTH) {
+            throw new IllegalArgumentException("Illegal run length: " + runLength);
+        }
+
+        List<Path> runs = new ArrayList<>();
+        try (FileChannel in = FileChannel.open(input, StandardOpenOption.READ);
+             FileChannel out = FileChannel.open(output, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                     StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            long bytes = in.size();
+            if (bytes % Integer.BYTES != 0) {
+                throw new IOException("File size " + bytes + " is not a multiple of " + Integer.BYTES);
+            }
+
+            long total = bytes / Integer.BYTES;
+            int[] run = new int[(int) Math.min(runLength, total)];
+
+            //весь файл умещается в один отрезок: сортируем и сразу пишем результат
+            if (total <= runLength) {
+                readInts(in, 0, run, run.length);
+                HeapSort.sort(run);
+                writeInts(out, run, run.length);
+                return;
+            }
+
+            //этап 1: сортировка отрезков и сброс во временные файлы
+            ByteBuffer runBuffer = ByteBuffer.allocateDirect(RUN_BUFFER * Integer.BYTES);
+            for (long start = 0; start < total; start += runLength) {
+                int length = (int) Math.min(runLength, total - start);
+                readInts(in, start, run, length);
+                HeapSort.sort(run, 0, length);
+
+                Path runFile = tempDir == null
+                        ? Files.createTempFile("heapsort-run", ".bin")
+                        : Files.createTempFile(tempDir, "heapsort-run", ".bin");
+                runs.add(runFile);
+                try (FileChannel runChannel = FileChannel.open(runFile, StandardOpenOption.WRITE)) {
+                    writeRun(runChannel, run, length, runBuffer);
+                }
+            }
+
+            //буфер отрезка больше не нужен, отдаём его сборщику мусора до слияния
+            run = null;
+
+            //этап 2: k-путевое слияние
+            merge(runs, out, total);
+        }
+        finally {
+            for (Path runFile : runs) {
+                Files.deleteIfExists(runFile);
+            }
+        }
+    }
+
+    /**
+     * Сливает отсортированные отрезки в выходной канал.
+     * @param runs файлы отрезков
+     * @param out выходной канал
+     * @param total суммарное количество чисел во всех отрезках
+     * @throws IOException при ошибке ввода-вывода
+     */
+    private static void merge(List<Path> runs, FileChannel out, long total) throws IOException {
+        int k = runs.size();
+        RunReader[] cursors = new RunReader[k];
+        long[] heap = new long[k];
+        int size = 0;
+
+        try {
+            for (int r = 0; r < k; r++) {
+                cursors[r] = new RunReader(runs.get(r));
+                if (cursors[r].hasRemaining()) {
+                    heap[size++] = encode(cursors[r].get(), r);
+                }
+            }
+
+            for (int i = size / 2 - 1; i >= 0; i--) {
+                HeapSort.heapify(heap, 0, size, i);
+            }
+
+            MappedIntWriter writer = new MappedIntWriter(out, total);
+            while (size > 0) {
+                long top = ~heap[0];
+                int run = (int) top;
+                writer.put((int) (top >> 32));
+
+                if (cursors[run].hasRemaining()) {
+                    heap[0] = encode(cursors[run].get(), run);
+                }
+                else {
+                    heap[0] = heap[--size];
+                }
+                HeapSort.heapify(heap, 0, size, 0);
+            }
+        }
+        finally {
+            for (RunReader cursor : cursors) {
+                if (cursor != null) {
+                    cursor.close();
+                }
+            }
+        }
+    }
+
+    /**
+     * Упаковывает значение и номер отрезка в ключ кучи. Старшие биты сравниваются первыми,
+     * поэтому ключи упорядочены по значению. Отрицание {@code ~} превращает max-кучу в min-кучу.
+     */
+    private static long encode(int value, int run) {
+        return ~(((long) value << 32) | run);
+    }
+
+    /**
+     * Читает {@code length} чисел начиная с числа с номером {@code start}.
+     */
+    private static void readInts(FileChannel in, long start, int[] dst, int length) throws IOException {
+        if (length == 0) {
+            return;
+        }
+        MappedByteBuffer mapped = in.map(FileChannel.MapMode.READ_ONLY,
+                start * Integer.BYTES, (long) length * Integer.BYTES);
+        mapped.asIntBuffer().get(dst, 0, length);
+    }
+
+    /**
+     * Записывает первые {@code length} чисел массива в начало канала.
+     */
+    private static void writeInts(FileChannel out, int[] src, int length) throws IOException {
+        MappedIntWriter writer = new MappedIntWriter(out, length);
+        for (int offset = 0; offset < length; ) {
+            offset += writer.put(src, offset, length - offset);
+        }
+    }
+
+
+    /**
+     * Записывает первые {@code length} чисел массива во временный файл через буфер {@code buffer}.
+     */
+    private static void writeRun(FileChannel out, int[] src, int length, ByteBuffer buffer) throws IOException {
+        IntBuffer ints = buffer.clear().asIntBuffer();
+        for (int offset = 0; offset < length; ) {
+            int count = Math.min(RUN_BUFFER, length - offset);
+            ints.clear();
+            ints.put(src, offset, count);
+
+            buffer.clear().limit(count * Integer.BYTES);
+            while (buffer.hasRemaining()) {
+                out.write(buffer);
+            }
+            offset += count;
+        }
+    }
+
+
+    /**
+     * Последовательное чтение временного файла через небольшой буфер.
+     */
+    private static final class RunReader implements Closeable {
+        private final FileChannel channel;
+        private final ByteBuffer buffer = ByteBuffer.allocateDirect(RUN_BUFFER * Integer.BYTES);
+
+        RunReader(Path file) throws IOException {
+            this.channel = FileChannel.open(file, StandardOpenOption.READ);
+            buffer.limit(0);
+        }
+
+        /**
+         * Проверяет, остались ли в отрезке числа, и при необходимости дочитывает буфер.
+         */
+        boolean hasRemaining() throws IOException {
+            if (buffer.hasRemaining()) {
+                return true;
+            }
+
+            //читаем до заполнения буфера или конца файла, чтобы в буфере были только целые числа
+            buffer.clear();
+            while (buffer.hasRemaining()) {
+                if (channel.read(buffer) < 0) {
+                    break;
+                }
+            }
+            buffer.flip();
+            return buffer.hasRemaining();
+        }
+
+        int get() {
+            return buffer.getInt();
+        }
+
+        @Override
+        public void close() throws IOException {
+            channel.close();
+        }
+    }
+
+
+    /**
+     * Последовательная запись заранее известного количества чисел в файл через окна,
+     * отображённые в память. Каждое следующее окно отображается сразу за предыдущим,
+     * файл растёт по мере записи.
+     */
+    private static final class MappedIntWriter {
+        private final FileChannel channel;
+        private long remaining;
+        private long position;
+        private IntBuffer window;
+
+        MappedIntWriter(FileChannel channel, long total) {
+            this.channel = channel;
+            this.remaining = total;
+        }
+
+        void put(int value) throws IOException {
+            if (window == null || !window.hasRemaining()) {
+                nextWindow();
+            }
+            window.put(value);
+        }
+
+        /**
+         * Записывает столько чисел, сколько помещается в текущее окно.
+         * @return количество записанных чисел
+         */
+        int put(int[] src, int offset, int length) throws IOException {
+            if (window == null || !window.hasRemaining()) {
+                nextWindow();
+            }
+            int count = Math.min(length, window.remaining());
+            window.put(src, offset, count);
+            return count;
+        }
+
+        private void nextWindow() throws IOException {
+            int count = (int) Math.min(OUTPUT_WINDOW, remaining);
+            if (count == 0) {
+                throw new IllegalStateException("All " + position / Integer.BYTES + " values are already written");
+            }
+
+            long bytes = (long) count * Integer.BYTES;
+            window = channel.map(FileChannel.MapMode.READ_WRITE, position, bytes).asIntBuffer();
+            position += bytes;
+            remaining -= count;
+        }
+    }
+}
@@ -1,7 +1,16 @@
 package ru.nsu.munkuev;
 
+import java.util.Comparator;
+import java.util.Objects;
+
 /**
  *  Класс, реализующий пирамидальную сортировку
+ * <p>
+ * Для каждого примитивного типа, кроме {@code boolean} и {@code float}, есть перегрузки для всего
+ * массива и для диапазона {@code [from, to)}. Для объектов есть вариант с {@link Comparator}.
+ * Все варианты сортируют на месте: значения не упаковываются и временные массивы не создаются.
+ * Методы {@code sortWith} синхронно переставляют параллельные массивы, а {@code argsort}
+ * возвращает сортирующую перестановку, не меняя ключи.
 */
 public final class HeapSort {
 
@@ -15,20 +24,455 @@ public final class HeapSort {
      * @param arr исходный массив
      */
     public static void sort(int[] arr){
-        int n = arr.length;
+        sort(arr, 0, arr.length);
+    }
+
+    /**
+     * Сортирует диапазон {@code [from, to)} массива. Куча строится прямо внутри диапазона,
+     * элементы вне его не затрагиваются.
+     *
+     * @param arr исходный массив
+     * @param from индекс первого элемента диапазона (включительно)
+     * @param to индекс последнего элемента диапазона (невключительно)
+     * @throws IllegalArgumentException если {@code from > to}
+     * @throws ArrayIndexOutOfBoundsException если {@code from < 0} или {@code to > arr.length}
+     */
+    public static void sort(int[] arr, int from, int to) {
+        rangeCheck(arr.length, from, to);
+        int n = to - from;
 
         //строим max-heap
         for (int i = n / 2 - 1; i >= 0; i--) {
-            heapify(arr, n, i);
+            heapify(arr, from, n, i);
+        }
+
+        for (int i = n - 1; i > 0; i--) {
+
+            int temp = arr[from];
+            arr[from] = arr[from + i];
+            arr[from + i] = temp;
+
+            heapify(arr, from, i, 0);
+        }
+    }
+
+    /**
+     * Сортирует массив с заданными параметрами кучи.
+     *
+     * @param arr исходный массив
+     * @param options арность кучи и вариант просейки
+     * @throws NullPointerException если {@code options == null}
+     */
+    public static void sort(int[] arr, HeapSortOptions options) {
+        sort(arr, 0, arr.length, options);
+    }
+
+    /**
+     * Сортирует диапазон {@code [from, to)} массива с заданными параметрами кучи.
+     * <p>
+     * Куча строится d-арной с итеративной просейкой. При варианте {@link HeapSortVariant#BOTTOM_UP}
+     * после обмена корня с последним элементом используется восходящая просейка
+     * {@link #siftDownBottomUp(int[], int, int, int, int)}.
+     *
+     * @param arr исходный массив
+     * @param from индекс первого элемента диапазона (включительно)
+     * @param to индекс последнего элемента диапазона (невключительно)
+     * @param options арность кучи и вариант просейки
+     * @throws NullPointerException если {@code options == null}
+     * @throws IllegalArgumentException если {@code from > to}
+     * @throws ArrayIndexOutOfBoundsException если {@code from < 0} или {@code to > arr.length}
+     */
+    public static void sort(int[] arr, int from, int to, HeapSortOptions options) {
+        Objects.requireNonNull(options, "options");
+        rangeCheck(arr.length, from, to);
+        int n = to - from;
+        int d = options.getArity();
+        boolean bottomUp = options.getVariant() == HeapSortVariant.BOTTOM_UP;
+
+        //строим max-heap, начиная с последней вершины, у которой есть дети
+        for (int i = (n - 2) / d; i >= 0 && n > 1; i--) {
+            siftDown(arr, from, n, i, d);
+        }
+
+        for (int i = n - 1; i > 0; i--) {
+            int last = arr[from + i];
+            arr[from + i] = arr[from];
+
+            if (bottomUp) {
+                siftDownBottomUp(arr, from, i, d, last);
+            }
+            else {
+                arr[from] = last;
+                siftDown(arr, from, i, 0, d);
+            }
+        }
+    }
+
+    /**
+     * Сортирует массив ключей и синхронно переставляет параллельные массивы {@code int[]}:
+     * каждый обмен ключей {@code keys[i] <-> keys[j]} повторяется во всех {@code satellites}.
+     *
+     * @param keys массив ключей
+     * @param satellites параллельные массивы, не короче {@code keys}
+     * @throws IllegalArgumentException если какой-то из параллельных массивов короче {@code keys}
+     */
+    public static void sortWith(int[] keys, int[]... satellites) {
+        for (int[] satellite : satellites) {
+            if (satellite.length < keys.length) {
+                throw new IllegalArgumentException("Satellite array is shorter than keys: "
+                        + satellite.length + " < " + keys.length);
+            }
+        }
+
+        sortWith(keys, (i, j) -> {
+            for (int[] satellite : satellites) {
+                int temp = satellite[i];
+                satellite[i] = satellite[j];
+                satellite[j] = temp;
+            }
+        });
+    }
+
+    /**
+     * Сортирует массив ключей, сообщая о каждом обмене элементов {@code swapper}-у.
+     * Через {@link Swapper#of} и {@link Swapper#andThen} можно переставлять параллельные
+     * массивы любых типов без упаковки и без промежуточных массивов индексов.
+     *
+     * @param keys массив ключей
+     * @param swapper обмен, который повторяется для каждого обмена ключей
+     * @throws NullPointerException если {@code swapper == null}
+     */
+    public static void sortWith(int[] keys, Swapper swapper) {
+        Objects.requireNonNull(swapper, "swapper");
+        int n = keys.length;
+
+        for (int i = n / 2 - 1; i >= 0; i--) {
+            heapify(keys, n, i, swapper);
+        }
+
+        for (int i = n - 1; i > 0; i--) {
+            swap(keys, 0, i, swapper);
+            heapify(keys, i, 0, swapper);
+        }
+    }
+
+    /**
+     * Аналог {@link #sortWith(int[], int[]...)} для ключей {@code long[]}.
+     *
+     * @param keys массив ключей
+     * @param satellites параллельные массивы, не короче {@code keys}
+     * @throws IllegalArgumentException если какой-то из параллельных массивов короче {@code keys}
+     */
+    public static void sortWith(long[] keys, int[]... satellites) {
+        for (int[] satellite : satellites) {
+            if (satellite.length < keys.length) {
+                throw new IllegalArgumentException("Satellite array is shorter than keys: "
+                        + satellite.length + " < " + keys.length);
+            }
+        }
+
+        sortWith(keys, (i, j) -> {
+            for (int[] satellite : satellites) {
+                int temp = satellite[i];
+                satellite[i] = satellite[j];
+                satellite[j] = temp;
+            }
+        });
+    }
+
+    /**
+     * Аналог {@link #sortWith(int[], Swapper)} для ключей {@code long[]}.
+     *
+     * @param keys массив ключей
+     * @param swapper обмен, который повторяется для каждого обмена ключей
+     * @throws NullPointerException если {@code swapper == null}
+     */
+    public static void sortWith(long[] keys, Swapper swapper) {
+        Objects.requireNonNull(swapper, "swapper");
+        int n = keys.length;
+
+        for (int i = n / 2 - 1; i >= 0; i--) {
+            heapify(keys, n, i, swapper);
         }
 
         for (int i = n - 1; i > 0; i--) {
+            swap(keys, 0, i, swapper);
+            heapify(keys, i, 0, swapper);
+        }
+    }
 
-            int temp = arr[0];
-            arr[0] = arr[i];
-            arr[i] = temp;
+    /**
+     * Возвращает перестановку, сортирующую массив: {@code keys[p[0]] <= keys[p[1]] <= ...}.
+     * Сам массив ключей не меняется. Равные ключи упорядочиваются по исходному индексу,
+     * поэтому результат совпадает с результатом устойчивой сортировки.
+     *
+     * @param keys массив ключей
+     * @return перестановка индексов {@code p} длины {@code keys.length}
+     */
+    public static int[] argsort(int[] keys) {
+        int n = keys.length;
+        int[] order = new int[n];
+        for (int i = 0; i < n; i++) {
+            order[i] = i;
+        }
+
+        for (int i = n / 2 - 1; i >= 0; i--) {
+            heapifyOrder(order, keys, n, i);
+        }
+
+        for (int i = n - 1; i > 0; i--) {
+            int temp = order[0];
+            order[0] = order[i];
+            order[i] = temp;
 
-            heapify(arr, i, 0);
+            heapifyOrder(order, keys, i, 0);
+        }
+        return order;
+    }
+
+    /**
+     * Аналог {@link #argsort(int[])} для ключей {@code long[]}.
+     *
+     * @param keys массив ключей
+     * @return перестановка индексов {@code p} длины {@code keys.length}
+     */
+    public static int[] argsort(long[] keys) {
+        int n = keys.length;
+        int[] order = new int[n];
+        for (int i = 0; i < n; i++) {
+            order[i] = i;
+        }
+
+        for (int i = n / 2 - 1; i >= 0; i--) {
+            heapifyOrder(order, keys, n, i);
+        }
+
+        for (int i = n - 1; i > 0; i--) {
+            int temp = order[0];
+            order[0] = order[i];
+            order[i] = temp;
+
+            heapifyOrder(order, keys, i, 0);
+        }
+        return order;
+    }
+
+    /**
+     * Сортирует массив {@code long[]} по возрастанию.
+     *
+     * @param arr исходный массив
+     */
+    public static void sort(long[] arr) {
+        sort(arr, 0, arr.length);
+    }
+
+    /**
+     * Сортирует диапазон {@code [from, to)} массива {@code long[]} по возрастанию.
+     *
+     * @param arr исходный массив
+     * @param from индекс первого элемента диапазона (включительно)
+     * @param to индекс последнего элемента диапазона (невключительно)
+     * @throws IllegalArgumentException если {@code from > to}
+     * @throws ArrayIndexOutOfBoundsException если {@code from < 0} или {@code to > arr.length}
+     */
+    public static void sort(long[] arr, int from, int to) {
+        rangeCheck(arr.length, from, to);
+        int n = to - from;
+
+        for (int i = n / 2 - 1; i >= 0; i--) {
+            heapify(arr, from, n, i);
+        }
+
+        for (int i = n - 1; i > 0; i--) {
+            long temp = arr[from];
+            arr[from] = arr[from + i];
+            arr[from + i] = temp;
+
+            heapify(arr, from, i, 0);
+        }
+    }
+
+    /**
+     * Сортирует массив {@code double[]} по возрастанию.
+     * Порядок совпадает с {@link Double#compare(double, double)}: {@code -0.0} меньше {@code 0.0},
+     * а {@code NaN} больше любого другого значения.
+     *
+     * @param arr исходный массив
+     */
+    public static void sort(double[] arr) {
+        sort(arr, 0, arr.length);
+    }
+
+    /**
+     * Сортирует диапазон {@code [from, to)} массива {@code double[]} по возрастанию.
+     *
+     * @param arr исходный массив
+     * @param from индекс первого элемента диапазона (включительно)
+     * @param to индекс последнего элемента диапазона (невключительно)
+     * @throws IllegalArgumentException если {@code from > to}
+     * @throws ArrayIndexOutOfBoundsException если {@code from < 0} или {@code to > arr.length}
+     */
+    public static void sort(double[] arr, int from, int to) {
+        rangeCheck(arr.length, from, to);
+        int n = to - from;
+
+        for (int i = n / 2 - 1; i >= 0; i--) {
+            heapify(arr, from, n, i);
+        }
+
+        for (int i = n - 1; i > 0; i--) {
+            double temp = arr[from];
+            arr[from] = arr[from + i];
+            arr[from + i] = temp;
+
+            heapify(arr, from, i, 0);
+        }
+    }
+
+    /**
+     * Сортирует массив {@code short[]} по возрастанию.
+     *
+     * @param arr исходный массив
+     */
+    public static void sort(short[] arr) {
+        sort(arr, 0, arr.length);
+    }
+
+    /**
+     * Сортирует диапазон {@code [from, to)} массива {@code short[]} по возрастанию.
+     *
+     * @param arr исходный массив
+     * @param from индекс первого элемента диапазона (включительно)
+     * @param to индекс последнего элемента диапазона (невключительно)
+     * @throws IllegalArgumentException если {@code from > to}
+     * @throws ArrayIndexOutOfBoundsException если {@code from < 0} или {@code to > arr.length}
+     */
+    public static void sort(short[] arr, int from, int to) {
+        rangeCheck(arr.length, from, to);
+        int n = to - from;
+
+        for (int i = n / 2 - 1; i >= 0; i--) {
+            heapify(arr, from, n, i);
+        }
+
+        for (int i = n - 1; i > 0; i--) {
+            short temp = arr[from];
+            arr[from] = arr[from + i];
+            arr[from + i] = temp;
+
+            heapify(arr, from, i, 0);
+        }
+    }
+
+    /**
+     * Сортирует массив {@code char[]} по возрастанию.
+     *
+     * @param arr исходный массив
+     */
+    public static void sort(char[] arr) {
+        sort(arr, 0, arr.length);
+    }
+
+    /**
+     * Сортирует диапазон {@code [from, to)} массива {@code char[]} по возрастанию.
+     *
+     * @param arr исходный массив
+     * @param from индекс первого элемента диапазона (включительно)
+     * @param to индекс последнего элемента диапазона (невключительно)
+     * @throws IllegalArgumentException если {@code from > to}
+     * @throws ArrayIndexOutOfBoundsException если {@code from < 0} или {@code to > arr.length}
+     */
+    public static void sort(char[] arr, int from, int to) {
+        rangeCheck(arr.length, from, to);
+        int n = to - from;
+
+        for (int i = n / 2 - 1; i >= 0; i--) {
+            heapify(arr, from, n, i);
+        }
+
+        for (int i = n - 1; i > 0; i--) {
+            char temp = arr[from];
+            arr[from] = arr[from + i];
+            arr[from + i] = temp;
+
+            heapify(arr, from, i, 0);
+        }
+    }
+
+    /**
+     * Сортирует массив {@code byte[]} по возрастанию.
+     *
+     * @param arr исходный массив
+     */
+    public static void sort(byte[] arr) {
+        sort(arr, 0, arr.length);
+    }
+
+    /**
+     * Сортирует диапазон {@code [from, to)} массива {@code byte[]} по возрастанию.
+     *
+     * @param arr исходный массив
+     * @param from индекс первого элемента диапазона (включительно)
+     * @param to индекс последнего элемента диапазона (невключительно)
+     * @throws IllegalArgumentException если {@code from > to}
+     * @throws ArrayIndexOutOfBoundsException если {@code from < 0} или {@code to > arr.length}
+     */
+    public static void sort(byte[] arr, int from, int to) {
+        rangeCheck(arr.length, from, to);
+        int n = to - from;
+
+        for (int i = n / 2 - 1; i >= 0; i--) {
+            heapify(arr, from, n, i);
+        }
+
+        for (int i = n - 1; i > 0; i--) {
+            byte temp = arr[from];
+            arr[from] = arr[from + i];
+            arr[from + i] = temp;
+
+            heapify(arr, from, i, 0);
+        }
+    }
+
+    /**
+     * Сортирует массив объектов в порядке, заданном компаратором.
+     *
+     * @param arr исходный массив
+     * @param comparator компаратор, задающий порядок элементов
+     * @param <T> тип элементов массива
+     * @throws NullPointerException если {@code comparator == null}
+     */
+    public static <T> void sort(T[] arr, Comparator<? super T> comparator) {
+        sort(arr, 0, arr.length, comparator);
+    }
+
+    /**
+     * Сортирует диапазон {@code [from, to)} массива объектов в порядке, заданном компаратором.
+     *
+     * @param arr исходный массив
+     * @param from индекс первого элемента диапазона (включительно)
+     * @param to индекс последнего элемента диапазона (невключительно)
+     * @param comparator компаратор, задающий порядок элементов
+     * @param <T> тип элементов массива
+     * @throws NullPointerException если {@code comparator == null}
+     * @throws IllegalArgumentException если {@code from > to}
+     * @throws ArrayIndexOutOfBoundsException если {@code from < 0} или {@code to > arr.length}
+     */
+    public static <T> void sort(T[] arr, int from, int to, Comparator<? super T> comparator) {
+        Objects.requireNonNull(comparator, "comparator");
+        rangeCheck(arr.length, from, to);
+        int n = to - from;
+
+        for (int i = n / 2 - 1; i >= 0; i--) {
+            heapify(arr, from, n, i, comparator);
+        }
+
+        for (int i = n - 1; i > 0; i--) {
+            T temp = arr[from];
+            arr[from] = arr[from + i];
+            arr[from + i] = temp;
+
+            heapify(arr, from, i, 0, comparator);
         }
     }
 
@@ -37,30 +481,448 @@ public final class HeapSort {
      * с корнем в i-ой вершине при условии, что оба поддерева
      * ему удовлетворяют.
      * @param arr исходный массив
-     * @param n размер массива
-     * @param i индекс элемента в массиве для которого проверяем свойство дерева
+     * @param from смещение начала кучи в массиве
+     * @param n размер кучи
+     * @param i индекс элемента в куче для которого проверяем свойство дерева
+     */
+    static void heapify(int[] arr, int from, int n, int i) {
+        //спускаемся итеративно, пока вершина не станет больше своих детей
+        while (true) {
+            int root = i;
+            int left = 2 * i + 1;
+            int right = 2 * i + 2;
+
+            if (left < n && arr[from + left] > arr[from + root]) {
+                root = left;
+            }
+
+            if (right < n && arr[from + right] > arr[from + root]) {
+                root = right;
+            }
+
+            if (root == i) {
+                return;
+            }
+
+            int temp = arr[from + i];
+            arr[from + i] = arr[from + root];
+            arr[from + root] = temp;
+
+            i = root;
+        }
+    }
+
+    /**
+     * Итеративная просейка вниз в d-арной куче. Вместо обменов элемент держится в локальной
+     * переменной, а большие дети сдвигаются вверх на место «дыры».
+     * @param arr исходный массив
+     * @param from смещение начала кучи в массиве
+     * @param n размер кучи
+     * @param i индекс элемента в куче, который просеивается
+     * @param d арность кучи
+     */
+    private static void siftDown(int[] arr, int from, int n, int i, int d) {
+        int value = arr[from + i];
+
+        while (true) {
+            //при большой арности d * i не помещается в int
+            long firstChild = (long) d * i + 1;
+            if (firstChild >= n) {
+                break;
+            }
+            int first = (int) firstChild;
+
+            //ищем наибольшего из детей: они лежат подряд в [first, last)
+            int last = (int) Math.min(firstChild + d, n);
+            int maxChild = first;
+            int maxValue = arr[from + first];
+            for (int c = first + 1; c < last; c++) {
+                if (arr[from + c] > maxValue) {
+                    maxChild = c;
+                    maxValue = arr[from + c];
+                }
+            }
+
+            if (maxValue <= value) {
+                break;
+            }
+
+            arr[from + i] = maxValue;
+            i = maxChild;
+        }
+
+        arr[from + i] = value;
+    }
+
+    /**
+     * Восходящая просейка: ставит {@code value} в кучу размера {@code n}, корень которой свободен.
+     * Сначала дыра спускается от корня до листа по пути наибольших детей без сравнений с {@code value},
+     * затем {@code value} поднимается от листа, пока родитель меньше него.
+     * @param arr исходный массив
+     * @param from смещение начала кучи в массиве
+     * @param n размер кучи
+     * @param d арность кучи
+     * @param value вставляемый элемент
+     */
+    private static void siftDownBottomUp(int[] arr, int from, int n, int d, int value) {
+        int hole = 0;
+
+        //спуск до листа
+        while (true) {
+            //при большой арности d * hole не помещается в int
+            long firstChild = (long) d * hole + 1;
+            if (firstChild >= n) {
+                break;
+            }
+            int first = (int) firstChild;
+
+            int last = (int) Math.min(firstChild + d, n);
+            int maxChild = first;
+            for (int c = first + 1; c < last; c++) {
+                if (arr[from + c] > arr[from + maxChild]) {
+                    maxChild = c;
+                }
+            }
+
+            arr[from + hole] = arr[from + maxChild];
+            hole = maxChild;
+        }
+
+        //подъём: возвращаем вниз тех, кто оказался меньше value
+        while (hole > 0) {
+            int parent = (hole - 1) / d;
+            if (arr[from + parent] >= value) {
+                break;
+            }
+
+            arr[from + hole] = arr[from + parent];
+            hole = parent;
+        }
+
+        arr[from + hole] = value;
+    }
+
+    /**
+     * Аналог {@link #heapify(int[], int, int, int)} для {@code long[]}.
+     */
+    static void heapify(long[] arr, int from, int n, int i) {
+        while (true) {
+            int root = i;
+            int left = 2 * i + 1;
+            int right = 2 * i + 2;
+
+            if (left < n && arr[from + left] > arr[from + root]) {
+                root = left;
+            }
+
+            if (right < n && arr[from + right] > arr[from + root]) {
+                root = right;
+            }
+
+            if (root == i) {
+                return;
+            }
+
+            long temp = arr[from + i];
+            arr[from + i] = arr[from + root];
+            arr[from + root] = temp;
+
+            i = root;
+        }
+    }
+
+    /**
+     * Аналог {@link #heapify(int[], int, int, int)} для {@code double[]}.
+     */
+    private static void heapify(double[] arr, int from, int n, int i) {
+        while (true) {
+            int root = i;
+            int left = 2 * i + 1;
+            int right = 2 * i + 2;
+
+            if (left < n && Double.compare(arr[from + left], arr[from + root]) > 0) {
+                root = left;
+            }
+
+            if (right < n && Double.compare(arr[from + right], arr[from + root]) > 0) {
+                root = right;
+            }
+
+            if (root == i) {
+                return;
+            }
+
+            double temp = arr[from + i];
+            arr[from + i] = arr[from + root];
+            arr[from + root] = temp;
+
+            i = root;
+        }
+    }
+
+    /**
+     * Аналог {@link #heapify(int[], int, int, int)} для {@code short[]}.
      */
-    private static void heapify(int[] arr, int n, int i) {
-        int root = i;
-        int left = 2 * i + 1;
-        int right = 2 * i + 2;
+    private static void heapify(short[] arr, int from, int n, int i) {
+        while (true) {
+            int root = i;
+            int left = 2 * i + 1;
+            int right = 2 * i + 2;
+
+            if (left < n && arr[from + left] > arr[from + root]) {
+                root = left;
+            }
 
-        if (left < n && arr[left] > arr[root]) {
-            root = left;
+            if (right < n && arr[from + right] > arr[from + root]) {
+                root = right;
+            }
+
+            if (root == i) {
+                return;
+            }
+
+            short temp = arr[from + i];
+            arr[from + i] = arr[from + root];
+            arr[from + root] = temp;
+
+            i = root;
         }
+    }
+
+    /**
+     * Аналог {@link #heapify(int[], int, int, int)} для {@code char[]}.
+     */
+    private static void heapify(char[] arr, int from, int n, int i) {
+        while (true) {
+            int root = i;
+            int left = 2 * i + 1;
+            int right = 2 * i + 2;
+
+            if (left < n && arr[from + left] > arr[from + root]) {
+                root = left;
+            }
+
+            if (right < n && arr[from + right] > arr[from + root]) {
+                root = right;
+            }
+
+            if (root == i) {
+                return;
+            }
+
+            char temp = arr[from + i];
+            arr[from + i] = arr[from + root];
+            arr[from + root] = temp;
+
+            i = root;
+        }
+    }
+
+    /**
+     * Аналог {@link #heapify(int[], int, int, int)} для {@code byte[]}.
+     */
+    private static void heapify(byte[] arr, int from, int n, int i) {
+        while (true) {
+            int root = i;
+            int left = 2 * i + 1;
+            int right = 2 * i + 2;
+
+            if (left < n && arr[from + left] > arr[from + root]) {
+                root = left;
+            }
+
+            if (right < n && arr[from + right] > arr[from + root]) {
+                root = right;
+            }
+
+            if (root == i) {
+                return;
+            }
+
+            byte temp = arr[from + i];
+            arr[from + i] = arr[from + root];
+            arr[from + root] = temp;
 
-        if (right < n && arr[right] > arr[root]) {
-            root = right;
+            i = root;
         }
+    }
+
+    /**
+     * Аналог {@link #heapify(int[], int, int, int)} для массива объектов с компаратором.
+     */
+    private static <T> void heapify(T[] arr, int from, int n, int i, Comparator<? super T> comparator) {
+        while (true) {
+            int root = i;
+            int left = 2 * i + 1;
+            int right = 2 * i + 2;
+
+            if (left < n && comparator.compare(arr[from + left], arr[from + root]) > 0) {
+                root = left;
+            }
 
-        if (root != i) {
-            int temp = arr[i];
-            arr[i] = arr[root];
-            arr[root] = temp;
+            if (right < n && comparator.compare(arr[from + right], arr[from + root]) > 0) {
+                root = right;
+            }
 
-            heapify(arr, n, root);
+            if (root == i) {
+                return;
+            }
+
+            T temp = arr[from + i];
+            arr[from + i] = arr[from + root];
+            arr[from + root] = temp;
+
+            i = root;
         }
     }
 
+    /**
+     * Аналог {@link #heapify(int[], int, int, int)}, который вместо сдвигов выполняет обмены
+     * и повторяет каждый из них в {@code swapper}.
+     */
+    private static void heapify(int[] keys, int n, int i, Swapper swapper) {
+        while (true) {
+            int root = i;
+            int left = 2 * i + 1;
+            int right = 2 * i + 2;
+
+            if (left < n && keys[left] > keys[root]) {
+                root = left;
+            }
+
+            if (right < n && keys[right] > keys[root]) {
+                root = right;
+            }
+
+            if (root == i) {
+                return;
+            }
+
+            swap(keys, i, root, swapper);
+            i = root;
+        }
+    }
 
+    /**
+     * Аналог {@link #heapify(int[], int, int, Swapper)} для ключей {@code long[]}.
+     */
+    private static void heapify(long[] keys, int n, int i, Swapper swapper) {
+        while (true) {
+            int root = i;
+            int left = 2 * i + 1;
+            int right = 2 * i + 2;
+
+            if (left < n && keys[left] > keys[root]) {
+                root = left;
+            }
+
+            if (right < n && keys[right] > keys[root]) {
+                root = right;
+            }
+
+            if (root == i) {
+                return;
+            }
+
+            swap(keys, i, root, swapper);
+            i = root;
+        }
+    }
+
+    private static void swap(int[] keys, int i, int j, Swapper swapper) {
+        int temp = keys[i];
+        keys[i] = keys[j];
+        keys[j] = temp;
+        swapper.swap(i, j);
+    }
+
+    private static void swap(long[] keys, int i, int j, Swapper swapper) {
+        long temp = keys[i];
+        keys[i] = keys[j];
+        keys[j] = temp;
+        swapper.swap(i, j);
+    }
+
+    /**
+     * Просейка для {@link #argsort(int[])}: куча состоит из индексов {@code order},
+     * которые сравниваются по ключу, а при равных ключах по самому индексу.
+     */
+    private static void heapifyOrder(int[] order, int[] keys, int n, int i) {
+        while (true) {
+            int root = i;
+            int left = 2 * i + 1;
+            int right = 2 * i + 2;
+
+            if (left < n && greater(keys, order[left], order[root])) {
+                root = left;
+            }
+
+            if (right < n && greater(keys, order[right], order[root])) {
+                root = right;
+            }
+
+            if (root == i) {
+                return;
+            }
+
+            int temp = order[i];
+            order[i] = order[root];
+            order[root] = temp;
+            i = root;
+        }
+    }
+
+    /**
+     * Аналог {@link #heapifyOrder(int[], int[], int, int)} для ключей {@code long[]}.
+     */
+    private static void heapifyOrder(int[] order, long[] keys, int n, int i) {
+        while (true) {
+            int root = i;
+            int left = 2 * i + 1;
+            int right = 2 * i + 2;
+
+            if (left < n && greater(keys, order[left], order[root])) {
+                root = left;
+            }
+
+            if (right < n && greater(keys, order[right], order[root])) {
+                root = right;
+            }
+
+            if (root == i) {
+                return;
+            }
+
+            int temp = order[i];
+            order[i] = order[root];
+            order[root] = temp;
+            i = root;
+        }
+    }
+
+    private static boolean greater(int[] keys, int a, int b) {
+        return keys[a] > keys[b] || (keys[a] == keys[b] && a > b);
+    }
+
+    private static boolean greater(long[] keys, int a, int b) {
+        return keys[a] > keys[b] || (keys[a] == keys[b] && a > b);
+    }
+
+    /**
+     * Проверяет корректность диапазона {@code [from, to)} так же, как это делает {@link java.util.Arrays#sort}.
+     * @param length длина массива
+     * @param from индекс первого элемента диапазона
+     * @param to индекс за последним элементом диапазона
+     */
+    private static void rangeCheck(int length, int from, int to) {
+        if (from > to) {
+            throw new IllegalArgumentException("from(" + from + ") > to(" + to + ")");
+        }
+        if (from < 0) {
+            throw new ArrayIndexOutOfBoundsException(from);
+        }
+        if (to > length) {
+            throw new ArrayIndexOutOfBoundsException(to);
+        }
+    }
 }
@@ -0,0 +1,76 @@
+package ru.nsu.munkuev;
+
+import java.util.Objects;
+
+/**
+ * Неизменяемый набор параметров для {@link HeapSort#sort(int[], HeapSortOptions)}.
+ * <p>
+ * Задаёт арность кучи {@code d} (сколько детей у каждой вершины) и вариант просейки
+ * {@link HeapSortVariant}. В d-арной куче высота равна {@code log_d(n)}, а дети одной вершины
+ * лежат в массиве подряд, поэтому при {@code d = 4} или {@code d = 8} на каждый уровень
+ * приходится один-два кэш-промаха вместо промаха на каждом из {@code log_2(n)} уровней двоичной кучи.
+ */
+public final class HeapSortOptions {
+    /**
+     * Параметры по умолчанию: двоичная куча с классической просейкой.
+     */
+    public static final HeapSortOptions DEFAULT = new HeapSortOptions(2, HeapSortVariant.CLASSIC);
+
+    private final int arity;
+    private final HeapSortVariant variant;
+
+    /**
+     * Конструктор по арности кучи и варианту просейки.
+     * @param arity количество детей у каждой вершины кучи, не меньше {@code 2}
+     * @param variant вариант просейки
+     * @throws IllegalArgumentException если {@code arity < 2}
+     * @throws NullPointerException если {@code variant == null}
+     */
+    public HeapSortOptions(int arity, HeapSortVariant variant) {
+        if (arity < 2) {
+            throw new IllegalArgumentException("Illegal arity: " + arity);
+        }
+
+        this.arity = arity;
+        this.variant = Objects.requireNonNull(variant, "variant");
+    }
+
+    /**
+     * Возвращает арность кучи.
+     * @return количество детей у каждой вершины
+     */
+    public int getArity() {
+        return arity;
+    }
+
+    /**
+     * Возвращает вариант просейки.
+     * @return вариант просейки
+     */
+    public HeapSortVariant getVariant() {
+        return variant;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof HeapSortOptions)) {
+            return false;
+        }
+
+        HeapSortOptions other = (HeapSortOptions) o;
+        return arity == other.arity && variant == other.variant;
+    }
+
+    @Override
+    public int hashCode() {
+        return 31 * arity + variant.hashCode();
+    }
+
+    @Override
+    public String toString() {
+        return "HeapSortOptions(arity=" + arity + ", variant=" + variant + ")";
+    }
+}
@@ -0,0 +1,20 @@
+package ru.nsu.munkuev;
+
+/**
+ * Способ извлечения максимума из кучи в {@link HeapSort#sort(int[], HeapSortOptions)}.
+ */
+public enum HeapSortVariant {
+    /**
+     * Классическая просейка вниз: на каждом уровне элемент сравнивается с наибольшим из детей
+     * и останавливается, как только он не меньше него.
+     */
+    CLASSIC,
+
+    /**
+     * Восходящая (bottom-up) пирамидальная сортировка. Дыра от корня сначала спускается до листа
+     * по пути наибольших детей, а затем вставляемый элемент поднимается от листа на своё место.
+     * Поскольку элемент, взятый с конца кучи, обычно мал, подъём короткий, и на каждом уровне
+     * экономится одно сравнение.
+     */
+    BOTTOM_UP
+}
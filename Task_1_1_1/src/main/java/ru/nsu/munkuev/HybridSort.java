@@ -0,0 +1,156 @@
+package ru.nsu.munkuev;
+
+/**
+ * Гибридная сортировка (introsort) массива {@code int[]}.
+ * <p>
+ * Основную работу выполняет быстрая сортировка с двумя опорными элементами
+ * (dual-pivot quicksort), короткие диапазоны досортировываются вставками. Глубина рекурсии
+ * ограничена величиной {@code 2 * floor(log2(n))}: если она исчерпана, диапазон досортировывается
+ * пирамидальной сортировкой {@link HeapSort#sort(int[], int, int)}. Так сохраняется гарантия
+ * {@code O(n log n)} в худшем случае, а на типичных данных сортировка работает с локальностью
+ * быстрой сортировки.
+ */
+public final class HybridSort {
+    /**
+     * Диапазоны не длиннее этого порога сортируются вставками.
+     */
+    static final int INSERTION_SORT_THRESHOLD = 32;
+
+    private HybridSort() {
+        throw new UnsupportedOperationException("This class can not be instantiated");
+    }
+
+    /**
+     * Сортирует массив по возрастанию.
+     *
+     * @param arr исходный массив
+     */
+    public static void sort(int[] arr) {
+        sort(arr, 0, arr.length);
+    }
+
+    /**
+     * Сортирует диапазон {@code [from, to)} массива по возрастанию.
+     *
+     * @param arr исходный массив
+     * @param from индекс первого элемента диапазона (включительно)
+     * @param to индекс последнего элемента диапазона (невключительно)
+     * @throws IllegalArgumentException если {@code from > to}
+     * @throws ArrayIndexOutOfBoundsException если {@code from < 0} или {@code to > arr.length}
+     */
+    public static void sort(int[] arr, int from, int to) {
+        if (from > to) {
+            throw new IllegalArgumentException("from(" + from + ") > to(" + to + ")");
+        }
+        if (from < 0) {
+            throw new ArrayIndexOutOfBoundsException(from);
+        }
+        if (to > arr.length) {
+            throw new ArrayIndexOutOfBoundsException(to);
+        }
+
+        int n = to - from;
+        if (n < 2) {
+            return;
+        }
+
+        int depthLimit = 2 * (31 - Integer.numberOfLeadingZeros(n));
+        introSort(arr, from, to - 1, depthLimit);
+    }
+
+    /**
+     * Сортирует диапазон {@code [left, right]} (обе границы включительно).
+     * @param arr исходный массив
+     * @param left индекс первого элемента
+     * @param right индекс последнего элемента
+     * @param depthLimit оставшаяся допустимая глубина рекурсии
+     */
+    static void introSort(int[] arr, int left, int right, int depthLimit) {
+        //хвостовую рекурсию по правой части заменяем циклом
+        while (right - left + 1 > INSERTION_SORT_THRESHOLD) {
+            if (depthLimit == 0) {
+                HeapSort.sort(arr, left, right + 1);
+                return;
+            }
+            depthLimit--;
+
+            //опорные элементы берём на границах первой и последней трети диапазона
+            int third = (right - left) / 6;
+            int m1 = left + third;
+            int m2 = right - third;
+            if (arr[m1] > arr[m2]) {
+                swap(arr, m1, m2);
+            }
+            swap(arr, left, m1);
+            swap(arr, right, m2);
+
+            int pivot1 = arr[left];
+            int pivot2 = arr[right];
+
+            //разбиение на три части: < pivot1, [pivot1, pivot2], > pivot2
+            int less = left + 1;
+            int great = right - 1;
+            for (int k = less; k <= great; k++) {
+                int value = arr[k];
+                if (value < pivot1) {
+                    arr[k] = arr[less];
+                    arr[less++] = value;
+                }
+                else if (value > pivot2) {
+                    while (arr[great] > pivot2 && k < great) {
+                        great--;
+                    }
+                    arr[k] = arr[great];
+                    arr[great--] = value;
+
+                    value = arr[k];
+                    if (value < pivot1) {
+                        arr[k] = arr[less];
+                        arr[less++] = value;
+                    }
+                }
+            }
+
+            //ставим опорные элементы на свои места
+            arr[left] = arr[less - 1];
+            arr[less - 1] = pivot1;
+            arr[right] = arr[great + 1];
+            arr[great + 1] = pivot2;
+
+            introSort(arr, left, less - 2, depthLimit);
+
+            //если опорные равны, средняя часть уже отсортирована
+            if (pivot1 < pivot2) {
+                introSort(arr, less, great, depthLimit);
+            }
+
+            left = great + 2;
+        }
+
+        insertionSort(arr, left, right);
+    }
+
+    /**
+     * Сортировка вставками диапазона {@code [left, right]}.
+     * @param arr исходный массив
+     * @param left индекс первого элемента
+     * @param right индекс последнего элемента
+     */
+    private static void insertionSort(int[] arr, int left, int right) {
+        for (int i = left + 1; i <= right; i++) {
+            int value = arr[i];
+            int j = i - 1;
+            while (j >= left && arr[j] > value) {
+                arr[j + 1] = arr[j];
+                j--;
+            }
+            arr[j + 1] = value;
+        }
+    }
+
+    private static void swap(int[] arr, int i, int j) {
+        int temp = arr[i];
+        arr[i] = arr[j];
+        arr[j] = temp;
+    }
+}
@@ -0,0 +1,298 @@
+package ru.nsu.munkuev;
+
+import java.util.Arrays;
+import java.util.NoSuchElementException;
+
+/**
+ * Индексированная min-куча: хранит элементы-идентификаторы {@code 0, 1, 2, ...} с приоритетами
+ * {@code int} и умеет менять приоритет уже добавленного элемента.
+ * <p>
+ * Помимо самой кучи хранится обратный индекс «идентификатор → позиция в куче», поэтому
+ * {@link #decreaseKey(int, int)}, {@link #update(int, int)}, {@link #remove(int)} и
+ * {@link #contains(int)} работают за {@code O(log n)} и {@code O(1)} без поиска по куче.
+ * Такой кучей удобно пользоваться в алгоритме Дейкстры и в планировщиках с изменяемыми
+ * сроками задач.
+ * <p>
+ * Все данные лежат в растущих массивах {@code int[]}, приоритеты и идентификаторы
+ * не упаковываются. Класс не потокобезопасен.
+ */
+public final class IndexedIntHeap {
+    private static final int DEFAULT_CAPACITY = 16;
+    private static final int ABSENT = -1;
+
+    /**
+     * Идентификаторы элементов в порядке кучи.
+     */
+    private int[] heap;
+
+    /**
+     * Приоритет элемента по его идентификатору.
+     */
+    private int[] priorities;
+
+    /**
+     * Позиция элемента в {@link #heap} по его идентификатору, {@code -1} если элемента нет.
+     */
+    private int[] positions;
+
+    private int size;
+
+    /**
+     * Создаёт пустую кучу для идентификаторов из {@code [0, 16)}; при добавлении большего
+     * идентификатора массивы расширяются.
+     */
+    public IndexedIntHeap() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    /**
+     * Создаёт пустую кучу для идентификаторов из {@code [0, capacity)}.
+     * @param capacity ожидаемое количество различных идентификаторов
+     * @throws IllegalArgumentException если {@code capacity < 0}
+     */
+    public IndexedIntHeap(int capacity) {
+        if (capacity < 0) {
+            throw new IllegalArgumentException("Illegal capacity: " + capacity);
+        }
+
+        this.heap = new int[capacity];
+        this.priorities = new int[capacity];
+        this.positions = new int[capacity];
+        Arrays.fill(positions, ABSENT);
+    }
+
+    /**
+     * Добавляет элемент с заданным приоритетом.
+     * @param id идентификатор элемента
+     * @param priority приоритет, меньшие значения извлекаются раньше
+     * @throws IllegalArgumentException если {@code id < 0} или элемент уже в куче
+     */
+    public void push(int id, int priority) {
+        if (id < 0) {
+            throw new IllegalArgumentException("Illegal id: " + id);
+        }
+        if (id >= positions.length) {
+            grow(id + 1);
+        }
+        if (positions[id] != ABSENT) {
+            throw new IllegalArgumentException("Element " + id + " is already in the heap");
+        }
+
+        priorities[id] = priority;
+        heap[size] = id;
+        positions[id] = size;
+        siftUp(size++);
+    }
+
+    /**
+     * Извлекает элемент с наименьшим приоритетом.
+     * @return идентификатор извлечённого элемента
+     * @throws NoSuchElementException если куча пуста
+     */
+    public int pop() {
+        int top = peek();
+        removeAt(0);
+        return top;
+    }
+
+    /**
+     * Возвращает элемент с наименьшим приоритетом, не извлекая его.
+     * @return идентификатор элемента
+     * @throws NoSuchElementException если куча пуста
+     */
+    public int peek() {
+        if (size == 0) {
+            throw new NoSuchElementException("Heap is empty");
+        }
+        return heap[0];
+    }
+
+    /**
+     * Возвращает наименьший приоритет в куче.
+     * @return приоритет элемента {@link #peek()}
+     * @throws NoSuchElementException если куча пуста
+     */
+    public int peekPriority() {
+        return priorities[peek()];
+    }
+
+    /**
+     * Уменьшает приоритет элемента.
+     * @param id идентификатор элемента
+     * @param priority новый приоритет, не больше текущего
+     * @throws NoSuchElementException если элемента нет в куче
+     * @throws IllegalArgumentException если новый приоритет больше текущего
+     */
+    public void decreaseKey(int id, int priority) {
+        int position = positionOf(id);
+        if (priority > priorities[id]) {
+            throw new IllegalArgumentException("New priority " + priority + " is greater than current " + priorities[id]);
+        }
+
+        priorities[id] = priority;
+        siftUp(position);
+    }
+
+    /**
+     * Устанавливает элементу новый приоритет, больший или меньший текущего.
+     * @param id идентификатор элемента
+     * @param priority новый приоритет
+     * @throws NoSuchElementException если элемента нет в куче
+     */
+    public void update(int id, int priority) {
+        int position = positionOf(id);
+        int old = priorities[id];
+        priorities[id] = priority;
+
+        if (priority < old) {
+            siftUp(position);
+        }
+        else {
+            siftDown(position);
+        }
+    }
+
+    /**
+     * Удаляет элемент из кучи.
+     * @param id идентификатор элемента
+     * @return {@code true}, если элемент был в куче
+     */
+    public boolean remove(int id) {
+        if (!contains(id)) {
+            return false;
+        }
+        removeAt(positions[id]);
+        return true;
+    }
+
+    /**
+     * Проверяет, находится ли элемент в куче.
+     * @param id идентификатор элемента
+     * @return {@code true}, если элемент в куче
+     */
+    public boolean contains(int id) {
+        return id >= 0 && id < positions.length && positions[id] != ABSENT;
+    }
+
+    /**
+     * Возвращает приоритет элемента.
+     * @param id идентификатор элемента
+     * @return текущий приоритет
+     * @throws NoSuchElementException если элемента нет в куче
+     */
+    public int priorityOf(int id) {
+        positionOf(id);
+        return priorities[id];
+    }
+
+    /**
+     * Возвращает количество элементов в куче.
+     * @return количество элементов
+     */
+    public int getSize() {
+        return size;
+    }
+
+    /**
+     * Проверяет, пуста ли куча.
+     * @return {@code true}, если элементов нет
+     */
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * Удаляет все элементы за {@code O(size)}.
+     */
+    public void clear() {
+        for (int i = 0; i < size; i++) {
+            positions[heap[i]] = ABSENT;
+        }
+        size = 0;
+    }
+
+    private int positionOf(int id) {
+        if (!contains(id)) {
+            throw new NoSuchElementException("Element " + id + " is not in the heap");
+        }
+        return positions[id];
+    }
+
+    /**
+     * Удаляет элемент на позиции {@code i}, ставя на его место последний элемент кучи.
+     */
+    private void removeAt(int i) {
+        int removed = heap[i];
+        positions[removed] = ABSENT;
+        size--;
+
+        if (i == size) {
+            return;
+        }
+
+        int last = heap[size];
+        heap[i] = last;
+        positions[last] = i;
+
+        //последний элемент мог оказаться и меньше родителя, и больше детей
+        siftUp(i);
+        if (heap[i] == last) {
+            siftDown(i);
+        }
+    }
+
+    private void siftUp(int i) {
+        int id = heap[i];
+        int priority = priorities[id];
+
+        while (i > 0) {
+            int parent = (i - 1) / 2;
+            int parentId = heap[parent];
+            if (priorities[parentId] <= priority) {
+                break;
+            }
+            heap[i] = parentId;
+            positions[parentId] = i;
+            i = parent;
+        }
+
+        heap[i] = id;
+        positions[id] = i;
+    }
+
+    private void siftDown(int i) {
+        int id = heap[i];
+        int priority = priorities[id];
+
+        while (true) {
+            int child = 2 * i + 1;
+            if (child >= size) {
+                break;
+            }
+            if (child + 1 < size && priorities[heap[child + 1]] < priorities[heap[child]]) {
+                child++;
+            }
+
+            int childId = heap[child];
+            if (priorities[childId] >= priority) {
+                break;
+            }
+            heap[i] = childId;
+            positions[childId] = i;
+            i = child;
+        }
+
+        heap[i] = id;
+        positions[id] = i;
+    }
+
+    private void grow(int minCapacity) {
+        int oldCapacity = positions.length;
+        int newCapacity = Math.max(minCapacity, oldCapacity + (oldCapacity >> 1));
+
+        heap = Arrays.copyOf(heap, newCapacity);
+        priorities = Arrays.copyOf(priorities, newCapacity);
+        positions = Arrays.copyOf(positions, newCapacity);
+        Arrays.fill(positions, oldCapacity, newCapacity, ABSENT);
+    }
+}
@@ -0,0 +1,194 @@
+package ru.nsu.munkuev;
+
+import java.util.PrimitiveIterator;
+import java.util.function.IntConsumer;
+import java.util.stream.IntStream;
+
+/**
+ * Потоковый отбор {@code k} наибольших или {@code k} наименьших значений {@code int}.
+ * <p>
+ * Внутри хранится ограниченная max-куча из не более чем {@code k} элементов, которая
+ * поддерживается методом {@link HeapSort#heapify(int[], int, int, int)}. Для отбора наибольших
+ * значений в кучу кладётся побитовое отрицание {@code ~x}: оно меняет порядок на обратный без
+ * переполнения, поэтому та же max-куча работает как min-куча исходных значений.
+ * <p>
+ * Каждое новое значение обрабатывается за {@code O(log k)}, памяти требуется {@code O(k)}.
+ * Значения не упаковываются, после создания объект ничего не выделяет, кроме результата
+ * {@link #toSortedArray()}.
+ * <p>
+ * Класс не потокобезопасен. Параллельный {@link IntStream} можно передать в
+ * {@link #acceptAll(IntStream)}: он будет прочитан последовательно через итератор.
+ */
+public final class IntTopK implements IntConsumer {
+    private final boolean largest;
+    private final int[] heap;
+    private int size;
+
+    private IntTopK(int k, boolean largest) {
+        if (k < 1) {
+            throw new IllegalArgumentException("Illegal k: " + k);
+        }
+
+        this.largest = largest;
+        this.heap = new int[k];
+    }
+
+    /**
+     * Создаёт коллектор {@code k} наибольших значений.
+     * @param k количество отбираемых значений
+     * @return пустой коллектор
+     * @throws IllegalArgumentException если {@code k < 1}
+     */
+    public static IntTopK largest(int k) {
+        return new IntTopK(k, true);
+    }
+
+    /**
+     * Создаёт коллектор {@code k} наименьших значений.
+     * @param k количество отбираемых значений
+     * @return пустой коллектор
+     * @throws IllegalArgumentException если {@code k < 1}
+     */
+    public static IntTopK smallest(int k) {
+        return new IntTopK(k, false);
+    }
+
+    /**
+     * Учитывает одно значение.
+     * @param value значение
+     */
+    @Override
+    public void accept(int value) {
+        int encoded = encode(value);
+
+        if (size < heap.length) {
+            siftUp(size++, encoded);
+        }
+        //в корне лежит худшее из отобранных значений, заменяем его, только если новое лучше
+        else if (encoded < heap[0]) {
+            heap[0] = encoded;
+            HeapSort.heapify(heap, 0, size, 0);
+        }
+    }
+
+    /**
+     * Учитывает все значения массива.
+     * @param chunk массив значений
+     */
+    public void acceptAll(int[] chunk) {
+        acceptAll(chunk, 0, chunk.length);
+    }
+
+    /**
+     * Учитывает значения из диапазона {@code [from, to)} массива.
+     * @param chunk массив значений
+     * @param from индекс первого значения (включительно)
+     * @param to индекс последнего значения (невключительно)
+     * @throws IndexOutOfBoundsException если диапазон выходит за границы массива
+     */
+    public void acceptAll(int[] chunk, int from, int to) {
+        if (from < 0 || from > to || to > chunk.length) {
+            throw new IndexOutOfBoundsException("Range [" + from + ", " + to + ") out of bounds for length " + chunk.length);
+        }
+
+        for (int i = from; i < to; i++) {
+            accept(chunk[i]);
+        }
+    }
+
+    /**
+     * Учитывает все оставшиеся значения итератора.
+     * @param iterator итератор значений
+     */
+    public void acceptAll(PrimitiveIterator.OfInt iterator) {
+        while (iterator.hasNext()) {
+            accept(iterator.nextInt());
+        }
+    }
+
+    /**
+     * Учитывает все значения потока. Поток потребляется последовательно.
+     * @param stream поток значений
+     */
+    public void acceptAll(IntStream stream) {
+        acceptAll(stream.iterator());
+    }
+
+    /**
+     * Возвращает количество отбираемых значений {@code k}.
+     * @return {@code k}
+     */
+    public int getK() {
+        return heap.length;
+    }
+
+    /**
+     * Возвращает количество уже отобранных значений: {@code min(k, количество учтённых значений)}.
+     * @return количество отобранных значений
+     */
+    public int getSize() {
+        return size;
+    }
+
+    /**
+     * Возвращает худшее из отобранных значений: наименьшее для {@link #largest(int)}
+     * и наибольшее для {@link #smallest(int)}. Когда отобрано {@code k} значений, это
+     * k-я порядковая статистика просмотренных данных.
+     * @return худшее из отобранных значений
+     * @throws IllegalStateException если ещё не учтено ни одного значения
+     */
+    public int peek() {
+        if (size == 0) {
+            throw new IllegalStateException("No values accepted yet");
+        }
+        return encode(heap[0]);
+    }
+
+    /**
+     * Возвращает отобранные значения от лучшего к худшему: по убыванию для {@link #largest(int)}
+     * и по возрастанию для {@link #smallest(int)}. Состояние коллектора не меняется.
+     * @return новый массив длины {@link #getSize()}
+     */
+    public int[] toSortedArray() {
+        int[] result = new int[size];
+        System.arraycopy(heap, 0, result, 0, size);
+        HeapSort.sort(result);
+
+        //кодирование монотонно, так что после декодирования порядок остаётся от лучшего к худшему
+        if (largest) {
+            for (int i = 0; i < size; i++) {
+                result[i] = ~result[i];
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Удаляет все отобранные значения.
+     */
+    public void clear() {
+        size = 0;
+    }
+
+    /**
+     * Переводит значение во внутреннее представление и обратно (операция обратна сама себе).
+     */
+    private int encode(int value) {
+        return largest ? ~value : value;
+    }
+
+    /**
+     * Поднимает элемент {@code value}, поставленный на позицию {@code i}, к корню кучи.
+     */
+    private void siftUp(int i, int value) {
+        while (i > 0) {
+            int parent = (i - 1) / 2;
+            if (heap[parent] >= value) {
+                break;
+            }
+            heap[i] = heap[parent];
+            i = parent;
+        }
+        heap[i] = value;
+    }
+}
@@ -0,0 +1,218 @@
+package ru.nsu.munkuev;
+
+import java.util.Arrays;
+import java.util.NoSuchElementException;
+
+/**
+ * Приоритетная очередь из значений {@code long} на двоичной куче.
+ * <p>
+ * В отличие от {@code java.util.PriorityQueue<Long>}, значения хранятся в растущем массиве
+ * {@code long[]} без упаковки, и операции {@link #push(long)}, {@link #pop()} и {@link #replaceTop(long)}
+ * ничего не выделяют, пока не требуется расширить массив.
+ * <p>
+ * Куча бывает двух видов: {@link #minHeap()} отдаёт наименьшие значения первыми,
+ * {@link #maxHeap()} — наибольшие. Внутри всегда хранится max-куча, которая поддерживается
+ * методом {@link HeapSort#heapify(long[], int, int, int)}; для min-кучи в массив кладётся
+ * побитовое отрицание {@code ~x}, которое обращает порядок без переполнения.
+ * <p>
+ * Класс не потокобезопасен.
+ */
+public final class LongHeap {
+    private static final int DEFAULT_CAPACITY = 16;
+
+    private final boolean min;
+    private long[] heap;
+    private int size;
+
+    private LongHeap(boolean min, int initialCapacity) {
+        if (initialCapacity < 0) {
+            throw new IllegalArgumentException("Illegal initial capacity: " + initialCapacity);
+        }
+
+        this.min = min;
+        this.heap = new long[Math.max(initialCapacity, 1)];
+    }
+
+    /**
+     * Создаёт пустую кучу, в которой первым извлекается наименьшее значение.
+     * @return пустая min-куча
+     */
+    public static LongHeap minHeap() {
+        return new LongHeap(true, DEFAULT_CAPACITY);
+    }
+
+    /**
+     * Создаёт пустую min-кучу заданной начальной вместимости.
+     * @param initialCapacity начальная вместимость
+     * @return пустая min-куча
+     * @throws IllegalArgumentException если {@code initialCapacity < 0}
+     */
+    public static LongHeap minHeap(int initialCapacity) {
+        return new LongHeap(true, initialCapacity);
+    }
+
+    /**
+     * Создаёт пустую кучу, в которой первым извлекается наибольшее значение.
+     * @return пустая max-куча
+     */
+    public static LongHeap maxHeap() {
+        return new LongHeap(false, DEFAULT_CAPACITY);
+    }
+
+    /**
+     * Создаёт пустую max-кучу заданной начальной вместимости.
+     * @param initialCapacity начальная вместимость
+     * @return пустая max-куча
+     * @throws IllegalArgumentException если {@code initialCapacity < 0}
+     */
+    public static LongHeap maxHeap(int initialCapacity) {
+        return new LongHeap(false, initialCapacity);
+    }
+
+    /**
+     * Строит min-кучу из значений массива за {@code O(n)}. Массив копируется.
+     * @param values значения
+     * @return min-куча из всех значений
+     */
+    public static LongHeap minHeapOf(long... values) {
+        LongHeap result = new LongHeap(true, values.length);
+        result.pushAll(values);
+        return result;
+    }
+
+    /**
+     * Строит max-кучу из значений массива за {@code O(n)}. Массив копируется.
+     * @param values значения
+     * @return max-куча из всех значений
+     */
+    public static LongHeap maxHeapOf(long... values) {
+        LongHeap result = new LongHeap(false, values.length);
+        result.pushAll(values);
+        return result;
+    }
+
+    /**
+     * Добавляет значение за {@code O(log n)}.
+     * @param value значение
+     */
+    public void push(long value) {
+        if (size == heap.length) {
+            grow(size + 1);
+        }
+        siftUp(size++, encode(value));
+    }
+
+    /**
+     * Добавляет сразу все значения массива. Если куча пуста или добавляется больше значений,
+     * чем в ней уже есть, куча перестраивается целиком снизу вверх за {@code O(n)}, иначе
+     * значения добавляются по одному.
+     * @param values значения
+     */
+    public void pushAll(long[] values) {
+        if (values.length < size) {
+            for (long value : values) {
+                push(value);
+            }
+            return;
+        }
+
+        if (size + values.length > heap.length) {
+            grow(size + values.length);
+        }
+        for (long value : values) {
+            heap[size++] = encode(value);
+        }
+        for (int i = size / 2 - 1; i >= 0; i--) {
+            HeapSort.heapify(heap, 0, size, i);
+        }
+    }
+
+    /**
+     * Возвращает первое значение, не извлекая его.
+     * @return наименьшее значение для min-кучи и наибольшее для max-кучи
+     * @throws NoSuchElementException если куча пуста
+     */
+    public long peek() {
+        if (size == 0) {
+            throw new NoSuchElementException("Heap is empty");
+        }
+        return encode(heap[0]);
+    }
+
+    /**
+     * Извлекает первое значение за {@code O(log n)}.
+     * @return наименьшее значение для min-кучи и наибольшее для max-кучи
+     * @throws NoSuchElementException если куча пуста
+     */
+    public long pop() {
+        long top = peek();
+
+        heap[0] = heap[--size];
+        HeapSort.heapify(heap, 0, size, 0);
+
+        return top;
+    }
+
+    /**
+     * Заменяет первое значение на {@code value} и возвращает заменённое. Работает быстрее,
+     * чем {@link #pop()} и {@link #push(long)} по отдельности: выполняется одна просейка вниз.
+     * @param value новое значение
+     * @return заменённое первое значение
+     * @throws NoSuchElementException если куча пуста
+     */
+    public long replaceTop(long value) {
+        long top = peek();
+
+        heap[0] = encode(value);
+        HeapSort.heapify(heap, 0, size, 0);
+
+        return top;
+    }
+
+    /**
+     * Возвращает количество значений в куче.
+     * @return количество значений
+     */
+    public int getSize() {
+        return size;
+    }
+
+    /**
+     * Проверяет, пуста ли куча.
+     * @return {@code true}, если значений нет
+     */
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * Удаляет все значения. Массив не сжимается.
+     */
+    public void clear() {
+        size = 0;
+    }
+
+    /**
+     * Переводит значение во внутреннее представление и обратно (операция обратна сама себе).
+     */
+    private long encode(long value) {
+        return min ? ~value : value;
+    }
+
+    private void siftUp(int i, long value) {
+        while (i > 0) {
+            int parent = (i - 1) / 2;
+            if (heap[parent] >= value) {
+                break;
+            }
+            heap[i] = heap[parent];
+            i = parent;
+        }
+        heap[i] = value;
+    }
+
+    private void grow(int minCapacity) {
+        int newCapacity = Math.max(minCapacity, heap.length + (heap.length >> 1));
+        heap = Arrays.copyOf(heap, newCapacity);
+    }
+}
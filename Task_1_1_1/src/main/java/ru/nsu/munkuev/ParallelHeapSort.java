@@ -0,0 +1,227 @@
+package ru.nsu.munkuev;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Параллельная сортировка массива на {@link ForkJoinPool}.
+ * <p>
+ * Массив рекурсивно делится пополам, пока длина куска не станет не больше порога
+ * {@code threshold}. Каждый такой кусок сортируется пирамидальной сортировкой {@link HeapSort},
+ * после чего соседние куски попарно сливаются. Слияние тоже выполняется параллельно: большая
+ * из двух половин делится по середине, а соответствующая позиция во второй половине находится
+ * бинарным поиском.
+ * <p>
+ * Для слияния используется один вспомогательный массив длины {@code arr.length}. Результаты
+ * уровней рекурсии попеременно пишутся то в исходный, то во вспомогательный массив, поэтому
+ * лишних копирований между уровнями нет.
+ * <p>
+ * Если массив не длиннее порога или у пула всего один поток, сортировка выполняется
+ * последовательно обычным {@link HeapSort#sort(int[])}.
+ */
+public final class ParallelHeapSort {
+    /**
+     * Порог по умолчанию: куски не длиннее него сортируются последовательно.
+     */
+    public static final int DEFAULT_THRESHOLD = 1 << 13;
+
+    private ParallelHeapSort() {
+        throw new UnsupportedOperationException("This class can not be instantiated");
+    }
+
+    /**
+     * Сортирует массив в общем пуле {@link ForkJoinPool#commonPool()} с порогом по умолчанию.
+     *
+     * @param arr исходный массив
+     */
+    public static void sort(int[] arr) {
+        sort(arr, DEFAULT_THRESHOLD);
+    }
+
+    /**
+     * Сортирует массив в общем пуле {@link ForkJoinPool#commonPool()}.
+     *
+     * @param arr исходный массив
+     * @param threshold максимальная длина куска, который сортируется последовательно
+     * @throws IllegalArgumentException если {@code threshold < 1}
+     */
+    public static void sort(int[] arr, int threshold) {
+        sort(arr, threshold, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Сортирует массив в заданном пуле потоков.
+     *
+     * @param arr исходный массив
+     * @param threshold максимальная длина куска, который сортируется последовательно
+     * @param pool пул, в котором выполняются задачи сортировки и слияния
+     * @throws IllegalArgumentException если {@code threshold < 1}
+     */
+    public static void sort(int[] arr, int threshold, ForkJoinPool pool) {
+        if (threshold < 1) {
+            throw new IllegalArgumentException("Illegal threshold: " + threshold);
+        }
+
+        int n = arr.length;
+        if (n <= threshold || pool.getParallelism() == 1) {
+            HeapSort.sort(arr);
+            return;
+        }
+
+        int[] buffer = new int[n];
+        pool.invoke(new SortTask(arr, buffer, 0, n, false, threshold));
+    }
+
+
+    /**
+     * Задача сортировки диапазона {@code [from, to)}. Результат оказывается в {@code arr},
+     * если {@code toBuffer == false}, и в {@code buffer} иначе.
+     */
+    @SuppressWarnings("serial")
+    private static final class SortTask extends RecursiveAction {
+        private final int[] arr;
+        private final int[] buffer;
+        private final int from;
+        private final int to;
+        private final boolean toBuffer;
+        private final int threshold;
+
+        SortTask(int[] arr, int[] buffer, int from, int to, boolean toBuffer, int threshold) {
+            this.arr = arr;
+            this.buffer = buffer;
+            this.from = from;
+            this.to = to;
+            this.toBuffer = toBuffer;
+            this.threshold = threshold;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= threshold) {
+                HeapSort.sort(arr, from, to);
+                if (toBuffer) {
+                    System.arraycopy(arr, from, buffer, from, to - from);
+                }
+                return;
+            }
+
+            int mid = (from + to) >>> 1;
+
+            //половины сортируются в противоположный массив, а сливаются в целевой
+            invokeAll(new SortTask(arr, buffer, from, mid, !toBuffer, threshold),
+                      new SortTask(arr, buffer, mid, to, !toBuffer, threshold));
+
+            int[] src = toBuffer ? arr : buffer;
+            int[] dst = toBuffer ? buffer : arr;
+            new MergeTask(src, dst, from, mid, mid, to, from, threshold).compute();
+        }
+    }
+
+
+    /**
+     * Задача слияния отсортированных диапазонов {@code src[lo1, hi1)} и {@code src[lo2, hi2)}
+     * в {@code dst}, начиная с позиции {@code dstFrom}.
+     */
+    @SuppressWarnings("serial")
+    private static final class MergeTask extends RecursiveAction {
+        private final int[] src;
+        private final int[] dst;
+        private final int lo1;
+        private final int hi1;
+        private final int lo2;
+        private final int hi2;
+        private final int dstFrom;
+        private final int threshold;
+
+        MergeTask(int[] src, int[] dst, int lo1, int hi1, int lo2, int hi2, int dstFrom, int threshold) {
+            this.src = src;
+            this.dst = dst;
+            this.lo1 = lo1;
+            this.hi1 = hi1;
+            this.lo2 = lo2;
+            this.hi2 = hi2;
+            this.dstFrom = dstFrom;
+            this.threshold = threshold;
+        }
+
+        @Override
+        protected void compute() {
+            int n1 = hi1 - lo1;
+            int n2 = hi2 - lo2;
+
+            //при длине меньше трёх деление по середине может не уменьшить задачу
+            if (n1 + n2 <= threshold || n1 + n2 < 3) {
+                merge();
+                return;
+            }
+
+            //делим большую половину по середине, а меньшую по найденной бинарным поиском позиции
+            int split1;
+            int split2;
+            if (n1 >= n2) {
+                split1 = (lo1 + hi1) >>> 1;
+                split2 = lowerBound(src, lo2, hi2, src[split1]);
+            }
+            else {
+                split2 = (lo2 + hi2) >>> 1;
+                split1 = upperBound(src, lo1, hi1, src[split2]);
+            }
+
+            int dstSplit = dstFrom + (split1 - lo1) + (split2 - lo2);
+            invokeAll(new MergeTask(src, dst, lo1, split1, lo2, split2, dstFrom, threshold),
+                      new MergeTask(src, dst, split1, hi1, split2, hi2, dstSplit, threshold));
+        }
+
+        /**
+         * Последовательное слияние двух диапазонов.
+         */
+        private void merge() {
+            int i = lo1;
+            int j = lo2;
+            int k = dstFrom;
+
+            while (i < hi1 && j < hi2) {
+                dst[k++] = src[i] <= src[j] ? src[i++] : src[j++];
+            }
+            if (i < hi1) {
+                System.arraycopy(src, i, dst, k, hi1 - i);
+            }
+            else if (j < hi2) {
+                System.arraycopy(src, j, dst, k, hi2 - j);
+            }
+        }
+    }
+
+
+    /**
+     * Возвращает первый индекс в {@code [from, to)}, элемент по которому не меньше {@code key}.
+     */
+    private static int lowerBound(int[] arr, int from, int to, int key) {
+        while (from < to) {
+            int mid = (from + to) >>> 1;
+            if (arr[mid] < key) {
+                from = mid + 1;
+            }
+            else {
+                to = mid;
+            }
+        }
+        return from;
+    }
+
+    /**
+     * Возвращает первый индекс в {@code [from, to)}, элемент по которому больше {@code key}.
+     */
+    private static int upperBound(int[] arr, int from, int to, int key) {
+        while (from < to) {
+            int mid = (from + to) >>> 1;
+            if (arr[mid] <= key) {
+                from = mid + 1;
+            }
+            else {
+                to = mid;
+            }
+        }
+        return from;
+    }
+}
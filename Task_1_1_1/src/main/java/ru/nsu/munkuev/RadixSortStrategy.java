@@ -0,0 +1,26 @@
+package ru.nsu.munkuev;
+
+/**
+ * Алгоритм, которым {@link RadixSorter} сортирует массив.
+ */
+public enum RadixSortStrategy {
+    /**
+     * Выбрать алгоритм по длине массива и диапазону значений.
+     */
+    AUTO,
+
+    /**
+     * Сортировка подсчётом: {@code O(n + (max - min))} времени, массив счётчиков на весь диапазон.
+     */
+    COUNTING,
+
+    /**
+     * Поразрядная LSD-сортировка по байтам: по проходу на каждый значащий байт {@code max - min}.
+     */
+    RADIX,
+
+    /**
+     * Сортировка сравнениями: {@link HybridSort} для {@code int[]} и {@link HeapSort} для {@code long[]}.
+     */
+    COMPARISON
+}
@@ -0,0 +1,366 @@
+package ru.nsu.munkuev;
+
+import java.util.Arrays;
+import java.util.Objects;
+
+/**
+ * Сортировка целых чисел без сравнений: подсчётом или поразрядная (LSD radix sort).
+ * <p>
+ * Для данных из ограниченного диапазона (коды статусов, номера корзин, небольшие счётчики)
+ * такие сортировки на порядок быстрее {@link HeapSort#sort(int[])}. В режиме
+ * {@link RadixSortStrategy#AUTO} сортировщик за один проход находит минимум и максимум
+ * диапазона и по ним выбирает алгоритм:
+ * <ul>
+ *     <li>короткие массивы сортируются сравнениями;</li>
+ *     <li>если {@code max - min} не больше длины массива (и не больше {@value #MAX_COUNTING_RANGE}),
+ *         используется сортировка подсчётом;</li>
+ *     <li>иначе используется поразрядная сортировка по байтам значения {@code x - min}. Проходы
+ *         по байтам, одинаковым у всех элементов, пропускаются, поэтому узкий диапазон сортируется
+ *         за один-два прохода.</li>
+ * </ul>
+ * Точные минимум и максимум дешевле выборочной оценки: сортировке подсчётом всё равно нужны
+ * точные границы, а проход по массиву в разы быстрее любой сортировки.
+ * <p>
+ * Вспомогательные буферы (копия массива для поразрядной сортировки и массив счётчиков) хранятся
+ * в объекте и переиспользуются между вызовами, поэтому повторные сортировки массивов того же
+ * или меньшего размера ничего не выделяют. Из-за этого объект не потокобезопасен: каждому
+ * потоку нужен свой экземпляр.
+ */
+public final class RadixSorter {
+    /**
+     * Массивы короче этого порога в режиме {@link RadixSortStrategy#AUTO} сортируются сравнениями.
+     */
+    static final int COMPARISON_THRESHOLD = 64;
+
+    /**
+     * Максимальная длина диапазона, для которой выбирается сортировка подсчётом.
+     */
+    static final int MAX_COUNTING_RANGE = 1 << 20;
+
+    private static final int RADIX_BITS = 8;
+    private static final int RADIX = 1 << RADIX_BITS;
+    private static final int MASK = RADIX - 1;
+
+    private int[] intScratch = new int[0];
+    private long[] longScratch = new long[0];
+    private int[] counts = new int[0];
+    private final int[] histograms = new int[Long.BYTES * RADIX];
+
+    /**
+     * Сортирует массив, выбирая алгоритм автоматически.
+     * @param arr исходный массив
+     */
+    public void sort(int[] arr) {
+        sort(arr, 0, arr.length, RadixSortStrategy.AUTO);
+    }
+
+    /**
+     * Сортирует диапазон {@code [from, to)} массива заданным алгоритмом.
+     * @param arr исходный массив
+     * @param from индекс первого элемента диапазона (включительно)
+     * @param to индекс последнего элемента диапазона (невключительно)
+     * @param strategy алгоритм сортировки
+     * @throws IllegalArgumentException если {@code from > to} или для {@link RadixSortStrategy#COUNTING}
+     * диапазон значений длиннее {@code Integer.MAX_VALUE - 8}
+     * @throws ArrayIndexOutOfBoundsException если {@code from < 0} или {@code to > arr.length}
+     */
+    public void sort(int[] arr, int from, int to, RadixSortStrategy strategy) {
+        Objects.requireNonNull(strategy, "strategy");
+        rangeCheck(arr.length, from, to);
+        int n = to - from;
+        if (n < 2) {
+            return;
+        }
+
+        if (strategy == RadixSortStrategy.COMPARISON
+                || (strategy == RadixSortStrategy.AUTO && n < COMPARISON_THRESHOLD)) {
+            HybridSort.sort(arr, from, to);
+            return;
+        }
+
+        int min = arr[from];
+        int max = arr[from];
+        for (int i = from + 1; i < to; i++) {
+            int value = arr[i];
+            if (value < min) {
+                min = value;
+            }
+            else if (value > max) {
+                max = value;
+            }
+        }
+
+        //разность в long, чтобы не переполниться на всём диапазоне int
+        long span = (long) max - min;
+        if (strategy == RadixSortStrategy.AUTO) {
+            strategy = span <= Math.min(n, MAX_COUNTING_RANGE) ? RadixSortStrategy.COUNTING : RadixSortStrategy.RADIX;
+        }
+
+        if (strategy == RadixSortStrategy.COUNTING) {
+            countingSort(arr, from, to, min, span);
+        }
+        else {
+            radixSort(arr, from, to, min, span);
+        }
+    }
+
+    /**
+     * Сортирует массив, выбирая алгоритм автоматически.
+     * @param arr исходный массив
+     */
+    public void sort(long[] arr) {
+        sort(arr, 0, arr.length, RadixSortStrategy.AUTO);
+    }
+
+    /**
+     * Сортирует диапазон {@code [from, to)} массива заданным алгоритмом.
+     * @param arr исходный массив
+     * @param from индекс первого элемента диапазона (включительно)
+     * @param to индекс последнего элемента диапазона (невключительно)
+     * @param strategy алгоритм сортировки
+     * @throws IllegalArgumentException если {@code from > to} или для {@link RadixSortStrategy#COUNTING}
+     * диапазон значений длиннее {@code Integer.MAX_VALUE - 8}
+     * @throws ArrayIndexOutOfBoundsException если {@code from < 0} или {@code to > arr.length}
+     */
+    public void sort(long[] arr, int from, int to, RadixSortStrategy strategy) {
+        Objects.requireNonNull(strategy, "strategy");
+        rangeCheck(arr.length, from, to);
+        int n = to - from;
+        if (n < 2) {
+            return;
+        }
+
+        if (strategy == RadixSortStrategy.COMPARISON
+                || (strategy == RadixSortStrategy.AUTO && n < COMPARISON_THRESHOLD)) {
+            HeapSort.sort(arr, from, to);
+            return;
+        }
+
+        long min = arr[from];
+        long max = arr[from];
+        for (int i = from + 1; i < to; i++) {
+            long value = arr[i];
+            if (value < min) {
+                min = value;
+            }
+            else if (value > max) {
+                max = value;
+            }
+        }
+
+        //max - min как беззнаковое число всегда точно, даже если знаковая разность переполнилась
+        long span = max - min;
+        if (strategy == RadixSortStrategy.AUTO) {
+            boolean fitsCounting = Long.compareUnsigned(span, Math.min(n, MAX_COUNTING_RANGE)) <= 0;
+            strategy = fitsCounting ? RadixSortStrategy.COUNTING : RadixSortStrategy.RADIX;
+        }
+
+        if (strategy == RadixSortStrategy.COUNTING) {
+            countingSort(arr, from, to, min, span);
+        }
+        else {
+            radixSort(arr, from, to, min, span);
+        }
+    }
+
+    private void countingSort(int[] arr, int from, int to, int min, long span) {
+        int[] count = counts(span);
+        int range = (int) span + 1;
+
+        for (int i = from; i < to; i++) {
+            count[arr[i] - min]++;
+        }
+
+        int k = from;
+        for (int v = 0; v < range; v++) {
+            int c = count[v];
+            if (c != 0) {
+                Arrays.fill(arr, k, k + c, min + v);
+                k += c;
+            }
+        }
+    }
+
+    private void countingSort(long[] arr, int from, int to, long min, long span) {
+        int[] count = counts(span);
+        int range = (int) span + 1;
+
+        for (int i = from; i < to; i++) {
+            count[(int) (arr[i] - min)]++;
+        }
+
+        int k = from;
+        for (int v = 0; v < range; v++) {
+            int c = count[v];
+            if (c != 0) {
+                Arrays.fill(arr, k, k + c, min + v);
+                k += c;
+            }
+        }
+    }
+
+    /**
+     * Возвращает обнулённый массив счётчиков длины не меньше {@code span + 1}.
+     */
+    private int[] counts(long span) {
+        if (Long.compareUnsigned(span, Integer.MAX_VALUE - 9) > 0) {
+            throw new IllegalArgumentException("Value range is too wide for counting sort: " + Long.toUnsignedString(span));
+        }
+
+        int range = (int) span + 1;
+        if (counts.length < range) {
+            counts = new int[range];
+        }
+        else {
+            Arrays.fill(counts, 0, range, 0);
+        }
+        return counts;
+    }
+
+    /**
+     * LSD-сортировка по байтам ключа {@code x - min} (как беззнакового числа). Гистограммы всех
+     * байтов строятся за один проход, затем каждый байт, который различается у элементов,
+     * даёт один устойчивый проход распределения между массивом и буфером.
+     */
+    private void radixSort(int[] arr, int from, int to, int min, long span) {
+        int n = to - from;
+        int passes = bytesOf(span);
+        if (intScratch.length < n) {
+            intScratch = new int[n];
+        }
+
+        Arrays.fill(histograms, 0, passes * RADIX, 0);
+        for (int i = from; i < to; i++) {
+            int key = arr[i] - min;
+            for (int p = 0; p < passes; p++) {
+                histograms[p * RADIX + ((key >>> (p * RADIX_BITS)) & MASK)]++;
+            }
+        }
+
+        int[] src = arr;
+        int srcFrom = from;
+        int[] dst = intScratch;
+        int dstFrom = 0;
+
+        for (int p = 0; p < passes; p++) {
+            int base = p * RADIX;
+            if (isSingleBucket(base, n)) {
+                continue;
+            }
+
+            //счётчики превращаются в позиции начала каждой корзины
+            int position = dstFrom;
+            for (int b = 0; b < RADIX; b++) {
+                int c = histograms[base + b];
+                histograms[base + b] = position;
+                position += c;
+            }
+
+            int shift = p * RADIX_BITS;
+            for (int i = srcFrom; i < srcFrom + n; i++) {
+                int value = src[i];
+                dst[histograms[base + (((value - min) >>> shift) & MASK)]++] = value;
+            }
+
+            int[] tempArr = src;
+            src = dst;
+            dst = tempArr;
+            int tempFrom = srcFrom;
+            srcFrom = dstFrom;
+            dstFrom = tempFrom;
+        }
+
+        if (src != arr) {
+            System.arraycopy(src, srcFrom, arr, from, n);
+        }
+    }
+
+    /**
+     * Аналог {@link #radixSort(int[], int, int, int, long)} для {@code long[]}.
+     */
+    private void radixSort(long[] arr, int from, int to, long min, long span) {
+        int n = to - from;
+        int passes = bytesOf(span);
+        if (longScratch.length < n) {
+            longScratch = new long[n];
+        }
+
+        Arrays.fill(histograms, 0, passes * RADIX, 0);
+        for (int i = from; i < to; i++) {
+            long key = arr[i] - min;
+            for (int p = 0; p < passes; p++) {
+                histograms[p * RADIX + (int) ((key >>> (p * RADIX_BITS)) & MASK)]++;
+            }
+        }
+
+        long[] src = arr;
+        int srcFrom = from;
+        long[] dst = longScratch;
+        int dstFrom = 0;
+
+        for (int p = 0; p < passes; p++) {
+            int base = p * RADIX;
+            if (isSingleBucket(base, n)) {
+                continue;
+            }
+
+            int position = dstFrom;
+            for (int b = 0; b < RADIX; b++) {
+                int c = histograms[base + b];
+                histograms[base + b] = position;
+                position += c;
+            }
+
+            int shift = p * RADIX_BITS;
+            for (int i = srcFrom; i < srcFrom + n; i++) {
+                long value = src[i];
+                dst[histograms[base + (int) (((value - min) >>> shift) & MASK)]++] = value;
+            }
+
+            long[] tempArr = src;
+            src = dst;
+            dst = tempArr;
+            int tempFrom = srcFrom;
+            srcFrom = dstFrom;
+            dstFrom = tempFrom;
+        }
+
+        if (src != arr) {
+            System.arraycopy(src, srcFrom, arr, from, n);
+        }
+    }
+
+    /**
+     * Проверяет, попали ли все {@code n} элементов в одну корзину гистограммы: тогда проход
+     * по этому байту ничего не меняет.
+     */
+    private boolean isSingleBucket(int base, int n) {
+        for (int b = 0; b < RADIX; b++) {
+            int c = histograms[base + b];
+            if (c != 0) {
+                return c == n;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Количество значащих байтов беззнакового числа, но не меньше одного.
+     */
+    private static int bytesOf(long span) {
+        int bits = Long.SIZE - Long.numberOfLeadingZeros(span);
+        return Math.max(1, (bits + RADIX_BITS - 1) / RADIX_BITS);
+    }
+
+    private static void rangeCheck(int length, int from, int to) {
+        if (from > to) {
+            throw new IllegalArgumentException("from(" + from + ") > to(" + to + ")");
+        }
+        if (from < 0) {
+            throw new ArrayIndexOutOfBoundsException(from);
+        }
+        if (to > length) {
+            throw new ArrayIndexOutOfBoundsException(to);
+        }
+    }
+}
@@ -0,0 +1,84 @@
+package ru.nsu.munkuev;
+
+import java.util.Objects;
+
+/**
+ * Обмен двух элементов по индексам. Используется в
+ * {@link HeapSort#sortWith(int[], Swapper)} и {@link HeapSort#sortWith(long[], Swapper)},
+ * чтобы переставлять параллельные массивы (идентификаторы, полезную нагрузку)
+ * синхронно с массивом ключей.
+ */
+@FunctionalInterface
+public interface Swapper {
+    /**
+     * Меняет местами элементы с индексами {@code i} и {@code j}.
+     * @param i индекс первого элемента
+     * @param j индекс второго элемента
+     */
+    void swap(int i, int j);
+
+    /**
+     * Возвращает обмен, который сначала выполняет этот обмен, а затем {@code after}.
+     * @param after следующий обмен
+     * @return составной обмен
+     */
+    default Swapper andThen(Swapper after) {
+        Objects.requireNonNull(after, "after");
+        return (i, j) -> {
+            swap(i, j);
+            after.swap(i, j);
+        };
+    }
+
+    /**
+     * Обмен элементов массива {@code int[]}.
+     * @param arr массив
+     * @return обмен элементов массива
+     */
+    static Swapper of(int[] arr) {
+        return (i, j) -> {
+            int temp = arr[i];
+            arr[i] = arr[j];
+            arr[j] = temp;
+        };
+    }
+
+    /**
+     * Обмен элементов массива {@code long[]}.
+     * @param arr массив
+     * @return обмен элементов массива
+     */
+    static Swapper of(long[] arr) {
+        return (i, j) -> {
+            long temp = arr[i];
+            arr[i] = arr[j];
+            arr[j] = temp;
+        };
+    }
+
+    /**
+     * Обмен элементов массива {@code double[]}.
+     * @param arr массив
+     * @return обмен элементов массива
+     */
+    static Swapper of(double[] arr) {
+        return (i, j) -> {
+            double temp = arr[i];
+            arr[i] = arr[j];
+            arr[j] = temp;
+        };
+    }
+
+    /**
+     * Обмен элементов массива объектов.
+     * @param arr массив
+     * @return обмен элементов массива
+     */
+    static Swapper of(Object[] arr) {
+        return (i, j) -> {
+            Object temp = arr[i];
+            arr[i] = arr[j];
+            arr[j] = temp;
+        };
+    }
+}
@@ -0,0 +1,81 @@
+package ru.nsu.munkuev;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.IntBuffer;
+import java.nio.LongBuffer;
+import java.nio.ReadOnlyBufferException;
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class BufferHeapSortTest {
+
+    @Test
+    void checkIntBufferBetweenPositionAndLimit() {
+        IntBuffer buffer = IntBuffer.wrap(new int[] {9, 54, 12, 45, 31, 123, 34, 8, 0});
+        buffer.position(1).limit(8);
+
+        BufferHeapSort.sort(buffer);
+
+        assertEquals(1, buffer.position());
+        assertEquals(8, buffer.limit());
+        assertArrayEquals(new int[] {9, 8, 12, 31, 34, 45, 54, 123, 0}, buffer.array());
+    }
+
+    @Test
+    void checkDirectIntColumn() {
+        Random random = new Random(17);
+        int n = 10_000;
+        int[] expected = new int[n];
+        ByteBuffer column = ByteBuffer.allocateDirect(n * Integer.BYTES).order(ByteOrder.LITTLE_ENDIAN);
+        for (int i = 0; i < n; i++) {
+            expected[i] = random.nextInt();
+            column.putInt(i * Integer.BYTES, expected[i]);
+        }
+        Arrays.sort(expected);
+
+        BufferHeapSort.sortInts(column, 0, n);
+
+        for (int i = 0; i < n; i++) {
+            assertEquals(expected[i], column.getInt(i * Integer.BYTES));
+        }
+        assertEquals(0, column.position());
+    }
+
+    @Test
+    void checkDirectLongColumnRange() {
+        ByteBuffer column = ByteBuffer.allocateDirect(5 * Long.BYTES);
+        long[] values = {7L, 5_000_000_000L, -3L, Long.MIN_VALUE, 1L};
+        for (int i = 0; i < values.length; i++) {
+            column.putLong(i * Long.BYTES, values[i]);
+        }
+
+        BufferHeapSort.sortLongs(column, 1, 4);
+
+        long[] actual = new long[values.length];
+        for (int i = 0; i < values.length; i++) {
+            actual[i] = column.getLong(i * Long.BYTES);
+        }
+        assertArrayEquals(new long[] {7L, Long.MIN_VALUE, -3L, 5_000_000_000L, 1L}, actual);
+    }
+
+    @Test
+    void checkLongBuffer() {
+        LongBuffer buffer = LongBuffer.wrap(new long[] {3L, -1L, 2L, 2L});
+        BufferHeapSort.sort(buffer);
+        assertArrayEquals(new long[] {-1L, 2L, 2L, 3L}, buffer.array());
+    }
+
+    @Test
+    void checkIllegalArguments() {
+        IntBuffer buffer = IntBuffer.wrap(new int[] {2, 1});
+        assertThrows(IndexOutOfBoundsException.class, () -> BufferHeapSort.sort(buffer, 0, 3));
+        assertThrows(ReadOnlyBufferException.class, () -> BufferHeapSort.sort(buffer.asReadOnlyBuffer()));
+    }
+}
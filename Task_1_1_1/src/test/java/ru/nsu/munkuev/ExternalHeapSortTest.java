@@ -0,0 +1,114 @@
+package ru.nsu.munkuev;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Random;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class ExternalHeapSortTest {
+
+    @TempDir
+    Path dir;
+
+    private static void writeInts(Path file, int[] values) throws IOException {
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(file)))) {
+            for (int value : values) {
+                out.writeInt(value);
+            }
+        }
+    }
+
+    private static int[] readInts(Path file) throws IOException {
+        int[] values = new int[(int) (Files.size(file) / Integer.BYTES)];
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(file)))) {
+            for (int i = 0; i < values.length; i++) {
+                values[i] = in.readInt();
+            }
+        }
+        return values;
+    }
+
+    private static int[] randomArr(int n, long seed) {
+        Random random = new Random(seed);
+        int[] arr = new int[n];
+        for (int i = 0; i < n; i++) {
+            arr[i] = random.nextInt();
+        }
+        return arr;
+    }
+
+    @Test
+    void checkSingleRun() throws IOException {
+        Path input = dir.resolve("input.bin");
+        Path output = dir.resolve("output.bin");
+        writeInts(input, new int[] {54, 12, 45, 31, 123, 34, 8});
+
+        ExternalHeapSort.sort(input, output);
+
+        assertArrayEquals(new int[] {8, 12, 31, 34, 45, 54, 123}, readInts(output));
+    }
+
+    @Test
+    void checkManyRunsAreMergedAndRemoved() throws IOException {
+        Path input = dir.resolve("input.bin");
+        Path output = dir.resolve("output.bin");
+        Path temp = Files.createDirectory(dir.resolve("runs"));
+        int[] values = randomArr(10_007, 3);
+        writeInts(input, values);
+
+        ExternalHeapSort.sort(input, output, 1000, temp);
+
+        int[] expected = values.clone();
+        Arrays.sort(expected);
+        assertArrayEquals(expected, readInts(output));
+        try (Stream<Path> left = Files.list(temp)) {
+            assertEquals(0, left.count());
+        }
+    }
+
+    @Test
+    void checkOutputIsTruncated() throws IOException {
+        Path input = dir.resolve("input.bin");
+        Path output = dir.resolve("output.bin");
+        writeInts(output, randomArr(100, 4));
+        writeInts(input, new int[] {3, 1, 2, 1});
+
+        ExternalHeapSort.sort(input, output, 2, dir);
+
+        assertArrayEquals(new int[] {1, 1, 2, 3}, readInts(output));
+    }
+
+    @Test
+    void checkEmptyFile() throws IOException {
+        Path input = dir.resolve("input.bin");
+        Path output = dir.resolve("output.bin");
+        writeInts(input, new int[] {});
+
+        ExternalHeapSort.sort(input, output, 4, dir);
+
+        assertEquals(0, Files.size(output));
+    }
+
+    @Test
+    void checkIllegalArguments() throws IOException {
+        Path input = dir.resolve("input.bin");
+        Path output = dir.resolve("output.bin");
+        Files.write(input, new byte[] {1, 2, 3});
+
+        assertThrows(IOException.class, () -> ExternalHeapSort.sort(input, output));
+        assertThrows(IllegalArgumentException.class, () -> ExternalHeapSort.sort(input, output, 0, dir));
+    }
+}
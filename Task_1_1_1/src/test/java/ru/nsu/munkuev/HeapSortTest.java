@@ -2,6 +2,10 @@ package ru.nsu.munkuev;
 
 import org.junit.jupiter.api.Test;
 
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Random;
+
 import static org.junit.jupiter.api.Assertions.*;
 
 class SampleTest {
@@ -47,4 +51,190 @@ class SampleTest {
         HeapSort.sort(arr);
         assertArrayEquals(new int[] {1,2,3,4,5,6,7,8}, arr);
     }
-}
\ No newline at end of file
+
+    @Test
+    void checkRangeSortLeavesOtherElements(){
+        int[] arr = {9, 5, 4, 3, 2, 1, 0};
+        HeapSort.sort(arr, 1, 5);
+        assertArrayEquals(new int[] {9, 2, 3, 4, 5, 1, 0}, arr);
+    }
+
+    @Test
+    void checkIllegalRange(){
+        int[] arr = {3, 2, 1};
+        assertThrows(IllegalArgumentException.class, () -> HeapSort.sort(arr, 2, 1));
+        assertThrows(ArrayIndexOutOfBoundsException.class, () -> HeapSort.sort(arr, -1, 2));
+        assertThrows(ArrayIndexOutOfBoundsException.class, () -> HeapSort.sort(arr, 0, 4));
+    }
+
+    @Test
+    void checkLongArr(){
+        long[] arr = {5_000_000_000L, -1L, Long.MAX_VALUE, 0L, Long.MIN_VALUE};
+        HeapSort.sort(arr);
+        assertArrayEquals(new long[] {Long.MIN_VALUE, -1L, 0L, 5_000_000_000L, Long.MAX_VALUE}, arr);
+    }
+
+    @Test
+    void checkDoubleArrWithSpecialValues(){
+        double[] arr = {Double.NaN, 1.5, 0.0, -0.0, Double.NEGATIVE_INFINITY, -2.5};
+        HeapSort.sort(arr);
+        assertArrayEquals(new double[] {Double.NEGATIVE_INFINITY, -2.5, -0.0, 0.0, 1.5, Double.NaN}, arr);
+    }
+
+    @Test
+    void checkShortCharByteArrs(){
+        short[] shorts = {3, -7, 120, 0};
+        HeapSort.sort(shorts);
+        assertArrayEquals(new short[] {-7, 0, 3, 120}, shorts);
+
+        char[] chars = {'d', 'a', 'c', 'b'};
+        HeapSort.sort(chars);
+        assertArrayEquals(new char[] {'a', 'b', 'c', 'd'}, chars);
+
+        byte[] bytes = {5, -128, 127, 0, 5};
+        HeapSort.sort(bytes, 1, 4);
+        assertArrayEquals(new byte[] {5, -128, 0, 127, 5}, bytes);
+    }
+
+    @Test
+    void checkObjectArrWithComparator(){
+        String[] arr = {"pear", "fig", "banana", "kiwi"};
+        HeapSort.sort(arr, Comparator.comparing(String::length).thenComparing(Comparator.naturalOrder()));
+        assertArrayEquals(new String[] {"fig", "kiwi", "pear", "banana"}, arr);
+
+        Integer[] numbers = {1, 4, 2, 3};
+        HeapSort.sort(numbers, Comparator.reverseOrder());
+        assertArrayEquals(new Integer[] {4, 3, 2, 1}, numbers);
+    }
+
+    @Test
+    void checkObjectArrWithNullComparator(){
+        String[] arr = {"b", "a"};
+        assertThrows(NullPointerException.class, () -> HeapSort.sort(arr, null));
+    }
+
+    @Test
+    void checkDaryHeapsWithBothVariants(){
+        Random random = new Random(42);
+        for (int n : new int[] {0, 1, 2, 3, 10, 257, 5000}) {
+            int[] source = new int[n];
+            for (int i = 0; i < n; i++) {
+                source[i] = random.nextInt(n / 2 + 1) - n / 4;
+            }
+            int[] expected = source.clone();
+            Arrays.sort(expected);
+
+            for (int arity : new int[] {2, 3, 4, 8}) {
+                for (HeapSortVariant variant : HeapSortVariant.values()) {
+                    int[] arr = source.clone();
+                    HeapSort.sort(arr, new HeapSortOptions(arity, variant));
+                    assertArrayEquals(expected, arr);
+                }
+            }
+        }
+    }
+
+    @Test
+    void checkLargeAritySort(){
+        //индекс первого ребёнка d * i + 1 не помещается в int
+        for (HeapSortVariant variant : HeapSortVariant.values()) {
+            int[] small = {1, 3, 2};
+            HeapSort.sort(small, new HeapSortOptions(Integer.MAX_VALUE, variant));
+            assertArrayEquals(new int[] {1, 2, 3}, small);
+
+            Random random = new Random(11);
+            int[] arr = new int[5000];
+            for (int i = 0; i < arr.length; i++) {
+                arr[i] = random.nextInt();
+            }
+            int[] expected = arr.clone();
+            Arrays.sort(expected);
+
+            HeapSort.sort(arr, new HeapSortOptions(1 << 20, variant));
+            assertArrayEquals(expected, arr);
+        }
+    }
+
+    @Test
+    void checkOptionsRangeSort(){
+        int[] arr = {9, 5, 4, 3, 2, 1, 0};
+        HeapSort.sort(arr, 1, 5, new HeapSortOptions(4, HeapSortVariant.BOTTOM_UP));
+        assertArrayEquals(new int[] {9, 2, 3, 4, 5, 1, 0}, arr);
+    }
+
+    @Test
+    void checkIllegalOptions(){
+        assertThrows(IllegalArgumentException.class, () -> new HeapSortOptions(1, HeapSortVariant.CLASSIC));
+        assertThrows(NullPointerException.class, () -> new HeapSortOptions(2, null));
+        assertThrows(NullPointerException.class, () -> HeapSort.sort(new int[] {1}, (HeapSortOptions) null));
+        assertEquals(new HeapSortOptions(2, HeapSortVariant.CLASSIC), HeapSortOptions.DEFAULT);
+    }
+
+    @Test
+    void checkSortWithSatellites(){
+        int[] keys = {30, 10, 20, 10};
+        int[] ids = {0, 1, 2, 3};
+        int[] payload = {300, 100, 200, 101};
+        HeapSort.sortWith(keys, ids, payload);
+
+        int[] originalKeys = {30, 10, 20, 10};
+        int[] originalPayload = {300, 100, 200, 101};
+        assertArrayEquals(new int[] {10, 10, 20, 30}, keys);
+        for (int i = 0; i < keys.length; i++) {
+            assertEquals(originalKeys[ids[i]], keys[i]);
+            assertEquals(originalPayload[ids[i]], payload[i]);
+        }
+    }
+
+    @Test
+    void checkSortWithSwapperOfDifferentTypes(){
+        long[] keys = {5_000_000_000L, -1L, 7L};
+        String[] names = {"big", "negative", "seven"};
+        double[] scores = {0.5, 0.1, 0.7};
+        HeapSort.sortWith(keys, Swapper.of(names).andThen(Swapper.of(scores)));
+
+        assertArrayEquals(new long[] {-1L, 7L, 5_000_000_000L}, keys);
+        assertArrayEquals(new String[] {"negative", "seven", "big"}, names);
+        assertArrayEquals(new double[] {0.1, 0.7, 0.5}, scores);
+    }
+
+    @Test
+    void checkSortWithRandomSatellite(){
+        Random random = new Random(3);
+        long[] keys = new long[1000];
+        int[] positions = new int[1000];
+        long[] original = new long[1000];
+        for (int i = 0; i < keys.length; i++) {
+            keys[i] = random.nextInt(100);
+            original[i] = keys[i];
+            positions[i] = i;
+        }
+
+        HeapSort.sortWith(keys, positions);
+
+        for (int i = 0; i < keys.length; i++) {
+            assertEquals(original[positions[i]], keys[i]);
+            if (i > 0) {
+                assertTrue(keys[i - 1] <= keys[i]);
+            }
+        }
+    }
+
+    @Test
+    void checkSortWithShortSatellite(){
+        assertThrows(IllegalArgumentException.class, () -> HeapSort.sortWith(new int[] {2, 1}, new int[1]));
+        assertThrows(NullPointerException.class, () -> HeapSort.sortWith(new int[] {2, 1}, (Swapper) null));
+    }
+
+    @Test
+    void checkArgsortIsStableAndKeepsKeys(){
+        int[] keys = {30, 10, 20, 10};
+        int[] order = HeapSort.argsort(keys);
+        assertArrayEquals(new int[] {1, 3, 2, 0}, order);
+        assertArrayEquals(new int[] {30, 10, 20, 10}, keys);
+
+        long[] longKeys = {Long.MAX_VALUE, Long.MIN_VALUE, 0L, 0L};
+        assertArrayEquals(new int[] {1, 2, 3, 0}, HeapSort.argsort(longKeys));
+        assertArrayEquals(new int[] {}, HeapSort.argsort(new int[] {}));
+    }
+}
@@ -0,0 +1,102 @@
+package ru.nsu.munkuev;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class HybridSortTest {
+
+    private static void checkAgainstArraysSort(int[] arr) {
+        int[] expected = arr.clone();
+        Arrays.sort(expected);
+        HybridSort.sort(arr);
+        assertArrayEquals(expected, arr);
+    }
+
+    @Test
+    void checkEmptyAndSingleArr() {
+        int[] empty = {};
+        HybridSort.sort(empty);
+        assertArrayEquals(new int[] {}, empty);
+
+        int[] single = {612};
+        HybridSort.sort(single);
+        assertArrayEquals(new int[] {612}, single);
+    }
+
+    @Test
+    void checkOrdinaryArr() {
+        int[] arr = {54, 12, 45, 31, 123, 34, 8};
+        HybridSort.sort(arr);
+        assertArrayEquals(new int[] {8, 12, 31, 34, 45, 54, 123}, arr);
+    }
+
+    @Test
+    void checkRandomArrs() {
+        Random random = new Random(7);
+        for (int n : new int[] {31, 32, 33, 100, 1000, 100_000}) {
+            int[] arr = new int[n];
+            for (int i = 0; i < n; i++) {
+                arr[i] = random.nextInt();
+            }
+            checkAgainstArraysSort(arr);
+        }
+    }
+
+    @Test
+    void checkSpecialShapes() {
+        int n = 10_000;
+        int[] sorted = new int[n];
+        int[] reverse = new int[n];
+        int[] fewDistinct = new int[n];
+        int[] organPipe = new int[n];
+        int[] allSame = new int[n];
+        Random random = new Random(11);
+        for (int i = 0; i < n; i++) {
+            sorted[i] = i;
+            reverse[i] = n - i;
+            fewDistinct[i] = random.nextInt(4);
+            organPipe[i] = i < n / 2 ? i : n - i;
+            allSame[i] = 6;
+        }
+
+        checkAgainstArraysSort(sorted);
+        checkAgainstArraysSort(reverse);
+        checkAgainstArraysSort(fewDistinct);
+        checkAgainstArraysSort(organPipe);
+        checkAgainstArraysSort(allSame);
+    }
+
+    @Test
+    void checkHeapSortFallbackWhenDepthIsExhausted() {
+        Random random = new Random(13);
+        int[] arr = new int[5000];
+        for (int i = 0; i < arr.length; i++) {
+            arr[i] = random.nextInt(1000);
+        }
+        int[] expected = arr.clone();
+        Arrays.sort(expected);
+
+        int[] withoutDepth = arr.clone();
+        HybridSort.introSort(withoutDepth, 0, arr.length - 1, 0);
+        assertArrayEquals(expected, withoutDepth);
+
+        int[] withSmallDepth = arr.clone();
+        HybridSort.introSort(withSmallDepth, 0, arr.length - 1, 2);
+        assertArrayEquals(expected, withSmallDepth);
+    }
+
+    @Test
+    void checkRangeSort() {
+        int[] arr = {9, 5, 4, 3, 2, 1, 0};
+        HybridSort.sort(arr, 1, 5);
+        assertArrayEquals(new int[] {9, 2, 3, 4, 5, 1, 0}, arr);
+
+        assertThrows(IllegalArgumentException.class, () -> HybridSort.sort(arr, 3, 2));
+        assertThrows(ArrayIndexOutOfBoundsException.class, () -> HybridSort.sort(arr, 0, 8));
+    }
+}
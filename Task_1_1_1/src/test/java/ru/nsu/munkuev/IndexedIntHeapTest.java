@@ -0,0 +1,94 @@
+package ru.nsu.munkuev;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.NoSuchElementException;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class IndexedIntHeapTest {
+
+    @Test
+    void checkPopOrderAndDecreaseKey() {
+        IndexedIntHeap heap = new IndexedIntHeap(2);
+        heap.push(0, 50);
+        heap.push(1, 10);
+        heap.push(7, 30);
+        heap.push(3, 40);
+
+        heap.decreaseKey(3, 5);
+
+        assertEquals(3, heap.peek());
+        assertEquals(5, heap.peekPriority());
+        assertEquals(3, heap.pop());
+        assertEquals(1, heap.pop());
+        assertEquals(7, heap.pop());
+        assertEquals(0, heap.pop());
+        assertTrue(heap.isEmpty());
+    }
+
+    @Test
+    void checkUpdateAndRemove() {
+        IndexedIntHeap heap = new IndexedIntHeap();
+        for (int id = 0; id < 6; id++) {
+            heap.push(id, id * 10);
+        }
+
+        heap.update(0, 100);
+        assertTrue(heap.remove(2));
+        assertFalse(heap.remove(2));
+        assertFalse(heap.contains(2));
+        assertEquals(100, heap.priorityOf(0));
+
+        int[] expected = {1, 3, 4, 5, 0};
+        for (int id : expected) {
+            assertEquals(id, heap.pop());
+        }
+    }
+
+    @Test
+    void checkDijkstraLikeWorkload() {
+        Random random = new Random(8);
+        int n = 2000;
+        int[] priorities = new int[n];
+        IndexedIntHeap heap = new IndexedIntHeap(n);
+        for (int id = 0; id < n; id++) {
+            priorities[id] = random.nextInt(1_000_000);
+            heap.push(id, priorities[id]);
+        }
+        for (int step = 0; step < 5000; step++) {
+            int id = random.nextInt(n);
+            priorities[id] -= random.nextInt(1000);
+            heap.decreaseKey(id, priorities[id]);
+        }
+
+        int previous = Integer.MIN_VALUE;
+        while (!heap.isEmpty()) {
+            int priority = heap.peekPriority();
+            int id = heap.pop();
+            assertEquals(priorities[id], priority);
+            assertTrue(previous <= priority);
+            previous = priority;
+        }
+    }
+
+    @Test
+    void checkIllegalOperations() {
+        IndexedIntHeap heap = new IndexedIntHeap();
+        heap.push(1, 5);
+
+        assertThrows(IllegalArgumentException.class, () -> heap.push(1, 3));
+        assertThrows(IllegalArgumentException.class, () -> heap.push(-1, 3));
+        assertThrows(IllegalArgumentException.class, () -> heap.decreaseKey(1, 6));
+        assertThrows(NoSuchElementException.class, () -> heap.decreaseKey(2, 1));
+        assertThrows(NoSuchElementException.class, () -> heap.priorityOf(100));
+
+        heap.clear();
+        assertFalse(heap.contains(1));
+        assertThrows(NoSuchElementException.class, heap::pop);
+    }
+}
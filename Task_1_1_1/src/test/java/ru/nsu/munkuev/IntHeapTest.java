@@ -0,0 +1,107 @@
+package ru.nsu.munkuev;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.NoSuchElementException;
+import java.util.PriorityQueue;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class IntHeapTest {
+
+    @Test
+    void checkMinHeapOrder() {
+        IntHeap heap = IntHeap.minHeap(2);
+        for (int value : new int[] {54, 12, 45, 31, 123, 34, 8}) {
+            heap.push(value);
+        }
+
+        assertEquals(7, heap.getSize());
+        assertEquals(8, heap.peek());
+        int[] expected = {8, 12, 31, 34, 45, 54, 123};
+        for (int value : expected) {
+            assertEquals(value, heap.pop());
+        }
+        assertTrue(heap.isEmpty());
+    }
+
+    @Test
+    void checkMaxHeapOfAndReplaceTop() {
+        IntHeap heap = IntHeap.maxHeapOf(3, Integer.MIN_VALUE, Integer.MAX_VALUE, 0);
+
+        assertEquals(Integer.MAX_VALUE, heap.replaceTop(-5));
+        assertEquals(3, heap.pop());
+        assertEquals(0, heap.pop());
+        assertEquals(-5, heap.pop());
+        assertEquals(Integer.MIN_VALUE, heap.pop());
+    }
+
+    @Test
+    void checkRandomOperationsMatchPriorityQueue() {
+        Random random = new Random(21);
+        IntHeap heap = IntHeap.minHeap();
+        PriorityQueue<Integer> expected = new PriorityQueue<>();
+
+        for (int step = 0; step < 10_000; step++) {
+            int operation = random.nextInt(3);
+            if (operation == 0 || expected.isEmpty()) {
+                int value = random.nextInt();
+                heap.push(value);
+                expected.add(value);
+            }
+            else if (operation == 1) {
+                assertEquals(expected.poll().intValue(), heap.pop());
+            }
+            else {
+                int value = random.nextInt();
+                assertEquals(expected.poll().intValue(), heap.replaceTop(value));
+                expected.add(value);
+            }
+            assertEquals(expected.size(), heap.getSize());
+        }
+    }
+
+    @Test
+    void checkPushAllIntoNonEmptyHeap() {
+        IntHeap heap = IntHeap.minHeap();
+        heap.push(10);
+        heap.pushAll(new int[] {7, 12, 1});
+        heap.pushAll(new int[] {});
+
+        assertEquals(1, heap.pop());
+        assertEquals(7, heap.pop());
+        assertEquals(10, heap.pop());
+        assertEquals(12, heap.pop());
+    }
+
+    @Test
+    void checkEmptyHeap() {
+        IntHeap heap = IntHeap.maxHeap();
+        heap.push(1);
+        heap.clear();
+
+        assertFalse(heap.getSize() > 0);
+        assertThrows(NoSuchElementException.class, heap::peek);
+        assertThrows(NoSuchElementException.class, heap::pop);
+        assertThrows(NoSuchElementException.class, () -> heap.replaceTop(1));
+        assertThrows(IllegalArgumentException.class, () -> IntHeap.minHeap(-1));
+    }
+
+    @Test
+    void checkLongHeap() {
+        LongHeap min = LongHeap.minHeapOf(5_000_000_000L, -1L, Long.MIN_VALUE);
+        LongHeap max = LongHeap.maxHeap();
+        max.push(5_000_000_000L);
+        max.push(Long.MAX_VALUE);
+
+        assertEquals(Long.MIN_VALUE, min.pop());
+        assertEquals(-1L, min.pop());
+        assertEquals(5_000_000_000L, min.peek());
+        assertEquals(Long.MAX_VALUE, max.pop());
+        assertEquals(5_000_000_000L, max.pop());
+    }
+}
@@ -0,0 +1,88 @@
+package ru.nsu.munkuev;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Random;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class IntTopKTest {
+
+    @Test
+    void checkLargestFromArr() {
+        IntTopK topK = IntTopK.largest(3);
+        topK.acceptAll(new int[] {54, 12, 45, 31, 123, 34, 8});
+
+        assertEquals(3, topK.getSize());
+        assertEquals(45, topK.peek());
+        assertArrayEquals(new int[] {123, 54, 45}, topK.toSortedArray());
+    }
+
+    @Test
+    void checkSmallestFromStream() {
+        IntTopK topK = IntTopK.smallest(4);
+        topK.acceptAll(IntStream.of(54, 12, 45, 31, 123, 34, 8));
+
+        assertEquals(34, topK.peek());
+        assertArrayEquals(new int[] {8, 12, 31, 34}, topK.toSortedArray());
+    }
+
+    @Test
+    void checkFewerValuesThanK() {
+        IntTopK topK = IntTopK.largest(10);
+        topK.acceptAll(IntStream.of(3, 1, 2).iterator());
+
+        assertEquals(3, topK.getSize());
+        assertArrayEquals(new int[] {3, 2, 1}, topK.toSortedArray());
+    }
+
+    @Test
+    void checkExtremeValues() {
+        IntTopK largest = IntTopK.largest(2);
+        IntTopK smallest = IntTopK.smallest(2);
+        int[] values = {0, Integer.MIN_VALUE, Integer.MAX_VALUE, -1, 1};
+        largest.acceptAll(values);
+        smallest.acceptAll(values);
+
+        assertArrayEquals(new int[] {Integer.MAX_VALUE, 1}, largest.toSortedArray());
+        assertArrayEquals(new int[] {Integer.MIN_VALUE, -1}, smallest.toSortedArray());
+    }
+
+    @Test
+    void checkChunksMatchFullSort() {
+        Random random = new Random(5);
+        int[] values = new int[100_000];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = random.nextInt(1000);
+        }
+
+        IntTopK topK = IntTopK.largest(100);
+        for (int from = 0; from < values.length; from += 4096) {
+            topK.acceptAll(values, from, Math.min(from + 4096, values.length));
+        }
+
+        int[] sorted = values.clone();
+        Arrays.sort(sorted);
+        int[] expected = new int[100];
+        for (int i = 0; i < 100; i++) {
+            expected[i] = sorted[sorted.length - 1 - i];
+        }
+        assertArrayEquals(expected, topK.toSortedArray());
+    }
+
+    @Test
+    void checkClearAndIllegalArguments() {
+        IntTopK topK = IntTopK.smallest(2);
+        topK.accept(5);
+        topK.clear();
+
+        assertEquals(0, topK.getSize());
+        assertThrows(IllegalStateException.class, topK::peek);
+        assertThrows(IllegalArgumentException.class, () -> IntTopK.largest(0));
+        assertThrows(IndexOutOfBoundsException.class, () -> topK.acceptAll(new int[3], 2, 4));
+    }
+}
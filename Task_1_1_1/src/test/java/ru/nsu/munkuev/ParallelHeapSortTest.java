@@ -0,0 +1,91 @@
+package ru.nsu.munkuev;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class ParallelHeapSortTest {
+
+    private static int[] randomArr(int n, int bound, long seed) {
+        Random random = new Random(seed);
+        int[] arr = new int[n];
+        for (int i = 0; i < n; i++) {
+            arr[i] = bound > 0 ? random.nextInt(bound) : random.nextInt();
+        }
+        return arr;
+    }
+
+    @Test
+    void checkEmptyArr() {
+        int[] arr = {};
+        ParallelHeapSort.sort(arr, 1);
+        assertArrayEquals(new int[]{}, arr);
+    }
+
+    @Test
+    void checkSmallArrUsesSequentialPath() {
+        int[] arr = {54, 12, 45, 31, 123, 34, 8};
+        ParallelHeapSort.sort(arr);
+        assertArrayEquals(new int[] {8, 12, 31, 34, 45, 54, 123}, arr);
+    }
+
+    @Test
+    void checkTinyThreshold() {
+        int[] arr = randomArr(1000, 0, 1);
+        int[] expected = arr.clone();
+        Arrays.sort(expected);
+
+        ParallelHeapSort.sort(arr, 1);
+        assertArrayEquals(expected, arr);
+    }
+
+    @Test
+    void checkLargeRandomArr() {
+        int[] arr = randomArr(200_000, 0, 2);
+        int[] expected = arr.clone();
+        Arrays.sort(expected);
+
+        ParallelHeapSort.sort(arr, 1000);
+        assertArrayEquals(expected, arr);
+    }
+
+    @Test
+    void checkManyDuplicates() {
+        int[] arr = randomArr(50_000, 5, 3);
+        int[] expected = arr.clone();
+        Arrays.sort(expected);
+
+        ParallelHeapSort.sort(arr, 777);
+        assertArrayEquals(expected, arr);
+    }
+
+    @Test
+    void checkReverseArrInCustomPool() {
+        int n = 30_000;
+        int[] arr = new int[n];
+        int[] expected = new int[n];
+        for (int i = 0; i < n; i++) {
+            arr[i] = n - i;
+            expected[i] = i + 1;
+        }
+
+        ForkJoinPool pool = new ForkJoinPool(4);
+        try {
+            ParallelHeapSort.sort(arr, 100, pool);
+        }
+        finally {
+            pool.shutdown();
+        }
+        assertArrayEquals(expected, arr);
+    }
+
+    @Test
+    void checkIllegalThreshold() {
+        assertThrows(IllegalArgumentException.class, () -> ParallelHeapSort.sort(new int[]{1, 2}, 0));
+    }
+}
@@ -0,0 +1,146 @@
+package ru.nsu.munkuev;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class RadixSorterTest {
+
+    private final RadixSorter sorter = new RadixSorter();
+
+    private void checkAllStrategies(int[] source) {
+        int[] expected = source.clone();
+        Arrays.sort(expected);
+
+        for (RadixSortStrategy strategy : RadixSortStrategy.values()) {
+            if (strategy == RadixSortStrategy.COUNTING && !fitsCounting(source)) {
+                continue;
+            }
+            int[] arr = source.clone();
+            sorter.sort(arr, 0, arr.length, strategy);
+            assertArrayEquals(expected, arr);
+        }
+    }
+
+    private void checkAllStrategies(long[] source) {
+        long[] expected = source.clone();
+        Arrays.sort(expected);
+
+        for (RadixSortStrategy strategy : RadixSortStrategy.values()) {
+            if (strategy == RadixSortStrategy.COUNTING && !fitsCounting(source)) {
+                continue;
+            }
+            long[] arr = source.clone();
+            sorter.sort(arr, 0, arr.length, strategy);
+            assertArrayEquals(expected, arr);
+        }
+    }
+
+    private static boolean fitsCounting(int[] arr) {
+        return arr.length == 0
+                || (long) Arrays.stream(arr).max().getAsInt() - Arrays.stream(arr).min().getAsInt() < 1_000_000;
+    }
+
+    private static boolean fitsCounting(long[] arr) {
+        if (arr.length == 0) {
+            return true;
+        }
+        long span = Arrays.stream(arr).max().getAsLong() - Arrays.stream(arr).min().getAsLong();
+        return span >= 0 && span < 1_000_000;
+    }
+
+    @Test
+    void checkOrdinaryAndEmptyArrs() {
+        checkAllStrategies(new int[] {});
+        checkAllStrategies(new int[] {612});
+        checkAllStrategies(new int[] {54, 12, 45, 31, 123, 34, 8});
+        checkAllStrategies(new long[] {54, 12, 45, 31, 123, 34, 8});
+    }
+
+    @Test
+    void checkBoundedRangeInts() {
+        Random random = new Random(1);
+        int[] statusCodes = new int[10_000];
+        for (int i = 0; i < statusCodes.length; i++) {
+            statusCodes[i] = 100 + random.nextInt(500);
+        }
+        checkAllStrategies(statusCodes);
+
+        int[] auto = statusCodes.clone();
+        int[] expected = statusCodes.clone();
+        Arrays.sort(expected);
+        sorter.sort(auto);
+        assertArrayEquals(expected, auto);
+    }
+
+    @Test
+    void checkFullRangeInts() {
+        Random random = new Random(2);
+        int[] arr = new int[5000];
+        for (int i = 0; i < arr.length; i++) {
+            arr[i] = random.nextInt();
+        }
+        arr[0] = Integer.MIN_VALUE;
+        arr[1] = Integer.MAX_VALUE;
+        checkAllStrategies(arr);
+    }
+
+    @Test
+    void checkFullRangeLongs() {
+        Random random = new Random(3);
+        long[] arr = new long[5000];
+        for (int i = 0; i < arr.length; i++) {
+            arr[i] = random.nextLong();
+        }
+        arr[0] = Long.MIN_VALUE;
+        arr[1] = Long.MAX_VALUE;
+        checkAllStrategies(arr);
+    }
+
+    @Test
+    void checkNarrowRangeOfLargeLongs() {
+        Random random = new Random(4);
+        long[] timestamps = new long[3000];
+        for (int i = 0; i < timestamps.length; i++) {
+            timestamps[i] = 1_700_000_000_000L + random.nextInt(100_000);
+        }
+        checkAllStrategies(timestamps);
+
+        long[] auto = timestamps.clone();
+        long[] expected = timestamps.clone();
+        Arrays.sort(expected);
+        sorter.sort(auto);
+        assertArrayEquals(expected, auto);
+    }
+
+    @Test
+    void checkRepeatedSortsOfDifferentSizesReuseSorter() {
+        Random random = new Random(5);
+        for (int n : new int[] {5000, 100, 20_000, 70}) {
+            int[] arr = new int[n];
+            for (int i = 0; i < n; i++) {
+                arr[i] = random.nextInt(1 << 24);
+            }
+            int[] expected = arr.clone();
+            Arrays.sort(expected);
+            sorter.sort(arr, 0, n, RadixSortStrategy.RADIX);
+            assertArrayEquals(expected, arr);
+        }
+    }
+
+    @Test
+    void checkRangeSortAndIllegalArguments() {
+        int[] arr = {9, 5, 4, 3, 2, 1, 0};
+        sorter.sort(arr, 1, 5, RadixSortStrategy.RADIX);
+        assertArrayEquals(new int[] {9, 2, 3, 4, 5, 1, 0}, arr);
+
+        assertThrows(IllegalArgumentException.class, () -> sorter.sort(arr, 3, 2, RadixSortStrategy.AUTO));
+        assertThrows(ArrayIndexOutOfBoundsException.class, () -> sorter.sort(arr, 0, 8, RadixSortStrategy.AUTO));
+        assertThrows(IllegalArgumentException.class,
+                () -> sorter.sort(new long[] {Long.MIN_VALUE, Long.MAX_VALUE}, 0, 2, RadixSortStrategy.COUNTING));
+    }
+}
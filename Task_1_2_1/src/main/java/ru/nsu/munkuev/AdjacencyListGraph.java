@@ -3,6 +3,9 @@ package ru.nsu.munkuev;
 import java.util.List;
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.NoSuchElementException;
+import java.util.PrimitiveIterator;
+import java.util.function.IntConsumer;
 
 public class AdjacencyListGraph implements Graph {
     private List<Vertex> vertices;
@@ -228,6 +231,75 @@ public class AdjacencyListGraph implements Graph {
     }
 
 
+    @Override
+    public void forEachChild(int vertex, IntConsumer action) {
+        requireIndex(vertex);
+
+        List<Integer> children = adjacencyList.get(vertex);
+        for (int i = 0; i < children.size(); i++) {
+            action.accept(children.get(i));
+        }
+    }
+
+
+    @Override
+    public void forEachParent(int vertex, IntConsumer action) {
+        requireIndex(vertex);
+
+        //Смотрим, из каких списков смежности можно попасть в vertex
+        for (int i = 0; i < adjacencyList.size(); i++) {
+            if (containsChild(adjacencyList.get(i), vertex)) {
+                action.accept(i);
+            }
+        }
+    }
+
+
+    @Override
+    public PrimitiveIterator.OfInt childIterator(int vertex) {
+        requireIndex(vertex);
+
+        List<Integer> children = adjacencyList.get(vertex);
+        return new PrimitiveIterator.OfInt() {
+            private int index;
+
+            @Override
+            public boolean hasNext() {
+                return index < children.size();
+            }
+
+            @Override
+            public int nextInt() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                return children.get(index++);
+            }
+        };
+    }
+
+
+    @Override
+    public int outDegree(int vertex) {
+        requireIndex(vertex);
+        return adjacencyList.get(vertex).size();
+    }
+
+
+    @Override
+    public int inDegree(int vertex) {
+        requireIndex(vertex);
+
+        int degree = 0;
+        for (List<Integer> src : adjacencyList) {
+            if (containsChild(src, vertex)) {
+                degree++;
+            }
+        }
+        return degree;
+    }
+
+
     @Override
     public boolean equals(Object o) {
         if (this == o) {
@@ -314,6 +386,34 @@ public class AdjacencyListGraph implements Graph {
     }
 
 
+    /**
+     * Проверяет корректность id вершины при обходе её соседей.
+     * @param index проверяемый id
+     * @throws IllegalArgumentException если id вне диапазона {@code [0, getVertices().size())}
+     */
+    private void requireIndex(int index) {
+        if (!checkIndex(index)) {
+            throw new IllegalArgumentException("Index out of bounds");
+        }
+    }
+
+
+    /**
+     * Ищет вершину в списке смежности без упаковки {@code vertex} в {@link Integer}.
+     * @param src список смежности
+     * @param vertex искомая вершина
+     * @return {@code true} если вершина есть в списке
+     */
+    private static boolean containsChild(List<Integer> src, int vertex) {
+        for (int j = 0; j < src.size(); j++) {
+            if (src.get(j) == vertex) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+
     /**
      * Проверяет принадлежность вершины к текущему графу.
      * @param vertex вершина, для которой проверяется принадлежность
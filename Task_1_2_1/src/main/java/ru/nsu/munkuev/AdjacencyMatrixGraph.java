@@ -3,6 +3,9 @@ package ru.nsu.munkuev;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.PrimitiveIterator;
+import java.util.function.IntConsumer;
 
 public class AdjacencyMatrixGraph implements Graph {
     private List<Vertex> vertices;
@@ -213,6 +216,93 @@ public class AdjacencyMatrixGraph implements Graph {
     }
 
 
+    @Override
+    public void forEachChild(int vertex, IntConsumer action) {
+        requireIndex(vertex);
+
+        int[] row = adjacencyMatrix[vertex];
+        for (int i = 0; i < row.length; i++) {
+            if (row[i] == 1) {
+                action.accept(i);
+            }
+        }
+    }
+
+
+    @Override
+    public void forEachParent(int vertex, IntConsumer action) {
+        requireIndex(vertex);
+
+        for (int i = 0; i < adjacencyMatrix.length; i++) {
+            if (adjacencyMatrix[i][vertex] == 1) {
+                action.accept(i);
+            }
+        }
+    }
+
+
+    @Override
+    public PrimitiveIterator.OfInt childIterator(int vertex) {
+        requireIndex(vertex);
+
+        int[] row = adjacencyMatrix[vertex];
+        return new PrimitiveIterator.OfInt() {
+            //индекс следующей единицы в строке, row.length если её нет
+            private int next = advance(0);
+
+            private int advance(int from) {
+                while (from < row.length && row[from] != 1) {
+                    from++;
+                }
+                return from;
+            }
+
+            @Override
+            public boolean hasNext() {
+                return next < row.length;
+            }
+
+            @Override
+            public int nextInt() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                int result = next;
+                next = advance(next + 1);
+                return result;
+            }
+        };
+    }
+
+
+    @Override
+    public int outDegree(int vertex) {
+        requireIndex(vertex);
+
+        int degree = 0;
+        for (int cell : adjacencyMatrix[vertex]) {
+            if (cell == 1) {
+                degree++;
+            }
+        }
+        return degree;
+    }
+
+
+    @Override
+    public int inDegree(int vertex) {
+        requireIndex(vertex);
+
+        int degree = 0;
+        for (int[] row : adjacencyMatrix) {
+            if (row[vertex] == 1) {
+                degree++;
+            }
+        }
+        return degree;
+    }
+
+
     /**
      * Возвращает копию текущей матрицы смежности.
      * Модификация этого массива не влияет на внутреннее состояние графа.
@@ -315,6 +405,18 @@ public class AdjacencyMatrixGraph implements Graph {
     }
 
 
+    /**
+     * Проверяет корректность id вершины при обходе её соседей.
+     * @param index проверяемый id
+     * @throws IllegalArgumentException если id вне диапазона {@code [0, getVertices().size())}
+     */
+    private void requireIndex(int index) {
+        if (!checkIndex(index)) {
+            throw new IllegalArgumentException("Index out of bounds");
+        }
+    }
+
+
     /**
      * Проверяет принадлежность вершины к текущему графу.
      * @param vertex вершина, для которой проверяется принадлежность
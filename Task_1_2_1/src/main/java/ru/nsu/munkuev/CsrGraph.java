@@ -0,0 +1,476 @@
+package ru.nsu.munkuev;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.PrimitiveIterator;
+import java.util.function.IntConsumer;
+
+/**
+ * Неизменяемый граф в формате CSR (compressed sparse row).
+ * <p>
+ * Дети вершины {@code v} лежат в {@code targets[offsets[v] .. offsets[v + 1])}, родители — в
+ * {@code sources[reverseOffsets[v] .. reverseOffsets[v + 1])}. Вся структура рёбер занимает
+ * четыре массива {@code int[]}: {@code 2·(V + 1) + 2·E} чисел без объектов-обёрток, поэтому
+ * граф на десятки миллионов рёбер помещается в память, а {@link #getParents(int)} работает
+ * за O(deg(v)), а не перебором всех вершин.
+ * <p>
+ * Граф создаётся через {@link Builder} за O(V + E) или копированием другого графа через
+ * {@link #copyOf(Graph)}. Методы изменения бросают {@link UnsupportedOperationException}.
+ */
+public final class CsrGraph implements Graph {
+    private final List<Vertex> vertices;
+    private final int[] offsets;
+    private final int[] targets;
+    private final int[] reverseOffsets;
+    private final int[] sources;
+
+    private CsrGraph(List<Vertex> vertices, int[] offsets, int[] targets, int[] reverseOffsets, int[] sources) {
+        this.vertices = vertices;
+        this.offsets = offsets;
+        this.targets = targets;
+        this.reverseOffsets = reverseOffsets;
+        this.sources = sources;
+    }
+
+
+    /**
+     * Копирует структуру любого графа в CSR. Вершины копируются, поэтому исходный граф
+     * можно дальше изменять независимо.
+     * @param graph исходный граф
+     * @return неизменяемая копия графа
+     * @throws IllegalArgumentException если передан {@code null}
+     */
+    public static CsrGraph copyOf(Graph graph) {
+        if (graph == null) {
+            throw new IllegalArgumentException("graph is null");
+        }
+        if (graph instanceof CsrGraph csr) {
+            return csr;
+        }
+
+        int n = graph.getVertices().size();
+        Builder builder = new Builder().withVertices(graph.getVertices());
+        for (int from = 0; from < n; from++) {
+            for (int to : graph.getChildren(from)) {
+                builder.withEdge(from, to);
+            }
+        }
+        return builder.build();
+    }
+
+
+    @Override
+    public boolean addVertex(Vertex vertex) {
+        throw new UnsupportedOperationException("CsrGraph is immutable");
+    }
+
+
+    @Override
+    public boolean removeVertex(Vertex vertex) {
+        throw new UnsupportedOperationException("CsrGraph is immutable");
+    }
+
+
+    @Override
+    public boolean addEdge(int from, int to) {
+        throw new UnsupportedOperationException("CsrGraph is immutable");
+    }
+
+
+    @Override
+    public boolean removeEdge(int from, int to) {
+        throw new UnsupportedOperationException("CsrGraph is immutable");
+    }
+
+
+    /**
+     * Возвращает неизменяемый список вершин графа. Вершины — собственные копии графа,
+     * созданные при построении; структура рёбер от их изменения не зависит.
+     */
+    @Override
+    public List<Vertex> getVertices() {
+        return vertices;
+    }
+
+
+    /**
+     * Возвращает родителей вершины в порядке возрастания их id.
+     * @throws IllegalArgumentException если передан некорректный id
+     */
+    @Override
+    public List<Integer> getParents(int vertex) {
+        checkIndex(vertex);
+        return slice(sources, reverseOffsets[vertex], reverseOffsets[vertex + 1]);
+    }
+
+
+    /**
+     * Возвращает детей вершины в порядке добавления рёбер в {@link Builder}.
+     * @throws IllegalArgumentException если передан некорректный id
+     */
+    @Override
+    public List<Integer> getChildren(int vertex) {
+        checkIndex(vertex);
+        return slice(targets, offsets[vertex], offsets[vertex + 1]);
+    }
+
+
+    @Override
+    public void forEachChild(int vertex, IntConsumer action) {
+        checkIndex(vertex);
+        for (int i = offsets[vertex], end = offsets[vertex + 1]; i < end; i++) {
+            action.accept(targets[i]);
+        }
+    }
+
+
+    @Override
+    public void forEachParent(int vertex, IntConsumer action) {
+        checkIndex(vertex);
+        for (int i = reverseOffsets[vertex], end = reverseOffsets[vertex + 1]; i < end; i++) {
+            action.accept(sources[i]);
+        }
+    }
+
+
+    @Override
+    public PrimitiveIterator.OfInt childIterator(int vertex) {
+        checkIndex(vertex);
+
+        int end = offsets[vertex + 1];
+        return new PrimitiveIterator.OfInt() {
+            private int index = offsets[vertex];
+
+            @Override
+            public boolean hasNext() {
+                return index < end;
+            }
+
+            @Override
+            public int nextInt() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                return targets[index++];
+            }
+        };
+    }
+
+
+    @Override
+    public int outDegree(int vertex) {
+        checkIndex(vertex);
+        return offsets[vertex + 1] - offsets[vertex];
+    }
+
+
+    @Override
+    public int inDegree(int vertex) {
+        checkIndex(vertex);
+        return reverseOffsets[vertex + 1] - reverseOffsets[vertex];
+    }
+
+
+    /**
+     * Возвращает количество рёбер графа.
+     * @return количество рёбер без учёта отброшенных повторов
+     */
+    public int getEdgeCount() {
+        return targets.length;
+    }
+
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof Graph)) {
+            return false;
+        }
+
+        Graph other = (Graph) o;
+
+        //Сравниваем количество вершин
+        int n = this.getVertices().size();
+        if (n != other.getVertices().size()) {
+            return false;
+        }
+
+        //Сравниваем детей каждой вершины
+        for (int i = 0; i < n; i++) {
+            List<Integer> childrenThis = new ArrayList<>(this.getChildren(i));
+            List<Integer> childrenOther = new ArrayList<>(other.getChildren(i));
+
+            Collections.sort(childrenThis);
+            Collections.sort(childrenOther);
+
+            if (!childrenThis.equals(childrenOther)) {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder();
+
+        sb.append("CsrGraph").append(System.lineSeparator());
+
+        sb.append("Vertices: ");
+        for (Vertex v : vertices) {
+            sb.append(v.getId()).append(' ');
+        }
+        sb.append(System.lineSeparator());
+
+        sb.append("Offsets: ");
+        for (int offset : offsets) {
+            sb.append(offset).append(' ');
+        }
+        sb.append(System.lineSeparator());
+
+        sb.append("Targets: ");
+        for (int target : targets) {
+            sb.append(target).append(' ');
+        }
+        sb.append(System.lineSeparator());
+
+        return sb.toString();
+    }
+
+    @Override
+    public int hashCode() {
+        int n = getVertices().size();
+        int result = n;
+
+        for (int v = 0; v < n; v++) {
+            List<Integer> children = new ArrayList<>(getChildren(v));
+            Collections.sort(children);
+            result = 31 * result + children.hashCode();
+        }
+
+        return result;
+    }
+
+
+    /**
+     * Проверяет корректность id вершины.
+     * @param index проверяемый id
+     * @throws IllegalArgumentException если id вне диапазона {@code [0, getVertices().size())}
+     */
+    private void checkIndex(int index) {
+        if (index < 0 || index >= vertices.size()) {
+            throw new IllegalArgumentException("Index out of bounds");
+        }
+    }
+
+
+    private static List<Integer> slice(int[] array, int from, int to) {
+        List<Integer> result = new ArrayList<>(to - from);
+        for (int i = from; i < to; i++) {
+            result.add(array[i]);
+        }
+        return result;
+    }
+
+
+    /**
+     * Построитель {@link CsrGraph}.
+     * <p>
+     * Вершины задаются списком {@link #withVertices(List)} или количеством
+     * {@link #withVertexCount(int)}; рёбра копятся в двух массивах {@code int[]} и
+     * раскладываются по строкам в {@link #build()} сортировкой подсчётом за O(V + E).
+     * Повторные рёбра отбрасываются, первое вхождение сохраняет свой порядок.
+     * <pre>{@code
+     * CsrGraph graph = new CsrGraph.Builder()
+     *         .withVertexCount(3)
+     *         .withEdge(0, 1)
+     *         .withEdge(1, 2)
+     *         .build();
+     * }</pre>
+     */
+    public static final class Builder {
+        private List<Vertex> vertices;
+        private int vertexCount = -1;
+        private int[] edgeSources = new int[16];
+        private int[] edgeTargets = new int[16];
+        private int edgeCount;
+
+        /**
+         * Задаёт вершины графа. Граф хранит копии вершин с теми же метками и id, равными
+         * индексам в списке; переданные вершины не изменяются.
+         * @param vertices вершины графа
+         * @return этот построитель
+         * @throws IllegalArgumentException если список равен {@code null}
+         * @throws IllegalStateException если уже задано количество вершин
+         */
+        public Builder withVertices(List<Vertex> vertices) {
+            if (vertices == null) {
+                throw new IllegalArgumentException("vertices is null");
+            }
+            if (vertexCount >= 0) {
+                throw new IllegalStateException("Vertex count is already set");
+            }
+            this.vertices = vertices;
+            return this;
+        }
+
+        /**
+         * Задаёт количество вершин; вершины создаются с метками, равными их id.
+         * @param vertexCount количество вершин
+         * @return этот построитель
+         * @throws IllegalArgumentException если количество отрицательное
+         * @throws IllegalStateException если уже задан список вершин
+         */
+        public Builder withVertexCount(int vertexCount) {
+            if (vertexCount < 0) {
+                throw new IllegalArgumentException("vertexCount must be non-negative");
+            }
+            if (vertices != null) {
+                throw new IllegalStateException("Vertices are already set");
+            }
+            this.vertexCount = vertexCount;
+            return this;
+        }
+
+        /**
+         * Добавляет ребро {@code from -> to}. Индексы проверяются в {@link #build()}.
+         * @param from id начала ребра
+         * @param to id конца ребра
+         * @return этот построитель
+         */
+        public Builder withEdge(int from, int to) {
+            ensureEdgeCapacity(edgeCount + 1);
+            edgeSources[edgeCount] = from;
+            edgeTargets[edgeCount] = to;
+            edgeCount++;
+            return this;
+        }
+
+        /**
+         * Добавляет рёбра {@code from[i] -> to[i]} из параллельных массивов.
+         * @param from id начал рёбер
+         * @param to id концов рёбер
+         * @return этот построитель
+         * @throws IllegalArgumentException если массивы равны {@code null} или разной длины
+         */
+        public Builder withEdges(int[] from, int[] to) {
+            if (from == null || to == null) {
+                throw new IllegalArgumentException("edge arrays are null");
+            }
+            if (from.length != to.length) {
+                throw new IllegalArgumentException("from.length != to.length");
+            }
+            ensureEdgeCapacity(edgeCount + from.length);
+            System.arraycopy(from, 0, edgeSources, edgeCount, from.length);
+            System.arraycopy(to, 0, edgeTargets, edgeCount, to.length);
+            edgeCount += from.length;
+            return this;
+        }
+
+        /**
+         * Строит граф за O(V + E).
+         * @return построенный граф
+         * @throws IllegalArgumentException если у какого-то ребра конец вне диапазона вершин
+         */
+        public CsrGraph build() {
+            List<Vertex> builtVertices = buildVertices();
+            int n = builtVertices.size();
+            int m = edgeCount;
+
+            //1. Степени исхода, затем префиксные суммы дают начала строк
+            int[] offsets = new int[n + 1];
+            for (int e = 0; e < m; e++) {
+                int from = edgeSources[e];
+                int to = edgeTargets[e];
+                if (from < 0 || from >= n || to < 0 || to >= n) {
+                    throw new IllegalArgumentException("bad edge " + from + "->" + to);
+                }
+                offsets[from + 1]++;
+            }
+            for (int v = 0; v < n; v++) {
+                offsets[v + 1] += offsets[v];
+            }
+
+            //2. Раскладываем концы рёбер по строкам, сохраняя порядок добавления
+            int[] targets = new int[m];
+            int[] cursor = Arrays.copyOf(offsets, n);
+            for (int e = 0; e < m; e++) {
+                targets[cursor[edgeSources[e]]++] = edgeTargets[e];
+            }
+
+            //3. Убираем повторы: lastRow[t] хранит последнюю строку, в которой встретился t
+            int[] lastRow = new int[n];
+            Arrays.fill(lastRow, -1);
+            int write = 0;
+            for (int v = 0; v < n; v++) {
+                int start = offsets[v];
+                int end = offsets[v + 1];
+                offsets[v] = write;
+                for (int i = start; i < end; i++) {
+                    int to = targets[i];
+                    if (lastRow[to] != v) {
+                        lastRow[to] = v;
+                        targets[write++] = to;
+                    }
+                }
+            }
+            offsets[n] = write;
+            if (write < m) {
+                targets = Arrays.copyOf(targets, write);
+            }
+
+            //4. Обратный CSR; строки идут по возрастанию, поэтому родители получаются отсортированными
+            int[] reverseOffsets = new int[n + 1];
+            for (int to : targets) {
+                reverseOffsets[to + 1]++;
+            }
+            for (int v = 0; v < n; v++) {
+                reverseOffsets[v + 1] += reverseOffsets[v];
+            }
+            int[] sources = new int[write];
+            int[] reverseCursor = Arrays.copyOf(reverseOffsets, n);
+            for (int v = 0; v < n; v++) {
+                for (int i = offsets[v]; i < offsets[v + 1]; i++) {
+                    sources[reverseCursor[targets[i]]++] = v;
+                }
+            }
+
+            return new CsrGraph(builtVertices, offsets, targets, reverseOffsets, sources);
+        }
+
+        private List<Vertex> buildVertices() {
+            List<Vertex> result;
+            if (vertices != null) {
+                result = new ArrayList<>(vertices.size());
+                for (int i = 0; i < vertices.size(); i++) {
+                    result.add(new Vertex(vertices.get(i).getLabel(), i));
+                }
+            } else {
+                int n = Math.max(vertexCount, 0);
+                result = new ArrayList<>(n);
+                for (int i = 0; i < n; i++) {
+                    result.add(new Vertex(Integer.toString(i), i));
+                }
+            }
+            return Collections.unmodifiableList(result);
+        }
+
+        private void ensureEdgeCapacity(int required) {
+            if (required < 0) {
+                throw new IllegalStateException("Too many edges");
+            }
+            if (required > edgeSources.length) {
+                int capacity = Math.max(required, (int) Math.min(Integer.MAX_VALUE - 8, 2L * edgeSources.length));
+                edgeSources = Arrays.copyOf(edgeSources, capacity);
+                edgeTargets = Arrays.copyOf(edgeTargets, capacity);
+            }
+        }
+    }
+}
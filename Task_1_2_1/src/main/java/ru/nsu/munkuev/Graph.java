@@ -3,6 +3,8 @@ package ru.nsu.munkuev;
 import java.util.List;
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.PrimitiveIterator;
+import java.util.function.IntConsumer;
 
 
 /**
@@ -35,6 +37,10 @@ import java.util.Collections;
  *             <li>{@link #getVertices()} — доступ к вершинам.</li>
  *         </ul>
  *     </li>
+ *     <li>По возможности переопределите методы обхода без аллокаций:
+ *         {@link #forEachChild(int, IntConsumer)}, {@link #forEachParent(int, IntConsumer)},
+ *         {@link #childIterator(int)}, {@link #outDegree(int)}, {@link #inDegree(int)}.
+ *         Реализации по умолчанию опираются на {@code getChildren/getParents} и создают список на каждый вызов.</li>
  *     <li>Для корректной работы с существующими тестами:
  *         <ul>
  *             <li>Для некорректных индексов в {@code addEdge/removeEdge} возвращайте {@code false} (не бросайте исключения).</li>
@@ -45,7 +51,8 @@ import java.util.Collections;
  *
  * <h2>Интеграция с существующими реализациями</h2>
  * <p>
- * Все текущие реализации ({@link AdjacencyMatrixGraph}, {@link AdjacencyListGraph}, {@link IncidenceMatrixGraph})
+ * Все текущие реализации ({@link AdjacencyMatrixGraph}, {@link AdjacencyListGraph}, {@link IncidenceMatrixGraph},
+ * {@link CsrGraph})
  * используют <b>структурное равенство</b>:
  * два графа равны, если у них совпадает количество вершин и для каждой вершины совпадает отсортированный список детей с точностью до индексов.
  * </p>
@@ -58,7 +65,7 @@ import java.util.Collections;
  * </ul>
  *
  * <h2>Для пользователей: какие графы есть и как их выбирать</h2>
- * <p>Доступны три реализации:</p>
+ * <p>Доступны четыре реализации:</p>
  * <ul>
  *     <li>{@link AdjacencyMatrixGraph} — граф на матрице смежности.
  *         <ul>
@@ -81,6 +88,14 @@ import java.util.Collections;
  *             <li>Рекомендуется, если алгоритм естественно формулируется в терминах рёбер и их инцидентности.</li>
  *         </ul>
  *     </li>
+ *     <li>{@link CsrGraph} — неизменяемый граф в формате CSR: смещения строк и концы рёбер в массивах {@code int[]}.
+ *         <ul>
+ *             <li>Плюсы: память O(n + m) без объектов-обёрток, быстрый доступ и к детям, и к родителям.</li>
+ *             <li>Минусы: граф нельзя изменить после построения, методы изменения бросают
+ *                 {@link UnsupportedOperationException}.</li>
+ *             <li>Рекомендуется для больших графов, которые строятся один раз и потом только читаются.</li>
+ *         </ul>
+ *     </li>
  * </ul>
  *
  * <p>
@@ -147,6 +162,64 @@ public interface Graph {
      */
      List<Integer> getChildren(int vertex);
 
+    /**
+     * Передаёт каждого потомка вершины в {@code action}, не создавая список.
+     * <p>
+     * Реализация по умолчанию обходит {@link #getChildren(int)}; реализации переопределяют её
+     * обходом своего внутреннего представления.
+     * @param vertex вершина, потомков которой надо обойти
+     * @param action действие над id потомка
+     * @throws IllegalArgumentException если передан некорректный id
+     */
+     default void forEachChild(int vertex, IntConsumer action) {
+         for (int child : getChildren(vertex)) {
+             action.accept(child);
+         }
+     }
+
+    /**
+     * Передаёт каждого родителя вершины в {@code action}, не создавая список.
+     * @param vertex вершина, родителей которой надо обойти
+     * @param action действие над id родителя
+     * @throws IllegalArgumentException если передан некорректный id
+     */
+     default void forEachParent(int vertex, IntConsumer action) {
+         for (int parent : getParents(vertex)) {
+             action.accept(parent);
+         }
+     }
+
+    /**
+     * Возвращает итератор по потомкам вершины без упаковки в {@link Integer}.
+     * Граф нельзя изменять, пока итератор используется.
+     * @param vertex вершина, потомков которой надо обойти
+     * @return итератор по id потомков
+     * @throws IllegalArgumentException если передан некорректный id
+     */
+     default PrimitiveIterator.OfInt childIterator(int vertex) {
+         return getChildren(vertex).stream().mapToInt(Integer::intValue).iterator();
+     }
+
+    /**
+     * Возвращает количество потомков вершины (степень исхода).
+     * @param vertex вершина
+     * @return степень исхода
+     * @throws IllegalArgumentException если передан некорректный id
+     */
+     default int outDegree(int vertex) {
+         return getChildren(vertex).size();
+     }
+
+    /**
+     * Возвращает количество родителей вершины (степень захода).
+     * @param vertex вершина
+     * @return степень захода
+     * @throws IllegalArgumentException если передан некорректный id
+     */
+     default int inDegree(int vertex) {
+         return getParents(vertex).size();
+     }
+
      @Override
      boolean equals(Object o);
 
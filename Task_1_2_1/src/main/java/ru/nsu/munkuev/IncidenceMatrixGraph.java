@@ -3,6 +3,9 @@ package ru.nsu.munkuev;
 import java.util.Collections;
 import java.util.List;
 import java.util.ArrayList;
+import java.util.NoSuchElementException;
+import java.util.PrimitiveIterator;
+import java.util.function.IntConsumer;
 
 public class IncidenceMatrixGraph implements Graph {
     private List<Vertex> vertices;
@@ -365,6 +368,136 @@ public class IncidenceMatrixGraph implements Graph {
     }
 
 
+    /**
+     * Обходит потомков в порядке возрастания id, как {@link #getChildren(int)}.
+     */
+    @Override
+    public void forEachChild(int vertex, IntConsumer action) {
+        checkIndex(vertex);
+
+        for (int u = 0; u < incidenceMatrix.length; u++) {
+            if (u != vertex && hasEdge(vertex, u)) {
+                action.accept(u);
+            }
+        }
+    }
+
+
+    /**
+     * Обходит родителей в порядке возрастания id, как {@link #getParents(int)}.
+     */
+    @Override
+    public void forEachParent(int vertex, IntConsumer action) {
+        checkIndex(vertex);
+
+        for (int u = 0; u < incidenceMatrix.length; u++) {
+            if (u != vertex && hasEdge(u, vertex)) {
+                action.accept(u);
+            }
+        }
+    }
+
+
+    /**
+     * Возвращает итератор по потомкам в порядке возрастания id, как {@link #getChildren(int)}.
+     */
+    @Override
+    public PrimitiveIterator.OfInt childIterator(int vertex) {
+        checkIndex(vertex);
+
+        return new PrimitiveIterator.OfInt() {
+            //следующий потомок, -1 если потомков больше нет
+            private int next = advance(0);
+
+            private int advance(int from) {
+                for (int u = from; u < incidenceMatrix.length; u++) {
+                    if (u != vertex && hasEdge(vertex, u)) {
+                        return u;
+                    }
+                }
+                return -1;
+            }
+
+            @Override
+            public boolean hasNext() {
+                return next >= 0;
+            }
+
+            @Override
+            public int nextInt() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                int result = next;
+                next = advance(next + 1);
+                return result;
+            }
+        };
+    }
+
+
+    @Override
+    public int outDegree(int vertex) {
+        checkIndex(vertex);
+
+        int degree = 0;
+        int[] row = incidenceMatrix[vertex];
+        for (int e = 0; e < row.length; e++) {
+            if (row[e] == -1 && edgeEnd(e, 1, vertex) >= 0) {
+                degree++;
+            }
+        }
+        return degree;
+    }
+
+
+    @Override
+    public int inDegree(int vertex) {
+        checkIndex(vertex);
+
+        int degree = 0;
+        int[] row = incidenceMatrix[vertex];
+        for (int e = 0; e < row.length; e++) {
+            if (row[e] == 1 && edgeEnd(e, -1, vertex) >= 0) {
+                degree++;
+            }
+        }
+        return degree;
+    }
+
+
+    /**
+     * Проверяет, есть ли столбец-ребро {@code from -> to}.
+     */
+    private boolean hasEdge(int from, int to) {
+        int[] fromRow = incidenceMatrix[from];
+        int[] toRow = incidenceMatrix[to];
+        for (int e = 0; e < fromRow.length; e++) {
+            if (fromRow[e] == -1 && toRow[e] == 1) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+
+    /**
+     * Ищет в столбце ребра вершину с заданным значением, отличную от {@code skip}.
+     * @param edge индекс ребра
+     * @param value {@code -1} для начала ребра, {@code 1} для конца
+     * @param skip вершина, с которой начат поиск
+     * @return найденная вершина или {@code -1}
+     */
+    private int edgeEnd(int edge, int value, int skip) {
+        for (int u = 0; u < incidenceMatrix.length; u++) {
+            if (u != skip && incidenceMatrix[u][edge] == value) {
+                return u;
+            }
+        }
+        return -1;
+    }
+
+
     private void checkIndex(int index) {
         if (index < 0 || index >= vertices.size()) {
             throw new IllegalArgumentException("Index out of bounds");
@@ -1,10 +1,15 @@
 package ru.nsu.munkuev;
 
 import java.util.*;
+import java.util.function.IntConsumer;
 
 /**
  * Топологическая сортировка по алгоритму Кана.
  * Использует степени захода (in-degree).
+ * <p>
+ * Соседей обходит через {@link Graph#forEachChild(int, IntConsumer)} и {@link Graph#childIterator(int)},
+ * а очередь хранит в массиве {@code int[]}, поэтому в основном цикле не создаются списки
+ * и не упаковываются id вершин.
  */
 public class KahnTopologicalSort implements TopologicalSort {
 
@@ -13,40 +18,44 @@ public class KahnTopologicalSort implements TopologicalSort {
         List<Vertex> vertices = graph.getVertices();
         int n = vertices.size();
 
-        //1. Считаем степени захода для каждой вершины
+        //1. Считаем степени захода для каждой вершины одним проходом по всем рёбрам
         int[] indegree = new int[n];
+        IntConsumer countParent = child -> indegree[child]++;
         for (int v = 0; v < n; v++) {
-            indegree[v] = graph.getParents(v).size();
+            graph.forEachChild(v, countParent);
         }
 
-        //2. Кладем в очередь все вершины с indegree == 0
-        Deque<Integer> queue = new ArrayDeque<>();
+        //2. Кладем в очередь все вершины с indegree == 0.
+        //Каждая вершина попадает в очередь не больше одного раза, поэтому хватает массива длины n
+        int[] queue = new int[n];
+        int head = 0;
+        int tail = 0;
         for (int v = 0; v < n; v++) {
             if (indegree[v] == 0) {
-                queue.add(v);
+                queue[tail++] = v;
             }
         }
 
         List<Vertex> result = new ArrayList<>(n);
-        int visitedCount = 0;
 
         //3. Пока есть вершины с нулевой степенью захода
-        while (!queue.isEmpty()) {
-            int v = queue.removeFirst();
+        while (head < tail) {
+            int v = queue[head++];
             result.add(vertices.get(v));
-            visitedCount++;
 
             //Удаляем вершину: уменьшаем indegree у её детей
-            for (int child : graph.getChildren(v)) {
+            PrimitiveIterator.OfInt children = graph.childIterator(v);
+            while (children.hasNext()) {
+                int child = children.nextInt();
                 indegree[child]--;
                 if (indegree[child] == 0) {
-                    queue.addLast(child);
+                    queue[tail++] = child;
                 }
             }
         }
 
         //4. Если обошли не все вершины значит в графе есть цикл
-        if (visitedCount != n) {
+        if (head != n) {
             throw new IllegalStateException("Graph contains a cycle, topological sort is impossible");
         }
 
@@ -347,6 +347,132 @@ class GraphTest {
 
     }
 
+    // ==========================================================
+    // ======================== CsrGraph ========================
+    // ==========================================================
+
+    @Test
+    void csr_builderLaysOutChildrenAndParents() {
+        CsrGraph g = new CsrGraph.Builder()
+                .withVertices(createVertices(4))
+                .withEdge(2, 1)
+                .withEdge(0, 3)
+                .withEdge(0, 1)
+                .withEdges(new int[]{3, 0}, new int[]{1, 3})
+                .build();
+
+        assertEquals(4, g.getVertices().size());
+        //повторное ребро 0 -> 3 отброшено, порядок детей совпадает с порядком добавления
+        assertEquals(4, g.getEdgeCount());
+        assertEquals(List.of(3, 1), g.getChildren(0));
+        assertEquals(List.of(), g.getChildren(1));
+        assertEquals(List.of(1), g.getChildren(2));
+        assertEquals(List.of(1), g.getChildren(3));
+        //родители идут по возрастанию id
+        assertEquals(List.of(0, 2, 3), g.getParents(1));
+        assertEquals(List.of(0), g.getParents(3));
+        assertEquals(List.of(), g.getParents(0));
+
+        assertThrows(IllegalArgumentException.class, () -> g.getChildren(4));
+        assertThrows(IllegalArgumentException.class, () -> g.getParents(-1));
+        assertTrue(g.toString().contains("CsrGraph"));
+    }
+
+    @Test
+    void csr_isImmutable() {
+        CsrGraph g = new CsrGraph.Builder().withVertexCount(2).withEdge(0, 1).build();
+
+        assertEquals("1", g.getVertices().get(1).getLabel());
+        assertThrows(UnsupportedOperationException.class, () -> g.addEdge(1, 0));
+        assertThrows(UnsupportedOperationException.class, () -> g.removeEdge(0, 1));
+        assertThrows(UnsupportedOperationException.class, () -> g.addVertex(new Vertex("v2", 2)));
+        assertThrows(UnsupportedOperationException.class, () -> g.removeVertex(g.getVertices().get(0)));
+        assertThrows(UnsupportedOperationException.class, () -> g.getVertices().add(new Vertex(2)));
+
+        //изменение списка детей не затрагивает граф
+        g.getChildren(0).clear();
+        assertEquals(List.of(1), g.getChildren(0));
+    }
+
+    @Test
+    void csr_builderDoesNotChangeCallerVertices() {
+        Graph list = new AdjacencyListGraph(createVertices(3));
+        List<Vertex> reversed = new ArrayList<>(list.getVertices());
+        Collections.reverse(reversed);
+
+        CsrGraph csr = new CsrGraph.Builder().withVertices(reversed).build();
+
+        //вершины исходного графа сохранили свои id, а граф хранит копии
+        for (int i = 0; i < 3; i++) {
+            assertEquals(i, list.getVertices().get(i).getId());
+            assertEquals(i, csr.getVertices().get(i).getId());
+            assertNotSame(reversed.get(i), csr.getVertices().get(i));
+        }
+        assertEquals("v2", csr.getVertices().get(0).getLabel());
+    }
+
+    @Test
+    void csr_builderRejectsInvalidInput() {
+        assertThrows(IllegalArgumentException.class,
+                () -> new CsrGraph.Builder().withVertexCount(2).withEdge(0, 2).build());
+        assertThrows(IllegalArgumentException.class,
+                () -> new CsrGraph.Builder().withVertexCount(2).withEdge(-1, 0).build());
+        assertThrows(IllegalArgumentException.class, () -> new CsrGraph.Builder().withVertexCount(-1));
+        assertThrows(IllegalArgumentException.class,
+                () -> new CsrGraph.Builder().withEdges(new int[1], new int[2]));
+        assertThrows(IllegalStateException.class,
+                () -> new CsrGraph.Builder().withVertexCount(2).withVertices(createVertices(2)));
+
+        assertTrue(new CsrGraph.Builder().build().getVertices().isEmpty());
+    }
+
+    @Test
+    void csr_copyOfMatchesSourceGraph() {
+        Graph list = new AdjacencyListGraph(createVertices(6));
+        addSampleDAGEdges(list);
+
+        CsrGraph csr = CsrGraph.copyOf(list);
+
+        assertEquals(list, csr);
+        assertEquals(csr, list);
+        assertEquals(list.hashCode(), csr.hashCode());
+        assertEquals("v5", csr.getVertices().get(5).getLabel());
+        for (int v = 0; v < 6; v++) {
+            List<Integer> parents = new ArrayList<>(list.getParents(v));
+            Collections.sort(parents);
+            assertEquals(parents, csr.getParents(v));
+        }
+        assertSame(csr, CsrGraph.copyOf(csr));
+
+        //исходный граф изменяется независимо от копии
+        list.addEdge(0, 5);
+        assertNotEquals(list, csr);
+    }
+
+    @Test
+    void csr_largeRandomGraphMatchesAdjacencyList() {
+        int n = 2_000;
+        Random random = new Random(42);
+        AdjacencyListGraph list = new AdjacencyListGraph(createVertices(n));
+        CsrGraph.Builder builder = new CsrGraph.Builder().withVertexCount(n);
+        for (int e = 0; e < 20_000; e++) {
+            int from = random.nextInt(n);
+            int to = random.nextInt(n);
+            builder.withEdge(from, to);
+            if (!list.getChildren(from).contains(to)) {
+                list.addEdge(from, to);
+            }
+        }
+
+        CsrGraph csr = builder.build();
+
+        assertEquals(list, csr);
+        for (int v = 0; v < n; v += 97) {
+            assertEquals(list.getChildren(v), csr.getChildren(v));
+            assertEquals(list.getParents(v), csr.getParents(v));
+        }
+    }
+
     // ===========================================================
     // ============ equals между разными реализациями ============
     // ===========================================================
@@ -364,6 +490,7 @@ class GraphTest {
         addSampleDAGEdges(matrixGraph);
         addSampleDAGEdges(listGraph);
         addSampleDAGEdges(incidGraph);
+        Graph csrGraph    = CsrGraph.copyOf(listGraph);
 
         // все графы изоморфны и должны быть равны друг другу
         assertEquals(matrixGraph, listGraph);
@@ -375,6 +502,9 @@ class GraphTest {
         assertEquals(listGraph, incidGraph);
         assertEquals(incidGraph, listGraph);
 
+        assertEquals(matrixGraph, csrGraph);
+        assertEquals(csrGraph, incidGraph);
+
         // граф с другой структурой не равен
         Graph empty = new AdjacencyMatrixGraph();
         assertNotEquals(matrixGraph, empty);
@@ -494,6 +624,84 @@ class GraphTest {
     }
 
 
+    // ==========================================================================
+    // ======================== Обход соседей без списков ========================
+    // ==========================================================================
+
+    /**
+     * Проверяет, что forEachChild/forEachParent/childIterator/outDegree/inDegree
+     * согласованы с getChildren/getParents.
+     */
+    private void assertPrimitiveAccessorsMatchLists(Graph g) {
+        int n = g.getVertices().size();
+        for (int v = 0; v < n; v++) {
+            List<Integer> children = new ArrayList<>();
+            g.forEachChild(v, children::add);
+            List<Integer> parents = new ArrayList<>();
+            g.forEachParent(v, parents::add);
+            List<Integer> iterated = new ArrayList<>();
+            PrimitiveIterator.OfInt it = g.childIterator(v);
+            while (it.hasNext()) {
+                iterated.add(it.nextInt());
+            }
+
+            //порядок обхода совпадает с порядком списков
+            assertEquals(g.getChildren(v), children, g.getClass().getSimpleName());
+            assertEquals(g.getParents(v), parents, g.getClass().getSimpleName());
+            assertEquals(children, iterated);
+            assertEquals(children.size(), g.outDegree(v));
+            assertEquals(parents.size(), g.inDegree(v));
+            assertThrows(NoSuchElementException.class, it::nextInt);
+        }
+
+        assertThrows(IllegalArgumentException.class, () -> g.forEachChild(n, child -> { }));
+        assertThrows(IllegalArgumentException.class, () -> g.forEachParent(-1, parent -> { }));
+        assertThrows(IllegalArgumentException.class, () -> g.childIterator(n));
+        assertThrows(IllegalArgumentException.class, () -> g.outDegree(-1));
+        assertThrows(IllegalArgumentException.class, () -> g.inDegree(n));
+    }
+
+    @Test
+    void primitiveAccessors_matchListsForAllImplementations() {
+        Graph matrixGraph = new AdjacencyMatrixGraph(createVertices(6));
+        Graph listGraph   = new AdjacencyListGraph(createVertices(6));
+        Graph incidGraph  = new IncidenceMatrixGraph(createVertices(6));
+
+        addSampleDAGEdges(matrixGraph);
+        addSampleDAGEdges(listGraph);
+        addSampleDAGEdges(incidGraph);
+
+        assertPrimitiveAccessorsMatchLists(matrixGraph);
+        assertPrimitiveAccessorsMatchLists(listGraph);
+        assertPrimitiveAccessorsMatchLists(incidGraph);
+        assertPrimitiveAccessorsMatchLists(CsrGraph.copyOf(listGraph));
+
+        assertEquals(2, listGraph.outDegree(5));
+        assertEquals(2, incidGraph.inDegree(1));
+        assertEquals(0, matrixGraph.inDegree(4));
+    }
+
+    @Test
+    void kahnTopologicalSort_handlesLargeCsrGraph() {
+        //цепочка 0 -> 1 -> ... -> n-1 и рёбра через одну вершину, добавленные в обратном порядке
+        int n = 100_000;
+        CsrGraph.Builder builder = new CsrGraph.Builder().withVertexCount(n);
+        for (int v = n - 3; v >= 0; v--) {
+            builder.withEdge(v, v + 2);
+        }
+        for (int v = 0; v + 1 < n; v++) {
+            builder.withEdge(v, v + 1);
+        }
+        CsrGraph g = builder.build();
+
+        List<Vertex> order = new KahnTopologicalSort().topologicalSort(g);
+
+        assertEquals(n, order.size());
+        for (int i = 0; i < n; i++) {
+            assertEquals(i, order.get(i).getId());
+        }
+    }
+
     // ===========================================================================
     // ======================== Топологическая сортировка ========================
     // ===========================================================================
@@ -537,10 +745,13 @@ class GraphTest {
         List<Vertex> orderMatrix = sorter.topologicalSort(matrixGraph);
         List<Vertex> orderList   = sorter.topologicalSort(listGraph);
         List<Vertex> orderIncid  = sorter.topologicalSort(incidGraph);
+        Graph csrGraph = CsrGraph.copyOf(listGraph);
+        List<Vertex> orderCsr    = sorter.topologicalSort(csrGraph);
 
         assertValidTopologicalOrder(matrixGraph, orderMatrix);
         assertValidTopologicalOrder(listGraph, orderList);
         assertValidTopologicalOrder(incidGraph, orderIncid);
+        assertValidTopologicalOrder(csrGraph, orderCsr);
     }
 
     @Test
@@ -0,0 +1,103 @@
+package ru.nsu.munkuev;
+
+import java.util.Map;
+
+/**
+ * Общий вид сравниваемых в бенчмарках таблиц: реализаций {@link SymbolTable} и
+ * {@link Map} из JDK. В каждом форке JMH используется одна реализация, поэтому вызовы
+ * через интерфейс остаются мономорфными и не искажают сравнение.
+ */
+interface BenchmarkTable {
+    Object put(Object key, Object value);
+
+    Object get(Object key);
+
+    Object remove(Object key);
+
+    boolean contains(Object key);
+
+    int size();
+
+    /**
+     * Обходит все пары и возвращает сумму хешей значений, чтобы JIT не выбросил обход.
+     */
+    long iterate();
+
+
+    static BenchmarkTable of(SymbolTable<Object, Object> table) {
+        return new BenchmarkTable() {
+            @Override
+            public Object put(Object key, Object value) {
+                return table.add(key, value);
+            }
+
+            @Override
+            public Object get(Object key) {
+                return table.get(key);
+            }
+
+            @Override
+            public Object remove(Object key) {
+                return table.remove(key);
+            }
+
+            @Override
+            public boolean contains(Object key) {
+                return table.contains(key);
+            }
+
+            @Override
+            public int size() {
+                return table.getSize();
+            }
+
+            @Override
+            public long iterate() {
+                long sum = 0;
+                for (Node<Object, Object> node : table) {
+                    sum += node.getValue().hashCode();
+                }
+                return sum;
+            }
+        };
+    }
+
+
+    static BenchmarkTable of(Map<Object, Object> map) {
+        return new BenchmarkTable() {
+            @Override
+            public Object put(Object key, Object value) {
+                return map.put(key, value);
+            }
+
+            @Override
+            public Object get(Object key) {
+                return map.get(key);
+            }
+
+            @Override
+            public Object remove(Object key) {
+                return map.remove(key);
+            }
+
+            @Override
+            public boolean contains(Object key) {
+                return map.containsKey(key);
+            }
+
+            @Override
+            public int size() {
+                return map.size();
+            }
+
+            @Override
+            public long iterate() {
+                long sum = 0;
+                for (Map.Entry<Object, Object> entry : map.entrySet()) {
+                    sum += entry.getValue().hashCode();
+                }
+                return sum;
+            }
+        };
+    }
+}
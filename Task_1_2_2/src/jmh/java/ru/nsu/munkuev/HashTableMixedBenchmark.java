@@ -0,0 +1,93 @@
+package ru.nsu.munkuev;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Смешанная нагрузка с заданной долей чтений. Остальные операции поровну делятся между
+ * вставкой и удалением ключей из пространства вдвое больше начального размера, так что
+ * размер таблицы колеблется около {@code size}, а часть чтений промахивается.
+ * <p>
+ * Последовательность операций заранее сгенерирована и одинакова для всех реализаций.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Thread)
+@Fork(value = 1, jvmArgsAppend = {"-Xms1g", "-Xmx1g"})
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class HashTableMixedBenchmark {
+    private static final int OPERATIONS = 1 << 16;
+
+    private static final byte READ = 0;
+    private static final byte WRITE = 1;
+    private static final byte REMOVE = 2;
+
+    @Param({"100000"})
+    private int size;
+
+    @Param({"50", "90", "99"})
+    private int readPercent;
+
+    @Param({"HASH_TABLE", "HASH_TABLE_INCREMENTAL", "OPEN_ADDRESSING", "CONCURRENT_HASH_TABLE",
+            "BOUNDED_W_TINY_LFU", "HASH_MAP", "CONCURRENT_HASH_MAP"})
+    private Implementation implementation;
+
+    @Param({"INTEGER", "STRING", "POORLY_HASHED"})
+    private KeyKind keyKind;
+
+    private BenchmarkTable table;
+    private Object[] operationKeys;
+    private byte[] operations;
+
+    @Setup(Level.Trial)
+    public void generate() {
+        Object[] keys = keyKind.generate(0, 2 * size, 42);
+        table = implementation.create(2 * size);
+        for (int i = 0; i < size; i++) {
+            table.put(keys[i], keys[i]);
+        }
+
+        SplittableRandom random = new SplittableRandom(7);
+        operationKeys = new Object[OPERATIONS];
+        operations = new byte[OPERATIONS];
+        for (int i = 0; i < OPERATIONS; i++) {
+            operationKeys[i] = keys[random.nextInt(keys.length)];
+            int roll = random.nextInt(100);
+            if (roll < readPercent) {
+                operations[i] = READ;
+            }
+            else {
+                operations[i] = random.nextBoolean() ? WRITE : REMOVE;
+            }
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(OPERATIONS)
+    public void mixed(Blackhole blackhole) {
+        for (int i = 0; i < OPERATIONS; i++) {
+            Object key = operationKeys[i];
+            switch (operations[i]) {
+                case READ -> blackhole.consume(table.get(key));
+                case WRITE -> blackhole.consume(table.put(key, key));
+                default -> blackhole.consume(table.remove(key));
+            }
+        }
+    }
+}
@@ -0,0 +1,92 @@
+package ru.nsu.munkuev;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Стоимость отдельных операций над заполненной таблицей: чтение существующего и
+ * отсутствующего ключа, удаление с повторной вставкой и полный обход.
+ * <p>
+ * Ключи перебираются по кругу в случайном порядке, так что соседние вызовы попадают
+ * в разные бакеты, а размер таблицы между вызовами не меняется.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Thread)
+@Fork(value = 1, jvmArgsAppend = {"-Xms1g", "-Xmx1g"})
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class HashTableOperationsBenchmark {
+
+    @Param({"1000", "100000"})
+    private int size;
+
+    @Param({"HASH_TABLE", "OPEN_ADDRESSING", "CONCURRENT_HASH_TABLE", "BOUNDED_LRU", "BOUNDED_W_TINY_LFU",
+            "HASH_MAP", "CONCURRENT_HASH_MAP"})
+    private Implementation implementation;
+
+    @Param({"INTEGER", "STRING", "POORLY_HASHED"})
+    private KeyKind keyKind;
+
+    private BenchmarkTable table;
+    private Object[] keys;
+    private Object[] missingKeys;
+    private int index;
+
+    @Setup(Level.Trial)
+    public void fill() {
+        keys = keyKind.generate(0, size, 42);
+        missingKeys = keyKind.generate(size, size, 43);
+        table = implementation.create(size);
+        for (Object key : keys) {
+            table.put(key, key);
+        }
+    }
+
+    private int next() {
+        int i = index;
+        index = i + 1 == size ? 0 : i + 1;
+        return i;
+    }
+
+    @Benchmark
+    public Object getHit() {
+        return table.get(keys[next()]);
+    }
+
+    @Benchmark
+    public Object getMiss() {
+        return table.get(missingKeys[next()]);
+    }
+
+    @Benchmark
+    public boolean containsHit() {
+        return table.contains(keys[next()]);
+    }
+
+    @Benchmark
+    public Object removeAndAdd() {
+        Object key = keys[next()];
+        Object value = table.remove(key);
+        table.put(key, value);
+        return value;
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public long iterate() {
+        return table.iterate();
+    }
+}
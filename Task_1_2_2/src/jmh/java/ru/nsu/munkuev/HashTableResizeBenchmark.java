@@ -0,0 +1,56 @@
+package ru.nsu.munkuev;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Заполнение пустой таблицы с вместимостью по умолчанию: по пути таблица многократно
+ * расширяется. Вместе с {@code -prof gc} показывает, сколько памяти уходит на узлы и
+ * промежуточные массивы бакетов.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Thread)
+@Fork(value = 1, jvmArgsAppend = {"-Xms1g", "-Xmx1g"})
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class HashTableResizeBenchmark {
+
+    @Param({"1000", "100000"})
+    private int size;
+
+    @Param({"HASH_TABLE", "HASH_TABLE_INCREMENTAL", "OPEN_ADDRESSING", "CONCURRENT_HASH_TABLE",
+            "BOUNDED_LRU", "HASH_MAP", "CONCURRENT_HASH_MAP"})
+    private Implementation implementation;
+
+    @Param({"INTEGER", "STRING", "POORLY_HASHED"})
+    private KeyKind keyKind;
+
+    private Object[] keys;
+
+    @Setup(Level.Trial)
+    public void generate() {
+        keys = keyKind.generate(0, size, 42);
+    }
+
+    @Benchmark
+    public BenchmarkTable fillFromEmpty() {
+        BenchmarkTable table = implementation.create(size);
+        for (Object key : keys) {
+            table.put(key, key);
+        }
+        return table;
+    }
+}
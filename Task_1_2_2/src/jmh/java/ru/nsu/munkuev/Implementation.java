@@ -0,0 +1,47 @@
+package ru.nsu.munkuev;
+
+import java.util.HashMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Реализации таблиц, сравниваемые в бенчмарках.
+ */
+public enum Implementation {
+    HASH_TABLE,
+    HASH_TABLE_INCREMENTAL,
+    OPEN_ADDRESSING,
+    CONCURRENT_HASH_TABLE,
+    /**
+     * {@link BoundedHashTable} с ограничением вдвое больше числа ключей: измеряются
+     * накладные расходы на очереди вытеснения без самих вытеснений.
+     */
+    BOUNDED_LRU,
+    BOUNDED_W_TINY_LFU,
+    HASH_MAP,
+    CONCURRENT_HASH_MAP;
+
+    /**
+     * Создаёт пустую таблицу с вместимостью по умолчанию.
+     * @param expectedSize сколько ключей будет в таблице; используется только как
+     *                     ограничение для {@link BoundedHashTable}
+     */
+    BenchmarkTable create(int expectedSize) {
+        return switch (this) {
+            case HASH_TABLE -> BenchmarkTable.of(new HashTable<>());
+            case HASH_TABLE_INCREMENTAL -> BenchmarkTable.of(new HashTable<>(16, 0.75f, ResizeMode.INCREMENTAL));
+            case OPEN_ADDRESSING -> BenchmarkTable.of(new OpenAddressingHashTable<>());
+            case CONCURRENT_HASH_TABLE -> BenchmarkTable.of(new ConcurrentHashTable<>());
+            case BOUNDED_LRU -> BenchmarkTable.of(bounded(expectedSize, EvictionPolicy.LRU));
+            case BOUNDED_W_TINY_LFU -> BenchmarkTable.of(bounded(expectedSize, EvictionPolicy.W_TINY_LFU));
+            case HASH_MAP -> BenchmarkTable.of(new HashMap<>());
+            case CONCURRENT_HASH_MAP -> BenchmarkTable.of(new ConcurrentHashMap<>());
+        };
+    }
+
+    private static SymbolTable<Object, Object> bounded(int expectedSize, EvictionPolicy policy) {
+        return new BoundedHashTable.Builder<Object, Object>()
+                .withMaximumSize(2L * expectedSize)
+                .withEvictionPolicy(policy)
+                .build();
+    }
+}
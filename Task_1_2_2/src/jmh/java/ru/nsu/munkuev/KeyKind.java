@@ -0,0 +1,41 @@
+package ru.nsu.munkuev;
+
+import java.util.SplittableRandom;
+
+/**
+ * Тип ключей в бенчмарках.
+ */
+public enum KeyKind {
+    INTEGER,
+    STRING,
+    POORLY_HASHED;
+
+    /**
+     * Возвращает {@code count} различных ключей в случайном порядке. Ключи с номерами
+     * {@code [from, from + count)} одинаковы при одинаковом {@code from}, поэтому
+     * наборы с непересекающимися диапазонами не пересекаются.
+     */
+    Object[] generate(int from, int count, long seed) {
+        Object[] keys = new Object[count];
+        for (int i = 0; i < count; i++) {
+            keys[i] = key(from + i);
+        }
+
+        SplittableRandom random = new SplittableRandom(seed);
+        for (int i = count - 1; i > 0; i--) {
+            int j = random.nextInt(i + 1);
+            Object tmp = keys[i];
+            keys[i] = keys[j];
+            keys[j] = tmp;
+        }
+        return keys;
+    }
+
+    private Object key(int id) {
+        return switch (this) {
+            case INTEGER -> id;
+            case STRING -> "key-" + id;
+            case POORLY_HASHED -> new PoorlyHashedKey(id);
+        };
+    }
+}
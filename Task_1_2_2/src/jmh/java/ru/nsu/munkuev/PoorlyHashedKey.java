@@ -0,0 +1,35 @@
+package ru.nsu.munkuev;
+
+/**
+ * Ключ с плохим {@link #hashCode()}: хеш отличается только старшими битами, а каждые
+ * восемь подряд идущих ключей имеют одинаковый хеш. Без подмешивания старших битов все
+ * такие ключи небольшой таблицы попадают в один бакет, а точные совпадения хешей
+ * проверяют обработку длинных цепочек.
+ */
+final class PoorlyHashedKey implements Comparable<PoorlyHashedKey> {
+    private final int id;
+
+    PoorlyHashedKey(int id) {
+        this.id = id;
+    }
+
+    @Override
+    public int hashCode() {
+        return (id >>> 3) << 16;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        return o instanceof PoorlyHashedKey other && other.id == id;
+    }
+
+    @Override
+    public int compareTo(PoorlyHashedKey other) {
+        return Integer.compare(id, other.id);
+    }
+
+    @Override
+    public String toString() {
+        return "PoorlyHashedKey(" + id + ")";
+    }
+}
@@ -0,0 +1,441 @@
+package ru.nsu.munkuev;
+
+import java.time.Duration;
+import java.util.Iterator;
+import java.util.Objects;
+import java.util.Spliterator;
+import java.util.function.LongSupplier;
+
+/**
+ * Хеш-таблица {@link HashTable} с ограниченным размером, которую удобно использовать как
+ * кеш перед медленным хранилищем.
+ * <p>
+ * Таблица ограничивается либо числом записей ({@link Builder#withMaximumSize(long)}),
+ * либо их суммарным весом ({@link Builder#withMaximumWeight(long, Weigher)}). Если после
+ * добавления или замены значения ограничение превышено, записи вытесняются по выбранной
+ * политике {@link EvictionPolicy}: {@code LRU}, {@code LFU} или {@code W-TinyLFU}.
+ * Запись, вес которой сам по себе превышает ограничение, вытесняется сразу после добавления.
+ * <p>
+ * Дополнительно можно задать время жизни записи после последней записи значения
+ * ({@link Builder#withExpireAfterWrite(Duration)}). Истёкшие записи удаляются в начале
+ * каждой операции таблицы, поэтому ни {@link #get(Object)}, ни итератор их не видят.
+ * <p>
+ * Таблица считает попадания и промахи {@link #get(Object)}, вытеснения и истечения;
+ * их снимок возвращает {@link #stats()}. Вызовы {@link #contains(Object)} обращениями
+ * не считаются и не влияют на порядок вытеснения.
+ * <p>
+ * Как и {@link HashTable}, таблица не потокобезопасна. Чтение методом
+ * {@link #get(Object)} меняет только очереди вытеснения, поэтому не делает недействительными
+ * открытые итераторы.
+ *
+ * @param <K> тип ключей
+ * @param <V> тип значений
+ */
+public class BoundedHashTable<K, V> extends HashTable<K, V> {
+    private static final int DEFAULT_INITIAL_CAPACITY = 16;
+    private static final float LOAD_FACTOR = 0.75f;
+
+    private final long maximum;
+    private final Weigher<? super K, ? super V> weigher;
+    private final EvictionPolicy evictionPolicy;
+    private final EvictionStrategy<K, V> strategy;
+    /**
+     * Время жизни записи в наносекундах или {@code -1}, если записи не истекают.
+     */
+    private final long expireAfterWriteNanos;
+    private final LongSupplier ticker;
+
+    /**
+     * Очередь записи: узлы в порядке последней записи значения. Так как время жизни у всех
+     * записей одинаковое, голова очереди истекает первой.
+     */
+    private CacheNode<K, V> writeHead;
+    private CacheNode<K, V> writeTail;
+
+    private long weightedSize;
+
+    private long hitCount;
+    private long missCount;
+    private long evictionCount;
+    private long evictionWeight;
+    private long expirationCount;
+
+    private BoundedHashTable(Builder<K, V> builder) {
+        super(builder.initialCapacity, LOAD_FACTOR);
+        this.maximum = builder.maximum;
+        this.weigher = builder.weigher;
+        this.evictionPolicy = builder.evictionPolicy;
+        this.strategy = EvictionStrategy.of(builder.evictionPolicy, builder.maximum);
+        this.expireAfterWriteNanos = builder.expireAfterWriteNanos;
+        this.ticker = builder.ticker;
+    }
+
+
+    @Override
+    public V add(K key, V value) {
+        expireEntries();
+        return super.add(key, value);
+    }
+
+
+    /**
+     * Возвращает значение по ключу и отмечает обращение к записи для политики вытеснения.
+     * Учитывается в счётчиках попаданий и промахов.
+     */
+    @Override
+    public V get(K key) {
+        Node<K, V> node = getNode(key, true);
+        if (node == null) {
+            missCount++;
+            return null;
+        }
+
+        hitCount++;
+        strategy.onAccess((CacheNode<K, V>) node);
+        return node.getValue();
+    }
+
+
+    @Override
+    public V remove(K key) {
+        expireEntries();
+        return super.remove(key);
+    }
+
+
+    @Override
+    public boolean contains(K key) {
+        expireEntries();
+        return super.contains(key);
+    }
+
+
+    @Override
+    public int getSize() {
+        expireEntries();
+        return super.getSize();
+    }
+
+
+    @Override
+    public void clear() {
+        super.clear();
+        strategy.clear();
+        writeHead = null;
+        writeTail = null;
+        weightedSize = 0;
+    }
+
+
+    @Override
+    public Iterator<Node<K, V>> iterator() {
+        expireEntries();
+        return super.iterator();
+    }
+
+
+    @Override
+    public Spliterator<Node<K, V>> spliterator() {
+        expireEntries();
+        return super.spliterator();
+    }
+
+
+    /**
+     * Возвращает суммарный вес записей. Если таблица ограничена числом записей, совпадает
+     * с {@link #getSize()}.
+     * @return суммарный вес записей
+     */
+    public long getWeightedSize() {
+        expireEntries();
+        return weightedSize;
+    }
+
+
+    /**
+     * Возвращает ограничение числа записей или их суммарного веса.
+     * @return ограничение числа записей или веса
+     */
+    public long getMaximum() {
+        return maximum;
+    }
+
+
+    /**
+     * Возвращает политику вытеснения таблицы.
+     * @return политика вытеснения
+     */
+    public EvictionPolicy getEvictionPolicy() {
+        return evictionPolicy;
+    }
+
+
+    /**
+     * Возвращает снимок счётчиков попаданий, промахов, вытеснений и истечений.
+     * @return снимок счётчиков таблицы
+     */
+    public CacheStats stats() {
+        return new CacheStats(hitCount, missCount, evictionCount, evictionWeight, expirationCount);
+    }
+
+
+    @Override
+    Node<K, V> getNode(K key, boolean countGet) {
+        expireEntries();
+        return super.getNode(key, countGet);
+    }
+
+
+    @Override
+    Node<K, V> newNode(K key, V value) {
+        CacheNode<K, V> node = new CacheNode<>(key, value);
+        node.weight = weigh(key, value);
+        return node;
+    }
+
+
+    @Override
+    void afterNodeInsertion(Node<K, V> node) {
+        CacheNode<K, V> cacheNode = (CacheNode<K, V>) node;
+        weightedSize += cacheNode.weight;
+        if (expireAfterWriteNanos >= 0) {
+            cacheNode.writeTime = ticker.getAsLong();
+            linkLastWrite(cacheNode);
+        }
+        strategy.onInsert(cacheNode);
+        evict(cacheNode);
+    }
+
+
+    @Override
+    void afterNodeUpdate(Node<K, V> node, V oldValue) {
+        CacheNode<K, V> cacheNode = (CacheNode<K, V>) node;
+        int newWeight;
+        try {
+            newWeight = weigh(node.getKey(), node.getValue());
+        }
+        catch (RuntimeException e) {
+            node.setValue(oldValue);
+            throw e;
+        }
+
+        int oldWeight = cacheNode.weight;
+        cacheNode.weight = newWeight;
+        weightedSize += newWeight - oldWeight;
+        if (expireAfterWriteNanos >= 0) {
+            cacheNode.writeTime = ticker.getAsLong();
+            unlinkWrite(cacheNode);
+            linkLastWrite(cacheNode);
+        }
+        strategy.onUpdate(cacheNode, oldWeight);
+        evict(cacheNode);
+    }
+
+
+    @Override
+    void afterNodeRemoval(Node<K, V> node) {
+        CacheNode<K, V> cacheNode = (CacheNode<K, V>) node;
+        weightedSize -= cacheNode.weight;
+        if (expireAfterWriteNanos >= 0) {
+            unlinkWrite(cacheNode);
+        }
+        strategy.onRemove(cacheNode);
+    }
+
+
+    private int weigh(K key, V value) {
+        int weight = weigher.weigh(key, value);
+        if (weight < 0) {
+            throw new IllegalArgumentException("Negative weight " + weight + " for key " + key);
+        }
+        return weight;
+    }
+
+
+    /**
+     * Вытесняет записи, выбранные стратегией, пока суммарный вес превышает ограничение.
+     * Только что записанный узел {@code written}, который один тяжелее ограничения,
+     * вытесняется сам, не задевая остальные записи.
+     */
+    private void evict(CacheNode<K, V> written) {
+        if (written.weight > maximum) {
+            evictNode(written);
+        }
+        while (weightedSize > maximum) {
+            CacheNode<K, V> victim = strategy.victim();
+            if (victim == null) {
+                return;
+            }
+            evictNode(victim);
+        }
+    }
+
+
+    private void evictNode(CacheNode<K, V> node) {
+        evictionCount++;
+        evictionWeight += node.weight;
+        super.remove(node.getKey());
+    }
+
+
+    /**
+     * Удаляет с головы очереди записи все узлы, время жизни которых истекло.
+     */
+    private void expireEntries() {
+        if (expireAfterWriteNanos < 0 || writeHead == null) {
+            return;
+        }
+
+        long now = ticker.getAsLong();
+        while (writeHead != null && now - writeHead.writeTime >= expireAfterWriteNanos) {
+            expirationCount++;
+            super.remove(writeHead.getKey());
+        }
+    }
+
+
+    private void linkLastWrite(CacheNode<K, V> node) {
+        node.writePrev = writeTail;
+        node.writeNext = null;
+        if (writeTail == null) {
+            writeHead = node;
+        }
+        else {
+            writeTail.writeNext = node;
+        }
+        writeTail = node;
+    }
+
+
+    private void unlinkWrite(CacheNode<K, V> node) {
+        if (node.writePrev == null) {
+            writeHead = node.writeNext;
+        }
+        else {
+            node.writePrev.writeNext = node.writeNext;
+        }
+        if (node.writeNext == null) {
+            writeTail = node.writePrev;
+        }
+        else {
+            node.writeNext.writePrev = node.writePrev;
+        }
+        node.writePrev = null;
+        node.writeNext = null;
+    }
+
+
+    // ========================= Builder =========================
+
+    /**
+     * Построитель {@link BoundedHashTable}. Должно быть задано ровно одно ограничение:
+     * {@link #withMaximumSize(long)} или {@link #withMaximumWeight(long, Weigher)}.
+     * По умолчанию используется политика {@link EvictionPolicy#LRU}, а записи не истекают.
+     *
+     * @param <K> тип ключей
+     * @param <V> тип значений
+     */
+    public static final class Builder<K, V> {
+        private long maximum = -1;
+        private Weigher<? super K, ? super V> weigher;
+        private EvictionPolicy evictionPolicy = EvictionPolicy.LRU;
+        private long expireAfterWriteNanos = -1;
+        private LongSupplier ticker = System::nanoTime;
+        private int initialCapacity = DEFAULT_INITIAL_CAPACITY;
+
+        /**
+         * Ограничивает таблицу {@code maximumSize} записями.
+         * @param maximumSize наибольшее число записей
+         * @return этот построитель
+         */
+        public Builder<K, V> withMaximumSize(long maximumSize) {
+            requireNoMaximum();
+            if (maximumSize < 0) {
+                throw new IllegalArgumentException("maximumSize must be >= 0");
+            }
+            this.maximum = maximumSize;
+            this.weigher = (key, value) -> 1;
+            return this;
+        }
+
+        /**
+         * Ограничивает суммарный вес записей, посчитанный {@code weigher}, значением {@code maximumWeight}.
+         * @param maximumWeight наибольший суммарный вес записей
+         * @param weigher функция веса пары
+         * @return этот построитель
+         */
+        public Builder<K, V> withMaximumWeight(long maximumWeight, Weigher<? super K, ? super V> weigher) {
+            requireNoMaximum();
+            if (maximumWeight < 0) {
+                throw new IllegalArgumentException("maximumWeight must be >= 0");
+            }
+            this.maximum = maximumWeight;
+            this.weigher = Objects.requireNonNull(weigher, "weigher");
+            return this;
+        }
+
+        /**
+         * Задаёт политику вытеснения, по умолчанию {@link EvictionPolicy#LRU}.
+         * @param evictionPolicy политика вытеснения
+         * @return этот построитель
+         */
+        public Builder<K, V> withEvictionPolicy(EvictionPolicy evictionPolicy) {
+            this.evictionPolicy = Objects.requireNonNull(evictionPolicy, "evictionPolicy");
+            return this;
+        }
+
+        /**
+         * Удаляет запись, если с последней записи её значения прошло {@code duration}.
+         * @param duration время жизни записи
+         * @return этот построитель
+         */
+        public Builder<K, V> withExpireAfterWrite(Duration duration) {
+            if (duration.isNegative()) {
+                throw new IllegalArgumentException("expireAfterWrite must be >= 0");
+            }
+            this.expireAfterWriteNanos = duration.toNanos();
+            return this;
+        }
+
+        /**
+         * Задаёт источник времени в наносекундах для истечения записей,
+         * по умолчанию {@link System#nanoTime()}.
+         * @param ticker источник времени
+         * @return этот построитель
+         */
+        public Builder<K, V> withTicker(LongSupplier ticker) {
+            this.ticker = Objects.requireNonNull(ticker, "ticker");
+            return this;
+        }
+
+        /**
+         * Задаёт начальное число бакетов таблицы.
+         * @param initialCapacity начальное число бакетов
+         * @return этот построитель
+         */
+        public Builder<K, V> withInitialCapacity(int initialCapacity) {
+            if (initialCapacity <= 0) {
+                throw new IllegalArgumentException("initialCapacity must be > 0");
+            }
+            this.initialCapacity = initialCapacity;
+            return this;
+        }
+
+        /**
+         * Создаёт таблицу; ограничение числа записей или веса должно быть задано.
+         * @return новая таблица
+         */
+        public BoundedHashTable<K, V> build() {
+            if (maximum < 0) {
+                throw new IllegalStateException("maximumSize or maximumWeight must be set");
+            }
+            return new BoundedHashTable<>(this);
+        }
+
+        private void requireNoMaximum() {
+            if (maximum >= 0) {
+                throw new IllegalStateException("maximum was already set to " + maximum);
+            }
+        }
+    }
+}
@@ -0,0 +1,65 @@
+package ru.nsu.munkuev;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Реализации кодеков, возвращаемых статическими методами {@link Codec}.
+ */
+final class BuiltInCodecs {
+    static final Codec<Integer> INTEGER = new Codec<>() {
+        @Override
+        public void write(Integer value, ByteBuffer out) {
+            out.putInt(value);
+        }
+
+        @Override
+        public Integer read(ByteBuffer in) {
+            return in.getInt();
+        }
+    };
+
+    static final Codec<Long> LONG = new Codec<>() {
+        @Override
+        public void write(Long value, ByteBuffer out) {
+            out.putLong(value);
+        }
+
+        @Override
+        public Long read(ByteBuffer in) {
+            return in.getLong();
+        }
+    };
+
+    static final Codec<String> STRING = new Codec<>() {
+        @Override
+        public void write(String value, ByteBuffer out) {
+            out.put(value.getBytes(StandardCharsets.UTF_8));
+        }
+
+        @Override
+        public String read(ByteBuffer in) {
+            byte[] bytes = new byte[in.remaining()];
+            in.get(bytes);
+            return new String(bytes, StandardCharsets.UTF_8);
+        }
+    };
+
+    static final Codec<byte[]> BYTES = new Codec<>() {
+        @Override
+        public void write(byte[] value, ByteBuffer out) {
+            out.put(value);
+        }
+
+        @Override
+        public byte[] read(ByteBuffer in) {
+            byte[] bytes = new byte[in.remaining()];
+            in.get(bytes);
+            return bytes;
+        }
+    };
+
+    private BuiltInCodecs() {
+        throw new UnsupportedOperationException("This class can not be instantiated");
+    }
+}
@@ -0,0 +1,37 @@
+package ru.nsu.munkuev;
+
+/**
+ * Узел {@link BoundedHashTable}. Кроме цепочки бакета, узел состоит ещё в двух
+ * двусвязных списках: в очереди политики вытеснения ({@link #prev}, {@link #next})
+ * и в очереди записи ({@link #writePrev}, {@link #writeNext}), по которой истекают записи.
+ * Ссылки хранятся прямо в узле, поэтому перемещение по спискам не требует отдельных объектов.
+ *
+ * @param <K> тип ключа
+ * @param <V> тип значения
+ */
+final class CacheNode<K, V> extends Node<K, V> {
+    CacheNode<K, V> prev;
+    CacheNode<K, V> next;
+
+    CacheNode<K, V> writePrev;
+    CacheNode<K, V> writeNext;
+
+    /**
+     * Вес пары, посчитанный при последней записи значения.
+     */
+    int weight;
+
+    /**
+     * Время последней записи значения по часам таблицы, в наносекундах.
+     */
+    long writeTime;
+
+    /**
+     * Номер очереди стратегии вытеснения, в которой сейчас находится узел.
+     */
+    int queue;
+
+    CacheNode(K key, V value) {
+        super(key, value, null);
+    }
+}
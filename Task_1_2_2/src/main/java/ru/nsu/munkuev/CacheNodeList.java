@@ -0,0 +1,78 @@
+package ru.nsu.munkuev;
+
+/**
+ * Двусвязный список узлов {@link CacheNode} по ссылкам {@code prev/next} с суммарным
+ * весом элементов. Голова списка — самый давний элемент, хвост — самый свежий.
+ */
+final class CacheNodeList<K, V> {
+    private CacheNode<K, V> head;
+    private CacheNode<K, V> tail;
+    private long weight;
+
+    CacheNode<K, V> head() {
+        return head;
+    }
+
+    CacheNode<K, V> tail() {
+        return tail;
+    }
+
+    boolean isEmpty() {
+        return head == null;
+    }
+
+    long weight() {
+        return weight;
+    }
+
+    /**
+     * Учитывает изменение веса узла, который уже лежит в списке.
+     */
+    void reweigh(int oldWeight, int newWeight) {
+        weight += newWeight - oldWeight;
+    }
+
+    void addLast(CacheNode<K, V> node) {
+        node.prev = tail;
+        node.next = null;
+        if (tail == null) {
+            head = node;
+        }
+        else {
+            tail.next = node;
+        }
+        tail = node;
+        weight += node.weight;
+    }
+
+    void unlink(CacheNode<K, V> node) {
+        if (node.prev == null) {
+            head = node.next;
+        }
+        else {
+            node.prev.next = node.next;
+        }
+        if (node.next == null) {
+            tail = node.prev;
+        }
+        else {
+            node.next.prev = node.prev;
+        }
+        node.prev = null;
+        node.next = null;
+        weight -= node.weight;
+    }
+
+    void moveToLast(CacheNode<K, V> node) {
+        if (node != tail) {
+            unlink(node);
+            addLast(node);
+        }
+    }
+
+    void clear() {
+        head = null;
+        tail = null;
+        weight = 0;
+    }
+}
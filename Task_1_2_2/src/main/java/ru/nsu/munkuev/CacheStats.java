@@ -0,0 +1,136 @@
+package ru.nsu.munkuev;
+
+import java.util.Objects;
+
+/**
+ * Неизменяемый снимок счётчиков {@link BoundedHashTable}, полученный методом
+ * {@link BoundedHashTable#stats()}. Счётчики монотонно растут с момента создания таблицы,
+ * поэтому статистику за интервал можно получить методом {@link #minus(CacheStats)}.
+ */
+public final class CacheStats {
+    private final long hitCount;
+    private final long missCount;
+    private final long evictionCount;
+    private final long evictionWeight;
+    private final long expirationCount;
+
+    /**
+     * Создаёт снимок из значений счётчиков.
+     * @param hitCount число попаданий
+     * @param missCount число промахов
+     * @param evictionCount число вытесненных записей
+     * @param evictionWeight суммарный вес вытесненных записей
+     * @param expirationCount число истёкших записей
+     */
+    public CacheStats(long hitCount, long missCount, long evictionCount, long evictionWeight, long expirationCount) {
+        if (hitCount < 0 || missCount < 0 || evictionCount < 0 || evictionWeight < 0 || expirationCount < 0) {
+            throw new IllegalArgumentException("Counters must be non-negative");
+        }
+        this.hitCount = hitCount;
+        this.missCount = missCount;
+        this.evictionCount = evictionCount;
+        this.evictionWeight = evictionWeight;
+        this.expirationCount = expirationCount;
+    }
+
+    /**
+     * Число вызовов {@code get}, нашедших ключ.
+     * @return число попаданий
+     */
+    public long getHitCount() {
+        return hitCount;
+    }
+
+    /**
+     * Число вызовов {@code get}, не нашедших ключ, в том числе из-за истечения записи.
+     * @return число промахов
+     */
+    public long getMissCount() {
+        return missCount;
+    }
+
+    /**
+     * Число всех вызовов {@code get}.
+     * @return сумма попаданий и промахов
+     */
+    public long getRequestCount() {
+        return hitCount + missCount;
+    }
+
+    /**
+     * Доля попаданий среди всех вызовов {@code get}; {@code 1.0}, если вызовов не было.
+     * @return доля попаданий
+     */
+    public double getHitRate() {
+        long requests = getRequestCount();
+        return requests == 0 ? 1.0 : (double) hitCount / requests;
+    }
+
+    /**
+     * Число записей, вытесненных из-за превышения ограничения размера или веса.
+     * @return число вытесненных записей
+     */
+    public long getEvictionCount() {
+        return evictionCount;
+    }
+
+    /**
+     * Суммарный вес вытесненных записей.
+     * @return суммарный вес вытесненных записей
+     */
+    public long getEvictionWeight() {
+        return evictionWeight;
+    }
+
+    /**
+     * Число записей, удалённых по истечении времени жизни.
+     * @return число истёкших записей
+     */
+    public long getExpirationCount() {
+        return expirationCount;
+    }
+
+    /**
+     * Возвращает разность счётчиков этого снимка и более раннего снимка {@code other}.
+     * @param other более ранний снимок
+     * @return разность счётчиков
+     */
+    public CacheStats minus(CacheStats other) {
+        return new CacheStats(
+                Math.max(0, hitCount - other.hitCount),
+                Math.max(0, missCount - other.missCount),
+                Math.max(0, evictionCount - other.evictionCount),
+                Math.max(0, evictionWeight - other.evictionWeight),
+                Math.max(0, expirationCount - other.expirationCount));
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof CacheStats)) {
+            return false;
+        }
+        CacheStats other = (CacheStats) o;
+        return hitCount == other.hitCount
+                && missCount == other.missCount
+                && evictionCount == other.evictionCount
+                && evictionWeight == other.evictionWeight
+                && expirationCount == other.expirationCount;
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(hitCount, missCount, evictionCount, evictionWeight, expirationCount);
+    }
+
+    @Override
+    public String toString() {
+        return "CacheStats{hitCount=" + hitCount
+                + ", missCount=" + missCount
+                + ", evictionCount=" + evictionCount
+                + ", evictionWeight=" + evictionWeight
+                + ", expirationCount=" + expirationCount + "}";
+    }
+}
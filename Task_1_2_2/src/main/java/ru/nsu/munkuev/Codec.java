@@ -0,0 +1,51 @@
+package ru.nsu.munkuev;
+
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+
+/**
+ * Преобразование ключей или значений в байты для {@link HashTableSnapshot}.
+ * <p>
+ * Длину закодированного объекта снимок записывает сам, поэтому кодек пишет только
+ * содержимое, а при чтении получает буфер ровно из этих байт.
+ * Готовые кодеки возвращают {@link #integers()}, {@link #longs()}, {@link #strings()}
+ * и {@link #bytes()}.
+ *
+ * @param <T> тип кодируемых объектов
+ */
+public interface Codec<T> {
+    /**
+     * Записывает {@code value}, начиная с текущей позиции {@code out}.
+     * @throws BufferOverflowException если в {@code out} не хватило места; снимок
+     *                                 освободит буфер и повторит запись
+     */
+    void write(T value, ByteBuffer out);
+
+    /**
+     * Читает объект из всех оставшихся байт {@code in}.
+     */
+    T read(ByteBuffer in);
+
+
+    static Codec<Integer> integers() {
+        return BuiltInCodecs.INTEGER;
+    }
+
+    static Codec<Long> longs() {
+        return BuiltInCodecs.LONG;
+    }
+
+    /**
+     * Кодек строк в {@code UTF-8}.
+     */
+    static Codec<String> strings() {
+        return BuiltInCodecs.STRING;
+    }
+
+    /**
+     * Кодек массивов байт, записываемых как есть.
+     */
+    static Codec<byte[]> bytes() {
+        return BuiltInCodecs.BYTES;
+    }
+}
@@ -0,0 +1,599 @@
+package ru.nsu.munkuev;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Потокобезопасная хеш-таблица с тем же набором операций, что и у {@link HashTable}.
+ * <p>
+ * Как и {@link HashTable}, таблица состоит из бакетов с цепочками узлов, но бакеты лежат в
+ * {@link AtomicReferenceArray}, а поля узлов {@code value} и {@code next} объявлены
+ * {@code volatile}. Благодаря этому:
+ * <ul>
+ *     <li>{@link #get(Object)} и {@link #contains(Object)} не берут блокировок;</li>
+ *     <li>{@link #add(Object, Object)} вставляет узел в пустой бакет одной операцией CAS,
+ *         а в непустом бакете синхронизируется только на его первом узле, так что потоки,
+ *         работающие с разными бакетами, друг друга не ждут;</li>
+ *     <li>размер хранится в счётчике {@link LongAdder}, а не в общем поле {@code int}.</li>
+ * </ul>
+ *
+ * <p>
+ * Расширение таблицы выполняется совместно. Поток, заметивший превышение порога, создаёт
+ * таблицу вдвое большего размера, после чего любой поток, пришедший с записью в уже
+ * перенесённый бакет, помогает переносить оставшиеся бакеты порциями. Перенесённый бакет
+ * заменяется пересылающим узлом: читатели проходят по нему в новую таблицу и не ждут
+ * окончания расширения. Узлы при переносе копируются, поэтому цепочки старой таблицы,
+ * по которым ещё могут идти читатели, не меняются.
+ *
+ * <p>
+ * Ключи не могут быть {@code null}, значения могут. {@link #getSize()} во время параллельных
+ * изменений возвращает приблизительное значение. Итератор слабо согласован: он не выбрасывает
+ * {@link java.util.ConcurrentModificationException}, выдаёт каждую пару не более одного
+ * раза и может не увидеть изменения, сделанные после его создания. Выдаваемые узлы
+ * {@link Node} являются снимками, их {@link Node#setValue(Object)} не меняет таблицу.
+ *
+ * @param <K> тип ключей
+ * @param <V> тип значений
+ */
+public class ConcurrentHashTable<K, V> implements SymbolTable<K, V> {
+    private static final int DEFAULT_CAPACITY = 16;
+    private static final float DEFAULT_LOAD_FACTOR = 0.75f;
+
+    /**
+     * Хеш пересылающего узла. Хеши обычных узлов неотрицательны.
+     */
+    private static final int MOVED = -1;
+
+    /**
+     * Маска, обнуляющая знаковый бит хеша ключа.
+     */
+    private static final int HASH_BITS = 0x7fffffff;
+
+    /**
+     * Количество бакетов, которое поток забирает на перенос за один раз.
+     */
+    private static final int TRANSFER_STRIDE = 16;
+
+    private volatile AtomicReferenceArray<Bin<K, V>> table;
+
+    /**
+     * Текущее расширение или {@code null}, если таблица не расширяется.
+     * Завершающий перенос поток сначала публикует новую таблицу и порог, и только потом
+     * обнуляет это поле, поэтому увидевший {@code null} поток видит и актуальную таблицу.
+     */
+    private volatile Resize<K, V> resize;
+
+    private final Object resizeLock = new Object();
+
+    private volatile int threshold;
+
+    private final float loadFactor;
+
+    private final LongAdder counter = new LongAdder();
+
+
+    /**
+     * Создаёт таблицу с заданными изначальной вместимостью и степенью загрузки.
+     * Вместимость округляется вверх до степени двойки.
+     * @param initialCapacity изначальная вместимость таблицы
+     * @param loadFactor степень загрузки таблицы
+     * @throws IllegalArgumentException если {@code initialCapacity <= 0} или {@code loadFactor <= 0}
+     */
+    public ConcurrentHashTable(int initialCapacity, float loadFactor) {
+        if (initialCapacity <= 0) {
+            throw new IllegalArgumentException("Illegal initial capacity: " + initialCapacity);
+        }
+        if (!(loadFactor > 0)) {
+            throw new IllegalArgumentException("Illegal load factor: " + loadFactor);
+        }
+
+        int capacity = Hashing.tableSizeFor(initialCapacity);
+        this.loadFactor = loadFactor;
+        this.table = new AtomicReferenceArray<>(capacity);
+        this.threshold = (int) (capacity * loadFactor);
+    }
+
+
+    /**
+     * Создаёт таблицу вместимостью {@code 16} со степенью загрузки {@code 0.75}.
+     */
+    public ConcurrentHashTable() {
+        this(DEFAULT_CAPACITY, DEFAULT_LOAD_FACTOR);
+    }
+
+
+    @Override
+    public int getSize() {
+        long sum = counter.sum();
+        //удаление может учесться раньше добавления того же узла
+        return (int) Math.max(0, Math.min(sum, Integer.MAX_VALUE));
+    }
+
+
+    /**
+     * Возвращает текущее количество бакетов.
+     * @return вместимость таблицы
+     */
+    int capacity() {
+        return table.length();
+    }
+
+
+    @Override
+    public V add(K key, V value) {
+        int h = hash(key);
+        AtomicReferenceArray<Bin<K, V>> tab = table;
+
+        while (true) {
+            int i = h & (tab.length() - 1);
+            Bin<K, V> f = tab.get(i);
+
+            if (f == null) {
+                if (tab.compareAndSet(i, null, new Bin<>(h, key, value, null))) {
+                    break;
+                }
+            }
+            else if (f.hash == MOVED) {
+                tab = helpTransfer((ForwardingBin<K, V>) f);
+            }
+            else {
+                synchronized (f) {
+                    //пока ждали блокировку, бакет могли перенести или удалить его первый узел
+                    if (tab.get(i) != f) {
+                        continue;
+                    }
+
+                    Bin<K, V> e = f;
+                    while (true) {
+                        if (e.hash == h && key.equals(e.key)) {
+                            V oldValue = e.value;
+                            e.value = value;
+                            return oldValue;
+                        }
+                        if (e.next == null) {
+                            e.next = new Bin<>(h, key, value, null);
+                            break;
+                        }
+                        e = e.next;
+                    }
+                }
+                break;
+            }
+        }
+
+        counter.increment();
+        if (counter.sum() > threshold) {
+            tryResize();
+        }
+        return null;
+    }
+
+
+    @Override
+    public V get(K key) {
+        Bin<K, V> e = find(key);
+        return e == null ? null : e.value;
+    }
+
+
+    @Override
+    public V remove(K key) {
+        int h = hash(key);
+        AtomicReferenceArray<Bin<K, V>> tab = table;
+
+        while (true) {
+            int i = h & (tab.length() - 1);
+            Bin<K, V> f = tab.get(i);
+
+            if (f == null) {
+                return null;
+            }
+            if (f.hash == MOVED) {
+                tab = helpTransfer((ForwardingBin<K, V>) f);
+                continue;
+            }
+
+            synchronized (f) {
+                if (tab.get(i) != f) {
+                    continue;
+                }
+
+                Bin<K, V> prev = null;
+                for (Bin<K, V> e = f; e != null; prev = e, e = e.next) {
+                    if (e.hash == h && key.equals(e.key)) {
+                        if (prev == null) {
+                            tab.set(i, e.next);
+                        }
+                        else {
+                            prev.next = e.next;
+                        }
+                        counter.decrement();
+                        return e.value;
+                    }
+                }
+                return null;
+            }
+        }
+    }
+
+
+    @Override
+    public boolean contains(K key) {
+        return find(key) != null;
+    }
+
+
+    /**
+     * Удаляет все пары. Пары, добавляемые параллельно с очисткой, могут остаться в таблице.
+     */
+    @Override
+    public void clear() {
+        AtomicReferenceArray<Bin<K, V>> tab = table;
+        int i = 0;
+
+        while (i < tab.length()) {
+            Bin<K, V> f = tab.get(i);
+
+            if (f == null) {
+                i++;
+            }
+            else if (f.hash == MOVED) {
+                tab = helpTransfer((ForwardingBin<K, V>) f);
+                i = 0;
+            }
+            else {
+                synchronized (f) {
+                    if (tab.get(i) != f) {
+                        continue;
+                    }
+
+                    int removed = 0;
+                    for (Bin<K, V> e = f; e != null; e = e.next) {
+                        removed++;
+                    }
+                    tab.set(i, null);
+                    counter.add(-removed);
+                }
+                i++;
+            }
+        }
+    }
+
+
+    @Override
+    public Iterator<Node<K, V>> iterator() {
+        return new SnapshotIterator();
+    }
+
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof SymbolTable<?, ?>)) {
+            return false;
+        }
+
+        SymbolTable<?, ?> tmp = (SymbolTable<?, ?>) o;
+        if (getSize() != tmp.getSize()) {
+            return false;
+        }
+
+        @SuppressWarnings("unchecked")
+        SymbolTable<K, ?> other = (SymbolTable<K, ?>) tmp;
+
+        for (Node<K, V> node : this) {
+            K key = node.getKey();
+            V value = node.getValue();
+            if (!Objects.equals(value, other.get(key))) {
+                return false;
+            }
+            //get возвращает null и для отсутствующего ключа, и для значения null
+            if (value == null && !other.contains(key)) {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+
+    @Override
+    public int hashCode() {
+        int h = 0;
+        for (Node<K, V> node : this) {
+            h += node.getKey().hashCode() ^ Objects.hashCode(node.getValue());
+        }
+        return h;
+    }
+
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder("[");
+        for (Node<K, V> node : this) {
+            if (sb.length() > 1) {
+                sb.append(", ");
+            }
+            sb.append("(").append(node.getKey()).append(", ").append(node.getValue()).append(")");
+        }
+        return sb.append("]").toString();
+    }
+
+
+    /**
+     * Ищет узел с ключом {@code key} без блокировок.
+     * @return узел или {@code null}, если ключа нет
+     */
+    private Bin<K, V> find(K key) {
+        int h = hash(key);
+        AtomicReferenceArray<Bin<K, V>> tab = table;
+
+        while (true) {
+            Bin<K, V> e = tab.get(h & (tab.length() - 1));
+            if (e == null) {
+                return null;
+            }
+            if (e.hash == MOVED) {
+                tab = ((ForwardingBin<K, V>) e).nextTable;
+                continue;
+            }
+
+            for (; e != null; e = e.next) {
+                if (e.hash == h && key.equals(e.key)) {
+                    return e;
+                }
+            }
+            return null;
+        }
+    }
+
+
+    /**
+     * Начинает расширение, если размер превысил порог, и помогает его выполнить.
+     */
+    private void tryResize() {
+        Resize<K, V> r;
+
+        synchronized (resizeLock) {
+            r = resize;
+            if (r == null) {
+                AtomicReferenceArray<Bin<K, V>> tab = table;
+                if (counter.sum() <= threshold || tab.length() == Hashing.MAXIMUM_CAPACITY) {
+                    return;
+                }
+                r = new Resize<>(tab, new AtomicReferenceArray<>(tab.length() << 1));
+                resize = r;
+            }
+        }
+
+        transfer(r);
+    }
+
+
+    /**
+     * Помогает с расширением, к которому относится пересылающий узел, если оно ещё идёт.
+     * @return таблица, в которую переслан бакет
+     */
+    private AtomicReferenceArray<Bin<K, V>> helpTransfer(ForwardingBin<K, V> f) {
+        Resize<K, V> r = resize;
+        if (r != null && r.newTable == f.nextTable) {
+            transfer(r);
+        }
+        return f.nextTable;
+    }
+
+
+    /**
+     * Забирает порции бакетов и переносит их, пока непереданные бакеты не кончатся.
+     * Поток, перенёсший последнюю порцию, публикует новую таблицу.
+     */
+    private void transfer(Resize<K, V> r) {
+        while (true) {
+            int hi = r.transferIndex.get();
+            if (hi <= 0) {
+                return;
+            }
+
+            int lo = Math.max(0, hi - TRANSFER_STRIDE);
+            if (!r.transferIndex.compareAndSet(hi, lo)) {
+                continue;
+            }
+
+            for (int i = hi - 1; i >= lo; i--) {
+                transferBin(r, i);
+            }
+
+            if (r.remaining.addAndGet(lo - hi) == 0) {
+                table = r.newTable;
+                threshold = (int) (r.newTable.length() * loadFactor);
+                resize = null;
+                return;
+            }
+        }
+    }
+
+
+    /**
+     * Переносит бакет {@code i} старой таблицы в бакеты {@code i} и {@code i + n} новой
+     * и ставит на его место пересылающий узел.
+     */
+    private void transferBin(Resize<K, V> r, int i) {
+        AtomicReferenceArray<Bin<K, V>> oldTable = r.oldTable;
+        int n = oldTable.length();
+
+        while (true) {
+            Bin<K, V> f = oldTable.get(i);
+
+            if (f == null) {
+                if (oldTable.compareAndSet(i, null, r.forwarding)) {
+                    return;
+                }
+                continue;
+            }
+
+            synchronized (f) {
+                if (oldTable.get(i) != f) {
+                    continue;
+                }
+
+                //узлы копируются, чтобы не менять цепочку, по которой могут идти читатели
+                Bin<K, V> loHead = null;
+                Bin<K, V> loTail = null;
+                Bin<K, V> hiHead = null;
+                Bin<K, V> hiTail = null;
+                for (Bin<K, V> e = f; e != null; e = e.next) {
+                    Bin<K, V> copy = new Bin<>(e.hash, e.key, e.value, null);
+                    if ((e.hash & n) == 0) {
+                        if (loTail == null) {
+                            loHead = copy;
+                        }
+                        else {
+                            loTail.next = copy;
+                        }
+                        loTail = copy;
+                    }
+                    else {
+                        if (hiTail == null) {
+                            hiHead = copy;
+                        }
+                        else {
+                            hiTail.next = copy;
+                        }
+                        hiTail = copy;
+                    }
+                }
+
+                r.newTable.set(i, loHead);
+                r.newTable.set(i + n, hiHead);
+                oldTable.set(i, r.forwarding);
+                return;
+            }
+        }
+    }
+
+
+    private static int hash(Object key) {
+        return Hashing.spread(key.hashCode()) & HASH_BITS;
+    }
+
+
+    /**
+     * Узел цепочки бакета.
+     */
+    private static class Bin<K, V> {
+        final int hash;
+        final K key;
+        volatile V value;
+        volatile Bin<K, V> next;
+
+        Bin(int hash, K key, V value, Bin<K, V> next) {
+            this.hash = hash;
+            this.key = key;
+            this.value = value;
+            this.next = next;
+        }
+    }
+
+
+    /**
+     * Узел, который ставится на место перенесённого бакета и указывает на новую таблицу.
+     */
+    private static final class ForwardingBin<K, V> extends Bin<K, V> {
+        final AtomicReferenceArray<Bin<K, V>> nextTable;
+
+        ForwardingBin(AtomicReferenceArray<Bin<K, V>> nextTable) {
+            super(MOVED, null, null, null);
+            this.nextTable = nextTable;
+        }
+    }
+
+
+    /**
+     * Состояние одного расширения таблицы.
+     */
+    private static final class Resize<K, V> {
+        final AtomicReferenceArray<Bin<K, V>> oldTable;
+        final AtomicReferenceArray<Bin<K, V>> newTable;
+        final ForwardingBin<K, V> forwarding;
+
+        /**
+         * Бакеты {@code [0, transferIndex)} ещё не забраны на перенос.
+         */
+        final AtomicInteger transferIndex;
+
+        /**
+         * Количество ещё не перенесённых бакетов.
+         */
+        final AtomicInteger remaining;
+
+        Resize(AtomicReferenceArray<Bin<K, V>> oldTable, AtomicReferenceArray<Bin<K, V>> newTable) {
+            this.oldTable = oldTable;
+            this.newTable = newTable;
+            this.forwarding = new ForwardingBin<>(newTable);
+            this.transferIndex = new AtomicInteger(oldTable.length());
+            this.remaining = new AtomicInteger(oldTable.length());
+        }
+    }
+
+
+    /**
+     * Слабо согласованный итератор: бакеты таблицы, актуальной на момент создания, читаются
+     * по одному. Содержимое перенесённого бакета собирается из его бакетов в новой таблице.
+     */
+    private final class SnapshotIterator implements Iterator<Node<K, V>> {
+        private final AtomicReferenceArray<Bin<K, V>> tab = table;
+        private final List<Node<K, V>> buffer = new ArrayList<>();
+        private int bucketIndex;
+        private int bufferIndex;
+
+        SnapshotIterator() {
+            advance();
+        }
+
+        private void advance() {
+            while (bufferIndex == buffer.size() && bucketIndex < tab.length()) {
+                buffer.clear();
+                bufferIndex = 0;
+                collect(tab, bucketIndex++);
+            }
+        }
+
+        private void collect(AtomicReferenceArray<Bin<K, V>> t, int i) {
+            Bin<K, V> e = t.get(i);
+            if (e != null && e.hash == MOVED) {
+                AtomicReferenceArray<Bin<K, V>> next = ((ForwardingBin<K, V>) e).nextTable;
+                collect(next, i);
+                collect(next, i + t.length());
+                return;
+            }
+
+            for (; e != null; e = e.next) {
+                buffer.add(new Node<>(e.key, e.value, null));
+            }
+        }
+
+        @Override
+        public boolean hasNext() {
+            return bufferIndex < buffer.size();
+        }
+
+        @Override
+        public Node<K, V> next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+
+            Node<K, V> node = buffer.get(bufferIndex++);
+            advance();
+            return node;
+        }
+    }
+}
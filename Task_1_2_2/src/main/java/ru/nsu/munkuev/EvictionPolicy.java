@@ -0,0 +1,27 @@
+package ru.nsu.munkuev;
+
+/**
+ * Политика выбора записи, вытесняемой из {@link BoundedHashTable} при превышении ограничения.
+ */
+public enum EvictionPolicy {
+    /**
+     * Вытесняется запись, к которой дольше всего не обращались. Узлы связаны в
+     * двусвязный список в порядке обращений, поэтому каждая операция стоит {@code O(1)}.
+     */
+    LRU,
+
+    /**
+     * Вытесняется запись с наименьшим числом обращений, среди равных — самая старая.
+     * Счётчики ограничены и периодически уменьшаются вдвое, поэтому бывшие популярные
+     * записи со временем тоже могут быть вытеснены.
+     */
+    LFU,
+
+    /**
+     * Window TinyLFU: новые записи попадают в небольшое LRU-окно, а в основную часть
+     * кеша допускаются, только если по приблизительной частоте обращений они
+     * популярнее записи, которую пришлось бы вытеснить. Однократный проход по большому
+     * количеству ключей не вымывает из кеша часто используемые записи.
+     */
+    W_TINY_LFU
+}
@@ -0,0 +1,45 @@
+package ru.nsu.munkuev;
+
+/**
+ * Реализация {@link EvictionPolicy}: ведёт очереди узлов {@link BoundedHashTable}
+ * и выбирает, какой узел вытеснить следующим.
+ */
+interface EvictionStrategy<K, V> {
+    /**
+     * Узел добавлен в таблицу.
+     */
+    void onInsert(CacheNode<K, V> node);
+
+    /**
+     * Значение узла прочитано.
+     */
+    void onAccess(CacheNode<K, V> node);
+
+    /**
+     * Значение узла заменено, вес узла уже пересчитан.
+     */
+    void onUpdate(CacheNode<K, V> node, int oldWeight);
+
+    /**
+     * Узел удалён из таблицы.
+     */
+    void onRemove(CacheNode<K, V> node);
+
+    /**
+     * Возвращает узел, который нужно вытеснить, или {@code null}, если узлов нет.
+     */
+    CacheNode<K, V> victim();
+
+    void clear();
+
+    /**
+     * Создаёт стратегию политики {@code policy} для таблицы с ограничением {@code maximum}.
+     */
+    static <K, V> EvictionStrategy<K, V> of(EvictionPolicy policy, long maximum) {
+        return switch (policy) {
+            case LRU -> new LruStrategy<>();
+            case LFU -> new LfuStrategy<>();
+            case W_TINY_LFU -> new TinyLfuStrategy<>(maximum);
+        };
+    }
+}
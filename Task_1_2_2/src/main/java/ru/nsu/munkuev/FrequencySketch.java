@@ -0,0 +1,93 @@
+package ru.nsu.munkuev;
+
+import java.util.Arrays;
+
+/**
+ * Приблизительный счётчик частот ключей для {@link TinyLfuStrategy} (Count-Min Sketch).
+ * <p>
+ * Каждый элемент массива {@code long} хранит шестнадцать 4-битных счётчиков. Ключ
+ * увеличивает по одному счётчику в каждой из четырёх строк, выбранных разными
+ * перемешиваниями его хеша, а оценкой частоты служит минимум из этих четырёх
+ * счётчиков. После {@code 10 * width} увеличений все счётчики делятся пополам, поэтому
+ * оценка отражает недавнюю популярность и не растёт бесконечно.
+ */
+final class FrequencySketch {
+    private static final long[] SEEDS = {
+            0xc3a5c85c97cb3127L, 0xb492b66fbe98f273L, 0x9ae16a3b2f90404fL, 0xcbf29ce484222325L
+    };
+    private static final long RESET_MASK = 0x7777777777777777L;
+    private static final int MAX_WIDTH = 1 << 24;
+
+    private final long[] table;
+    private final int sampleSize;
+    private int additions;
+
+    /**
+     * @param expectedSize примерное число различных ключей, частоты которых нужно различать
+     */
+    FrequencySketch(long expectedSize) {
+        int width = Hashing.tableSizeFor((int) Math.max(16, Math.min(expectedSize, MAX_WIDTH)));
+        this.table = new long[width];
+        this.sampleSize = 10 * width;
+    }
+
+    /**
+     * Возвращает оценку частоты ключа, от {@code 0} до {@code 15}.
+     */
+    int frequency(Object key) {
+        int hash = Hashing.spread(key.hashCode());
+        int frequency = Integer.MAX_VALUE;
+        for (int row = 0; row < SEEDS.length; row++) {
+            long h = indexHash(hash, row);
+            int count = (int) ((table[index(h)] >>> offset(h)) & 0xfL);
+            frequency = Math.min(frequency, count);
+        }
+        return frequency;
+    }
+
+    /**
+     * Увеличивает счётчики ключа, если они ещё не достигли максимума.
+     */
+    void increment(Object key) {
+        int hash = Hashing.spread(key.hashCode());
+        boolean added = false;
+        for (int row = 0; row < SEEDS.length; row++) {
+            long h = indexHash(hash, row);
+            int index = index(h);
+            int offset = offset(h);
+            if (((table[index] >>> offset) & 0xfL) != 0xfL) {
+                table[index] += 1L << offset;
+                added = true;
+            }
+        }
+
+        if (added && ++additions == sampleSize) {
+            reset();
+        }
+    }
+
+    void clear() {
+        Arrays.fill(table, 0L);
+        additions = 0;
+    }
+
+    private void reset() {
+        for (int i = 0; i < table.length; i++) {
+            table[i] = (table[i] >>> 1) & RESET_MASK;
+        }
+        additions /= 2;
+    }
+
+    private static long indexHash(int hash, int row) {
+        long h = (hash + SEEDS[row]) * SEEDS[row];
+        return h ^ (h >>> 32);
+    }
+
+    private int index(long h) {
+        return (int) h & (table.length - 1);
+    }
+
+    private static int offset(long h) {
+        return ((int) (h >>> 40) & 0xf) << 2;
+    }
+}
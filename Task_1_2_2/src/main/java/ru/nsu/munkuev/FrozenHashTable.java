@@ -0,0 +1,428 @@
+package ru.nsu.munkuev;
+
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.function.BiConsumer;
+
+/**
+ * Неизменяемая таблица для чтения, построенная совершенным хешированием методом
+ * «хеширование и смещение» (hash and displace, как в CHD).
+ * <p>
+ * Различные значения {@link Object#hashCode()} ключей распределяются по небольшим
+ * группам примерно по {@value #KEYS_PER_GROUP}. Для каждой группы при построении
+ * подбирается смещение, при котором все её хеши попадают в свободные ячейки массива
+ * из {@code ~size / 0.9} ячеек. Поиск вычисляет группу, берёт её смещение и сразу получает
+ * единственную возможную ячейку — без цепочек и пробирования. В ячейке хранится хеш ключа,
+ * поэтому отсутствующий ключ обычно отсекается без вызова {@code equals}.
+ *
+ * <p>
+ * Ключи с одинаковым {@code hashCode} никакая функция от хеша не разделит, поэтому такие
+ * ключи занимают одну ячейку и лежат подряд: ячейка хранит начало своего диапазона в
+ * плоских массивах ключей и значений, внутри диапазона ключи сравниваются по {@code equals}.
+ *
+ * <p>
+ * Всё содержимое — несколько массивов {@code int[]} и по массиву ключей и значений,
+ * то есть около {@code 10} байт служебных данных и две ссылки на пару вместо узла
+ * {@link Node} с заголовком объекта и ссылки из массива бакетов у {@link HashTable}. Все поля неизменяемы и {@code final},
+ * поэтому после построения таблицу можно читать из любых потоков без синхронизации.
+ * Методы изменения выбрасывают {@link UnsupportedOperationException}.
+ *
+ * <p>
+ * Таблица создаётся методом {@link HashTable#freeze()} или {@link #copyOf(SymbolTable)}.
+ *
+ * @param <K> тип ключей
+ * @param <V> тип значений
+ */
+public final class FrozenHashTable<K, V> implements SymbolTable<K, V> {
+    /**
+     * Среднее число различных хешей в группе.
+     */
+    private static final int KEYS_PER_GROUP = 4;
+    /**
+     * Доля занятых ячеек.
+     */
+    private static final double SLOT_LOAD = 0.9;
+    /**
+     * Сколько смещений перебирается для одной группы, прежде чем построение начнётся
+     * заново с другим зерном.
+     */
+    private static final int MAX_DISPLACEMENT = 1 << 16;
+    private static final int GOLDEN = 0x9E3779B9;
+
+    private final int seed;
+    private final int[] displacements;
+    /**
+     * Хеш ключей ячейки; значим, только если диапазон ячейки не пуст.
+     */
+    private final int[] slotHashes;
+    /**
+     * Ключи ячейки {@code i} лежат в {@link #keys} с индекса {@code offsets[i]}
+     * до {@code offsets[i + 1]}.
+     */
+    private final int[] offsets;
+    private final Object[] keys;
+    private final Object[] values;
+
+
+    private FrozenHashTable(int seed, int[] displacements, int[] slotHashes, int[] offsets,
+                            Object[] keys, Object[] values) {
+        this.seed = seed;
+        this.displacements = displacements;
+        this.slotHashes = slotHashes;
+        this.offsets = offsets;
+        this.keys = keys;
+        this.values = values;
+    }
+
+
+    /**
+     * Строит неизменяемую таблицу с парами {@code source}. Время построения в среднем
+     * линейно по числу пар.
+     * @param source исходная таблица, не изменяется
+     * @return неизменяемая копия
+     */
+    public static <K, V> FrozenHashTable<K, V> copyOf(SymbolTable<? extends K, ? extends V> source) {
+        int size = source.getSize();
+        Object[] sourceKeys = new Object[size];
+        Object[] sourceValues = new Object[size];
+        long[] order = new long[size];
+        int count = 0;
+        for (Node<? extends K, ? extends V> node : source) {
+            sourceKeys[count] = node.getKey();
+            sourceValues[count] = node.getValue();
+            //старшие 32 бита — хеш, младшие — номер пары: сортировка группирует равные хеши
+            order[count] = ((long) node.getKey().hashCode() << 32) | count;
+            count++;
+        }
+        if (count != size) {
+            throw new IllegalStateException("Source size " + size + " does not match " + count + " iterated pairs");
+        }
+        Arrays.sort(order);
+
+        //различные хеши и начало пар каждого из них в порядке order
+        int[] hashes = new int[size];
+        int[] starts = new int[size + 1];
+        int distinct = 0;
+        for (int i = 0; i < size; i++) {
+            int hash = (int) (order[i] >> 32);
+            if (distinct == 0 || hashes[distinct - 1] != hash) {
+                hashes[distinct] = hash;
+                starts[distinct] = i;
+                distinct++;
+            }
+        }
+        starts[distinct] = size;
+
+        int groupCount = Math.max(1, distinct / KEYS_PER_GROUP);
+        int slotCount = Math.max(1, (int) Math.ceil(distinct / SLOT_LOAD));
+        int[] slotOf = new int[distinct];
+        int[] displacements = new int[groupCount];
+        int seed = 0x5EED;
+        while (!place(hashes, distinct, seed, displacements, slotCount, slotOf)) {
+            seed = mix(seed + GOLDEN);
+        }
+
+        //раскладываем пары по ячейкам подряд
+        int[] slotHashes = new int[slotCount];
+        int[] offsets = new int[slotCount + 1];
+        for (int h = 0; h < distinct; h++) {
+            slotHashes[slotOf[h]] = hashes[h];
+            offsets[slotOf[h] + 1] = starts[h + 1] - starts[h];
+        }
+        for (int slot = 0; slot < slotCount; slot++) {
+            offsets[slot + 1] += offsets[slot];
+        }
+
+        Object[] keys = new Object[size];
+        Object[] values = new Object[size];
+        for (int h = 0; h < distinct; h++) {
+            int target = offsets[slotOf[h]];
+            for (int i = starts[h]; i < starts[h + 1]; i++) {
+                int pair = (int) order[i];
+                keys[target] = sourceKeys[pair];
+                values[target] = sourceValues[pair];
+                target++;
+            }
+        }
+
+        return new FrozenHashTable<>(seed, displacements, slotHashes, offsets, keys, values);
+    }
+
+
+    /**
+     * Подбирает смещения групп так, чтобы все хеши попали в разные ячейки. Группы
+     * обрабатываются от больших к меньшим: большим группам проще найти место, пока
+     * таблица пуста.
+     * @return {@code false}, если для какой-то группы смещение не нашлось
+     */
+    private static boolean place(int[] hashes, int distinct, int seed, int[] displacements,
+                                 int slotCount, int[] slotOf) {
+        int groupCount = displacements.length;
+        int[] groupStarts = new int[groupCount + 1];
+        for (int h = 0; h < distinct; h++) {
+            groupStarts[group(mix(hashes[h] ^ seed), groupCount) + 1]++;
+        }
+        int maxGroupSize = 0;
+        for (int g = 0; g < groupCount; g++) {
+            maxGroupSize = Math.max(maxGroupSize, groupStarts[g + 1]);
+            groupStarts[g + 1] += groupStarts[g];
+        }
+        int[] members = new int[distinct];
+        int[] fill = Arrays.copyOf(groupStarts, groupCount);
+        for (int h = 0; h < distinct; h++) {
+            members[fill[group(mix(hashes[h] ^ seed), groupCount)]++] = h;
+        }
+
+        //группы по убыванию размера сортировкой подсчётом
+        int[] bySize = new int[maxGroupSize + 2];
+        for (int g = 0; g < groupCount; g++) {
+            bySize[maxGroupSize - (groupStarts[g + 1] - groupStarts[g]) + 1]++;
+        }
+        for (int i = 1; i < bySize.length; i++) {
+            bySize[i] += bySize[i - 1];
+        }
+        int[] groupOrder = new int[groupCount];
+        for (int g = 0; g < groupCount; g++) {
+            groupOrder[bySize[maxGroupSize - (groupStarts[g + 1] - groupStarts[g])]++] = g;
+        }
+
+        //занятые ячейки битовой маской: она в восемь раз меньше boolean[] и лучше ложится в кеш
+        long[] occupied = new long[(slotCount + 63) >>> 6];
+        int[] candidate = new int[maxGroupSize];
+        for (int g : groupOrder) {
+            int from = groupStarts[g];
+            int groupSize = groupStarts[g + 1] - from;
+            if (groupSize == 0) {
+                break;
+            }
+
+            int displacement = 0;
+            while (!fits(hashes, members, from, groupSize, seed, displacement, slotCount, occupied, candidate)) {
+                if (++displacement == MAX_DISPLACEMENT) {
+                    return false;
+                }
+            }
+            displacements[g] = displacement;
+            for (int i = 0; i < groupSize; i++) {
+                occupied[candidate[i] >>> 6] |= 1L << candidate[i];
+                slotOf[members[from + i]] = candidate[i];
+            }
+        }
+        return true;
+    }
+
+
+    /**
+     * Проверяет, что при смещении {@code displacement} хеши группы попадают в разные
+     * свободные ячейки, и записывает эти ячейки в {@code candidate}.
+     */
+    private static boolean fits(int[] hashes, int[] members, int from, int groupSize, int seed,
+                                int displacement, int slotCount, long[] occupied, int[] candidate) {
+        for (int i = 0; i < groupSize; i++) {
+            int slot = slot(mix(hashes[members[from + i]] ^ seed), displacement, slotCount);
+            if ((occupied[slot >>> 6] & (1L << slot)) != 0) {
+                return false;
+            }
+            for (int j = 0; j < i; j++) {
+                if (candidate[j] == slot) {
+                    return false;
+                }
+            }
+            candidate[i] = slot;
+        }
+        return true;
+    }
+
+
+    /**
+     * Возвращает индекс в {@link #keys} первой пары с ключом {@code key} или {@code -1}.
+     */
+    private int indexOf(Object key) {
+        int hash = key.hashCode();
+        int base = mix(hash ^ seed);
+        int slot = slot(base, displacements[group(base, displacements.length)], slotHashes.length);
+        if (slotHashes[slot] != hash) {
+            return -1;
+        }
+        for (int i = offsets[slot], end = offsets[slot + 1]; i < end; i++) {
+            if (keys[i].equals(key)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public V get(K key) {
+        int index = indexOf(key);
+        return index < 0 ? null : (V) values[index];
+    }
+
+
+    @Override
+    public boolean contains(K key) {
+        return indexOf(key) >= 0;
+    }
+
+
+    @Override
+    public int getSize() {
+        return keys.length;
+    }
+
+
+    /**
+     * Выполняет {@code action} для каждой пары, не создавая узлов.
+     * @param action действие над парой
+     */
+    @SuppressWarnings("unchecked")
+    public void forEach(BiConsumer<? super K, ? super V> action) {
+        Objects.requireNonNull(action, "action");
+        for (int i = 0; i < keys.length; i++) {
+            action.accept((K) keys[i], (V) values[i]);
+        }
+    }
+
+
+    /**
+     * Не поддерживается: таблица неизменяема.
+     * @throws UnsupportedOperationException всегда
+     */
+    @Override
+    public V add(K key, V value) {
+        throw new UnsupportedOperationException("FrozenHashTable is immutable");
+    }
+
+
+    /**
+     * Не поддерживается: таблица неизменяема.
+     * @throws UnsupportedOperationException всегда
+     */
+    @Override
+    public V remove(K key) {
+        throw new UnsupportedOperationException("FrozenHashTable is immutable");
+    }
+
+
+    /**
+     * Не поддерживается: таблица неизменяема.
+     * @throws UnsupportedOperationException всегда
+     */
+    @Override
+    public void clear() {
+        throw new UnsupportedOperationException("FrozenHashTable is immutable");
+    }
+
+
+    /**
+     * Возвращает итератор по снимкам пар. Узлы создаются при обходе, изменять через них
+     * таблицу нельзя.
+     */
+    @Override
+    public Iterator<Node<K, V>> iterator() {
+        return new Iterator<>() {
+            private int index;
+
+            @Override
+            public boolean hasNext() {
+                return index < keys.length;
+            }
+
+            @Override
+            @SuppressWarnings("unchecked")
+            public Node<K, V> next() {
+                if (index >= keys.length) {
+                    throw new NoSuchElementException();
+                }
+                Node<K, V> node = new Node<>((K) keys[index], (V) values[index], null);
+                index++;
+                return node;
+            }
+        };
+    }
+
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof SymbolTable<?, ?>)) {
+            return false;
+        }
+
+        SymbolTable<?, ?> tmp = (SymbolTable<?, ?>) o;
+        if (keys.length != tmp.getSize()) {
+            return false;
+        }
+
+        @SuppressWarnings("unchecked")
+        SymbolTable<Object, ?> other = (SymbolTable<Object, ?>) tmp;
+        for (int i = 0; i < keys.length; i++) {
+            Object value = values[i];
+            if (!Objects.equals(value, other.get(keys[i]))) {
+                return false;
+            }
+            //get возвращает null и для отсутствующего ключа, и для значения null
+            if (value == null && !other.contains(keys[i])) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+
+    @Override
+    public int hashCode() {
+        int h = 0;
+        for (int i = 0; i < keys.length; i++) {
+            h += keys[i].hashCode() ^ Objects.hashCode(values[i]);
+        }
+        return h;
+    }
+
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder("[");
+        for (int i = 0; i < keys.length; i++) {
+            if (i > 0) {
+                sb.append(", ");
+            }
+            sb.append("(").append(keys[i]).append(", ").append(values[i]).append(")");
+        }
+        return sb.append("]").toString();
+    }
+
+
+    /**
+     * Финальное перемешивание MurmurHash3: биекция на {@code int}, поэтому разные хеши
+     * остаются разными.
+     */
+    private static int mix(int h) {
+        h ^= h >>> 16;
+        h *= 0x85ebca6b;
+        h ^= h >>> 13;
+        h *= 0xc2b2ae35;
+        return h ^ (h >>> 16);
+    }
+
+    /**
+     * Отображает 32-битное значение в {@code [0, n)} умножением вместо деления.
+     */
+    private static int reduce(int h, int n) {
+        return (int) (((h & 0xffffffffL) * n) >>> 32);
+    }
+
+    private static int group(int base, int groupCount) {
+        return reduce(base, groupCount);
+    }
+
+    private static int slot(int base, int displacement, int slotCount) {
+        return reduce(mix(base + displacement * GOLDEN + 1), slotCount);
+    }
+}
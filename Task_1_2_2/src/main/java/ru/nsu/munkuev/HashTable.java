@@ -2,9 +2,20 @@ package ru.nsu.munkuev;
 
 
 import java.util.Iterator;
+import java.util.Map;
 import java.util.NoSuchElementException;
 import java.util.ConcurrentModificationException;
 import java.util.Objects;
+import java.util.Spliterator;
+import java.util.TreeMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.function.BiConsumer;
+import java.util.function.BiFunction;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 /**
  * Реализация хеш-таблицы, отображений ключей {@code K} в значения {@code V}.
@@ -14,6 +25,15 @@ import java.util.Objects;
  * Коллизии разрешаются методом цепочек.
  *
  * <p>
+ * Вместимость таблицы всегда равна степени двойки: индекс бакета берётся маской по младшим
+ * битам хеша, а перед этим старшие биты {@link Object#hashCode()} подмешиваются к младшим.
+ * Если цепочка становится длиннее {@code 8} узлов, а все её ключи {@link Comparable} и
+ * одного класса, бакет дополнительно индексируется деревом {@link TreeMap}, а цепочка
+ * упорядочивается по ключам. Поиск, вставка и удаление в таком бакете занимают
+ * {@code O(log n)} даже при плохом {@code hashCode} или специально подобранных ключах.
+ * Когда в бакете остаётся меньше {@code 6} узлов, дерево отбрасывается.
+ *
+ * <p>
  * Основные операции:
  * <ul>
  *     <li>{@link #add(Object, Object)} — добавление или обновление пары {@code (key, value)};</li>
@@ -31,6 +51,10 @@ import java.util.Objects;
  *          {@code threshold = capacity * loadFactor}
  *      </pre></blockquote>
  * При ресайзе все существующие узлы перераспределяются по новому массиву бакетов.
+ * В режиме {@link ResizeMode#EAGER} (по умолчанию) это делается сразу внутри вызова
+ * {@link #add(Object, Object)}, превысившего порог. В режиме {@link ResizeMode#INCREMENTAL}
+ * старый массив сохраняется, а его бакеты переносятся по несколько штук при каждой
+ * следующей операции, поэтому ни одна операция не тратит время на перенос всей таблицы.
  *
  * <p>
  * Ключи не могут быть {@code null}. Попытка передать {@code null} в методы
@@ -44,10 +68,22 @@ import java.util.Objects;
  * (добавление, удаление, очистка) после создания итератора последующие вызовы его
  * методов приводят к выбросу {@link java.util.ConcurrentModificationException}.
  *
+ * <p>
+ * Для обработки всех пар сразу есть {@link #stream()} и {@link #spliterator()}: сплитератор
+ * делит диапазон бакетов пополам, поэтому {@code stream().parallel()} раздаёт бакеты
+ * разным потокам. Метод {@link #forEach(long, BiConsumer)} делает то же самое через
+ * {@link ForkJoinPool}, если пар не меньше заданного порога. Групповые изменения —
+ * {@link #putAll(SymbolTable)}, {@link #computeIfAbsent(Object, Function)} и
+ * {@link #merge(Object, Object, BiFunction)} — выполняются в вызывающем потоке.
+ *
+ * <p>
+ * Таблица реализует общий интерфейс {@link SymbolTable}. Если на каждую пару не хочется
+ * заводить отдельный узел, вместо неё можно создать {@link OpenAddressingHashTable}.
+ *
  * @param <K> тип ключей
  * @param <V> тип значений
  */
-public class HashTable<K,V> implements Iterable<Node<K,V>> {
+public class HashTable<K,V> implements SymbolTable<K,V> {
     /**
      * При создании хеш-таблицы пустым конструктором, ей присваивается значение
      * вместимости по умолчанию.
@@ -58,12 +94,44 @@ public class HashTable<K,V> implements Iterable<Node<K,V>> {
      * коэффициента заполненности по умолчанию.
      */
     private static final float DEFAULT_LOAD_FACTOR = 0.75f;
+    /**
+     * Количество непустых бакетов, переносимых одной операцией при инкрементальном ресайзе.
+     * Пустых бакетов за операцию просматривается не больше чем в десять раз больше.
+     */
+    private static final int MIGRATION_STEP = 4;
+    /**
+     * Цепочка длиннее этого порога превращается в дерево, если ключи это позволяют.
+     */
+    private static final int TREEIFY_THRESHOLD = 8;
+    /**
+     * Дерево бакета, в котором осталось меньше узлов, чем этот порог, отбрасывается.
+     */
+    private static final int UNTREEIFY_THRESHOLD = 6;
 
     /**
      * Массив бакетов, в каждом элементе которого хранится цепочка узлов {@link Node}.
      */
     Node<K,V>[] table;
 
+    /**
+     * Деревья бакетов {@link #table}: {@code trees[i]} отображает ключи бакета {@code i}
+     * в их узлы, а цепочка такого бакета упорядочена по ключам. Равен {@code null}, пока
+     * ни один бакет текущего массива не превращён в дерево.
+     */
+    TreeMap<K, Node<K,V>>[] trees;
+
+    /**
+     * Массив бакетов до начала инкрементального ресайза, ещё не перенесённые цепочки
+     * которого лежат в бакетах с индексами не меньше {@link #migrateIndex}.
+     * Равен {@code null}, если перенос не идёт.
+     */
+    Node<K,V>[] oldTable;
+
+    /**
+     * Индекс следующего бакета {@link #oldTable}, который будет перенесён.
+     */
+    private int migrateIndex;
+
     /**
      * Текущее количество пар {@code (K, V)} в таблице.
      */
@@ -91,15 +159,37 @@ public class HashTable<K,V> implements Iterable<Node<K,V>> {
      */
     private int modCount;
 
+    /**
+     * Способ расширения таблицы.
+     */
+    private final ResizeMode resizeMode;
+
+    /**
+     * Метрики таблицы или {@code null}, если они выключены. Все точки сбора проверяют это
+     * поле, поэтому выключенные метрики не стоят ничего, кроме сравнения с {@code null}.
+     */
+    private HashTableMetrics metrics;
+
 
     /**
      * Конструктор по изначальной вместимости и степени загрузки таблицы.
-     * При инициализации вместимость таблицы становится равна {@code initialCapacity},
-     * а степень загрузки {@code loadFactor}.
+     * Вместимость {@code initialCapacity} округляется вверх до степени двойки,
+     * а степень загрузки равна {@code loadFactor}.
      * @param initialCapacity изначальная вместимость таблицы
      * @param loadFactor степень загрузки таблицы
      */
     public HashTable(int initialCapacity, float loadFactor) {
+        this(initialCapacity, loadFactor, ResizeMode.EAGER);
+    }
+
+
+    /**
+     * Конструктор по изначальной вместимости, степени загрузки и способу расширения таблицы.
+     * @param initialCapacity изначальная вместимость таблицы
+     * @param loadFactor степень загрузки таблицы
+     * @param resizeMode способ расширения таблицы
+     */
+    public HashTable(int initialCapacity, float loadFactor, ResizeMode resizeMode) {
         if(initialCapacity <= 0) {
             throw new IllegalArgumentException("Illegal initial capacity: " + initialCapacity);
         }
@@ -107,9 +197,11 @@ public class HashTable<K,V> implements Iterable<Node<K,V>> {
             throw new IllegalArgumentException("Illegal load factor: " + loadFactor);
         }
 
+        this.resizeMode = Objects.requireNonNull(resizeMode, "resizeMode");
         this.loadFactor = loadFactor;
-        this.table = new Node[initialCapacity];
-        this.threshold = (int) (initialCapacity * loadFactor);
+        int capacity = Hashing.tableSizeFor(initialCapacity);
+        this.table = new Node[capacity];
+        this.threshold = (int) (capacity * loadFactor);
     }
 
 
@@ -122,6 +214,29 @@ public class HashTable<K,V> implements Iterable<Node<K,V>> {
     }
 
 
+    /**
+     * Возвращает текущую вместимость, завершая незаконченный перенос бакетов.
+     * @return количество бакетов основного массива
+     */
+    int capacity() {
+        finishMigration();
+        return table.length;
+    }
+
+
+    float loadFactor() {
+        return loadFactor;
+    }
+
+
+    /**
+     * Возвращает отношение числа пар к числу бакетов основного массива, ничего не меняя в таблице.
+     */
+    double currentLoad() {
+        return (double) size / table.length;
+    }
+
+
     /**
      * Возвращает количество пар (K,V) хранящихся в таблице.
      * @return количество пар
@@ -146,29 +261,31 @@ public class HashTable<K,V> implements Iterable<Node<K,V>> {
      * замены уже существующего значения ключа.
      */
     public V add (K key, V value) {
+        migrateFor(key);
         int index = hash(key, table.length);
 
         //Ищем узел с таким же ключом и обновляем значение
-        Node<K,V> cur = table[index];
-        while(cur != null) {
-            if(cur.getKey().equals(key)) {
-                V oldValue = cur.getValue();
-                cur.setValue(value);
+        Node<K,V> cur = findNode(key, index);
+        if(cur != null) {
+            V oldValue = cur.getValue();
+            cur.setValue(value);
+            afterNodeUpdate(cur, oldValue);
 
-                return oldValue;
-            }
-            cur = cur.getNext();
+            return oldValue;
         }
 
-        //Если не нашли, то просто вставляем в начало линкед-листа
-        Node<K, V> newNode = new Node<>(key, value, table[index]);
-        table[index] = newNode;
+        Node<K,V> node = newNode(key, value);
+        linkNode(node, index);
         size++;
         modCount++;
+        if (metrics != null) {
+            metrics.recordModification();
+        }
 
         if (size > threshold) {
-            resize(2 * table.length);
+            grow();
         }
+        afterNodeInsertion(node);
 
         return null;
     }
@@ -181,18 +298,9 @@ public class HashTable<K,V> implements Iterable<Node<K,V>> {
      * @return значение заданного ключа. {@code null} если нет заданного ключа
      */
     public V get (K key) {
-        int index = hash(key, table.length);
-
-        Node<K,V> cur = table[index];
-        while(cur != null) {
-            if(cur.getKey().equals(key)) {
-                return cur.getValue();
-            }
-
-            cur = cur.getNext();
-        }
+        Node<K,V> cur = getNode(key, true);
 
-        return null;
+        return cur == null ? null : cur.getValue();
     }
 
 
@@ -203,13 +311,21 @@ public class HashTable<K,V> implements Iterable<Node<K,V>> {
      * @return значение типа {@code V} удаленной пары. {@code null} в случае отсутствия пары.
      */
     public V remove (K key) {
+        migrateFor(key);
         int index = hash(key, table.length);
 
+        TreeMap<K, Node<K,V>> tree = treeFor(key, index);
+        if (tree != null) {
+            return removeFromTree(tree, key, index);
+        }
+        //ключ другого класса в дереве не ищется, но цепочка бакета цела, поэтому идём по ней
         Node<K,V> cur = table[index];
         Node<K,V> prev = null;
 
         while(cur != null) {
             if(cur.getKey().equals(key)) {
+                //дерево бакета ссылается на удаляемый узел, поэтому отбрасываем его
+                untreeify(index);
                 //Удаляем из середины/конца цепочки
                 if(prev != null) {
                     prev.setNext(cur.getNext());
@@ -220,6 +336,10 @@ public class HashTable<K,V> implements Iterable<Node<K,V>> {
                 }
                 size--;
                 modCount++;
+                if (metrics != null) {
+                    metrics.recordModification();
+                }
+                afterNodeRemoval(cur);
 
                 return cur.getValue();
             }
@@ -236,17 +356,8 @@ public class HashTable<K,V> implements Iterable<Node<K,V>> {
      * @return {@code true} если значение есть, {@code false} если значения нет.
      */
     public boolean contains (K key) {
-        int index = hash(key, table.length);
-        Node<K,V> cur = table[index];
-        while(cur != null) {
-            if(cur.getKey().equals(key)) {
-                return true;
-            }
-
-            cur = cur.getNext();
-        }
-
-        return false;
+        migrateFor(key);
+        return findNode(key, hash(key, table.length)) != null;
     }
 
     /**
@@ -256,6 +367,8 @@ public class HashTable<K,V> implements Iterable<Node<K,V>> {
         for(int i = 0; i < table.length; i++) {
             table[i] = null;
         }
+        oldTable = null;
+        trees = null;
         size = 0;
         modCount++;
     }
@@ -263,27 +376,173 @@ public class HashTable<K,V> implements Iterable<Node<K,V>> {
 
     @Override
     public Iterator<Node<K, V>> iterator() {
+        //итератор обходит только основной массив, поэтому незаконченный перенос завершается
+        finishMigration();
         return new HashIterator();
     }
 
 
+    /**
+     * Возвращает сплитератор по всем узлам таблицы. Он делится по диапазонам бакетов и
+     * выбрасывает {@link ConcurrentModificationException}, если таблица структурно
+     * изменилась во время обхода.
+     */
+    @Override
+    public Spliterator<Node<K, V>> spliterator() {
+        finishMigration();
+        return new HashSpliterator(0, table.length, size, modCount, true);
+    }
+
+
+    /**
+     * Возвращает последовательный поток узлов таблицы. Параллельный поток можно получить
+     * вызовом {@code stream().parallel()}.
+     * @return поток узлов таблицы
+     */
+    public Stream<Node<K, V>> stream() {
+        return StreamSupport.stream(spliterator(), false);
+    }
+
+
+    /**
+     * Выполняет {@code action} для каждой пары таблицы. Если пар не меньше
+     * {@code parallelismThreshold}, бакеты делятся между потоками
+     * {@link ForkJoinPool#commonPool()} на части примерно по {@code parallelismThreshold}
+     * пар, иначе обход идёт в вызывающем потоке. Порядок вызовов не определён, а
+     * {@code action} не должна изменять таблицу.
+     * @param parallelismThreshold число пар, начиная с которого обход распараллеливается;
+     *                             {@link Long#MAX_VALUE} отключает параллельность
+     * @param action действие над парой
+     */
+    public void forEach(long parallelismThreshold, BiConsumer<? super K, ? super V> action) {
+        Objects.requireNonNull(action, "action");
+        if (parallelismThreshold <= 0) {
+            throw new IllegalArgumentException("Illegal parallelism threshold: " + parallelismThreshold);
+        }
+
+        Spliterator<Node<K, V>> spliterator = spliterator();
+        if (spliterator.estimateSize() < parallelismThreshold) {
+            spliterator.forEachRemaining(node -> action.accept(node.getKey(), node.getValue()));
+            return;
+        }
+        ForkJoinPool.commonPool().invoke(new ForEachTask<>(spliterator, parallelismThreshold, action));
+    }
+
+
+    /**
+     * Добавляет в таблицу все пары {@code other}, заменяя значения совпадающих ключей.
+     * Перед вставкой таблица сразу расширяется до вместимости, достаточной для всех пар,
+     * поэтому промежуточных ресайзов не происходит. В режиме {@link ResizeMode#INCREMENTAL}
+     * это расширение выполняется целиком внутри вызова.
+     * @param other таблица, пары которой добавляются
+     */
+    public void putAll(SymbolTable<? extends K, ? extends V> other) {
+        if (other == this) {
+            return;
+        }
+        ensureCapacity((long) size + other.getSize());
+        for (Node<? extends K, ? extends V> node : other) {
+            add(node.getKey(), node.getValue());
+        }
+    }
+
+
+    /**
+     * Возвращает значение ключа, а если ключа нет или его значение {@code null}, вычисляет
+     * значение функцией {@code mappingFunction} и добавляет его. Если функция вернула
+     * {@code null}, таблица не меняется.
+     * @param key ключ
+     * @param mappingFunction функция, вычисляющая значение по ключу; не должна изменять таблицу
+     * @return текущее (существующее или вычисленное) значение ключа
+     * @throws ConcurrentModificationException если функция структурно изменила таблицу
+     */
+    public V computeIfAbsent(K key, Function<? super K, ? extends V> mappingFunction) {
+        Objects.requireNonNull(mappingFunction, "mappingFunction");
+        Node<K, V> node = getNode(key);
+        if (node != null && node.getValue() != null) {
+            return node.getValue();
+        }
+
+        int expectedModCount = modCount;
+        V value = mappingFunction.apply(key);
+        if (modCount != expectedModCount) {
+            throw concurrentModification();
+        }
+        if (value == null) {
+            return null;
+        }
+
+        if (node != null) {
+            node.setValue(value);
+            afterNodeUpdate(node, null);
+        }
+        else {
+            add(key, value);
+        }
+        return value;
+    }
+
+
+    /**
+     * Если ключа нет или его значение {@code null}, связывает ключ с {@code value}. Иначе
+     * заменяет значение результатом {@code remappingFunction(oldValue, value)}, а если
+     * результат {@code null} — удаляет ключ.
+     * @param key ключ
+     * @param value значение, не {@code null}
+     * @param remappingFunction функция объединения старого и нового значения;
+     *                          не должна изменять таблицу
+     * @return новое значение ключа или {@code null}, если ключ удалён
+     * @throws ConcurrentModificationException если функция структурно изменила таблицу
+     */
+    public V merge(K key, V value, BiFunction<? super V, ? super V, ? extends V> remappingFunction) {
+        Objects.requireNonNull(value, "value");
+        Objects.requireNonNull(remappingFunction, "remappingFunction");
+        Node<K, V> node = getNode(key);
+        if (node == null) {
+            add(key, value);
+            return value;
+        }
+
+        V oldValue = node.getValue();
+        if (oldValue == null) {
+            node.setValue(value);
+            afterNodeUpdate(node, null);
+            return value;
+        }
+
+        int expectedModCount = modCount;
+        V newValue = remappingFunction.apply(oldValue, value);
+        if (modCount != expectedModCount) {
+            throw concurrentModification();
+        }
+        if (newValue == null) {
+            remove(key);
+        }
+        else {
+            node.setValue(newValue);
+            afterNodeUpdate(node, oldValue);
+        }
+        return newValue;
+    }
+
+
     @Override
     public boolean equals(Object o) {
         if (this == o) {
             return true;
         }
-        if (!(o instanceof HashTable<?, ?>)) {
+        if (!(o instanceof SymbolTable<?, ?>)) {
             return false;
         }
 
-        HashTable<?, ?> tmp = (HashTable<?, ?>) o;
+        SymbolTable<?, ?> tmp = (SymbolTable<?, ?>) o;
 
-        if (this.size != tmp.size) {
+        if (getSize() != tmp.getSize()) {
             return false;
         }
 
         @SuppressWarnings("unchecked")
-        HashTable<K, ?> other = (HashTable<K, ?>) tmp;
+        SymbolTable<K, ?> other = (SymbolTable<K, ?>) tmp;
 
         for (Node<K, V> node : this) {
             K key = node.getKey();
@@ -292,6 +551,10 @@ public class HashTable<K,V> implements Iterable<Node<K,V>> {
             if (!java.util.Objects.equals(value, otherValue)) {
                 return false;
             }
+            //get возвращает null и для отсутствующего ключа, и для значения null
+            if (value == null && !other.contains(key)) {
+                return false;
+            }
         }
 
         return true;
@@ -311,10 +574,181 @@ public class HashTable<K,V> implements Iterable<Node<K,V>> {
 
 
 
+    /**
+     * Возвращает неизменяемую копию таблицы с совершенным хешированием. Копия не связана с
+     * этой таблицей, её можно без синхронизации читать из многих потоков.
+     * @return неизменяемая копия пар таблицы
+     * @see FrozenHashTable
+     */
+    public FrozenHashTable<K, V> freeze() {
+        return FrozenHashTable.copyOf(this);
+    }
+
+
+    /**
+     * Включает сбор метрик таблицы и возвращает их. Повторный вызов возвращает уже
+     * собираемые метрики. Пока метрики выключены, таблица их не собирает вовсе.
+     * @return метрики таблицы
+     */
+    public HashTableMetrics enableMetrics() {
+        if (metrics == null) {
+            metrics = new HashTableMetrics(this);
+        }
+        return metrics;
+    }
+
+
+    /**
+     * Выключает сбор метрик и снимает их регистрацию в JMX. Ранее полученный объект метрик
+     * сохраняет накопленные значения, но больше не обновляется.
+     */
+    public void disableMetrics() {
+        if (metrics != null) {
+            metrics.unregister();
+            metrics = null;
+        }
+    }
+
+
+    /**
+     * Возвращает метрики таблицы или {@code null}, если они выключены.
+     * @return метрики таблицы или {@code null}
+     */
+    public HashTableMetrics getMetrics() {
+        return metrics;
+    }
+
+
+    /**
+     * Расширяет таблицу так, чтобы {@code expectedSize} пар помещались в неё без ресайза.
+     */
+    private void ensureCapacity(long expectedSize) {
+        finishMigration();
+        while (expectedSize > threshold && table.length < Hashing.MAXIMUM_CAPACITY) {
+            resize();
+        }
+        if (table.length == Hashing.MAXIMUM_CAPACITY) {
+            threshold = Integer.MAX_VALUE;
+        }
+    }
+
+
+    /**
+     * Возвращает узел с ключом {@code key} или {@code null}, если такого ключа нет.
+     * Поиск не учитывается в метриках.
+     */
+    final Node<K, V> getNode(K key) {
+        return getNode(key, false);
+    }
+
+
+    /**
+     * Возвращает узел с ключом {@code key} или {@code null}, если такого ключа нет.
+     * Наследники переопределяют этот метод, чтобы выполнить свою работу перед поиском.
+     * @param countGet учесть поиск в метриках как вызов {@code get}
+     */
+    Node<K, V> getNode(K key, boolean countGet) {
+        migrateFor(key);
+        return findNode(key, hash(key, table.length), countGet ? metrics : null);
+    }
+
+
+    /**
+     * Создаёт исключение о конкурентном изменении и учитывает его в метриках.
+     */
+    private ConcurrentModificationException concurrentModification() {
+        if (metrics != null) {
+            metrics.recordConcurrentModification();
+        }
+        return new ConcurrentModificationException();
+    }
+
+
+    /**
+     * Заполняет {@code histogram} числом бакетов каждой длины: {@code histogram[i]} — бакеты
+     * из {@code i} узлов, последний элемент — бакеты не короче {@code histogram.length - 1}.
+     * Учитываются и ещё не перенесённые бакеты старого массива. Таблица не меняется.
+     */
+    void chainLengthHistogram(long[] histogram) {
+        addChainLengths(table, 0, histogram);
+        Node<K, V>[] old = oldTable;
+        if (old != null) {
+            addChainLengths(old, migrateIndex, histogram);
+        }
+    }
+
+
+    private static void addChainLengths(Node<?, ?>[] buckets, int from, long[] histogram) {
+        int last = histogram.length - 1;
+        for (int i = from; i < buckets.length; i++) {
+            int length = 0;
+            for (Node<?, ?> cur = buckets[i]; cur != null && length < last; cur = cur.getNext()) {
+                length++;
+            }
+            histogram[length]++;
+        }
+    }
+
+
+    /**
+     * Создаёт узел для новой пары. Наследники подменяют его, чтобы хранить в узле свои поля.
+     */
+    Node<K, V> newNode(K key, V value) {
+        return new Node<>(key, value, null);
+    }
+
+
+    /**
+     * Вызывается после вставки нового узла и возможного расширения таблицы.
+     */
+    void afterNodeInsertion(Node<K, V> node) {
+    }
+
+
+    /**
+     * Вызывается после замены значения существующего узла.
+     */
+    void afterNodeUpdate(Node<K, V> node, V oldValue) {
+    }
+
+
+    /**
+     * Вызывается после того, как узел удалён из таблицы.
+     */
+    void afterNodeRemoval(Node<K, V> node) {
+    }
+
+
+    /**
+     * Расширяет таблицу вдвое способом, заданным {@link #resizeMode}. Таблица максимальной
+     * вместимости больше не расширяется.
+     */
+    private void grow() {
+        if (table.length == Hashing.MAXIMUM_CAPACITY) {
+            threshold = Integer.MAX_VALUE;
+            return;
+        }
+
+        if (metrics != null) {
+            metrics.recordResizeStart();
+        }
+        if (resizeMode == ResizeMode.INCREMENTAL) {
+            startMigration();
+        }
+        else if (metrics != null) {
+            long start = System.nanoTime();
+            resize();
+            metrics.recordResizeWork(System.nanoTime() - start);
+        }
+        else {
+            resize();
+        }
+    }
+
+
     /**
      * <p>
-     * Расширяет хеш-таблицу для увеличения вместимости до {@code newCapacity}.
-     * Обычно увеличение происходит путем удваивания размера таблицы.
+     * Расширяет хеш-таблицу, удваивая её вместимость.
      * </p>
      * <p>
      * Также пересчитываются значение {@code threshold}.
@@ -322,35 +756,166 @@ public class HashTable<K,V> implements Iterable<Node<K,V>> {
      *      threshold = (int) (newCapacity * loadFactor);
      *      </pre></blockquote>
      * </p>
-     * @param newCapacity новый размер таблицы
      */
-    private void resize(int newCapacity) {
+    private void resize() {
         Node<K, V>[] oldTable = table;
-        Node<K, V>[] newTable = (Node<K, V>[]) new Node[newCapacity];
+        int newCapacity = 2 * oldTable.length;
 
+        this.table = (Node<K, V>[]) new Node[newCapacity];
+        this.trees = null;
         for(int i = 0; i < oldTable.length; i++) {
-            Node<K, V> node = oldTable[i];
-            while (node != null) {
-                Node<K, V> next = node.getNext();
+            splitBucket(oldTable[i], i, oldTable.length);
+        }
+
+        this.threshold = (int) (newCapacity * loadFactor);
+    }
 
-                //Считаем индекс в новой таблице и кладем туда узел.
-                int newIndex = hash(node.getKey(), newCapacity);
-                //Так как на месте newIndex может возникнуть цепочка, помещаем в начало списка новый узел
-                node.setNext(newTable[newIndex]);
-                newTable[newIndex] = node;
 
-                node = next;
+    /**
+     * Переносит цепочку бакета {@code index} массива вместимости {@code oldCapacity} в бакеты
+     * {@code index} и {@code index + oldCapacity} вдвое большего массива {@link #table}.
+     * Оба бакета должны быть пустыми. Порядок узлов сохраняется, слишком длинные
+     * получившиеся цепочки превращаются в деревья.
+     * @param node первый узел цепочки или {@code null}
+     * @param index индекс бакета в старом массиве
+     * @param oldCapacity вместимость старого массива
+     */
+    private void splitBucket(Node<K, V> node, int index, int oldCapacity) {
+        Node<K, V> loHead = null;
+        Node<K, V> loTail = null;
+        Node<K, V> hiHead = null;
+        Node<K, V> hiTail = null;
+        int loCount = 0;
+        int hiCount = 0;
+
+        while (node != null) {
+            Node<K, V> next = node.getNext();
+            node.setNext(null);
+
+            //при удвоении вместимости индекс узла определяется ещё одним битом хеша
+            if ((Hashing.spread(node.getKey().hashCode()) & oldCapacity) == 0) {
+                if (loTail == null) {
+                    loHead = node;
+                }
+                else {
+                    loTail.setNext(node);
+                }
+                loTail = node;
+                loCount++;
             }
+            else {
+                if (hiTail == null) {
+                    hiHead = node;
+                }
+                else {
+                    hiTail.setNext(node);
+                }
+                hiTail = node;
+                hiCount++;
+            }
+
+            node = next;
+        }
+
+        table[index] = loHead;
+        table[index + oldCapacity] = hiHead;
+        if (loCount > TREEIFY_THRESHOLD) {
+            treeify(index);
+        }
+        if (hiCount > TREEIFY_THRESHOLD) {
+            treeify(index + oldCapacity);
         }
+    }
 
-        this.table = newTable;
+
+    /**
+     * Начинает инкрементальный ресайз: текущий массив бакетов становится {@link #oldTable},
+     * а новые узлы добавляются уже в массив вдвое большей вместимости.
+     * Если предыдущий перенос ещё не закончен, он сначала завершается.
+     */
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private void startMigration() {
+        finishMigration();
+
+        int newCapacity = 2 * table.length;
+        this.oldTable = table;
+        this.table = (Node<K, V>[]) new Node[newCapacity];
+        this.trees = null;
+        this.migrateIndex = 0;
         this.threshold = (int) (newCapacity * loadFactor);
     }
 
 
+    /**
+     * Если идёт инкрементальный ресайз, переносит бакет старого массива, в котором может
+     * лежать {@code key}, и ещё не больше {@link #MIGRATION_STEP} непустых бакетов по порядку.
+     * После этого ключ {@code key} может находиться только в основном массиве.
+     * @param key ключ текущей операции
+     */
+    private void migrateFor(K key) {
+        if (oldTable == null) {
+            return;
+        }
+        long start = metrics != null ? System.nanoTime() : 0;
+
+        int index = hash(key, oldTable.length);
+        if (oldTable[index] != null) {
+            splitBucket(oldTable[index], index, oldTable.length);
+            oldTable[index] = null;
+        }
+
+        migrateStep();
+        if (metrics != null) {
+            metrics.recordResizeWork(System.nanoTime() - start);
+        }
+    }
+
+
+    /**
+     * Переносит очередные бакеты старого массива: не больше {@link #MIGRATION_STEP} непустых
+     * и не больше {@code 10 * MIGRATION_STEP} просмотренных всего.
+     */
+    private void migrateStep() {
+        int moved = 0;
+        int visited = 0;
+
+        while (migrateIndex < oldTable.length && moved < MIGRATION_STEP && visited < 10 * MIGRATION_STEP) {
+            Node<K, V> head = oldTable[migrateIndex];
+            if (head != null) {
+                splitBucket(head, migrateIndex, oldTable.length);
+                oldTable[migrateIndex] = null;
+                moved++;
+            }
+            migrateIndex++;
+            visited++;
+        }
+
+        if (migrateIndex == oldTable.length) {
+            oldTable = null;
+        }
+    }
+
+
+    /**
+     * Завершает незаконченный инкрементальный ресайз.
+     */
+    private void finishMigration() {
+        if (oldTable == null) {
+            return;
+        }
+        long start = metrics != null ? System.nanoTime() : 0;
+        while (oldTable != null) {
+            migrateStep();
+        }
+        if (metrics != null) {
+            metrics.recordResizeWork(System.nanoTime() - start);
+        }
+    }
+
+
     @Override
     public String toString() {
-        if(size == 0) {
+        if(getSize() == 0) {
             return "[]";
         }
 
@@ -374,15 +939,339 @@ public class HashTable<K,V> implements Iterable<Node<K,V>> {
 
 
     /**
-     * Вычисляет хеш по заданному ключу исходя из размеров текущей хеш-таблицы.
+     * Вычисляет индекс бакета по заданному ключу исходя из размеров текущей хеш-таблицы.
      * @param key ключ для которого нужно посчитать хеш
-     * @param capacity текущая вместимость таблицы
-     * @return {@code hash} вычисленный хеш
+     * @param capacity текущая вместимость таблицы, степень двойки
+     * @return {@code hash} вычисленный индекс
      */
     private int hash(K key, int capacity) {
-        int h = key.hashCode();
-        int hash = h & 0x7fffffff; // избавляемся от знака
-        return hash % capacity;
+        return Hashing.spread(key.hashCode()) & (capacity - 1);
+    }
+
+
+    /**
+     * Ищет узел с ключом {@code key} в бакете {@code index}: по дереву, если бакет
+     * превращён в дерево, и проходом по цепочке иначе.
+     * @return узел или {@code null}, если ключа нет
+     */
+    private Node<K, V> findNode(K key, int index) {
+        return findNode(key, index, null);
+    }
+
+
+    /**
+     * Как {@link #findNode(Object, int)}, но при {@code probeMetrics != null} записывает в них
+     * число сравнённых ключей. Для дерева берётся оценка его высоты.
+     */
+    private Node<K, V> findNode(K key, int index, HashTableMetrics probeMetrics) {
+        TreeMap<K, Node<K, V>> tree = treeFor(key, index);
+        if (tree != null) {
+            if (probeMetrics != null) {
+                probeMetrics.recordGet(32 - Integer.numberOfLeadingZeros(tree.size()));
+            }
+            Node<K, V> node = tree.get(key);
+            //compareTo может считать равными ключи, которые не равны по equals
+            return node != null && node.getKey().equals(key) ? node : null;
+        }
+
+        int probes = 0;
+        Node<K, V> cur = table[index];
+        while (cur != null) {
+            probes++;
+            if (cur.getKey().equals(key)) {
+                break;
+            }
+            cur = cur.getNext();
+        }
+        if (probeMetrics != null) {
+            probeMetrics.recordGet(probes);
+        }
+        return cur;
+    }
+
+
+    /**
+     * Возвращает дерево бакета {@code index}, если оно есть и в нём можно искать {@code key}.
+     * @return дерево или {@code null}, если бакет не превращён в дерево или ключ другого класса
+     */
+    private TreeMap<K, Node<K, V>> treeFor(K key, int index) {
+        if (trees == null) {
+            return null;
+        }
+
+        TreeMap<K, Node<K, V>> tree = trees[index];
+        if (tree == null || key.getClass() != tree.firstKey().getClass()) {
+            return null;
+        }
+        return tree;
+    }
+
+
+    /**
+     * Вставляет новый узел в бакет {@code index}. В дерево узел вставляется на своё место
+     * в упорядоченной цепочке, в обычный бакет — в начало цепочки.
+     * @param node новый узел, ключа которого ещё нет в таблице
+     * @param index индекс бакета
+     */
+    private void linkNode(Node<K, V> node, int index) {
+        K key = node.getKey();
+
+        if (trees != null && trees[index] != null) {
+            TreeMap<K, Node<K, V>> tree = treeFor(key, index);
+            //ключ другого класса или равный по compareTo чужому ключу в дерево не помещается
+            if (tree != null && !tree.containsKey(key)) {
+                Map.Entry<K, Node<K, V>> lower = tree.lowerEntry(key);
+                if (lower == null) {
+                    node.setNext(table[index]);
+                    table[index] = node;
+                }
+                else {
+                    node.setNext(lower.getValue().getNext());
+                    lower.getValue().setNext(node);
+                }
+                tree.put(key, node);
+                return;
+            }
+            untreeify(index);
+        }
+
+        //Вставляем в начало линкед-листа
+        node.setNext(table[index]);
+        table[index] = node;
+
+        if (isLongerThan(node, TREEIFY_THRESHOLD)) {
+            treeify(index);
+        }
+    }
+
+
+    /**
+     * Удаляет ключ из бакета-дерева.
+     * @return значение удалённой пары или {@code null}, если ключа нет
+     */
+    private V removeFromTree(TreeMap<K, Node<K, V>> tree, K key, int index) {
+        Node<K, V> node = tree.get(key);
+        if (node == null || !node.getKey().equals(key)) {
+            return null;
+        }
+
+        //цепочка упорядочена, поэтому предыдущий узел — это узел предыдущего ключа дерева
+        Map.Entry<K, Node<K, V>> lower = tree.lowerEntry(key);
+        if (lower == null) {
+            table[index] = node.getNext();
+        }
+        else {
+            lower.getValue().setNext(node.getNext());
+        }
+        tree.remove(key);
+        if (tree.size() < UNTREEIFY_THRESHOLD) {
+            untreeify(index);
+        }
+
+        size--;
+        modCount++;
+        if (metrics != null) {
+            metrics.recordModification();
+        }
+        afterNodeRemoval(node);
+        return node.getValue();
+    }
+
+
+    /**
+     * Превращает бакет {@code index} в дерево и упорядочивает его цепочку по ключам.
+     * Ничего не делает, если ключи бакета не {@link Comparable}, разных классов или
+     * {@code compareTo} считает равными разные ключи.
+     */
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private void treeify(int index) {
+        Node<K, V> head = table[index];
+        Class<?> keyClass = head.getKey().getClass();
+        if (!(head.getKey() instanceof Comparable)) {
+            return;
+        }
+        for (Node<K, V> cur = head; cur != null; cur = cur.getNext()) {
+            if (cur.getKey().getClass() != keyClass) {
+                return;
+            }
+        }
+
+        TreeMap<K, Node<K, V>> tree = new TreeMap<>();
+        for (Node<K, V> cur = head; cur != null; cur = cur.getNext()) {
+            if (tree.put(cur.getKey(), cur) != null) {
+                return;
+            }
+        }
+
+        Node<K, V> prev = null;
+        for (Node<K, V> node : tree.values()) {
+            if (prev == null) {
+                table[index] = node;
+            }
+            else {
+                prev.setNext(node);
+            }
+            prev = node;
+        }
+        prev.setNext(null);
+
+        if (trees == null) {
+            trees = (TreeMap<K, Node<K, V>>[]) new TreeMap[table.length];
+        }
+        trees[index] = tree;
+    }
+
+
+    /**
+     * Отбрасывает дерево бакета {@code index}; цепочка остаётся прежней.
+     */
+    private void untreeify(int index) {
+        if (trees != null) {
+            trees[index] = null;
+        }
+    }
+
+
+    /**
+     * Проверяет, что в цепочке, начинающейся с {@code node}, больше {@code limit} узлов.
+     * Просматривает не больше {@code limit + 1} узлов.
+     */
+    private static boolean isLongerThan(Node<?, ?> node, int limit) {
+        int count = 0;
+        while (node != null) {
+            if (++count > limit) {
+                return true;
+            }
+            node = node.getNext();
+        }
+        return false;
+    }
+
+
+    /**
+     * Сплитератор по бакетам {@code [index, fence)} массива {@link #table}. Делится пополам
+     * по диапазону бакетов; точный размер известен только до первого деления.
+     */
+    private final class HashSpliterator implements Spliterator<Node<K, V>> {
+        private int index;
+        private final int fence;
+        private long estimate;
+        private final int expectedModCount;
+        private final boolean exact;
+        private Node<K, V> current;
+
+        HashSpliterator(int index, int fence, long estimate, int expectedModCount, boolean exact) {
+            this.index = index;
+            this.fence = fence;
+            this.estimate = estimate;
+            this.expectedModCount = expectedModCount;
+            this.exact = exact;
+        }
+
+        @Override
+        public Spliterator<Node<K, V>> trySplit() {
+            int mid = (index + fence) >>> 1;
+            if (current != null || mid <= index) {
+                return null;
+            }
+            estimate >>>= 1;
+            HashSpliterator prefix = new HashSpliterator(index, mid, estimate, expectedModCount, false);
+            index = mid;
+            return prefix;
+        }
+
+        @Override
+        public boolean tryAdvance(Consumer<? super Node<K, V>> action) {
+            Objects.requireNonNull(action, "action");
+            Node<K, V>[] tab = table;
+            while (current != null || index < fence) {
+                if (current == null) {
+                    current = tab[index++];
+                }
+                else {
+                    Node<K, V> node = current;
+                    current = node.getNext();
+                    action.accept(node);
+                    checkForComodification();
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        @Override
+        public void forEachRemaining(Consumer<? super Node<K, V>> action) {
+            Objects.requireNonNull(action, "action");
+            Node<K, V>[] tab = table;
+            Node<K, V> node = current;
+            current = null;
+            for (int i = index; node != null || i < fence; ) {
+                if (node == null) {
+                    node = tab[i++];
+                }
+                else {
+                    action.accept(node);
+                    node = node.getNext();
+                }
+            }
+            index = fence;
+            checkForComodification();
+        }
+
+        @Override
+        public long estimateSize() {
+            return estimate;
+        }
+
+        @Override
+        public int characteristics() {
+            return (exact ? Spliterator.SIZED : 0) | Spliterator.DISTINCT | Spliterator.NONNULL;
+        }
+
+        private void checkForComodification() {
+            if (modCount != expectedModCount) {
+                throw concurrentModification();
+            }
+        }
+    }
+
+
+    /**
+     * Задача {@link #forEach(long, BiConsumer)}: отщепляет от сплитератора части, пока
+     * в нём больше {@code threshold} пар, отдаёт их другим потокам, а остаток обходит сама.
+     */
+    @SuppressWarnings("serial")
+    private static final class ForEachTask<K, V> extends RecursiveAction {
+        private final Spliterator<Node<K, V>> spliterator;
+        private final long threshold;
+        private final BiConsumer<? super K, ? super V> action;
+        /**
+         * Следующая задача в списке задач, отданных другим потокам.
+         */
+        private ForEachTask<K, V> next;
+
+        ForEachTask(Spliterator<Node<K, V>> spliterator, long threshold, BiConsumer<? super K, ? super V> action) {
+            this.spliterator = spliterator;
+            this.threshold = threshold;
+            this.action = action;
+        }
+
+        @Override
+        protected void compute() {
+            ForEachTask<K, V> forked = null;
+            Spliterator<Node<K, V>> prefix;
+            while (spliterator.estimateSize() > threshold && (prefix = spliterator.trySplit()) != null) {
+                ForEachTask<K, V> task = new ForEachTask<>(prefix, threshold, action);
+                task.next = forked;
+                forked = task;
+                task.fork();
+            }
+
+            spliterator.forEachRemaining(node -> action.accept(node.getKey(), node.getValue()));
+            for (ForEachTask<K, V> task = forked; task != null; task = task.next) {
+                task.join();
+            }
+        }
     }
 
 
@@ -414,7 +1303,7 @@ public class HashTable<K,V> implements Iterable<Node<K,V>> {
         @Override
         public Node<K, V> next() {
             if(modCount != expectedModCount) {
-                throw new ConcurrentModificationException();
+                throw concurrentModification();
             }
             if(nextNode == null) {
                 throw new NoSuchElementException();
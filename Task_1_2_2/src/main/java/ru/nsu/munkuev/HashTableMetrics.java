@@ -0,0 +1,264 @@
+package ru.nsu.munkuev;
+
+import javax.management.InstanceAlreadyExistsException;
+import javax.management.InstanceNotFoundException;
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+
+/**
+ * Метрики одной {@link HashTable}, включаемые методом {@link HashTable#enableMetrics()}.
+ * <p>
+ * Таблица обновляет счётчики на своих операциях:
+ * <ul>
+ *     <li>число вызовов {@link HashTable#get(Object)} и сравнённых ими ключей (длина пробы);
+ *         внутренние поиски {@code contains}, {@code computeIfAbsent}, {@code merge} не учитываются;</li>
+ *     <li>число ресайзов и время, потраченное на перенос бакетов: для
+ *         {@link ResizeMode#EAGER} — весь ресайз, для {@link ResizeMode#INCREMENTAL} —
+ *         сумма шагов переноса, а самая долгая пауза — самый долгий шаг;</li>
+ *     <li>число выброшенных {@link java.util.ConcurrentModificationException};</li>
+ *     <li>загрузку таблицы при каждом ресайзе и после каждых {@value #LOAD_SAMPLE_INTERVAL}
+ *         структурных изменений — последние {@value #LOAD_HISTORY_SIZE} значений.</li>
+ * </ul>
+ * Гистограмма длин цепочек и текущая загрузка вычисляются при запросе обходом бакетов.
+ *
+ * <p>
+ * Значения доступны методами этого класса и через JMX после {@link #register(String)}.
+ * Как и таблица, метрики не синхронизированы: при чтении из другого потока значения
+ * могут немного отставать от действительных. Гистограмма длин цепочек при этом обходит
+ * бакеты без синхронизации с потоком, меняющим таблицу, поэтому может не соответствовать
+ * ни одному её состоянию, а её сумма — отличаться от числа бакетов.
+ */
+public final class HashTableMetrics implements HashTableMetricsMXBean {
+    /**
+     * Последний элемент гистограммы длин цепочек считает бакеты не короче этой длины.
+     */
+    public static final int MAX_HISTOGRAM_LENGTH = 16;
+
+    static final int LOAD_SAMPLE_INTERVAL = 4096;
+    static final int LOAD_HISTORY_SIZE = 256;
+
+    private final HashTable<?, ?> table;
+
+    private long getCount;
+    private long probeCount;
+    private long maxProbeCount;
+
+    private long resizeCount;
+    private long totalResizeNanos;
+    private long maxResizePauseNanos;
+
+    private long concurrentModificationCount;
+
+    private int modificationsSinceSample;
+    private final double[] loadHistory = new double[LOAD_HISTORY_SIZE];
+    private final long[] loadHistoryTimes = new long[LOAD_HISTORY_SIZE];
+    /**
+     * Сколько значений загрузки записано всего; последнее лежит в ячейке
+     * {@code (loadSamples - 1) % LOAD_HISTORY_SIZE}.
+     */
+    private long loadSamples;
+
+    private ObjectName objectName;
+
+    HashTableMetrics(HashTable<?, ?> table) {
+        this.table = table;
+    }
+
+
+    void recordGet(int probes) {
+        getCount++;
+        probeCount += probes;
+        if (probes > maxProbeCount) {
+            maxProbeCount = probes;
+        }
+    }
+
+    void recordResizeStart() {
+        resizeCount++;
+        sampleLoad();
+    }
+
+    void recordResizeWork(long nanos) {
+        totalResizeNanos += nanos;
+        if (nanos > maxResizePauseNanos) {
+            maxResizePauseNanos = nanos;
+        }
+    }
+
+    void recordConcurrentModification() {
+        concurrentModificationCount++;
+    }
+
+    void recordModification() {
+        if (++modificationsSinceSample == LOAD_SAMPLE_INTERVAL) {
+            sampleLoad();
+        }
+    }
+
+    /**
+     * Записывает текущую загрузку таблицы в историю.
+     */
+    public void sampleLoad() {
+        modificationsSinceSample = 0;
+        int slot = (int) (loadSamples % LOAD_HISTORY_SIZE);
+        loadHistory[slot] = table.currentLoad();
+        loadHistoryTimes[slot] = System.currentTimeMillis();
+        loadSamples++;
+    }
+
+
+    @Override
+    public long getGetCount() {
+        return getCount;
+    }
+
+    /**
+     * Возвращает среднее число сравнённых ключей на один {@code get}; {@code 0}, если вызовов не было.
+     */
+    @Override
+    public double getAverageProbeCount() {
+        return getCount == 0 ? 0 : (double) probeCount / getCount;
+    }
+
+    @Override
+    public long getMaxProbeCount() {
+        return maxProbeCount;
+    }
+
+    @Override
+    public long getResizeCount() {
+        return resizeCount;
+    }
+
+    @Override
+    public long getTotalResizeTimeNanos() {
+        return totalResizeNanos;
+    }
+
+    @Override
+    public long getMaxResizePauseNanos() {
+        return maxResizePauseNanos;
+    }
+
+    @Override
+    public long getConcurrentModificationCount() {
+        return concurrentModificationCount;
+    }
+
+    /**
+     * Возвращает отношение числа пар к числу бакетов.
+     */
+    @Override
+    public double getCurrentLoad() {
+        return table.currentLoad();
+    }
+
+    /**
+     * Возвращает гистограмму длин цепочек: элемент {@code i} — число бакетов из {@code i}
+     * узлов, последний элемент — число бакетов не короче {@link #MAX_HISTOGRAM_LENGTH}.
+     * Время вычисления пропорционально вместимости таблицы. Если таблица меняется в другом
+     * потоке, результат может быть несогласованным.
+     */
+    @Override
+    public long[] getChainLengthHistogram() {
+        long[] histogram = new long[MAX_HISTOGRAM_LENGTH + 1];
+        table.chainLengthHistogram(histogram);
+        return histogram;
+    }
+
+    /**
+     * Возвращает сохранённые значения загрузки от старых к новым.
+     */
+    @Override
+    public double[] getLoadHistory() {
+        int count = (int) Math.min(loadSamples, LOAD_HISTORY_SIZE);
+        double[] history = new double[count];
+        for (int i = 0; i < count; i++) {
+            history[i] = loadHistory[historySlot(i, count)];
+        }
+        return history;
+    }
+
+    /**
+     * Возвращает моменты записи значений {@link #getLoadHistory()} в миллисекундах
+     * {@link System#currentTimeMillis()}.
+     */
+    @Override
+    public long[] getLoadHistoryTimesMillis() {
+        int count = (int) Math.min(loadSamples, LOAD_HISTORY_SIZE);
+        long[] times = new long[count];
+        for (int i = 0; i < count; i++) {
+            times[i] = loadHistoryTimes[historySlot(i, count)];
+        }
+        return times;
+    }
+
+    /**
+     * Обнуляет счётчики и историю загрузки.
+     */
+    @Override
+    public void reset() {
+        getCount = 0;
+        probeCount = 0;
+        maxProbeCount = 0;
+        resizeCount = 0;
+        totalResizeNanos = 0;
+        maxResizePauseNanos = 0;
+        concurrentModificationCount = 0;
+        modificationsSinceSample = 0;
+        loadSamples = 0;
+    }
+
+
+    /**
+     * Регистрирует метрики в платформенном {@link MBeanServer} под именем
+     * {@code ru.nsu.munkuev:type=HashTable,name=<name>}.
+     * @param name имя таблицы, уникальное среди зарегистрированных
+     * @return имя, под которым метрики зарегистрированы
+     * @throws IllegalStateException если метрики уже зарегистрированы или имя занято
+     */
+    public synchronized ObjectName register(String name) {
+        if (objectName != null) {
+            throw new IllegalStateException("Metrics are already registered as " + objectName);
+        }
+        try {
+            ObjectName candidate = new ObjectName("ru.nsu.munkuev:type=HashTable,name=" + ObjectName.quote(name));
+            ManagementFactory.getPlatformMBeanServer().registerMBean(this, candidate);
+            objectName = candidate;
+            return candidate;
+        }
+        catch (InstanceAlreadyExistsException e) {
+            throw new IllegalStateException("Name is already in use: " + name, e);
+        }
+        catch (JMException e) {
+            throw new IllegalStateException("Can not register metrics " + name, e);
+        }
+    }
+
+    /**
+     * Снимает регистрацию в JMX. Ничего не делает, если метрики не зарегистрированы.
+     */
+    public synchronized void unregister() {
+        if (objectName == null) {
+            return;
+        }
+        try {
+            ManagementFactory.getPlatformMBeanServer().unregisterMBean(objectName);
+        }
+        catch (InstanceNotFoundException e) {
+            //регистрацию уже сняли через MBeanServer
+        }
+        catch (JMException e) {
+            throw new IllegalStateException("Can not unregister metrics " + objectName, e);
+        }
+        finally {
+            objectName = null;
+        }
+    }
+
+    private int historySlot(int i, int count) {
+        return (int) ((loadSamples - count + i) % LOAD_HISTORY_SIZE);
+    }
+}
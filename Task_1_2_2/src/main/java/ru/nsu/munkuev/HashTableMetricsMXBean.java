@@ -0,0 +1,30 @@
+package ru.nsu.munkuev;
+
+/**
+ * Интерфейс управления JMX для {@link HashTableMetrics}. Все атрибуты только для чтения.
+ */
+public interface HashTableMetricsMXBean {
+    long getGetCount();
+
+    double getAverageProbeCount();
+
+    long getMaxProbeCount();
+
+    long getResizeCount();
+
+    long getTotalResizeTimeNanos();
+
+    long getMaxResizePauseNanos();
+
+    long getConcurrentModificationCount();
+
+    double getCurrentLoad();
+
+    long[] getChainLengthHistogram();
+
+    double[] getLoadHistory();
+
+    long[] getLoadHistoryTimesMillis();
+
+    void reset();
+}
@@ -0,0 +1,307 @@
+package ru.nsu.munkuev;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.SeekableByteChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Компактный двоичный снимок {@link HashTable} для быстрого сохранения и восстановления.
+ * <p>
+ * Ключи и значения кодируются переданными {@link Codec} и записываются с префиксом длины.
+ * Формат (порядок байт little-endian):
+ * <pre>
+ * заголовок, 20 байт:
+ *     magic        int
+ *     version      int
+ *     capacity     int    число бакетов сохранённой таблицы
+ *     loadFactor   float
+ *     size         int    число пар
+ * пары, size раз:
+ *     keyLength    int
+ *     key          keyLength байт
+ *     valueLength  int    -1 для значения null
+ *     value        valueLength байт
+ * </pre>
+ *
+ * <p>
+ * Чтение и запись идут через каналы NIO и один прямой {@link ByteBuffer} на {@code 64 КБ},
+ * поэтому на каждую пару не создаются потоки ввода-вывода. При восстановлении таблица
+ * сразу создаётся с сохранённой вместимостью, а если сохранённых пар больше порога
+ * загрузки — с вместимостью, достаточной для всех пар. Пары добавляются без
+ * промежуточных ресайзов.
+ * <p>
+ * Префиксам длины при чтении не доверяется: длина больше {@code 1 ГБ} или больше
+ * остатка файла отвергается сразу, а буфер растёт только по мере прихода данных,
+ * поэтому повреждённый снимок не приводит к выделению огромного буфера.
+ */
+public final class HashTableSnapshot {
+    private static final int MAGIC = 0x48545331;
+    private static final int VERSION = 1;
+    private static final int HEADER_BYTES = 20;
+    private static final int NULL_LENGTH = -1;
+
+    private static final int BUFFER_BYTES = 64 * 1024;
+    /**
+     * Наибольшая длина ключа или значения; длина больше считается повреждением данных.
+     */
+    private static final int MAX_ENTRY_BYTES = 1 << 30;
+
+    private HashTableSnapshot() {
+        throw new UnsupportedOperationException("This class can not be instantiated");
+    }
+
+
+    /**
+     * Записывает снимок таблицы в файл, создавая или перезаписывая его.
+     * @param table записываемая таблица
+     * @param file файл снимка
+     * @param keyCodec кодек ключей
+     * @param valueCodec кодек значений
+     * @param <K> тип ключей
+     * @param <V> тип значений
+     * @throws IOException при ошибке ввода-вывода
+     */
+    public static <K, V> void write(HashTable<K, V> table, Path file,
+                                    Codec<? super K> keyCodec, Codec<? super V> valueCodec) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            write(table, channel, keyCodec, valueCodec);
+        }
+    }
+
+
+    /**
+     * Записывает снимок таблицы в канал. Канал не закрывается.
+     * @param table записываемая таблица
+     * @param channel канал, в который пишется снимок
+     * @param keyCodec кодек ключей
+     * @param valueCodec кодек значений
+     * @param <K> тип ключей
+     * @param <V> тип значений
+     * @throws IOException при ошибке ввода-вывода
+     */
+    public static <K, V> void write(HashTable<K, V> table, WritableByteChannel channel,
+                                    Codec<? super K> keyCodec, Codec<? super V> valueCodec) throws IOException {
+        Writer writer = new Writer(channel);
+        ByteBuffer header = writer.reserve(HEADER_BYTES);
+        header.putInt(MAGIC);
+        header.putInt(VERSION);
+        header.putInt(table.capacity());
+        header.putFloat(table.loadFactor());
+        header.putInt(table.getSize());
+
+        for (Node<K, V> node : table) {
+            writer.writeEntry(node.getKey(), keyCodec);
+            if (node.getValue() == null) {
+                writer.reserve(4).putInt(NULL_LENGTH);
+            }
+            else {
+                writer.writeEntry(node.getValue(), valueCodec);
+            }
+        }
+        writer.flush();
+    }
+
+
+    /**
+     * Восстанавливает таблицу из файла, записанного {@link #write(HashTable, Path, Codec, Codec)}.
+     * @param file файл снимка
+     * @param keyCodec кодек ключей
+     * @param valueCodec кодек значений
+     * @param <K> тип ключей
+     * @param <V> тип значений
+     * @return восстановленная таблица
+     * @throws IOException если файл не является снимком таблицы или при ошибке ввода-вывода
+     */
+    public static <K, V> HashTable<K, V> read(Path file, Codec<? extends K> keyCodec,
+                                              Codec<? extends V> valueCodec) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            return read(channel, keyCodec, valueCodec);
+        }
+    }
+
+
+    /**
+     * Восстанавливает таблицу из канала. Читается ровно один снимок, канал не закрывается.
+     * @param channel канал, из которого читается снимок
+     * @param keyCodec кодек ключей
+     * @param valueCodec кодек значений
+     * @param <K> тип ключей
+     * @param <V> тип значений
+     * @return восстановленная таблица
+     * @throws EOFException если канал закончился раньше снимка
+     * @throws IOException если данные не являются снимком таблицы или при ошибке ввода-вывода
+     */
+    public static <K, V> HashTable<K, V> read(ReadableByteChannel channel, Codec<? extends K> keyCodec,
+                                              Codec<? extends V> valueCodec) throws IOException {
+        Reader reader = new Reader(channel);
+        ByteBuffer header = reader.require(HEADER_BYTES);
+        if (header.getInt() != MAGIC) {
+            throw new IOException("Not a hash table snapshot");
+        }
+        int version = header.getInt();
+        if (version != VERSION) {
+            throw new IOException("Unsupported snapshot version " + version);
+        }
+        int capacity = header.getInt();
+        float loadFactor = header.getFloat();
+        int size = header.getInt();
+        if (capacity <= 0 || capacity > Hashing.MAXIMUM_CAPACITY || Integer.bitCount(capacity) != 1
+                || !(loadFactor > 0) || size < 0) {
+            throw new IOException("Corrupted snapshot header");
+        }
+
+        //вместимость, при которой size пар не вызовут ресайз
+        while (size > (long) (capacity * loadFactor) && capacity < Hashing.MAXIMUM_CAPACITY) {
+            capacity <<= 1;
+        }
+        HashTable<K, V> table = new HashTable<>(capacity, loadFactor);
+        for (int i = 0; i < size; i++) {
+            K key = reader.readEntry(keyCodec);
+            if (key == null) {
+                throw new IOException("Null key in snapshot at entry " + i);
+            }
+            table.add(key, reader.readEntry(valueCodec));
+        }
+        if (table.getSize() != size) {
+            throw new IOException("Snapshot contains duplicate keys");
+        }
+        return table;
+    }
+
+
+    /**
+     * Буферизованная запись в канал через прямой буфер.
+     */
+    private static final class Writer {
+        private final WritableByteChannel channel;
+        private ByteBuffer buffer = ByteBuffer.allocateDirect(BUFFER_BYTES).order(ByteOrder.LITTLE_ENDIAN);
+
+        Writer(WritableByteChannel channel) {
+            this.channel = channel;
+        }
+
+        /**
+         * Гарантирует, что в буфере есть {@code bytes} свободных байт, и возвращает его.
+         */
+        ByteBuffer reserve(int bytes) throws IOException {
+            if (buffer.remaining() < bytes) {
+                flush();
+            }
+            return buffer;
+        }
+
+        /**
+         * Записывает объект с префиксом длины. Если объект не поместился в остаток
+         * буфера, буфер сбрасывается в канал, а если не поместился и в пустой — растёт.
+         */
+        <T> void writeEntry(T value, Codec<? super T> codec) throws IOException {
+            while (true) {
+                reserve(4);
+                int start = buffer.position();
+                buffer.position(start + 4);
+                try {
+                    codec.write(value, buffer);
+                    buffer.putInt(start, buffer.position() - start - 4);
+                    return;
+                }
+                catch (BufferOverflowException e) {
+                    buffer.position(start);
+                    if (start == 0) {
+                        buffer = ByteBuffer.allocateDirect(buffer.capacity() * 2).order(ByteOrder.LITTLE_ENDIAN);
+                    }
+                    else {
+                        flush();
+                    }
+                }
+            }
+        }
+
+        void flush() throws IOException {
+            buffer.flip();
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+            buffer.clear();
+        }
+    }
+
+
+    /**
+     * Буферизованное чтение из канала через прямой буфер.
+     */
+    private static final class Reader {
+        private final ReadableByteChannel channel;
+        /**
+         * Сколько байт осталось в канале, если это известно, иначе {@link Long#MAX_VALUE}.
+         */
+        private long channelRemaining;
+        private ByteBuffer buffer = ByteBuffer.allocateDirect(BUFFER_BYTES).order(ByteOrder.LITTLE_ENDIAN);
+
+        Reader(ReadableByteChannel channel) throws IOException {
+            this.channel = channel;
+            this.channelRemaining = channel instanceof SeekableByteChannel seekable
+                    ? Math.max(0, seekable.size() - seekable.position())
+                    : Long.MAX_VALUE;
+            buffer.limit(0);
+        }
+
+        /**
+         * Дочитывает канал, пока в буфере не окажется {@code bytes} непрочитанных байт,
+         * и возвращает буфер. Если {@code bytes} больше вместимости, буфер растёт вдвое
+         * каждый раз, когда заполняется, но не больше {@code bytes}.
+         */
+        ByteBuffer require(int bytes) throws IOException {
+            if (buffer.remaining() >= bytes) {
+                return buffer;
+            }
+            buffer.compact();
+
+            while (buffer.position() < bytes) {
+                if (!buffer.hasRemaining()) {
+                    int capacity = (int) Math.min(bytes, 2L * buffer.capacity());
+                    ByteBuffer larger = ByteBuffer.allocateDirect(capacity).order(ByteOrder.LITTLE_ENDIAN);
+                    buffer.flip();
+                    larger.put(buffer);
+                    buffer = larger;
+                }
+                int read = channel.read(buffer);
+                if (read < 0) {
+                    throw new EOFException("Unexpected end of snapshot");
+                }
+                if (channelRemaining != Long.MAX_VALUE) {
+                    channelRemaining -= read;
+                }
+            }
+            buffer.flip();
+            return buffer;
+        }
+
+        /**
+         * Читает объект с префиксом длины; длина {@code -1} означает {@code null}.
+         */
+        <T> T readEntry(Codec<? extends T> codec) throws IOException {
+            int length = require(4).getInt();
+            if (length == NULL_LENGTH) {
+                return null;
+            }
+            if (length < 0 || length > MAX_ENTRY_BYTES || length - buffer.remaining() > channelRemaining) {
+                throw new IOException("Corrupted entry length " + length);
+            }
+
+            require(length);
+            int start = buffer.position();
+            ByteBuffer view = buffer.slice(start, length).order(ByteOrder.LITTLE_ENDIAN);
+            buffer.position(start + length);
+            return codec.read(view);
+        }
+    }
+}
@@ -0,0 +1,85 @@
+package ru.nsu.munkuev;
+
+/**
+ * Общие вспомогательные функции для хеш-таблиц с вместимостью, равной степени двойки.
+ * <p>
+ * Индекс ячейки в таких таблицах берётся маской по младшим битам хеша, поэтому перед
+ * маскированием хеш перемешивается: иначе ключи, различающиеся только старшими битами,
+ * попадали бы в одну ячейку.
+ */
+final class Hashing {
+    /**
+     * Наибольшая вместимость таблицы, равная степени двойки.
+     */
+    static final int MAXIMUM_CAPACITY = 1 << 30;
+
+    private Hashing() {
+        throw new UnsupportedOperationException("This class can not be instantiated");
+    }
+
+    /**
+     * Подмешивает старшие 16 бит {@link Object#hashCode()} к младшим.
+     * @param h исходный хеш
+     * @return перемешанный хеш
+     */
+    static int spread(int h) {
+        return h ^ (h >>> 16);
+    }
+
+    /**
+     * Перемешивает примитивный ключ {@code int}: умножение на нечётную константу золотого
+     * сечения распределяет последовательные ключи по всей таблице.
+     * @param key ключ
+     * @return хеш ключа
+     */
+    static int mix(int key) {
+        int h = key * 0x9E3779B9;
+        return h ^ (h >>> 16);
+    }
+
+    /**
+     * Перемешивает примитивный ключ {@code long}.
+     * @param key ключ
+     * @return хеш ключа
+     */
+    static int mix(long key) {
+        long h = key * 0x9E3779B97F4A7C15L;
+        h ^= h >>> 32;
+        return (int) (h ^ (h >>> 16));
+    }
+
+    /**
+     * Возвращает наименьшую степень двойки, не меньшую {@code capacity}, но не больше
+     * {@link #MAXIMUM_CAPACITY}.
+     * @param capacity желаемая вместимость, не меньше {@code 1}
+     * @return вместимость таблицы
+     */
+    static int tableSizeFor(int capacity) {
+        if (capacity >= MAXIMUM_CAPACITY) {
+            return MAXIMUM_CAPACITY;
+        }
+        return capacity == 1 ? 1 : Integer.highestOneBit(capacity - 1) << 1;
+    }
+
+    /**
+     * Вычисляет порог расширения для таблицы с открытой адресацией. Хотя бы одна ячейка
+     * всегда остаётся пустой, иначе поиск отсутствующего ключа не завершится.
+     * @param capacity вместимость таблицы
+     * @param loadFactor степень загрузки из интервала {@code (0, 1)}
+     * @return наибольшее допустимое количество занятых ячеек
+     */
+    static int openAddressingThreshold(int capacity, float loadFactor) {
+        return Math.min((int) (capacity * loadFactor), capacity - 1);
+    }
+
+    /**
+     * Проверяет степень загрузки таблицы с открытой адресацией.
+     * @param loadFactor степень загрузки
+     * @throws IllegalArgumentException если {@code loadFactor} не лежит в интервале {@code (0, 1)}
+     */
+    static void checkOpenAddressingLoadFactor(float loadFactor) {
+        if (!(loadFactor > 0 && loadFactor < 1)) {
+            throw new IllegalArgumentException("Illegal load factor: " + loadFactor);
+        }
+    }
+}
@@ -0,0 +1,15 @@
+package ru.nsu.munkuev;
+
+/**
+ * Действие над парой {@code (key, value)} с ключом и значением {@code int}.
+ * Используется для обхода {@link IntIntHashTable} без упаковки.
+ */
+@FunctionalInterface
+public interface IntIntConsumer {
+    /**
+     * Выполняет действие над парой.
+     * @param key ключ
+     * @param value значение
+     */
+    void accept(int key, int value);
+}
@@ -0,0 +1,370 @@
+package ru.nsu.munkuev;
+
+import java.util.Arrays;
+
+/**
+ * Хеш-таблица с примитивными ключами и значениями {@code int}.
+ * <p>
+ * В отличие от {@code HashTable<Integer, Integer>}, ключи и значения не упаковываются:
+ * они хранятся в двух параллельных массивах {@code int[]}, а для хеширования и сравнения
+ * не вызываются {@link Object#hashCode()} и {@link Object#equals(Object)}. Коллизии разрешаются
+ * линейным пробированием, удаление сдвигает элементы кластера назад, как в
+ * {@link OpenAddressingHashTable}.
+ *
+ * <p>
+ * Пустая ячейка отмечается ключом {@code 0}. Сам ключ {@code 0} тоже можно хранить: его
+ * значение лежит в отдельном поле вне массивов.
+ *
+ * <p>
+ * Если ключа нет, методы {@link #get(int)}, {@link #add(int, int)} и {@link #remove(int)}
+ * возвращают значение {@code noEntryValue}, заданное при создании таблицы ({@code 0} по
+ * умолчанию). Отличить отсутствующий ключ от ключа со значением {@code noEntryValue} можно
+ * методом {@link #contains(int)}.
+ *
+ * <p>
+ * Обход выполняется методом {@link #forEach(IntIntConsumer)} без выделения памяти.
+ * Класс не потокобезопасен.
+ */
+public class IntIntHashTable {
+    private static final int DEFAULT_CAPACITY = 16;
+    private static final float DEFAULT_LOAD_FACTOR = 0.5f;
+
+    /**
+     * Ключ пустой ячейки.
+     */
+    private static final int FREE_KEY = 0;
+
+    private int[] keys;
+    private int[] values;
+    private int mask;
+
+    /**
+     * Количество пар в массивах, без учёта ключа {@code 0}.
+     */
+    private int assigned;
+    private int threshold;
+    private final float loadFactor;
+
+    private boolean hasZeroKey;
+    private int zeroValue;
+
+    private final int noEntryValue;
+
+
+    /**
+     * Создаёт таблицу вместимостью {@code 16} со степенью загрузки {@code 0.5}.
+     */
+    public IntIntHashTable() {
+        this(DEFAULT_CAPACITY, DEFAULT_LOAD_FACTOR);
+    }
+
+
+    /**
+     * Создаёт таблицу, возвращающую {@code 0} для отсутствующих ключей.
+     * @param initialCapacity изначальная вместимость, округляется вверх до степени двойки
+     * @param loadFactor степень загрузки из интервала {@code (0, 1)}
+     * @throws IllegalArgumentException если {@code initialCapacity <= 0} или
+     * {@code loadFactor} не лежит в интервале {@code (0, 1)}
+     */
+    public IntIntHashTable(int initialCapacity, float loadFactor) {
+        this(initialCapacity, loadFactor, 0);
+    }
+
+
+    /**
+     * Создаёт таблицу с заданным значением для отсутствующих ключей.
+     * @param initialCapacity изначальная вместимость, округляется вверх до степени двойки
+     * @param loadFactor степень загрузки из интервала {@code (0, 1)}
+     * @param noEntryValue значение, возвращаемое для отсутствующих ключей
+     * @throws IllegalArgumentException если {@code initialCapacity <= 0} или
+     * {@code loadFactor} не лежит в интервале {@code (0, 1)}
+     */
+    public IntIntHashTable(int initialCapacity, float loadFactor, int noEntryValue) {
+        if (initialCapacity <= 0) {
+            throw new IllegalArgumentException("Illegal initial capacity: " + initialCapacity);
+        }
+        Hashing.checkOpenAddressingLoadFactor(loadFactor);
+
+        this.loadFactor = loadFactor;
+        this.noEntryValue = noEntryValue;
+        allocate(Hashing.tableSizeFor(initialCapacity));
+    }
+
+
+    /**
+     * Возвращает количество пар в таблице.
+     * @return количество пар
+     */
+    public int getSize() {
+        return hasZeroKey ? assigned + 1 : assigned;
+    }
+
+
+    /**
+     * Возвращает значение, которое таблица возвращает для отсутствующих ключей.
+     * @return {@code noEntryValue}
+     */
+    public int getNoEntryValue() {
+        return noEntryValue;
+    }
+
+
+    /**
+     * Добавляет пару {@code (key, value)} или заменяет значение существующего ключа.
+     * @param key ключ
+     * @param value значение
+     * @return старое значение при замене, {@code noEntryValue} при вставке
+     */
+    public int add(int key, int value) {
+        if (key == FREE_KEY) {
+            int oldValue = hasZeroKey ? zeroValue : noEntryValue;
+            hasZeroKey = true;
+            zeroValue = value;
+            return oldValue;
+        }
+
+        int i = Hashing.mix(key) & mask;
+        int k;
+        while ((k = keys[i]) != FREE_KEY) {
+            if (k == key) {
+                int oldValue = values[i];
+                values[i] = value;
+                return oldValue;
+            }
+            i = (i + 1) & mask;
+        }
+
+        keys[i] = key;
+        values[i] = value;
+        if (++assigned > threshold) {
+            resize();
+        }
+
+        return noEntryValue;
+    }
+
+
+    /**
+     * Возвращает значение по ключу.
+     * @param key ключ
+     * @return значение или {@code noEntryValue}, если ключа нет
+     */
+    public int get(int key) {
+        return getOrDefault(key, noEntryValue);
+    }
+
+
+    /**
+     * Возвращает значение по ключу или {@code defaultValue}, если ключа нет.
+     * @param key ключ
+     * @param defaultValue значение для отсутствующего ключа
+     * @return значение ключа или {@code defaultValue}
+     */
+    public int getOrDefault(int key, int defaultValue) {
+        if (key == FREE_KEY) {
+            return hasZeroKey ? zeroValue : defaultValue;
+        }
+
+        int i = find(key);
+        return i < 0 ? defaultValue : values[i];
+    }
+
+
+    /**
+     * Удаляет пару по ключу.
+     * @param key ключ
+     * @return значение удалённой пары или {@code noEntryValue}, если ключа нет
+     */
+    public int remove(int key) {
+        if (key == FREE_KEY) {
+            if (!hasZeroKey) {
+                return noEntryValue;
+            }
+            hasZeroKey = false;
+            return zeroValue;
+        }
+
+        int i = find(key);
+        if (i < 0) {
+            return noEntryValue;
+        }
+
+        int oldValue = values[i];
+        deleteAt(i);
+        assigned--;
+        return oldValue;
+    }
+
+
+    /**
+     * Проверяет наличие ключа.
+     * @param key ключ
+     * @return {@code true}, если ключ есть в таблице
+     */
+    public boolean contains(int key) {
+        return key == FREE_KEY ? hasZeroKey : find(key) >= 0;
+    }
+
+
+    /**
+     * Удаляет все пары. Вместимость таблицы не меняется.
+     */
+    public void clear() {
+        Arrays.fill(keys, FREE_KEY);
+        assigned = 0;
+        hasZeroKey = false;
+    }
+
+
+    /**
+     * Передаёт все пары действию {@code action}. Порядок обхода не определён.
+     * Менять таблицу внутри {@code action} нельзя.
+     * @param action действие над парой {@code (key, value)}
+     */
+    public void forEach(IntIntConsumer action) {
+        if (hasZeroKey) {
+            action.accept(FREE_KEY, zeroValue);
+        }
+
+        int[] keys = this.keys;
+        int[] values = this.values;
+        for (int i = 0; i < keys.length; i++) {
+            if (keys[i] != FREE_KEY) {
+                action.accept(keys[i], values[i]);
+            }
+        }
+    }
+
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof IntIntHashTable)) {
+            return false;
+        }
+
+        IntIntHashTable other = (IntIntHashTable) o;
+        if (getSize() != other.getSize()) {
+            return false;
+        }
+        if (hasZeroKey && !(other.hasZeroKey && other.zeroValue == zeroValue)) {
+            return false;
+        }
+
+        for (int i = 0; i < keys.length; i++) {
+            int key = keys[i];
+            if (key == FREE_KEY) {
+                continue;
+            }
+            int j = other.find(key);
+            if (j < 0 || other.values[j] != values[i]) {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+
+    @Override
+    public int hashCode() {
+        int h = hasZeroKey ? zeroValue : 0;
+        for (int i = 0; i < keys.length; i++) {
+            if (keys[i] != FREE_KEY) {
+                h += keys[i] ^ values[i];
+            }
+        }
+        return h;
+    }
+
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder("[");
+        forEach((key, value) -> {
+            if (sb.length() > 1) {
+                sb.append(", ");
+            }
+            sb.append("(").append(key).append(", ").append(value).append(")");
+        });
+        return sb.append("]").toString();
+    }
+
+
+    /**
+     * Ищет ячейку с ненулевым ключом.
+     * @return индекс ячейки или {@code -1}, если ключа нет
+     */
+    private int find(int key) {
+        int i = Hashing.mix(key) & mask;
+        int k;
+        while ((k = keys[i]) != FREE_KEY) {
+            if (k == key) {
+                return i;
+            }
+            i = (i + 1) & mask;
+        }
+        return -1;
+    }
+
+
+    /**
+     * Освобождает ячейку {@code hole}, сдвигая назад следующие за ней элементы кластера,
+     * которые при этом не уходят раньше своей домашней ячейки.
+     */
+    private void deleteAt(int hole) {
+        int j = hole;
+        while (true) {
+            j = (j + 1) & mask;
+            int k = keys[j];
+            if (k == FREE_KEY) {
+                break;
+            }
+
+            int home = Hashing.mix(k) & mask;
+            if (((j - home) & mask) >= ((j - hole) & mask)) {
+                keys[hole] = k;
+                values[hole] = values[j];
+                hole = j;
+            }
+        }
+
+        keys[hole] = FREE_KEY;
+    }
+
+
+    private void resize() {
+        if (keys.length == Hashing.MAXIMUM_CAPACITY) {
+            threshold = Integer.MAX_VALUE;
+            return;
+        }
+
+        int[] oldKeys = keys;
+        int[] oldValues = values;
+        allocate(oldKeys.length << 1);
+
+        for (int i = 0; i < oldKeys.length; i++) {
+            int k = oldKeys[i];
+            if (k == FREE_KEY) {
+                continue;
+            }
+
+            int j = Hashing.mix(k) & mask;
+            while (keys[j] != FREE_KEY) {
+                j = (j + 1) & mask;
+            }
+            keys[j] = k;
+            values[j] = oldValues[i];
+        }
+    }
+
+
+    private void allocate(int capacity) {
+        keys = new int[capacity];
+        values = new int[capacity];
+        mask = capacity - 1;
+        threshold = Hashing.openAddressingThreshold(capacity, loadFactor);
+    }
+}
@@ -0,0 +1,17 @@
+package ru.nsu.munkuev;
+
+/**
+ * Действие над парой {@code (key, value)} с ключом {@code int} и значением {@code V}.
+ * Используется для обхода {@link IntObjHashTable} без упаковки ключей.
+ *
+ * @param <V> тип значения
+ */
+@FunctionalInterface
+public interface IntObjConsumer<V> {
+    /**
+     * Выполняет действие над парой.
+     * @param key ключ
+     * @param value значение
+     */
+    void accept(int key, V value);
+}
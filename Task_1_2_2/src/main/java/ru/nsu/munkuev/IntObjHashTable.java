@@ -0,0 +1,340 @@
+package ru.nsu.munkuev;
+
+import java.util.Arrays;
+import java.util.Objects;
+
+/**
+ * Хеш-таблица с примитивными ключами {@code int} и значениями {@code V}.
+ * <p>
+ * В отличие от {@code HashTable<Integer, V>}, ключи не упаковываются: они хранятся в массиве
+ * {@code int[]}, параллельном массиву значений, а для хеширования и сравнения ключей не
+ * вызываются {@link Object#hashCode()} и {@link Object#equals(Object)}. Коллизии разрешаются
+ * линейным пробированием, удаление сдвигает элементы кластера назад, как в
+ * {@link OpenAddressingHashTable}.
+ *
+ * <p>
+ * Пустая ячейка отмечается ключом {@code 0}. Сам ключ {@code 0} тоже можно хранить: его
+ * значение лежит в отдельном поле вне массивов.
+ *
+ * <p>
+ * Как и в {@link HashTable}, значения могут быть {@code null}, а методы {@link #get(int)},
+ * {@link #add(int, Object)} и {@link #remove(int)} возвращают {@code null} для отсутствующего
+ * ключа. Обход выполняется методом {@link #forEach(IntObjConsumer)} без выделения памяти.
+ * Класс не потокобезопасен.
+ *
+ * @param <V> тип значений
+ */
+public class IntObjHashTable<V> {
+    private static final int DEFAULT_CAPACITY = 16;
+    private static final float DEFAULT_LOAD_FACTOR = 0.5f;
+
+    /**
+     * Ключ пустой ячейки.
+     */
+    private static final int FREE_KEY = 0;
+
+    private int[] keys;
+    private Object[] values;
+    private int mask;
+
+    /**
+     * Количество пар в массивах, без учёта ключа {@code 0}.
+     */
+    private int assigned;
+    private int threshold;
+    private final float loadFactor;
+
+    private boolean hasZeroKey;
+    private V zeroValue;
+
+
+    /**
+     * Создаёт таблицу вместимостью {@code 16} со степенью загрузки {@code 0.5}.
+     */
+    public IntObjHashTable() {
+        this(DEFAULT_CAPACITY, DEFAULT_LOAD_FACTOR);
+    }
+
+
+    /**
+     * Создаёт таблицу с заданными изначальной вместимостью и степенью загрузки.
+     * @param initialCapacity изначальная вместимость, округляется вверх до степени двойки
+     * @param loadFactor степень загрузки из интервала {@code (0, 1)}
+     * @throws IllegalArgumentException если {@code initialCapacity <= 0} или
+     * {@code loadFactor} не лежит в интервале {@code (0, 1)}
+     */
+    public IntObjHashTable(int initialCapacity, float loadFactor) {
+        if (initialCapacity <= 0) {
+            throw new IllegalArgumentException("Illegal initial capacity: " + initialCapacity);
+        }
+        Hashing.checkOpenAddressingLoadFactor(loadFactor);
+
+        this.loadFactor = loadFactor;
+        allocate(Hashing.tableSizeFor(initialCapacity));
+    }
+
+
+    /**
+     * Возвращает количество пар в таблице.
+     * @return количество пар
+     */
+    public int getSize() {
+        return hasZeroKey ? assigned + 1 : assigned;
+    }
+
+
+    /**
+     * Добавляет пару {@code (key, value)} или заменяет значение существующего ключа.
+     * @param key ключ
+     * @param value значение
+     * @return старое значение при замене, {@code null} при вставке
+     */
+    public V add(int key, V value) {
+        if (key == FREE_KEY) {
+            V oldValue = zeroValue;
+            hasZeroKey = true;
+            zeroValue = value;
+            return oldValue;
+        }
+
+        int i = Hashing.mix(key) & mask;
+        int k;
+        while ((k = keys[i]) != FREE_KEY) {
+            if (k == key) {
+                V oldValue = valueAt(i);
+                values[i] = value;
+                return oldValue;
+            }
+            i = (i + 1) & mask;
+        }
+
+        keys[i] = key;
+        values[i] = value;
+        if (++assigned > threshold) {
+            resize();
+        }
+
+        return null;
+    }
+
+
+    /**
+     * Возвращает значение по ключу.
+     * @param key ключ
+     * @return значение или {@code null}, если ключа нет
+     */
+    public V get(int key) {
+        if (key == FREE_KEY) {
+            return zeroValue;
+        }
+
+        int i = find(key);
+        return i < 0 ? null : valueAt(i);
+    }
+
+
+    /**
+     * Удаляет пару по ключу.
+     * @param key ключ
+     * @return значение удалённой пары или {@code null}, если ключа нет
+     */
+    public V remove(int key) {
+        if (key == FREE_KEY) {
+            V oldValue = zeroValue;
+            hasZeroKey = false;
+            zeroValue = null;
+            return oldValue;
+        }
+
+        int i = find(key);
+        if (i < 0) {
+            return null;
+        }
+
+        V oldValue = valueAt(i);
+        deleteAt(i);
+        assigned--;
+        return oldValue;
+    }
+
+
+    /**
+     * Проверяет наличие ключа.
+     * @param key ключ
+     * @return {@code true}, если ключ есть в таблице
+     */
+    public boolean contains(int key) {
+        return key == FREE_KEY ? hasZeroKey : find(key) >= 0;
+    }
+
+
+    /**
+     * Удаляет все пары. Вместимость таблицы не меняется.
+     */
+    public void clear() {
+        Arrays.fill(keys, FREE_KEY);
+        Arrays.fill(values, null);
+        assigned = 0;
+        hasZeroKey = false;
+        zeroValue = null;
+    }
+
+
+    /**
+     * Передаёт все пары действию {@code action}. Порядок обхода не определён.
+     * Менять таблицу внутри {@code action} нельзя.
+     * @param action действие над парой {@code (key, value)}
+     */
+    public void forEach(IntObjConsumer<? super V> action) {
+        if (hasZeroKey) {
+            action.accept(FREE_KEY, zeroValue);
+        }
+
+        int[] keys = this.keys;
+        for (int i = 0; i < keys.length; i++) {
+            if (keys[i] != FREE_KEY) {
+                action.accept(keys[i], valueAt(i));
+            }
+        }
+    }
+
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof IntObjHashTable<?>)) {
+            return false;
+        }
+
+        IntObjHashTable<?> other = (IntObjHashTable<?>) o;
+        if (getSize() != other.getSize()) {
+            return false;
+        }
+        if (hasZeroKey && !(other.hasZeroKey && Objects.equals(zeroValue, other.zeroValue))) {
+            return false;
+        }
+
+        for (int i = 0; i < keys.length; i++) {
+            int key = keys[i];
+            if (key == FREE_KEY) {
+                continue;
+            }
+            int j = other.find(key);
+            if (j < 0 || !Objects.equals(values[i], other.values[j])) {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+
+    @Override
+    public int hashCode() {
+        int h = hasZeroKey ? Objects.hashCode(zeroValue) : 0;
+        for (int i = 0; i < keys.length; i++) {
+            if (keys[i] != FREE_KEY) {
+                h += keys[i] ^ Objects.hashCode(values[i]);
+            }
+        }
+        return h;
+    }
+
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder("[");
+        forEach((key, value) -> {
+            if (sb.length() > 1) {
+                sb.append(", ");
+            }
+            sb.append("(").append(key).append(", ").append(value).append(")");
+        });
+        return sb.append("]").toString();
+    }
+
+
+    /**
+     * Ищет ячейку с ненулевым ключом.
+     * @return индекс ячейки или {@code -1}, если ключа нет
+     */
+    private int find(int key) {
+        int i = Hashing.mix(key) & mask;
+        int k;
+        while ((k = keys[i]) != FREE_KEY) {
+            if (k == key) {
+                return i;
+            }
+            i = (i + 1) & mask;
+        }
+        return -1;
+    }
+
+
+    /**
+     * Освобождает ячейку {@code hole}, сдвигая назад следующие за ней элементы кластера,
+     * которые при этом не уходят раньше своей домашней ячейки.
+     */
+    private void deleteAt(int hole) {
+        int j = hole;
+        while (true) {
+            j = (j + 1) & mask;
+            int k = keys[j];
+            if (k == FREE_KEY) {
+                break;
+            }
+
+            int home = Hashing.mix(k) & mask;
+            if (((j - home) & mask) >= ((j - hole) & mask)) {
+                keys[hole] = k;
+                values[hole] = values[j];
+                hole = j;
+            }
+        }
+
+        keys[hole] = FREE_KEY;
+        values[hole] = null;
+    }
+
+
+    private void resize() {
+        if (keys.length == Hashing.MAXIMUM_CAPACITY) {
+            threshold = Integer.MAX_VALUE;
+            return;
+        }
+
+        int[] oldKeys = keys;
+        Object[] oldValues = values;
+        allocate(oldKeys.length << 1);
+
+        for (int i = 0; i < oldKeys.length; i++) {
+            int k = oldKeys[i];
+            if (k == FREE_KEY) {
+                continue;
+            }
+
+            int j = Hashing.mix(k) & mask;
+            while (keys[j] != FREE_KEY) {
+                j = (j + 1) & mask;
+            }
+            keys[j] = k;
+            values[j] = oldValues[i];
+        }
+    }
+
+
+    private void allocate(int capacity) {
+        keys = new int[capacity];
+        values = new Object[capacity];
+        mask = capacity - 1;
+        threshold = Hashing.openAddressingThreshold(capacity, loadFactor);
+    }
+
+
+    @SuppressWarnings("unchecked")
+    private V valueAt(int i) {
+        return (V) values[i];
+    }
+}
@@ -0,0 +1,108 @@
+package ru.nsu.munkuev;
+
+/**
+ * Стратегия {@link EvictionPolicy#LFU}. Узлы разложены по спискам в зависимости от
+ * счётчика обращений ({@link CacheNode#queue}), внутри списка — в порядке обращений.
+ * Вытесняется голова самого младшего непустого списка. Только что добавленный узел
+ * вытесняется, лишь если других узлов нет, иначе новая запись, ещё не успевшая набрать
+ * обращений, сразу уходила бы из кеша.
+ * <p>
+ * Счётчик ограничен значением {@link #MAX_FREQUENCY}. После каждых
+ * {@code max(64, 10 * size)} обращений все счётчики уменьшаются вдвое, чтобы записи,
+ * бывшие популярными давно, не занимали кеш бесконечно.
+ */
+final class LfuStrategy<K, V> implements EvictionStrategy<K, V> {
+    private static final int MAX_FREQUENCY = 15;
+    private static final int MIN_SAMPLE_SIZE = 64;
+
+    private final CacheNodeList<K, V>[] lists;
+    private CacheNode<K, V> lastInserted;
+    private int count;
+    private int accesses;
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    LfuStrategy() {
+        lists = (CacheNodeList<K, V>[]) new CacheNodeList[MAX_FREQUENCY + 1];
+        for (int i = 0; i < lists.length; i++) {
+            lists[i] = new CacheNodeList<>();
+        }
+    }
+
+    @Override
+    public void onInsert(CacheNode<K, V> node) {
+        node.queue = 0;
+        lists[0].addLast(node);
+        lastInserted = node;
+        count++;
+    }
+
+    @Override
+    public void onAccess(CacheNode<K, V> node) {
+        CacheNodeList<K, V> list = lists[node.queue];
+        list.unlink(node);
+        if (node.queue < MAX_FREQUENCY) {
+            node.queue++;
+        }
+        lists[node.queue].addLast(node);
+
+        if (++accesses >= Math.max(MIN_SAMPLE_SIZE, 10 * count)) {
+            age();
+        }
+    }
+
+    @Override
+    public void onUpdate(CacheNode<K, V> node, int oldWeight) {
+        lists[node.queue].reweigh(oldWeight, node.weight);
+        onAccess(node);
+    }
+
+    @Override
+    public void onRemove(CacheNode<K, V> node) {
+        lists[node.queue].unlink(node);
+        if (node == lastInserted) {
+            lastInserted = null;
+        }
+        count--;
+    }
+
+    @Override
+    public CacheNode<K, V> victim() {
+        for (CacheNodeList<K, V> list : lists) {
+            CacheNode<K, V> head = list.head();
+            if (head == lastInserted && head != null) {
+                head = head.next;
+            }
+            if (head != null) {
+                return head;
+            }
+        }
+        return lastInserted;
+    }
+
+    @Override
+    public void clear() {
+        for (CacheNodeList<K, V> list : lists) {
+            list.clear();
+        }
+        lastInserted = null;
+        count = 0;
+        accesses = 0;
+    }
+
+    /**
+     * Уменьшает вдвое счётчики всех узлов. Списки обходятся по возрастанию счётчика,
+     * поэтому каждый узел переносится не больше одного раза.
+     */
+    private void age() {
+        accesses = 0;
+        for (int frequency = 1; frequency < lists.length; frequency++) {
+            CacheNodeList<K, V> list = lists[frequency];
+            CacheNodeList<K, V> target = lists[frequency >> 1];
+            for (CacheNode<K, V> node = list.head(); node != null; node = list.head()) {
+                list.unlink(node);
+                node.queue = frequency >> 1;
+                target.addLast(node);
+            }
+        }
+    }
+}
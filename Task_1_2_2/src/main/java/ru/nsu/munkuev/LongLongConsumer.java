@@ -0,0 +1,15 @@
+package ru.nsu.munkuev;
+
+/**
+ * Действие над парой {@code (key, value)} с ключом и значением {@code long}.
+ * Используется для обхода {@link LongLongHashTable} без упаковки.
+ */
+@FunctionalInterface
+public interface LongLongConsumer {
+    /**
+     * Выполняет действие над парой.
+     * @param key ключ
+     * @param value значение
+     */
+    void accept(long key, long value);
+}
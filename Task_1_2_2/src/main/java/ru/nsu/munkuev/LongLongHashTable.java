@@ -0,0 +1,370 @@
+package ru.nsu.munkuev;
+
+import java.util.Arrays;
+
+/**
+ * Хеш-таблица с примитивными ключами и значениями {@code long}.
+ * <p>
+ * В отличие от {@code HashTable<Long, Long>}, ключи и значения не упаковываются:
+ * они хранятся в двух параллельных массивах {@code long[]}, а для хеширования и сравнения
+ * не вызываются {@link Object#hashCode()} и {@link Object#equals(Object)}. Коллизии разрешаются
+ * линейным пробированием, удаление сдвигает элементы кластера назад, как в
+ * {@link OpenAddressingHashTable}.
+ *
+ * <p>
+ * Пустая ячейка отмечается ключом {@code 0}. Сам ключ {@code 0} тоже можно хранить: его
+ * значение лежит в отдельном поле вне массивов.
+ *
+ * <p>
+ * Если ключа нет, методы {@link #get(long)}, {@link #add(long, long)} и {@link #remove(long)}
+ * возвращают значение {@code noEntryValue}, заданное при создании таблицы ({@code 0} по
+ * умолчанию). Отличить отсутствующий ключ от ключа со значением {@code noEntryValue} можно
+ * методом {@link #contains(long)}.
+ *
+ * <p>
+ * Обход выполняется методом {@link #forEach(LongLongConsumer)} без выделения памяти.
+ * Класс не потокобезопасен.
+ */
+public class LongLongHashTable {
+    private static final int DEFAULT_CAPACITY = 16;
+    private static final float DEFAULT_LOAD_FACTOR = 0.5f;
+
+    /**
+     * Ключ пустой ячейки.
+     */
+    private static final long FREE_KEY = 0;
+
+    private long[] keys;
+    private long[] values;
+    private int mask;
+
+    /**
+     * Количество пар в массивах, без учёта ключа {@code 0}.
+     */
+    private int assigned;
+    private int threshold;
+    private final float loadFactor;
+
+    private boolean hasZeroKey;
+    private long zeroValue;
+
+    private final long noEntryValue;
+
+
+    /**
+     * Создаёт таблицу вместимостью {@code 16} со степенью загрузки {@code 0.5}.
+     */
+    public LongLongHashTable() {
+        this(DEFAULT_CAPACITY, DEFAULT_LOAD_FACTOR);
+    }
+
+
+    /**
+     * Создаёт таблицу, возвращающую {@code 0} для отсутствующих ключей.
+     * @param initialCapacity изначальная вместимость, округляется вверх до степени двойки
+     * @param loadFactor степень загрузки из интервала {@code (0, 1)}
+     * @throws IllegalArgumentException если {@code initialCapacity <= 0} или
+     * {@code loadFactor} не лежит в интервале {@code (0, 1)}
+     */
+    public LongLongHashTable(int initialCapacity, float loadFactor) {
+        this(initialCapacity, loadFactor, 0);
+    }
+
+
+    /**
+     * Создаёт таблицу с заданным значением для отсутствующих ключей.
+     * @param initialCapacity изначальная вместимость, округляется вверх до степени двойки
+     * @param loadFactor степень загрузки из интервала {@code (0, 1)}
+     * @param noEntryValue значение, возвращаемое для отсутствующих ключей
+     * @throws IllegalArgumentException если {@code initialCapacity <= 0} или
+     * {@code loadFactor} не лежит в интервале {@code (0, 1)}
+     */
+    public LongLongHashTable(int initialCapacity, float loadFactor, long noEntryValue) {
+        if (initialCapacity <= 0) {
+            throw new IllegalArgumentException("Illegal initial capacity: " + initialCapacity);
+        }
+        Hashing.checkOpenAddressingLoadFactor(loadFactor);
+
+        this.loadFactor = loadFactor;
+        this.noEntryValue = noEntryValue;
+        allocate(Hashing.tableSizeFor(initialCapacity));
+    }
+
+
+    /**
+     * Возвращает количество пар в таблице.
+     * @return количество пар
+     */
+    public int getSize() {
+        return hasZeroKey ? assigned + 1 : assigned;
+    }
+
+
+    /**
+     * Возвращает значение, которое таблица возвращает для отсутствующих ключей.
+     * @return {@code noEntryValue}
+     */
+    public long getNoEntryValue() {
+        return noEntryValue;
+    }
+
+
+    /**
+     * Добавляет пару {@code (key, value)} или заменяет значение существующего ключа.
+     * @param key ключ
+     * @param value значение
+     * @return старое значение при замене, {@code noEntryValue} при вставке
+     */
+    public long add(long key, long value) {
+        if (key == FREE_KEY) {
+            long oldValue = hasZeroKey ? zeroValue : noEntryValue;
+            hasZeroKey = true;
+            zeroValue = value;
+            return oldValue;
+        }
+
+        int i = Hashing.mix(key) & mask;
+        long k;
+        while ((k = keys[i]) != FREE_KEY) {
+            if (k == key) {
+                long oldValue = values[i];
+                values[i] = value;
+                return oldValue;
+            }
+            i = (i + 1) & mask;
+        }
+
+        keys[i] = key;
+        values[i] = value;
+        if (++assigned > threshold) {
+            resize();
+        }
+
+        return noEntryValue;
+    }
+
+
+    /**
+     * Возвращает значение по ключу.
+     * @param key ключ
+     * @return значение или {@code noEntryValue}, если ключа нет
+     */
+    public long get(long key) {
+        return getOrDefault(key, noEntryValue);
+    }
+
+
+    /**
+     * Возвращает значение по ключу или {@code defaultValue}, если ключа нет.
+     * @param key ключ
+     * @param defaultValue значение для отсутствующего ключа
+     * @return значение ключа или {@code defaultValue}
+     */
+    public long getOrDefault(long key, long defaultValue) {
+        if (key == FREE_KEY) {
+            return hasZeroKey ? zeroValue : defaultValue;
+        }
+
+        int i = find(key);
+        return i < 0 ? defaultValue : values[i];
+    }
+
+
+    /**
+     * Удаляет пару по ключу.
+     * @param key ключ
+     * @return значение удалённой пары или {@code noEntryValue}, если ключа нет
+     */
+    public long remove(long key) {
+        if (key == FREE_KEY) {
+            if (!hasZeroKey) {
+                return noEntryValue;
+            }
+            hasZeroKey = false;
+            return zeroValue;
+        }
+
+        int i = find(key);
+        if (i < 0) {
+            return noEntryValue;
+        }
+
+        long oldValue = values[i];
+        deleteAt(i);
+        assigned--;
+        return oldValue;
+    }
+
+
+    /**
+     * Проверяет наличие ключа.
+     * @param key ключ
+     * @return {@code true}, если ключ есть в таблице
+     */
+    public boolean contains(long key) {
+        return key == FREE_KEY ? hasZeroKey : find(key) >= 0;
+    }
+
+
+    /**
+     * Удаляет все пары. Вместимость таблицы не меняется.
+     */
+    public void clear() {
+        Arrays.fill(keys, FREE_KEY);
+        assigned = 0;
+        hasZeroKey = false;
+    }
+
+
+    /**
+     * Передаёт все пары действию {@code action}. Порядок обхода не определён.
+     * Менять таблицу внутри {@code action} нельзя.
+     * @param action действие над парой {@code (key, value)}
+     */
+    public void forEach(LongLongConsumer action) {
+        if (hasZeroKey) {
+            action.accept(FREE_KEY, zeroValue);
+        }
+
+        long[] keys = this.keys;
+        long[] values = this.values;
+        for (int i = 0; i < keys.length; i++) {
+            if (keys[i] != FREE_KEY) {
+                action.accept(keys[i], values[i]);
+            }
+        }
+    }
+
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof LongLongHashTable)) {
+            return false;
+        }
+
+        LongLongHashTable other = (LongLongHashTable) o;
+        if (getSize() != other.getSize()) {
+            return false;
+        }
+        if (hasZeroKey && !(other.hasZeroKey && other.zeroValue == zeroValue)) {
+            return false;
+        }
+
+        for (int i = 0; i < keys.length; i++) {
+            long key = keys[i];
+            if (key == FREE_KEY) {
+                continue;
+            }
+            int j = other.find(key);
+            if (j < 0 || other.values[j] != values[i]) {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+
+    @Override
+    public int hashCode() {
+        int h = hasZeroKey ? Long.hashCode(zeroValue) : 0;
+        for (int i = 0; i < keys.length; i++) {
+            if (keys[i] != FREE_KEY) {
+                h += Long.hashCode(keys[i]) ^ Long.hashCode(values[i]);
+            }
+        }
+        return h;
+    }
+
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder("[");
+        forEach((key, value) -> {
+            if (sb.length() > 1) {
+                sb.append(", ");
+            }
+            sb.append("(").append(key).append(", ").append(value).append(")");
+        });
+        return sb.append("]").toString();
+    }
+
+
+    /**
+     * Ищет ячейку с ненулевым ключом.
+     * @return индекс ячейки или {@code -1}, если ключа нет
+     */
+    private int find(long key) {
+        int i = Hashing.mix(key) & mask;
+        long k;
+        while ((k = keys[i]) != FREE_KEY) {
+            if (k == key) {
+                return i;
+            }
+            i = (i + 1) & mask;
+        }
+        return -1;
+    }
+
+
+    /**
+     * Освобождает ячейку {@code hole}, сдвигая назад следующие за ней элементы кластера,
+     * которые при этом не уходят раньше своей домашней ячейки.
+     */
+    private void deleteAt(int hole) {
+        int j = hole;
+        while (true) {
+            j = (j + 1) & mask;
+            long k = keys[j];
+            if (k == FREE_KEY) {
+                break;
+            }
+
+            int home = Hashing.mix(k) & mask;
+            if (((j - home) & mask) >= ((j - hole) & mask)) {
+                keys[hole] = k;
+                values[hole] = values[j];
+                hole = j;
+            }
+        }
+
+        keys[hole] = FREE_KEY;
+    }
+
+
+    private void resize() {
+        if (keys.length == Hashing.MAXIMUM_CAPACITY) {
+            threshold = Integer.MAX_VALUE;
+            return;
+        }
+
+        long[] oldKeys = keys;
+        long[] oldValues = values;
+        allocate(oldKeys.length << 1);
+
+        for (int i = 0; i < oldKeys.length; i++) {
+            long k = oldKeys[i];
+            if (k == FREE_KEY) {
+                continue;
+            }
+
+            int j = Hashing.mix(k) & mask;
+            while (keys[j] != FREE_KEY) {
+                j = (j + 1) & mask;
+            }
+            keys[j] = k;
+            values[j] = oldValues[i];
+        }
+    }
+
+
+    private void allocate(int capacity) {
+        keys = new long[capacity];
+        values = new long[capacity];
+        mask = capacity - 1;
+        threshold = Hashing.openAddressingThreshold(capacity, loadFactor);
+    }
+}
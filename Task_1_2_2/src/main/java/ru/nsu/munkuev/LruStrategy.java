@@ -0,0 +1,40 @@
+package ru.nsu.munkuev;
+
+/**
+ * Стратегия {@link EvictionPolicy#LRU}: один список в порядке обращений,
+ * вытесняется его голова.
+ */
+final class LruStrategy<K, V> implements EvictionStrategy<K, V> {
+    private final CacheNodeList<K, V> order = new CacheNodeList<>();
+
+    @Override
+    public void onInsert(CacheNode<K, V> node) {
+        order.addLast(node);
+    }
+
+    @Override
+    public void onAccess(CacheNode<K, V> node) {
+        order.moveToLast(node);
+    }
+
+    @Override
+    public void onUpdate(CacheNode<K, V> node, int oldWeight) {
+        order.reweigh(oldWeight, node.weight);
+        order.moveToLast(node);
+    }
+
+    @Override
+    public void onRemove(CacheNode<K, V> node) {
+        order.unlink(node);
+    }
+
+    @Override
+    public CacheNode<K, V> victim() {
+        return order.head();
+    }
+
+    @Override
+    public void clear() {
+        order.clear();
+    }
+}
@@ -0,0 +1,462 @@
+package ru.nsu.munkuev;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Хеш-таблица {@code long → long}, хранящая данные в отображённом в память файле.
+ * <p>
+ * Ячейки таблицы лежат не в куче JVM, а в файле, отображённом через {@link FileChannel#map}.
+ * Операции {@link #add(long, long)}, {@link #get(long)} и {@link #remove(long)} читают и пишут
+ * прямо в отображение, поэтому таблица на сотни миллионов пар не нагружает сборщик мусора,
+ * а повторное открытие файла методом {@link #open(Path)} не требует перестроения: достаточно
+ * проверить заголовок и отобразить файл.
+ *
+ * <p>
+ * Устройство такое же, как у {@link LongLongHashTable}: открытая адресация с линейным
+ * пробированием, ключ {@code 0} отмечает пустую ячейку и хранится отдельно в заголовке,
+ * удаление сдвигает элементы кластера назад. Формат файла (порядок байт little-endian):
+ * <pre>
+ * заголовок, 64 байта:
+ *     magic        long
+ *     version      int
+ *     capacity     int
+ *     size         long  количество пар в ячейках, без ключа 0
+ *     hasZeroKey   long  0 или 1
+ *     zeroValue    long
+ *     noEntryValue long
+ * ячейки, capacity * 16 байт:
+ *     key          long
+ *     value        long
+ * </pre>
+ *
+ * <p>
+ * Вместимость фиксируется при создании файла и не растёт: если заполнено {@code 3/4} ячеек,
+ * {@link #add(long, long)} нового ключа выбрасывает {@link IllegalStateException}. Ячейки
+ * отображаются сегментами не больше {@code 1 ГБ}, поэтому вместимость может превышать
+ * ограничение {@link java.nio.ByteBuffer} в {@code 2 ГБ}.
+ *
+ * <p>
+ * Изменения попадают в файл, когда операционная система сбрасывает страницы; метод
+ * {@link #force()} сбрасывает их немедленно. Класс не потокобезопасен, а одновременное
+ * открытие одного файла несколькими таблицами не поддерживается.
+ */
+public final class MappedLongLongHashTable implements Closeable {
+    private static final long MAGIC = 0x4C4C48415348544CL;
+    private static final int VERSION = 1;
+
+    private static final int HEADER_BYTES = 64;
+    private static final int MAGIC_OFFSET = 0;
+    private static final int VERSION_OFFSET = 8;
+    private static final int CAPACITY_OFFSET = 12;
+    private static final int SIZE_OFFSET = 16;
+    private static final int HAS_ZERO_KEY_OFFSET = 24;
+    private static final int ZERO_VALUE_OFFSET = 32;
+    private static final int NO_ENTRY_VALUE_OFFSET = 40;
+
+    private static final int SLOT_BYTES = 16;
+
+    /**
+     * Сегмент отображения содержит {@code 2^26} ячеек, то есть {@code 1 ГБ}.
+     */
+    private static final int SEGMENT_SHIFT = 26;
+    private static final int SEGMENT_MASK = (1 << SEGMENT_SHIFT) - 1;
+
+    private static final float MAX_LOAD_FACTOR = 0.75f;
+
+    /**
+     * Ключ пустой ячейки.
+     */
+    private static final long FREE_KEY = 0;
+
+    private final FileChannel channel;
+    private final MappedByteBuffer header;
+    private final MappedByteBuffer[] segments;
+
+    private final int capacity;
+    private final int mask;
+    private final int threshold;
+    private final long noEntryValue;
+
+    /**
+     * Копии полей заголовка, чтобы не читать отображение на каждой операции.
+     */
+    private int assigned;
+    private boolean hasZeroKey;
+    private long zeroValue;
+
+
+    private MappedLongLongHashTable(FileChannel channel, int capacity) throws IOException {
+        this.channel = channel;
+        this.capacity = capacity;
+        this.mask = capacity - 1;
+        this.threshold = Hashing.openAddressingThreshold(capacity, MAX_LOAD_FACTOR);
+
+        this.header = channel.map(FileChannel.MapMode.READ_WRITE, 0, HEADER_BYTES);
+        header.order(ByteOrder.LITTLE_ENDIAN);
+
+        int segmentSlots = Math.min(capacity, 1 << SEGMENT_SHIFT);
+        this.segments = new MappedByteBuffer[(capacity + segmentSlots - 1) / segmentSlots];
+        for (int s = 0; s < segments.length; s++) {
+            long position = HEADER_BYTES + ((long) s << SEGMENT_SHIFT) * SLOT_BYTES;
+            segments[s] = channel.map(FileChannel.MapMode.READ_WRITE, position, (long) segmentSlots * SLOT_BYTES);
+            segments[s].order(ByteOrder.LITTLE_ENDIAN);
+        }
+
+        this.noEntryValue = header.getLong(NO_ENTRY_VALUE_OFFSET);
+        this.assigned = (int) header.getLong(SIZE_OFFSET);
+        this.hasZeroKey = header.getLong(HAS_ZERO_KEY_OFFSET) != 0;
+        this.zeroValue = header.getLong(ZERO_VALUE_OFFSET);
+    }
+
+
+    /**
+     * Создаёт новый файл таблицы, в которую помещается не меньше {@code maxEntries} пар.
+     * Для отсутствующих ключей таблица возвращает {@code 0}.
+     * @param file путь к создаваемому файлу
+     * @param maxEntries наибольшее ожидаемое количество пар
+     * @return открытая таблица
+     * @throws IOException если файл уже существует или при ошибке ввода-вывода
+     * @throws IllegalArgumentException если {@code maxEntries} не лежит в {@code [1, 2^29]}
+     */
+    public static MappedLongLongHashTable create(Path file, int maxEntries) throws IOException {
+        return create(file, maxEntries, 0);
+    }
+
+
+    /**
+     * Создаёт новый файл таблицы, в которую помещается не меньше {@code maxEntries} пар.
+     * @param file путь к создаваемому файлу
+     * @param maxEntries наибольшее ожидаемое количество пар
+     * @param noEntryValue значение, возвращаемое для отсутствующих ключей
+     * @return открытая таблица
+     * @throws IOException если файл уже существует или при ошибке ввода-вывода
+     * @throws IllegalArgumentException если {@code maxEntries} не лежит в {@code [1, 2^29]}
+     */
+    public static MappedLongLongHashTable create(Path file, int maxEntries, long noEntryValue) throws IOException {
+        if (maxEntries < 1 || maxEntries > Hashing.MAXIMUM_CAPACITY / 2) {
+            throw new IllegalArgumentException("Illegal max entries: " + maxEntries);
+        }
+
+        //при заполнении наполовину кластеры линейного пробирования остаются короткими
+        int capacity = Hashing.tableSizeFor(Math.max(2, maxEntries * 2));
+
+        FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE_NEW,
+                StandardOpenOption.READ, StandardOpenOption.WRITE);
+        try {
+            MappedByteBuffer header = channel.map(FileChannel.MapMode.READ_WRITE, 0, HEADER_BYTES);
+            header.order(ByteOrder.LITTLE_ENDIAN);
+            header.putLong(MAGIC_OFFSET, MAGIC);
+            header.putInt(VERSION_OFFSET, VERSION);
+            header.putInt(CAPACITY_OFFSET, capacity);
+            header.putLong(NO_ENTRY_VALUE_OFFSET, noEntryValue);
+
+            //отображение ячеек за концом файла расширяет его нулями, то есть пустыми ячейками
+            return new MappedLongLongHashTable(channel, capacity);
+        }
+        catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+
+    /**
+     * Открывает существующий файл таблицы. Содержимое не перестраивается: проверяется
+     * заголовок и файл отображается в память.
+     * @param file путь к файлу таблицы
+     * @return открытая таблица
+     * @throws IOException если файл не является файлом таблицы или при ошибке ввода-вывода
+     */
+    public static MappedLongLongHashTable open(Path file) throws IOException {
+        FileChannel channel = FileChannel.open(file, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        try {
+            if (channel.size() < HEADER_BYTES) {
+                throw new IOException("File is too short to be a hash table: " + file);
+            }
+
+            MappedByteBuffer header = channel.map(FileChannel.MapMode.READ_ONLY, 0, HEADER_BYTES);
+            header.order(ByteOrder.LITTLE_ENDIAN);
+            if (header.getLong(MAGIC_OFFSET) != MAGIC) {
+                throw new IOException("Not a hash table file: " + file);
+            }
+            if (header.getInt(VERSION_OFFSET) != VERSION) {
+                throw new IOException("Unsupported version " + header.getInt(VERSION_OFFSET) + " in " + file);
+            }
+
+            int capacity = header.getInt(CAPACITY_OFFSET);
+            if (capacity < 2 || Integer.bitCount(capacity) != 1
+                    || channel.size() != HEADER_BYTES + (long) capacity * SLOT_BYTES) {
+                throw new IOException("Corrupted hash table file: " + file);
+            }
+
+            return new MappedLongLongHashTable(channel, capacity);
+        }
+        catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+
+    /**
+     * Возвращает количество пар в таблице.
+     * @return количество пар
+     */
+    public int getSize() {
+        return hasZeroKey ? assigned + 1 : assigned;
+    }
+
+
+    /**
+     * Возвращает количество ячеек, заданное при создании файла.
+     * @return вместимость таблицы
+     */
+    public int getCapacity() {
+        return capacity;
+    }
+
+
+    /**
+     * Возвращает значение, которое таблица возвращает для отсутствующих ключей.
+     * @return {@code noEntryValue}
+     */
+    public long getNoEntryValue() {
+        return noEntryValue;
+    }
+
+
+    /**
+     * Добавляет пару {@code (key, value)} или заменяет значение существующего ключа.
+     * @param key ключ
+     * @param value значение
+     * @return старое значение при замене, {@code noEntryValue} при вставке
+     * @throws IllegalStateException если ключа нет, а таблица заполнена
+     */
+    public long add(long key, long value) {
+        if (key == FREE_KEY) {
+            long oldValue = hasZeroKey ? zeroValue : noEntryValue;
+            setZeroKey(true, value);
+            return oldValue;
+        }
+
+        int i = Hashing.mix(key) & mask;
+        long k;
+        while ((k = keyAt(i)) != FREE_KEY) {
+            if (k == key) {
+                long oldValue = valueAt(i);
+                setValue(i, value);
+                return oldValue;
+            }
+            i = (i + 1) & mask;
+        }
+
+        if (assigned >= threshold) {
+            throw new IllegalStateException("Table is full: " + assigned + " of " + capacity + " slots used");
+        }
+
+        //ключ пишется последним, чтобы ячейка не стала занятой с чужим значением
+        setValue(i, value);
+        setKey(i, key);
+        setAssigned(assigned + 1);
+        return noEntryValue;
+    }
+
+
+    /**
+     * Возвращает значение по ключу.
+     * @param key ключ
+     * @return значение или {@code noEntryValue}, если ключа нет
+     */
+    public long get(long key) {
+        return getOrDefault(key, noEntryValue);
+    }
+
+
+    /**
+     * Возвращает значение по ключу или {@code defaultValue}, если ключа нет.
+     * @param key ключ
+     * @param defaultValue значение для отсутствующего ключа
+     * @return значение ключа или {@code defaultValue}
+     */
+    public long getOrDefault(long key, long defaultValue) {
+        if (key == FREE_KEY) {
+            return hasZeroKey ? zeroValue : defaultValue;
+        }
+
+        int i = find(key);
+        return i < 0 ? defaultValue : valueAt(i);
+    }
+
+
+    /**
+     * Удаляет пару по ключу.
+     * @param key ключ
+     * @return значение удалённой пары или {@code noEntryValue}, если ключа нет
+     */
+    public long remove(long key) {
+        if (key == FREE_KEY) {
+            if (!hasZeroKey) {
+                return noEntryValue;
+            }
+            long oldValue = zeroValue;
+            setZeroKey(false, 0);
+            return oldValue;
+        }
+
+        int i = find(key);
+        if (i < 0) {
+            return noEntryValue;
+        }
+
+        long oldValue = valueAt(i);
+        deleteAt(i);
+        setAssigned(assigned - 1);
+        return oldValue;
+    }
+
+
+    /**
+     * Проверяет наличие ключа.
+     * @param key ключ
+     * @return {@code true}, если ключ есть в таблице
+     */
+    public boolean contains(long key) {
+        return key == FREE_KEY ? hasZeroKey : find(key) >= 0;
+    }
+
+
+    /**
+     * Удаляет все пары, обнуляя все ячейки файла.
+     */
+    public void clear() {
+        for (int i = 0; i < capacity; i++) {
+            setKey(i, FREE_KEY);
+        }
+        setAssigned(0);
+        setZeroKey(false, 0);
+    }
+
+
+    /**
+     * Передаёт все пары действию {@code action}. Порядок обхода не определён.
+     * Менять таблицу внутри {@code action} нельзя.
+     * @param action действие над парой {@code (key, value)}
+     */
+    public void forEach(LongLongConsumer action) {
+        if (hasZeroKey) {
+            action.accept(FREE_KEY, zeroValue);
+        }
+
+        for (int i = 0; i < capacity; i++) {
+            long k = keyAt(i);
+            if (k != FREE_KEY) {
+                action.accept(k, valueAt(i));
+            }
+        }
+    }
+
+
+    /**
+     * Сбрасывает все изменения отображения на диск.
+     */
+    public void force() {
+        for (MappedByteBuffer segment : segments) {
+            segment.force();
+        }
+        header.force();
+    }
+
+
+    /**
+     * Сбрасывает изменения на диск и закрывает файл. Отображение освобождается сборщиком
+     * мусора, после закрытия таблицей пользоваться нельзя.
+     * @throws IOException при ошибке ввода-вывода
+     */
+    @Override
+    public void close() throws IOException {
+        force();
+        channel.close();
+    }
+
+
+    /**
+     * Ищет ячейку с ненулевым ключом.
+     * @return индекс ячейки или {@code -1}, если ключа нет
+     */
+    private int find(long key) {
+        int i = Hashing.mix(key) & mask;
+        long k;
+        while ((k = keyAt(i)) != FREE_KEY) {
+            if (k == key) {
+                return i;
+            }
+            i = (i + 1) & mask;
+        }
+        return -1;
+    }
+
+
+    /**
+     * Освобождает ячейку {@code hole}, сдвигая назад следующие за ней элементы кластера,
+     * которые при этом не уходят раньше своей домашней ячейки.
+     */
+    private void deleteAt(int hole) {
+        int j = hole;
+        while (true) {
+            j = (j + 1) & mask;
+            long k = keyAt(j);
+            if (k == FREE_KEY) {
+                break;
+            }
+
+            int home = Hashing.mix(k) & mask;
+            if (((j - home) & mask) >= ((j - hole) & mask)) {
+                setKey(hole, k);
+                setValue(hole, valueAt(j));
+                hole = j;
+            }
+        }
+
+        setKey(hole, FREE_KEY);
+    }
+
+
+    private long keyAt(int slot) {
+        return segments[slot >>> SEGMENT_SHIFT].getLong((slot & SEGMENT_MASK) * SLOT_BYTES);
+    }
+
+
+    private long valueAt(int slot) {
+        return segments[slot >>> SEGMENT_SHIFT].getLong((slot & SEGMENT_MASK) * SLOT_BYTES + Long.BYTES);
+    }
+
+
+    private void setKey(int slot, long key) {
+        segments[slot >>> SEGMENT_SHIFT].putLong((slot & SEGMENT_MASK) * SLOT_BYTES, key);
+    }
+
+
+    private void setValue(int slot, long value) {
+        segments[slot >>> SEGMENT_SHIFT].putLong((slot & SEGMENT_MASK) * SLOT_BYTES + Long.BYTES, value);
+    }
+
+
+    private void setAssigned(int assigned) {
+        this.assigned = assigned;
+        header.putLong(SIZE_OFFSET, assigned);
+    }
+
+
+    private void setZeroKey(boolean hasZeroKey, long zeroValue) {
+        this.hasZeroKey = hasZeroKey;
+        this.zeroValue = zeroValue;
+        header.putLong(ZERO_VALUE_OFFSET, zeroValue);
+        header.putLong(HAS_ZERO_KEY_OFFSET, hasZeroKey ? 1 : 0);
+    }
+}
@@ -0,0 +1,406 @@
+package ru.nsu.munkuev;
+
+import java.util.Arrays;
+import java.util.ConcurrentModificationException;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+
+/**
+ * Хеш-таблица с открытой адресацией: отображение ключей {@code K} в значения {@code V}
+ * с тем же набором операций, что и у {@link HashTable}.
+ * <p>
+ * Пары хранятся не в узлах, а в двух параллельных массивах {@code keys} и {@code values}:
+ * пара лежит в ячейке {@code i} обоих массивов, пустая ячейка отмечается {@code keys[i] == null}.
+ * Коллизии разрешаются линейным пробированием: если домашняя ячейка ключа занята, проверяются
+ * следующие ячейки по кругу до первой пустой. На каждую пару не выделяется отдельный объект,
+ * а поиск просматривает соседние элементы массива, а не цепочку по указателям.
+ *
+ * <p>
+ * Вместимость всегда равна степени двойки, поэтому домашняя ячейка вычисляется маской, а не
+ * делением. Перед маскированием старшие биты {@link Object#hashCode()} подмешиваются к младшим.
+ *
+ * <p>
+ * Удаление не оставляет «надгробий»: после удаления следующие за ячейкой элементы кластера
+ * сдвигаются назад, если от этого они не уходят дальше своей домашней ячейки
+ * (backward shift deletion). Поэтому длина пробирования зависит только от текущей
+ * заполненности таблицы, а не от истории удалений.
+ *
+ * <p>
+ * Коэффициент загрузки должен лежать в интервале {@code (0, 1)}: при заполненности, близкой
+ * к единице, кластеры линейного пробирования становятся очень длинными. По умолчанию он
+ * равен {@code 0.5}.
+ *
+ * <p>
+ * Итератор выдаёт для каждой пары новый узел {@link Node}: узлы являются снимками, и вызов
+ * {@link Node#setValue(Object)} у них не меняет таблицу. Как и у {@link HashTable}, при
+ * структурном изменении таблицы после создания итератора он выбрасывает
+ * {@link ConcurrentModificationException}.
+ *
+ * @param <K> тип ключей
+ * @param <V> тип значений
+ */
+public class OpenAddressingHashTable<K, V> implements SymbolTable<K, V> {
+    private static final int DEFAULT_CAPACITY = 16;
+    private static final float DEFAULT_LOAD_FACTOR = 0.5f;
+
+    /**
+     * Ключи пар, {@code null} отмечает пустую ячейку.
+     */
+    private Object[] keys;
+
+    /**
+     * Значения пар, {@code values[i]} относится к ключу {@code keys[i]}.
+     */
+    private Object[] values;
+
+    /**
+     * Маска индекса: {@code keys.length - 1}.
+     */
+    private int mask;
+
+    private int size;
+
+    /**
+     * Количество пар, при превышении которого таблица расширяется вдвое.
+     */
+    private int threshold;
+
+    private final float loadFactor;
+
+    /**
+     * Счётчик структурных модификаций для итератора.
+     */
+    private int modCount;
+
+
+    /**
+     * Создаёт таблицу с заданными изначальной вместимостью и степенью загрузки.
+     * Вместимость округляется вверх до степени двойки.
+     * @param initialCapacity изначальная вместимость таблицы
+     * @param loadFactor степень загрузки таблицы
+     * @throws IllegalArgumentException если {@code initialCapacity <= 0} или
+     * {@code loadFactor} не лежит в интервале {@code (0, 1)}
+     */
+    public OpenAddressingHashTable(int initialCapacity, float loadFactor) {
+        if (initialCapacity <= 0) {
+            throw new IllegalArgumentException("Illegal initial capacity: " + initialCapacity);
+        }
+        Hashing.checkOpenAddressingLoadFactor(loadFactor);
+
+        this.loadFactor = loadFactor;
+        allocate(Hashing.tableSizeFor(initialCapacity));
+    }
+
+
+    /**
+     * Создаёт таблицу вместимостью {@code 16} со степенью загрузки {@code 0.5}.
+     */
+    public OpenAddressingHashTable() {
+        this(DEFAULT_CAPACITY, DEFAULT_LOAD_FACTOR);
+    }
+
+
+    @Override
+    public int getSize() {
+        return size;
+    }
+
+
+    /**
+     * Возвращает текущую вместимость, то есть длину массивов ключей и значений.
+     * @return вместимость таблицы
+     */
+    int capacity() {
+        return keys.length;
+    }
+
+
+    @Override
+    public V add(K key, V value) {
+        Objects.requireNonNull(key, "key");
+
+        int i = indexFor(key);
+        Object k;
+        while ((k = keys[i]) != null) {
+            if (k.equals(key)) {
+                V oldValue = valueAt(i);
+                values[i] = value;
+                return oldValue;
+            }
+            i = (i + 1) & mask;
+        }
+
+        keys[i] = key;
+        values[i] = value;
+        size++;
+        modCount++;
+
+        if (size > threshold) {
+            resize();
+        }
+
+        return null;
+    }
+
+
+    @Override
+    public V get(K key) {
+        int i = find(key);
+        return i < 0 ? null : valueAt(i);
+    }
+
+
+    @Override
+    public V remove(K key) {
+        int i = find(key);
+        if (i < 0) {
+            return null;
+        }
+
+        V oldValue = valueAt(i);
+        deleteAt(i);
+        size--;
+        modCount++;
+
+        return oldValue;
+    }
+
+
+    @Override
+    public boolean contains(K key) {
+        return find(key) >= 0;
+    }
+
+
+    @Override
+    public void clear() {
+        if (size == 0) {
+            return;
+        }
+
+        Arrays.fill(keys, null);
+        Arrays.fill(values, null);
+        size = 0;
+        modCount++;
+    }
+
+
+    @Override
+    public Iterator<Node<K, V>> iterator() {
+        return new SlotIterator();
+    }
+
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof SymbolTable<?, ?>)) {
+            return false;
+        }
+
+        SymbolTable<?, ?> tmp = (SymbolTable<?, ?>) o;
+        if (size != tmp.getSize()) {
+            return false;
+        }
+
+        @SuppressWarnings("unchecked")
+        SymbolTable<K, ?> other = (SymbolTable<K, ?>) tmp;
+
+        for (int i = 0; i < keys.length; i++) {
+            if (keys[i] == null) {
+                continue;
+            }
+
+            K key = keyAt(i);
+            Object value = values[i];
+            if (!Objects.equals(value, other.get(key))) {
+                return false;
+            }
+            //get возвращает null и для отсутствующего ключа, и для значения null
+            if (value == null && !other.contains(key)) {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+
+    @Override
+    public int hashCode() {
+        int h = 0;
+        for (int i = 0; i < keys.length; i++) {
+            if (keys[i] != null) {
+                h += keys[i].hashCode() ^ Objects.hashCode(values[i]);
+            }
+        }
+        return h;
+    }
+
+
+    @Override
+    public String toString() {
+        if (size == 0) {
+            return "[]";
+        }
+
+        StringBuilder sb = new StringBuilder("[");
+        boolean isFirst = true;
+        for (int i = 0; i < keys.length; i++) {
+            if (keys[i] == null) {
+                continue;
+            }
+            if (!isFirst) {
+                sb.append(", ");
+            }
+            isFirst = false;
+            sb.append("(").append(keys[i]).append(", ").append(values[i]).append(")");
+        }
+        return sb.append("]").toString();
+    }
+
+
+    /**
+     * Ищет ячейку с ключом {@code key}.
+     * @return индекс ячейки или {@code -1}, если ключа нет
+     */
+    private int find(K key) {
+        Objects.requireNonNull(key, "key");
+
+        int i = indexFor(key);
+        Object k;
+        while ((k = keys[i]) != null) {
+            if (k.equals(key)) {
+                return i;
+            }
+            i = (i + 1) & mask;
+        }
+        return -1;
+    }
+
+
+    /**
+     * Освобождает ячейку {@code hole} и сдвигает назад следующие за ней элементы кластера.
+     * <p>
+     * Элемент из ячейки {@code j} можно перенести в дыру, только если его домашняя ячейка
+     * не лежит циклически в {@code (hole, j]}: иначе после переноса он оказался бы раньше
+     * своей домашней ячейки и перестал бы находиться поиском.
+     */
+    private void deleteAt(int hole) {
+        int j = hole;
+        while (true) {
+            j = (j + 1) & mask;
+            Object k = keys[j];
+            if (k == null) {
+                break;
+            }
+
+            int home = indexFor(k);
+            //расстояние от домашней ячейки до j не меньше расстояния от дыры до j
+            if (((j - home) & mask) >= ((j - hole) & mask)) {
+                keys[hole] = k;
+                values[hole] = values[j];
+                hole = j;
+            }
+        }
+
+        keys[hole] = null;
+        values[hole] = null;
+    }
+
+
+    /**
+     * Удваивает вместимость и заново раскладывает все пары.
+     */
+    private void resize() {
+        if (keys.length == Hashing.MAXIMUM_CAPACITY) {
+            threshold = Integer.MAX_VALUE;
+            return;
+        }
+
+        Object[] oldKeys = keys;
+        Object[] oldValues = values;
+        allocate(oldKeys.length << 1);
+
+        for (int i = 0; i < oldKeys.length; i++) {
+            Object k = oldKeys[i];
+            if (k == null) {
+                continue;
+            }
+
+            int j = indexFor(k);
+            while (keys[j] != null) {
+                j = (j + 1) & mask;
+            }
+            keys[j] = k;
+            values[j] = oldValues[i];
+        }
+    }
+
+
+    private void allocate(int capacity) {
+        keys = new Object[capacity];
+        values = new Object[capacity];
+        mask = capacity - 1;
+        threshold = Hashing.openAddressingThreshold(capacity, loadFactor);
+    }
+
+
+    private int indexFor(Object key) {
+        return Hashing.spread(key.hashCode()) & mask;
+    }
+
+
+    @SuppressWarnings("unchecked")
+    private K keyAt(int i) {
+        return (K) keys[i];
+    }
+
+
+    @SuppressWarnings("unchecked")
+    private V valueAt(int i) {
+        return (V) values[i];
+    }
+
+
+    /**
+     * Итератор по занятым ячейкам в порядке возрастания индекса.
+     */
+    private class SlotIterator implements Iterator<Node<K, V>> {
+        private int index;
+        private final int expectedModCount = modCount;
+
+        SlotIterator() {
+            advance();
+        }
+
+        private void advance() {
+            while (index < keys.length && keys[index] == null) {
+                index++;
+            }
+        }
+
+        @Override
+        public boolean hasNext() {
+            return index < keys.length;
+        }
+
+        @Override
+        public Node<K, V> next() {
+            if (modCount != expectedModCount) {
+                throw new ConcurrentModificationException();
+            }
+            if (index >= keys.length) {
+                throw new NoSuchElementException();
+            }
+
+            Node<K, V> node = new Node<>(keyAt(index), valueAt(index), null);
+            index++;
+            advance();
+            return node;
+        }
+    }
+}
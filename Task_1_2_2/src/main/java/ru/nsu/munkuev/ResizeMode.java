@@ -0,0 +1,20 @@
+package ru.nsu.munkuev;
+
+/**
+ * Способ расширения {@link HashTable} при превышении порога загрузки.
+ */
+public enum ResizeMode {
+    /**
+     * Все узлы переносятся в новый массив бакетов сразу, внутри вызова
+     * {@link HashTable#add(Object, Object)}, превысившего порог. Время этого вызова
+     * пропорционально размеру таблицы.
+     */
+    EAGER,
+
+    /**
+     * Старый и новый массивы бакетов какое-то время существуют одновременно, а каждая
+     * следующая операция переносит ограниченное число бакетов. Время любой отдельной
+     * операции остаётся ограниченным ценой временного хранения двух массивов.
+     */
+    INCREMENTAL
+}
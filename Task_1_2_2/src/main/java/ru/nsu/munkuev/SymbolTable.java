@@ -0,0 +1,71 @@
+package ru.nsu.munkuev;
+
+/**
+ * Общий интерфейс хеш-таблиц модуля: отображение ключей {@code K} в значения {@code V}.
+ * <p>
+ * Реализации различаются внутренним устройством, а выбираются при создании таблицы:
+ * <ul>
+ *     <li>{@link HashTable} — массив бакетов, коллизии разрешаются цепочками узлов {@link Node};</li>
+ *     <li>{@link OpenAddressingHashTable} — открытая адресация с линейным пробированием
+ *         поверх параллельных массивов ключей и значений, без объекта на каждую пару.</li>
+ * </ul>
+ *
+ * <p>
+ * Для всех реализаций действуют одинаковые правила:
+ * <ul>
+ *     <li>ключи не могут быть {@code null}, значения могут;</li>
+ *     <li>{@link #add(Object, Object)} возвращает старое значение при замене и {@code null} при вставке;</li>
+ *     <li>итератор выбрасывает {@link java.util.ConcurrentModificationException}, если после его
+ *         создания таблица структурно изменилась;</li>
+ *     <li>две таблицы равны, если в них одинаковые наборы пар {@code (key, value)}, независимо
+ *         от реализации, а {@link Object#hashCode()} равен сумме {@code hash(key) ^ hash(value)} по всем парам.</li>
+ * </ul>
+ *
+ * @param <K> тип ключей
+ * @param <V> тип значений
+ */
+public interface SymbolTable<K, V> extends Iterable<Node<K, V>> {
+    /**
+     * Добавляет пару {@code (key, value)} или заменяет значение существующего ключа.
+     * @param key ключ
+     * @param value значение
+     * @return старое значение при замене, {@code null} при вставке
+     * @throws NullPointerException если {@code key == null}
+     */
+    V add(K key, V value);
+
+    /**
+     * Возвращает значение по ключу.
+     * @param key ключ
+     * @return значение или {@code null}, если ключа нет
+     * @throws NullPointerException если {@code key == null}
+     */
+    V get(K key);
+
+    /**
+     * Удаляет пару по ключу.
+     * @param key ключ
+     * @return значение удалённой пары или {@code null}, если ключа нет
+     * @throws NullPointerException если {@code key == null}
+     */
+    V remove(K key);
+
+    /**
+     * Проверяет наличие ключа.
+     * @param key ключ
+     * @return {@code true}, если ключ есть в таблице
+     * @throws NullPointerException если {@code key == null}
+     */
+    boolean contains(K key);
+
+    /**
+     * Возвращает количество пар в таблице.
+     * @return количество пар
+     */
+    int getSize();
+
+    /**
+     * Удаляет все пары.
+     */
+    void clear();
+}
@@ -0,0 +1,128 @@
+package ru.nsu.munkuev;
+
+/**
+ * Стратегия {@link EvictionPolicy#W_TINY_LFU}.
+ * <p>
+ * Узлы разделены на три LRU-очереди: окно ({@code 1%} ограничения), испытательную
+ * ({@code probation}) и защищённую ({@code protected}, {@code 80%} основной части).
+ * Новый узел попадает в окно, а вытесненный из окна — в хвост испытательной очереди
+ * как кандидат на место в основной части. Повторное обращение к узлу испытательной
+ * очереди переводит его в защищённую, избыток защищённой возвращается в испытательную.
+ * <p>
+ * Когда нужно освободить место, кандидат из хвоста испытательной очереди сравнивается
+ * по оценке частоты из {@link FrequencySketch} с головой испытательной очереди, а если
+ * кандидат в ней один — с головой защищённой. Вытесняется менее популярный, при
+ * равенстве — кандидат.
+ */
+final class TinyLfuStrategy<K, V> implements EvictionStrategy<K, V> {
+    private static final int WINDOW = 0;
+    private static final int PROBATION = 1;
+    private static final int PROTECTED = 2;
+
+    private final CacheNodeList<K, V> window = new CacheNodeList<>();
+    private final CacheNodeList<K, V> probation = new CacheNodeList<>();
+    private final CacheNodeList<K, V> protectedList = new CacheNodeList<>();
+    private final FrequencySketch sketch;
+
+    private final long windowMaximum;
+    private final long protectedMaximum;
+
+    TinyLfuStrategy(long maximum) {
+        this.windowMaximum = Math.max(1, maximum / 100);
+        this.protectedMaximum = (long) ((maximum - windowMaximum) * 0.8);
+        this.sketch = new FrequencySketch(maximum);
+    }
+
+    @Override
+    public void onInsert(CacheNode<K, V> node) {
+        sketch.increment(node.getKey());
+        node.queue = WINDOW;
+        window.addLast(node);
+        evictFromWindow();
+    }
+
+    @Override
+    public void onAccess(CacheNode<K, V> node) {
+        sketch.increment(node.getKey());
+        switch (node.queue) {
+            case WINDOW:
+                window.moveToLast(node);
+                break;
+            case PROBATION:
+                probation.unlink(node);
+                node.queue = PROTECTED;
+                protectedList.addLast(node);
+                demoteFromProtected();
+                break;
+            default:
+                protectedList.moveToLast(node);
+                break;
+        }
+    }
+
+    @Override
+    public void onUpdate(CacheNode<K, V> node, int oldWeight) {
+        listOf(node).reweigh(oldWeight, node.weight);
+        onAccess(node);
+        evictFromWindow();
+    }
+
+    @Override
+    public void onRemove(CacheNode<K, V> node) {
+        listOf(node).unlink(node);
+    }
+
+    @Override
+    public CacheNode<K, V> victim() {
+        CacheNode<K, V> candidate = probation.tail();
+        CacheNode<K, V> victim = probation.head();
+        if (victim == candidate) {
+            victim = protectedList.head();
+        }
+        if (candidate == null) {
+            return victim != null ? victim : window.head();
+        }
+        if (victim == null) {
+            return candidate;
+        }
+        return sketch.frequency(candidate.getKey()) > sketch.frequency(victim.getKey()) ? victim : candidate;
+    }
+
+    @Override
+    public void clear() {
+        window.clear();
+        probation.clear();
+        protectedList.clear();
+        sketch.clear();
+    }
+
+    private CacheNodeList<K, V> listOf(CacheNode<K, V> node) {
+        return switch (node.queue) {
+            case WINDOW -> window;
+            case PROBATION -> probation;
+            default -> protectedList;
+        };
+    }
+
+    /**
+     * Переносит самые давние узлы окна в испытательную очередь, пока окно переполнено.
+     * Последний узел окна остаётся в нём, даже если один превышает размер окна.
+     */
+    private void evictFromWindow() {
+        while (window.weight() > windowMaximum && window.head() != window.tail()) {
+            CacheNode<K, V> node = window.head();
+            window.unlink(node);
+            node.queue = PROBATION;
+            probation.addLast(node);
+        }
+    }
+
+    private void demoteFromProtected() {
+        while (protectedList.weight() > protectedMaximum && protectedList.head() != protectedList.tail()) {
+            CacheNode<K, V> node = protectedList.head();
+            protectedList.unlink(node);
+            node.queue = PROBATION;
+            probation.addLast(node);
+        }
+    }
+}
@@ -0,0 +1,20 @@
+package ru.nsu.munkuev;
+
+/**
+ * Вычисляет вес пары {@code (key, value)} для {@link BoundedHashTable}, ограниченной
+ * суммарным весом записей.
+ *
+ * @param <K> тип ключей
+ * @param <V> тип значений
+ */
+@FunctionalInterface
+public interface Weigher<K, V> {
+    /**
+     * Возвращает неотрицательный вес пары. Вес вычисляется при добавлении и при замене
+     * значения и далее не пересчитывается.
+     * @param key ключ
+     * @param value значение
+     * @return вес пары
+     */
+    int weigh(K key, V value);
+}
@@ -0,0 +1,272 @@
+package ru.nsu.munkuev;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+
+class BoundedHashTableTest {
+
+    private static BoundedHashTable<Integer, String> sized(long maximumSize, EvictionPolicy policy) {
+        return new BoundedHashTable.Builder<Integer, String>()
+                .withMaximumSize(maximumSize)
+                .withEvictionPolicy(policy)
+                .build();
+    }
+
+    @Test
+    void builderRequiresExactlyOneBound() {
+        assertThrows(IllegalStateException.class, () -> new BoundedHashTable.Builder<Integer, String>().build());
+        assertThrows(IllegalStateException.class, () -> new BoundedHashTable.Builder<Integer, String>()
+                .withMaximumSize(10)
+                .withMaximumWeight(10, (key, value) -> 1));
+        assertThrows(IllegalArgumentException.class, () -> new BoundedHashTable.Builder<Integer, String>()
+                .withMaximumSize(-1));
+    }
+
+    @Test
+    void lruEvictsLeastRecentlyUsed() {
+        BoundedHashTable<Integer, String> cache = sized(3, EvictionPolicy.LRU);
+        cache.add(1, "one");
+        cache.add(2, "two");
+        cache.add(3, "three");
+        cache.get(1);
+        cache.add(4, "four");
+
+        assertEquals(3, cache.getSize());
+        assertFalse(cache.contains(2));
+        assertTrue(cache.contains(1));
+        assertTrue(cache.contains(3));
+        assertTrue(cache.contains(4));
+    }
+
+    @Test
+    void lruUpdateCountsAsUse() {
+        BoundedHashTable<Integer, String> cache = sized(2, EvictionPolicy.LRU);
+        cache.add(1, "one");
+        cache.add(2, "two");
+        assertEquals("one", cache.add(1, "uno"));
+        cache.add(3, "three");
+
+        assertEquals("uno", cache.get(1));
+        assertFalse(cache.contains(2));
+    }
+
+    @Test
+    void lfuEvictsLeastFrequentlyUsed() {
+        BoundedHashTable<Integer, String> cache = sized(3, EvictionPolicy.LFU);
+        cache.add(1, "one");
+        cache.add(2, "two");
+        cache.add(3, "three");
+        for (int i = 0; i < 5; i++) {
+            cache.get(1);
+            cache.get(3);
+        }
+        cache.get(2);
+        //только что добавленная 4 не вытесняется, уходит 2 с одним обращением
+        cache.add(4, "four");
+        assertFalse(cache.contains(2));
+        //у 4 меньше всего обращений, поэтому при следующей вставке вытесняется она
+        cache.add(5, "five");
+
+        assertFalse(cache.contains(4));
+        assertTrue(cache.contains(1));
+        assertTrue(cache.contains(3));
+        assertTrue(cache.contains(5));
+    }
+
+    @Test
+    void tinyLfuKeepsHotKeysDuringScan() {
+        int size = 100;
+        BoundedHashTable<Integer, Integer> tinyLfu = new BoundedHashTable.Builder<Integer, Integer>()
+                .withMaximumSize(size)
+                .withEvictionPolicy(EvictionPolicy.W_TINY_LFU)
+                .build();
+        BoundedHashTable<Integer, Integer> lru = new BoundedHashTable.Builder<Integer, Integer>()
+                .withMaximumSize(size)
+                .build();
+
+        for (BoundedHashTable<Integer, Integer> cache : List.of(tinyLfu, lru)) {
+            for (int round = 0; round < 10; round++) {
+                for (int key = 0; key < 50; key++) {
+                    if (cache.get(key) == null) {
+                        cache.add(key, key);
+                    }
+                }
+            }
+            //однократный проход по большому числу новых ключей
+            for (int key = 1000; key < 11_000; key++) {
+                cache.add(key, key);
+            }
+            assertTrue(cache.getSize() <= size);
+        }
+
+        int hotInTinyLfu = 0;
+        int hotInLru = 0;
+        for (int key = 0; key < 50; key++) {
+            hotInTinyLfu += tinyLfu.contains(key) ? 1 : 0;
+            hotInLru += lru.contains(key) ? 1 : 0;
+        }
+        //горячий ключ, оставшийся в окне, может уступить место при равной частоте
+        assertTrue(hotInTinyLfu >= 49, "hot keys kept: " + hotInTinyLfu);
+        assertEquals(0, hotInLru);
+    }
+
+    @Test
+    void everyPolicyRespectsBoundUnderRandomLoad() {
+        for (EvictionPolicy policy : EvictionPolicy.values()) {
+            BoundedHashTable<Integer, String> cache = sized(64, policy);
+            java.util.Random random = new java.util.Random(7);
+            for (int step = 0; step < 20_000; step++) {
+                int key = random.nextInt(500);
+                switch (random.nextInt(3)) {
+                    case 0 -> cache.add(key, "v" + key);
+                    case 1 -> cache.remove(key);
+                    default -> cache.get(key);
+                }
+                assertTrue(cache.getSize() <= 64, policy.name());
+            }
+
+            int iterated = 0;
+            for (Node<Integer, String> node : cache) {
+                assertEquals("v" + node.getKey(), node.getValue());
+                iterated++;
+            }
+            assertEquals(cache.getSize(), iterated);
+            assertEquals(cache.getSize(), cache.getWeightedSize());
+        }
+    }
+
+    @Test
+    void maximumWeightEvictsByWeight() {
+        BoundedHashTable<String, String> cache = new BoundedHashTable.Builder<String, String>()
+                .withMaximumWeight(10, (key, value) -> value.length())
+                .build();
+        cache.add("a", "aaaa");
+        cache.add("b", "bbbb");
+        assertEquals(8, cache.getWeightedSize());
+
+        cache.add("c", "ccc");
+        assertFalse(cache.contains("a"));
+        assertEquals(7, cache.getWeightedSize());
+
+        //замена значения пересчитывает вес
+        cache.add("b", "b");
+        assertEquals(4, cache.getWeightedSize());
+
+        //запись тяжелее ограничения не задерживается в таблице
+        cache.add("huge", "xxxxxxxxxxxx");
+        assertFalse(cache.contains("huge"));
+        assertEquals(4, cache.getWeightedSize());
+        assertEquals(2, cache.stats().getEvictionCount());
+        assertEquals(16, cache.stats().getEvictionWeight());
+    }
+
+    @Test
+    void negativeWeightIsRejected() {
+        BoundedHashTable<String, Integer> cache = new BoundedHashTable.Builder<String, Integer>()
+                .withMaximumWeight(100, (key, value) -> value)
+                .build();
+        cache.add("a", 5);
+
+        assertThrows(IllegalArgumentException.class, () -> cache.add("b", -1));
+        assertThrows(IllegalArgumentException.class, () -> cache.add("a", -1));
+        assertFalse(cache.contains("b"));
+        assertEquals(5, (int) cache.get("a"));
+        assertEquals(5, cache.getWeightedSize());
+    }
+
+    @Test
+    void entriesExpireAfterWrite() {
+        long[] now = {0};
+        BoundedHashTable<Integer, String> cache = new BoundedHashTable.Builder<Integer, String>()
+                .withMaximumSize(100)
+                .withExpireAfterWrite(Duration.ofSeconds(10))
+                .withTicker(() -> now[0])
+                .build();
+        cache.add(1, "one");
+        now[0] = Duration.ofSeconds(5).toNanos();
+        cache.add(2, "two");
+        //чтение не продлевает жизнь записи, а замена значения продлевает
+        assertEquals("one", cache.get(1));
+        cache.add(2, "dos");
+
+        now[0] = Duration.ofSeconds(10).toNanos();
+        assertNull(cache.get(1));
+        assertEquals("dos", cache.get(2));
+        assertEquals(1, cache.getSize());
+
+        now[0] = Duration.ofSeconds(15).toNanos();
+        assertFalse(cache.contains(2));
+        assertEquals(0, cache.getSize());
+        assertEquals("[]", cache.toString());
+        assertEquals(2, cache.stats().getExpirationCount());
+        assertEquals(0, cache.stats().getEvictionCount());
+    }
+
+    @Test
+    void statsCountHitsMissesAndEvictions() {
+        BoundedHashTable<Integer, String> cache = sized(2, EvictionPolicy.LRU);
+        cache.add(1, "one");
+        cache.add(2, "two");
+        CacheStats before = cache.stats();
+
+        cache.get(1);
+        cache.get(1);
+        cache.get(5);
+        cache.add(3, "three");
+        cache.contains(1);
+
+        CacheStats stats = cache.stats().minus(before);
+        assertEquals(new CacheStats(2, 1, 1, 1, 0), stats);
+        assertEquals(3, stats.getRequestCount());
+        assertEquals(2.0 / 3, stats.getHitRate(), 1e-9);
+        assertEquals(1.0, new CacheStats(0, 0, 0, 0, 0).getHitRate());
+    }
+
+    @Test
+    void clearResetsQueues() {
+        for (EvictionPolicy policy : EvictionPolicy.values()) {
+            BoundedHashTable<Integer, String> cache = sized(4, policy);
+            for (int i = 0; i < 10; i++) {
+                cache.add(i, "v" + i);
+            }
+            cache.clear();
+
+            assertEquals(0, cache.getSize());
+            assertEquals(0, cache.getWeightedSize());
+            Set<Integer> kept = new HashSet<>();
+            for (int i = 0; i < 4; i++) {
+                cache.add(i, "v" + i);
+                kept.add(i);
+            }
+            for (Node<Integer, String> node : cache) {
+                assertTrue(kept.remove(node.getKey()));
+            }
+            assertTrue(kept.isEmpty());
+        }
+    }
+
+    @Test
+    void equalsPlainHashTableWithSameEntries() {
+        BoundedHashTable<Integer, String> cache = sized(10, EvictionPolicy.W_TINY_LFU);
+        HashTable<Integer, String> plain = new HashTable<>();
+        for (int i = 0; i < 5; i++) {
+            cache.add(i, "v" + i);
+            plain.add(i, "v" + i);
+        }
+
+        assertEquals(plain, cache);
+        assertEquals(cache, plain);
+        assertEquals(plain.hashCode(), cache.hashCode());
+    }
+}
@@ -0,0 +1,296 @@
+package ru.nsu.munkuev;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+
+class ConcurrentHashTableTest {
+    private static final int THREADS = 8;
+
+    /**
+     * Запускает {@code task(threadIndex)} одновременно в {@link #THREADS} потоках и
+     * пробрасывает первое возникшее исключение.
+     */
+    private static void runConcurrently(ThreadTask task) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int t = 0; t < THREADS; t++) {
+                int index = t;
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    task.run(index);
+                    return null;
+                }));
+            }
+
+            start.countDown();
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        }
+        finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @FunctionalInterface
+    private interface ThreadTask {
+        void run(int threadIndex) throws Exception;
+    }
+
+
+    // ======================================================================
+    // ========================= Single-thread semantics =====================
+    // ======================================================================
+    @Test
+    void defaultConstructorCreatesEmptyTable() {
+        ConcurrentHashTable<Integer, String> table = new ConcurrentHashTable<>();
+
+        assertEquals(0, table.getSize());
+        assertEquals(16, table.capacity());
+        assertEquals("[]", table.toString());
+        assertFalse(table.contains(1));
+        assertNull(table.get(1));
+    }
+
+    @Test
+    void constructorThrowsOnIllegalArguments() {
+        assertThrows(IllegalArgumentException.class, () -> new ConcurrentHashTable<Integer, String>(0, 0.75f));
+        assertThrows(IllegalArgumentException.class, () -> new ConcurrentHashTable<Integer, String>(8, 0f));
+    }
+
+    @Test
+    void addGetUpdateRemove() {
+        ConcurrentHashTable<Integer, String> table = new ConcurrentHashTable<>();
+
+        assertNull(table.add(1, "one"));
+        assertNull(table.add(17, "seventeen"));
+        assertEquals("one", table.add(1, "newOne"));
+        assertEquals(2, table.getSize());
+        assertEquals("newOne", table.get(1));
+
+        assertEquals("seventeen", table.remove(17));
+        assertNull(table.remove(17));
+        assertFalse(table.contains(17));
+        assertEquals(1, table.getSize());
+    }
+
+    @Test
+    void nullValuesAreStored() {
+        ConcurrentHashTable<Integer, String> table = new ConcurrentHashTable<>();
+        table.add(1, null);
+
+        assertTrue(table.contains(1));
+        assertNull(table.get(1));
+        assertEquals(1, table.getSize());
+    }
+
+    @Test
+    void operationsWithNullKeyThrowNullPointerException() {
+        ConcurrentHashTable<String, String> table = new ConcurrentHashTable<>();
+
+        assertThrows(NullPointerException.class, () -> table.add(null, "x"));
+        assertThrows(NullPointerException.class, () -> table.get(null));
+        assertThrows(NullPointerException.class, () -> table.remove(null));
+        assertThrows(NullPointerException.class, () -> table.contains(null));
+    }
+
+    @Test
+    void resizeTriggeredAndPreservesEntries() {
+        ConcurrentHashTable<Integer, Integer> table = new ConcurrentHashTable<>(2, 0.75f);
+        for (int i = 0; i < 1000; i++) {
+            table.add(i, -i);
+        }
+
+        assertTrue(table.capacity() >= 1024);
+        assertEquals(1000, table.getSize());
+        for (int i = 0; i < 1000; i++) {
+            assertEquals(-i, (int) table.get(i));
+        }
+    }
+
+    @Test
+    void clearRemovesAllElements() {
+        ConcurrentHashTable<Integer, String> table = new ConcurrentHashTable<>();
+        for (int i = 0; i < 100; i++) {
+            table.add(i, "v" + i);
+        }
+
+        table.clear();
+
+        assertEquals(0, table.getSize());
+        assertEquals("[]", table.toString());
+        assertNull(table.get(5));
+    }
+
+    @Test
+    void iteratorIsWeaklyConsistent() {
+        ConcurrentHashTable<Integer, String> table = new ConcurrentHashTable<>();
+        table.add(1, "one");
+        table.add(2, "two");
+
+        Iterator<Node<Integer, String>> it = table.iterator();
+        it.next();
+        //в отличие от HashTable, изменение во время обхода не приводит к исключению
+        table.add(3, "three");
+        while (it.hasNext()) {
+            it.next();
+        }
+
+        assertThrows(NoSuchElementException.class, it::next);
+    }
+
+    @Test
+    void equalsAndHashCodeMatchHashTable() {
+        ConcurrentHashTable<Integer, String> concurrent = new ConcurrentHashTable<>();
+        HashTable<Integer, String> plain = new HashTable<>();
+        for (int i = 0; i < 50; i++) {
+            concurrent.add(i, "v" + i);
+            plain.add(i, "v" + i);
+        }
+
+        assertEquals(concurrent, plain);
+        assertEquals(plain, concurrent);
+        assertEquals(plain.hashCode(), concurrent.hashCode());
+
+        concurrent.remove(10);
+        assertNotEquals(concurrent, plain);
+    }
+
+
+    // ======================================================================
+    // ============================ Stress tests =============================
+    // ======================================================================
+    @Test
+    void concurrentAddsOfDisjointKeysAreAllVisible() throws Exception {
+        ConcurrentHashTable<Integer, Integer> table = new ConcurrentHashTable<>(2, 0.75f);
+        int perThread = 20_000;
+
+        runConcurrently(t -> {
+            for (int i = 0; i < perThread; i++) {
+                int key = t * perThread + i;
+                assertNull(table.add(key, key));
+            }
+        });
+
+        assertEquals(THREADS * perThread, table.getSize());
+        for (int key = 0; key < THREADS * perThread; key++) {
+            assertEquals(key, (int) table.get(key));
+        }
+
+        int iterated = 0;
+        for (Node<Integer, Integer> ignored : table) {
+            iterated++;
+        }
+        assertEquals(THREADS * perThread, iterated);
+    }
+
+    @Test
+    void concurrentUpdatesOfSameKeysKeepOneEntryPerKey() throws Exception {
+        ConcurrentHashTable<Integer, Integer> table = new ConcurrentHashTable<>(4, 0.75f);
+        int keys = 500;
+        AtomicInteger inserted = new AtomicInteger();
+
+        runConcurrently(t -> {
+            for (int round = 0; round < 20; round++) {
+                for (int key = 0; key < keys; key++) {
+                    if (table.add(key, t) == null && round == 0) {
+                        inserted.incrementAndGet();
+                    }
+                }
+            }
+        });
+
+        assertEquals(keys, table.getSize());
+        assertTrue(inserted.get() >= keys);
+        for (int key = 0; key < keys; key++) {
+            assertTrue(table.contains(key));
+        }
+    }
+
+    @Test
+    void concurrentAddRemoveAndReadsDuringResize() throws Exception {
+        ConcurrentHashTable<Integer, Integer> table = new ConcurrentHashTable<>(2, 0.75f);
+        int perThread = 10_000;
+
+        //каждый поток работает со своими ключами, чётные оставляет, нечётные удаляет
+        runConcurrently(t -> {
+            int base = t * perThread;
+            for (int i = 0; i < perThread; i++) {
+                table.add(base + i, i);
+                assertEquals(i, (int) table.get(base + i));
+                if (i % 2 == 1) {
+                    assertEquals(i, (int) table.remove(base + i));
+                    assertFalse(table.contains(base + i));
+                }
+                //ключи других потоков не должны появляться с чужими значениями
+                Integer other = table.get(((t + 1) % THREADS) * perThread + i / 2 * 2);
+                assertTrue(other == null || other == i / 2 * 2);
+            }
+        });
+
+        assertEquals(THREADS * perThread / 2, table.getSize());
+        Map<Integer, Integer> expected = new HashMap<>();
+        for (int t = 0; t < THREADS; t++) {
+            for (int i = 0; i < perThread; i += 2) {
+                expected.put(t * perThread + i, i);
+            }
+        }
+
+        Map<Integer, Integer> actual = new HashMap<>();
+        for (Node<Integer, Integer> node : table) {
+            assertNull(actual.put(node.getKey(), node.getValue()), "key iterated twice");
+        }
+        assertEquals(expected, actual);
+    }
+
+    @Test
+    void iterationDuringConcurrentResizeSeesEachKeyAtMostOnce() throws Exception {
+        ConcurrentHashTable<Integer, Integer> table = new ConcurrentHashTable<>(2, 0.75f);
+        for (int i = 0; i < 1000; i++) {
+            table.add(i, i);
+        }
+
+        runConcurrently(t -> {
+            if (t == 0) {
+                for (int round = 0; round < 50; round++) {
+                    Map<Integer, Integer> seen = new HashMap<>();
+                    for (Node<Integer, Integer> node : table) {
+                        assertNull(seen.put(node.getKey(), node.getValue()), "key iterated twice");
+                    }
+                    //первые 1000 ключей не удаляются, поэтому видны всегда
+                    for (int i = 0; i < 1000; i++) {
+                        assertTrue(seen.containsKey(i));
+                    }
+                }
+            }
+            else {
+                for (int i = 0; i < 20_000; i++) {
+                    table.add(1000 + t * 20_000 + i, i);
+                }
+            }
+        });
+
+        assertEquals(1000 + (THREADS - 1) * 20_000, table.getSize());
+    }
+}
@@ -0,0 +1,173 @@
+package ru.nsu.munkuev;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+
+class FrozenHashTableTest {
+
+    /**
+     * Ключ, у которого каждые четыре подряд идущих экземпляра имеют одинаковый хеш.
+     */
+    private static final class CollidingKey {
+        private final int id;
+
+        CollidingKey(int id) {
+            this.id = id;
+        }
+
+        @Override
+        public int hashCode() {
+            return id / 4;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            return o instanceof CollidingKey other && other.id == id;
+        }
+    }
+
+    @Test
+    void frozenTableAnswersLikeSource() {
+        HashTable<Integer, String> table = new HashTable<>();
+        Random random = new Random(5);
+        for (int i = 0; i < 50_000; i++) {
+            table.add(random.nextInt(), "v" + i);
+        }
+        table.add(0, null);
+
+        FrozenHashTable<Integer, String> frozen = table.freeze();
+
+        assertEquals(table.getSize(), frozen.getSize());
+        for (Node<Integer, String> node : table) {
+            assertEquals(node.getValue(), frozen.get(node.getKey()));
+            assertTrue(frozen.contains(node.getKey()));
+        }
+        assertTrue(frozen.contains(0));
+        assertNull(frozen.get(0));
+        assertEquals(table, frozen);
+        assertEquals(frozen, table);
+        assertEquals(table.hashCode(), frozen.hashCode());
+    }
+
+    @Test
+    void missingKeysAreNotFound() {
+        HashTable<Integer, Integer> table = new HashTable<>();
+        for (int i = 0; i < 1000; i++) {
+            table.add(2 * i, i);
+        }
+
+        FrozenHashTable<Integer, Integer> frozen = table.freeze();
+
+        for (int i = 0; i < 1000; i++) {
+            assertFalse(frozen.contains(2 * i + 1));
+            assertNull(frozen.get(-2 * i - 1));
+        }
+    }
+
+    @Test
+    void keysWithEqualHashCodesShareSlot() {
+        HashTable<CollidingKey, Integer> table = new HashTable<>();
+        for (int i = 0; i < 1000; i++) {
+            table.add(new CollidingKey(i), i);
+        }
+
+        FrozenHashTable<CollidingKey, Integer> frozen = table.freeze();
+
+        for (int i = 0; i < 1000; i++) {
+            assertEquals(i, (int) frozen.get(new CollidingKey(i)));
+        }
+        assertFalse(frozen.contains(new CollidingKey(1000)));
+        assertEquals(table, frozen);
+    }
+
+    @Test
+    void emptyAndSingleEntryTables() {
+        FrozenHashTable<String, String> empty = new HashTable<String, String>().freeze();
+        assertEquals(0, empty.getSize());
+        assertNull(empty.get("a"));
+        assertEquals("[]", empty.toString());
+        assertFalse(empty.iterator().hasNext());
+
+        HashTable<String, String> one = new HashTable<>();
+        one.add("a", "b");
+        FrozenHashTable<String, String> frozen = one.freeze();
+        assertEquals("b", frozen.get("a"));
+        assertEquals("[(a, b)]", frozen.toString());
+    }
+
+    @Test
+    void frozenTableIsIndependentAndImmutable() {
+        HashTable<String, Integer> table = new HashTable<>();
+        table.add("a", 1);
+        FrozenHashTable<String, Integer> frozen = table.freeze();
+        table.add("b", 2);
+        table.remove("a");
+
+        assertEquals(1, frozen.getSize());
+        assertEquals(1, (int) frozen.get("a"));
+        assertThrows(UnsupportedOperationException.class, () -> frozen.add("c", 3));
+        assertThrows(UnsupportedOperationException.class, () -> frozen.remove("a"));
+        assertThrows(UnsupportedOperationException.class, frozen::clear);
+        assertThrows(NullPointerException.class, () -> frozen.get(null));
+    }
+
+    @Test
+    void copyOfAcceptsAnySymbolTableAndForEachVisitsAllPairs() {
+        OpenAddressingHashTable<String, Integer> source = new OpenAddressingHashTable<>();
+        for (int i = 0; i < 100; i++) {
+            source.add("k" + i, i);
+        }
+
+        FrozenHashTable<String, Integer> frozen = FrozenHashTable.copyOf(source);
+        Map<String, Integer> visited = new HashMap<>();
+        frozen.forEach(visited::put);
+
+        assertEquals(100, visited.size());
+        assertEquals(source, frozen);
+    }
+
+    @Test
+    void readsFromManyThreadsWithoutSynchronization() throws Exception {
+        HashTable<Integer, Integer> table = new HashTable<>();
+        for (int i = 0; i < 10_000; i++) {
+            table.add(i, i * i);
+        }
+        FrozenHashTable<Integer, Integer> frozen = table.freeze();
+
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<Boolean>> futures = new ArrayList<>();
+            for (int t = 0; t < 4; t++) {
+                futures.add(executor.submit(() -> {
+                    for (int i = 0; i < 10_000; i++) {
+                        if (frozen.get(i) != i * i) {
+                            return false;
+                        }
+                    }
+                    return true;
+                }));
+            }
+            for (Future<Boolean> future : futures) {
+                assertTrue(future.get());
+            }
+        }
+        finally {
+            executor.shutdownNow();
+        }
+    }
+}
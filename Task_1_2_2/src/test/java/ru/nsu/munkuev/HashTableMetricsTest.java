@@ -0,0 +1,232 @@
+package ru.nsu.munkuev;
+
+import org.junit.jupiter.api.Test;
+
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.util.Arrays;
+import java.util.ConcurrentModificationException;
+import java.util.Iterator;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+
+class HashTableMetricsTest {
+
+    /**
+     * Ключ с одинаковым хешем у всех экземпляров, не {@link Comparable}, поэтому все ключи
+     * оказываются в одной цепочке.
+     */
+    private static final class SameHashKey {
+        private final int id;
+
+        SameHashKey(int id) {
+            this.id = id;
+        }
+
+        @Override
+        public int hashCode() {
+            return 7;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            return o instanceof SameHashKey other && other.id == id;
+        }
+    }
+
+    @Test
+    void metricsAreDisabledByDefault() {
+        HashTable<Integer, Integer> table = new HashTable<>();
+        assertNull(table.getMetrics());
+
+        HashTableMetrics metrics = table.enableMetrics();
+        assertSame(metrics, table.enableMetrics());
+        assertSame(metrics, table.getMetrics());
+
+        table.disableMetrics();
+        table.get(1);
+        assertNull(table.getMetrics());
+        assertEquals(0, metrics.getGetCount());
+    }
+
+    @Test
+    void probesAreCountedPerGet() {
+        HashTable<SameHashKey, Integer> table = new HashTable<>();
+        for (int i = 0; i < 5; i++) {
+            table.add(new SameHashKey(i), i);
+        }
+        HashTableMetrics metrics = table.enableMetrics();
+
+        //новые узлы вставляются в начало цепочки, поэтому ключ 4 первый, а 0 последний
+        table.get(new SameHashKey(4));
+        table.get(new SameHashKey(0));
+        table.get(new SameHashKey(100));
+
+        assertEquals(3, metrics.getGetCount());
+        assertEquals((1 + 5 + 5) / 3.0, metrics.getAverageProbeCount(), 1e-9);
+        assertEquals(5, metrics.getMaxProbeCount());
+    }
+
+    @Test
+    void onlyGetIsCounted() {
+        HashTable<Integer, Integer> table = new HashTable<>();
+        table.add(1, 1);
+        HashTableMetrics metrics = table.enableMetrics();
+
+        table.contains(1);
+        table.computeIfAbsent(2, key -> key);
+        table.merge(1, 5, Integer::sum);
+        table.remove(3);
+        assertEquals(0, metrics.getGetCount());
+
+        table.get(1);
+        table.get(3);
+        assertEquals(2, metrics.getGetCount());
+    }
+
+    @Test
+    void chainLengthHistogramCountsBuckets() {
+        HashTable<SameHashKey, Integer> table = new HashTable<>(64, 0.75f);
+        for (int i = 0; i < 20; i++) {
+            table.add(new SameHashKey(i), i);
+        }
+        HashTableMetrics metrics = table.enableMetrics();
+
+        long[] histogram = metrics.getChainLengthHistogram();
+
+        assertEquals(HashTableMetrics.MAX_HISTOGRAM_LENGTH + 1, histogram.length);
+        assertEquals(63, histogram[0]);
+        assertEquals(1, histogram[HashTableMetrics.MAX_HISTOGRAM_LENGTH]);
+        assertEquals(20 / 64.0, metrics.getCurrentLoad(), 1e-9);
+    }
+
+    @Test
+    void eagerResizesAreCountedAndTimed() {
+        HashTable<Integer, Integer> table = new HashTable<>(2, 0.75f);
+        HashTableMetrics metrics = table.enableMetrics();
+        for (int i = 0; i < 1000; i++) {
+            table.add(i, i);
+        }
+
+        //2 -> 2048 бакетов
+        assertEquals(10, metrics.getResizeCount());
+        assertTrue(metrics.getTotalResizeTimeNanos() > 0);
+        assertTrue(metrics.getMaxResizePauseNanos() <= metrics.getTotalResizeTimeNanos());
+        assertEquals(10, metrics.getLoadHistory().length);
+        assertEquals(0.75, metrics.getLoadHistory()[9], 0.01);
+    }
+
+    @Test
+    void incrementalResizeRecordsSteps() {
+        HashTable<Integer, Integer> table = new HashTable<>(2, 0.75f, ResizeMode.INCREMENTAL);
+        HashTableMetrics metrics = table.enableMetrics();
+        for (int i = 0; i < 1000; i++) {
+            table.add(i, i);
+        }
+        for (Node<Integer, Integer> ignored : table) {
+            //итератор завершает перенос
+        }
+
+        assertEquals(10, metrics.getResizeCount());
+        assertTrue(metrics.getTotalResizeTimeNanos() > 0);
+        assertTrue(metrics.getMaxResizePauseNanos() < metrics.getTotalResizeTimeNanos());
+        //после переноса старого массива нет, в гистограмме только 2048 бакетов нового
+        assertEquals(2048, Arrays.stream(metrics.getChainLengthHistogram()).sum());
+    }
+
+    @Test
+    void loadIsSampledPeriodically() {
+        HashTable<Integer, Integer> table = new HashTable<>(1 << 16, 0.75f);
+        HashTableMetrics metrics = table.enableMetrics();
+        for (int i = 0; i < 3 * HashTableMetrics.LOAD_SAMPLE_INTERVAL; i++) {
+            table.add(i, i);
+        }
+        for (int i = 0; i < HashTableMetrics.LOAD_SAMPLE_INTERVAL; i++) {
+            table.remove(i);
+        }
+
+        double[] history = metrics.getLoadHistory();
+        long[] times = metrics.getLoadHistoryTimesMillis();
+        assertEquals(4, history.length);
+        assertEquals(4, times.length);
+        assertEquals(3.0 * HashTableMetrics.LOAD_SAMPLE_INTERVAL / (1 << 16), history[2], 1e-9);
+        assertEquals(2.0 * HashTableMetrics.LOAD_SAMPLE_INTERVAL / (1 << 16), history[3], 1e-9);
+        assertTrue(times[0] <= times[3]);
+    }
+
+    @Test
+    void loadHistoryKeepsLatestSamples() {
+        HashTable<Integer, Integer> table = new HashTable<>();
+        HashTableMetrics metrics = table.enableMetrics();
+        for (int i = 0; i < HashTableMetrics.LOAD_HISTORY_SIZE + 10; i++) {
+            table.add(i, i);
+            metrics.sampleLoad();
+        }
+
+        double[] history = metrics.getLoadHistory();
+        assertEquals(HashTableMetrics.LOAD_HISTORY_SIZE, history.length);
+        assertEquals(table.currentLoad(), history[history.length - 1], 1e-9);
+
+        metrics.reset();
+        assertEquals(0, metrics.getLoadHistory().length);
+        assertEquals(0, metrics.getResizeCount());
+    }
+
+    @Test
+    void concurrentModificationTripsAreCounted() {
+        HashTable<Integer, Integer> table = new HashTable<>();
+        table.add(1, 1);
+        table.add(2, 2);
+        HashTableMetrics metrics = table.enableMetrics();
+
+        Iterator<Node<Integer, Integer>> it = table.iterator();
+        table.add(3, 3);
+        assertThrows(ConcurrentModificationException.class, it::next);
+        assertThrows(ConcurrentModificationException.class,
+                () -> table.computeIfAbsent(4, key -> table.add(5, 5)));
+
+        assertEquals(2, metrics.getConcurrentModificationCount());
+    }
+
+    @Test
+    void metricsAreExposedThroughJmx() throws Exception {
+        HashTable<Integer, Integer> table = new HashTable<>();
+        HashTableMetrics metrics = table.enableMetrics();
+        table.add(1, 1);
+        table.get(1);
+
+        ObjectName name = metrics.register("jmx-test");
+        try {
+            MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+            assertEquals(1L, server.getAttribute(name, "GetCount"));
+            assertEquals(1.0, (double) server.getAttribute(name, "AverageProbeCount"), 1e-9);
+            assertEquals(17, ((long[]) server.getAttribute(name, "ChainLengthHistogram")).length);
+            assertThrows(IllegalStateException.class, () -> metrics.register("other"));
+            assertThrows(IllegalStateException.class,
+                    () -> new HashTable<Integer, Integer>().enableMetrics().register("jmx-test"));
+        }
+        finally {
+            metrics.unregister();
+        }
+
+        assertFalse(ManagementFactory.getPlatformMBeanServer().isRegistered(name));
+    }
+
+    @Test
+    void disablingMetricsUnregistersThem() {
+        HashTable<Integer, Integer> table = new HashTable<>();
+        ObjectName name = table.enableMetrics().register("jmx-disable-test");
+        assertTrue(ManagementFactory.getPlatformMBeanServer().isRegistered(name));
+
+        table.disableMetrics();
+
+        assertFalse(ManagementFactory.getPlatformMBeanServer().isRegistered(name));
+    }
+}
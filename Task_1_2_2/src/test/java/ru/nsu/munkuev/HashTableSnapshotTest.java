@@ -0,0 +1,156 @@
+package ru.nsu.munkuev;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.Channels;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+
+class HashTableSnapshotTest {
+
+    @TempDir
+    Path dir;
+
+    private static byte[] toBytes(HashTable<String, Integer> table) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        HashTableSnapshot.write(table, Channels.newChannel(out), Codec.strings(), Codec.integers());
+        return out.toByteArray();
+    }
+
+    private static HashTable<String, Integer> fromBytes(byte[] bytes) throws IOException {
+        return HashTableSnapshot.read(Channels.newChannel(new ByteArrayInputStream(bytes)),
+                Codec.strings(), Codec.integers());
+    }
+
+    @Test
+    void fileRoundTripKeepsPairsAndCapacity() throws IOException {
+        HashTable<String, Integer> table = new HashTable<>(4, 0.5f);
+        for (int i = 0; i < 10_000; i++) {
+            table.add("ключ-" + i, i);
+        }
+        table.add("null", null);
+        Path file = dir.resolve("table.snapshot");
+
+        HashTableSnapshot.write(table, file, Codec.strings(), Codec.integers());
+        HashTable<String, Integer> restored = HashTableSnapshot.read(file, Codec.strings(), Codec.integers());
+
+        assertEquals(table, restored);
+        assertEquals(table.table.length, restored.table.length);
+        assertEquals(0.5f, restored.loadFactor());
+        assertTrue(restored.contains("null"));
+        assertNull(restored.get("null"));
+    }
+
+    @Test
+    void emptyTableRoundTrip() throws IOException {
+        HashTable<String, Integer> restored = fromBytes(toBytes(new HashTable<>()));
+
+        assertEquals(0, restored.getSize());
+        assertEquals(16, restored.table.length);
+    }
+
+    @Test
+    void valuesLargerThanBufferAreWritten() throws IOException {
+        HashTable<Long, byte[]> table = new HashTable<>();
+        byte[] big = new byte[200_000];
+        Arrays.fill(big, (byte) 7);
+        table.add(1L, new byte[]{1, 2, 3});
+        table.add(2L, big);
+        table.add(3L, new byte[0]);
+        Path file = dir.resolve("big.snapshot");
+
+        HashTableSnapshot.write(table, file, Codec.longs(), Codec.bytes());
+        HashTable<Long, byte[]> restored = HashTableSnapshot.read(file, Codec.longs(), Codec.bytes());
+
+        assertEquals(3, restored.getSize());
+        assertArrayEquals(new byte[]{1, 2, 3}, restored.get(1L));
+        assertArrayEquals(big, restored.get(2L));
+        assertArrayEquals(new byte[0], restored.get(3L));
+    }
+
+    @Test
+    void incrementalTableIsSnapshottedAfterMigration() throws IOException {
+        HashTable<String, Integer> table = new HashTable<>(4, 0.75f, ResizeMode.INCREMENTAL);
+        for (int i = 0; i < 4; i++) {
+            table.add("k" + i, i);
+        }
+
+        HashTable<String, Integer> restored = fromBytes(toBytes(table));
+
+        assertEquals(table, restored);
+        assertEquals(8, restored.table.length);
+    }
+
+    @Test
+    void corruptedDataIsRejected() throws IOException {
+        HashTable<String, Integer> table = new HashTable<>();
+        table.add("a", 1);
+        table.add("b", 2);
+        byte[] bytes = toBytes(table);
+
+        byte[] wrongMagic = bytes.clone();
+        wrongMagic[0] ^= 1;
+        assertThrows(IOException.class, () -> fromBytes(wrongMagic));
+
+        assertThrows(EOFException.class, () -> fromBytes(Arrays.copyOf(bytes, bytes.length - 1)));
+        assertThrows(EOFException.class, () -> fromBytes(new byte[3]));
+
+        //заголовок говорит о трёх парах, а записано две
+        byte[] wrongSize = bytes.clone();
+        ByteBuffer.wrap(wrongSize).order(ByteOrder.LITTLE_ENDIAN).putInt(16, 3);
+        assertThrows(EOFException.class, () -> fromBytes(wrongSize));
+
+        //длина ключа первой пары больше любого допустимого значения
+        byte[] hugeLength = bytes.clone();
+        ByteBuffer.wrap(hugeLength).order(ByteOrder.LITTLE_ENDIAN).putInt(20, Integer.MAX_VALUE);
+        IOException hugeLengthError = assertThrows(IOException.class, () -> fromBytes(hugeLength));
+        assertTrue(hugeLengthError.getMessage().startsWith("Corrupted entry length"));
+
+        //длина допустима, но данных в потоке нет: буфер не выделяется заранее
+        byte[] missingData = bytes.clone();
+        ByteBuffer.wrap(missingData).order(ByteOrder.LITTLE_ENDIAN).putInt(20, 1 << 29);
+        assertThrows(EOFException.class, () -> fromBytes(missingData));
+    }
+
+    @Test
+    void entryLongerThanFileIsRejected() throws IOException {
+        HashTable<String, Integer> table = new HashTable<>();
+        table.add("a", 1);
+        byte[] bytes = toBytes(table);
+        ByteBuffer.wrap(bytes).order(ByteOrder.LITTLE_ENDIAN).putInt(20, 1 << 20);
+        Path file = dir.resolve("corrupted.snapshot");
+        Files.write(file, bytes);
+
+        IOException error = assertThrows(IOException.class,
+                () -> HashTableSnapshot.read(file, Codec.strings(), Codec.integers()));
+        assertTrue(error.getMessage().startsWith("Corrupted entry length"));
+    }
+
+    @Test
+    void writeOverwritesExistingFile() throws IOException {
+        Path file = dir.resolve("overwrite.snapshot");
+        Files.write(file, new byte[1_000_000]);
+        HashTable<String, Integer> table = new HashTable<>();
+        table.add("x", 1);
+
+        HashTableSnapshot.write(table, file, Codec.strings(), Codec.integers());
+
+        assertEquals(table, HashTableSnapshot.read(file, Codec.strings(), Codec.integers()));
+        assertTrue(Files.size(file) < 100);
+    }
+}
@@ -3,10 +3,18 @@ package ru.nsu.munkuev;
 import org.junit.jupiter.api.Test;
 
 import java.util.ConcurrentModificationException;
+import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Iterator;
+import java.util.Map;
 import java.util.NoSuchElementException;
+import java.util.Random;
 import java.util.Set;
+import java.util.Spliterator;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Collectors;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotEquals;
@@ -14,6 +22,7 @@ import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 
 
@@ -203,6 +212,265 @@ class HashTableTest {
     }
 
 
+    // ======================================================================
+    // ===================== Hash spreading and tree bins =====================
+    // ======================================================================
+
+    /**
+     * Ключ с одинаковым для всех экземпляров хешем.
+     */
+    private static final class CollidingKey implements Comparable<CollidingKey> {
+        private final int id;
+
+        CollidingKey(int id) {
+            this.id = id;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            return o instanceof CollidingKey && ((CollidingKey) o).id == id;
+        }
+
+        @Override
+        public int hashCode() {
+            return 42;
+        }
+
+        @Override
+        public int compareTo(CollidingKey other) {
+            return Integer.compare(id, other.id);
+        }
+    }
+
+    /**
+     * Ключ с одинаковым хешем, у которого compareTo не согласован с equals.
+     */
+    private static final class InconsistentKey implements Comparable<InconsistentKey> {
+        private final int id;
+
+        InconsistentKey(int id) {
+            this.id = id;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            return o instanceof InconsistentKey && ((InconsistentKey) o).id == id;
+        }
+
+        @Override
+        public int hashCode() {
+            return 7;
+        }
+
+        @Override
+        public int compareTo(InconsistentKey other) {
+            return Integer.compare(id / 2, other.id / 2);
+        }
+    }
+
+    @Test
+    void capacityIsRoundedUpToPowerOfTwo() {
+        assertEquals(16, new HashTable<Integer, String>(10, 0.75f).table.length);
+        assertEquals(1, new HashTable<Integer, String>(1, 0.75f).table.length);
+    }
+
+    @Test
+    void keysDifferingInHighBitsGoToDifferentBuckets() {
+        HashTable<Integer, Integer> table = new HashTable<>(64, 0.75f);
+        for (int i = 0; i < 16; i++) {
+            table.add(i << 16, i);
+        }
+
+        int nonEmpty = 0;
+        for (Node<Integer, Integer> bucket : table.table) {
+            if (bucket != null) {
+                nonEmpty++;
+            }
+        }
+        assertEquals(16, nonEmpty);
+    }
+
+    @Test
+    void treeBinHandlesManyCollidingComparableKeys() {
+        HashTable<CollidingKey, Integer> table = new HashTable<>();
+        int n = 2000;
+        for (int i = 0; i < n; i++) {
+            assertNull(table.add(new CollidingKey(i), i));
+        }
+        assertEquals(Integer.valueOf(n - 1), table.add(new CollidingKey(n - 1), -1));
+
+        assertEquals(n, table.getSize());
+        for (int i = 0; i < n - 1; i++) {
+            assertEquals(Integer.valueOf(i), table.get(new CollidingKey(i)));
+        }
+        assertFalse(table.contains(new CollidingKey(n)));
+
+        //удаляем все ключи, кроме пяти: дерево бакета распадается обратно в цепочку
+        for (int i = 0; i < n - 5; i++) {
+            assertEquals(Integer.valueOf(i), table.remove(new CollidingKey(i)));
+        }
+        assertEquals(5, table.getSize());
+        for (int i = n - 5; i < n; i++) {
+            assertTrue(table.contains(new CollidingKey(i)));
+        }
+
+        int iterated = 0;
+        for (Node<CollidingKey, Integer> ignored : table) {
+            iterated++;
+        }
+        assertEquals(5, iterated);
+    }
+
+    @Test
+    void treeBinMatchesHashMapUnderRandomOperations() {
+        HashTable<CollidingKey, Integer> table = new HashTable<>(4, 0.75f, ResizeMode.INCREMENTAL);
+        Map<Integer, Integer> expected = new HashMap<>();
+        Random random = new Random(17);
+
+        for (int step = 0; step < 20_000; step++) {
+            int id = random.nextInt(300);
+            if (random.nextInt(3) == 0) {
+                assertEquals(expected.remove(id), table.remove(new CollidingKey(id)));
+            }
+            else {
+                assertEquals(expected.put(id, step), table.add(new CollidingKey(id), step));
+            }
+        }
+
+        assertEquals(expected.size(), table.getSize());
+        for (int id = 0; id < 300; id++) {
+            assertEquals(expected.get(id), table.get(new CollidingKey(id)));
+        }
+    }
+
+    @Test
+    void removingMissingKeyOfOtherClassKeepsTree() {
+        HashTable<Object, Integer> table = new HashTable<>();
+        for (int i = 0; i < 20; i++) {
+            table.add(new CollidingKey(i), i);
+        }
+        TreeMap<Object, Node<Object, Integer>> tree = findTree(table);
+        assertNotNull(tree);
+
+        //ключ с тем же хешем, но другого класса: в дереве его не ищут, но и дерево не сбрасывают
+        Object foreign = new Object() {
+            @Override
+            public int hashCode() {
+                return 42;
+            }
+        };
+        assertNull(table.remove(foreign));
+
+        assertSame(tree, findTree(table));
+        assertEquals(20, table.getSize());
+        assertEquals(Integer.valueOf(7), table.get(new CollidingKey(7)));
+    }
+
+    private static TreeMap<Object, Node<Object, Integer>> findTree(HashTable<Object, Integer> table) {
+        if (table.trees == null) {
+            return null;
+        }
+        for (TreeMap<Object, Node<Object, Integer>> tree : table.trees) {
+            if (tree != null) {
+                return tree;
+            }
+        }
+        return null;
+    }
+
+    @Test
+    void inconsistentCompareToFallsBackToChain() {
+        HashTable<InconsistentKey, Integer> table = new HashTable<>();
+        for (int i = 0; i < 40; i++) {
+            table.add(new InconsistentKey(i), i);
+        }
+
+        assertEquals(40, table.getSize());
+        for (int i = 0; i < 40; i++) {
+            assertEquals(Integer.valueOf(i), table.get(new InconsistentKey(i)));
+        }
+        assertEquals(Integer.valueOf(13), table.remove(new InconsistentKey(13)));
+        assertNull(table.get(new InconsistentKey(13)));
+        assertEquals(Integer.valueOf(12), table.get(new InconsistentKey(12)));
+    }
+
+    // ======================================================================
+    // ========================== Incremental resize ==========================
+    // ======================================================================
+    @Test
+    void incrementalResizeKeepsOldTableUntilMigrated() {
+        HashTable<Integer, Integer> table = new HashTable<>(64, 0.75f, ResizeMode.INCREMENTAL);
+        for (int i = 0; i <= 48; i++) {
+            table.add(i, i);
+        }
+
+        //порог превышен: новый массив уже создан, но старый перенесён не целиком
+        assertEquals(128, table.table.length);
+        assertNotNull(table.oldTable);
+        for (int i = 0; i <= 48; i++) {
+            assertEquals(i, (int) table.get(i));
+        }
+
+        //каждая операция переносит несколько бакетов, так что перенос заканчивается
+        for (int i = 0; i < 64 && table.oldTable != null; i++) {
+            table.contains(-1);
+        }
+        assertNull(table.oldTable);
+        assertEquals(49, table.getSize());
+    }
+
+    @Test
+    void incrementalResizeMatchesEagerTable() {
+        HashTable<Integer, Integer> incremental = new HashTable<>(2, 0.75f, ResizeMode.INCREMENTAL);
+        HashTable<Integer, Integer> eager = new HashTable<>(2, 0.75f);
+        Random random = new Random(5);
+
+        for (int step = 0; step < 50_000; step++) {
+            int key = random.nextInt(5000);
+            if (random.nextInt(4) == 0) {
+                assertEquals(eager.remove(key), incremental.remove(key));
+            }
+            else {
+                assertEquals(eager.add(key, step), incremental.add(key, step));
+            }
+            assertEquals(eager.getSize(), incremental.getSize());
+        }
+
+        assertEquals(eager, incremental);
+        assertNull(incremental.oldTable);
+    }
+
+    @Test
+    void iteratorAndClearFinishIncrementalResize() {
+        HashTable<Integer, String> table = new HashTable<>(64, 0.75f, ResizeMode.INCREMENTAL);
+        for (int i = 0; i <= 48; i++) {
+            table.add(i, "v" + i);
+        }
+        assertNotNull(table.oldTable);
+
+        int count = 0;
+        for (Node<Integer, String> ignored : table) {
+            count++;
+        }
+        assertEquals(49, count);
+        assertNull(table.oldTable);
+
+        for (int i = 49; i <= 96; i++) {
+            table.add(i, "v" + i);
+        }
+        assertNotNull(table.oldTable);
+        table.clear();
+        assertNull(table.oldTable);
+        assertEquals(0, table.getSize());
+        assertNull(table.get(1));
+    }
+
+    @Test
+    void constructorThrowsOnNullResizeMode() {
+        assertThrows(NullPointerException.class, () -> new HashTable<Integer, String>(8, 0.75f, null));
+    }
+
+
     // ======================================================================
     // ================= Iterator and ConcurrentModification =================
     // ======================================================================
@@ -349,4 +617,143 @@ class HashTableTest {
         assertTrue(s.contains(", "));
     }
 
+
+    // ======================================================================
+    // ==================== Bulk operations and spliterator ===================
+    // ======================================================================
+    @Test
+    void streamVisitsEveryPairOnce() {
+        HashTable<Integer, Integer> table = new HashTable<>();
+        for (int i = 0; i < 10_000; i++) {
+            table.add(i, i * 2);
+        }
+
+        assertEquals(10_000, table.stream().count());
+        assertEquals(10_000L * 9_999, table.stream().mapToLong(Node::getValue).sum());
+        assertEquals(10_000L * 9_999, table.stream().parallel().mapToLong(Node::getValue).sum());
+        assertEquals(10_000, table.stream().parallel().map(Node::getKey).collect(Collectors.toSet()).size());
+    }
+
+    @Test
+    void spliteratorSplitsByBuckets() {
+        HashTable<Integer, String> table = new HashTable<>(64, 0.75f);
+        for (int i = 0; i < 40; i++) {
+            table.add(i, "v" + i);
+        }
+
+        Spliterator<Node<Integer, String>> right = table.spliterator();
+        assertEquals(40, right.estimateSize());
+        assertTrue(right.hasCharacteristics(Spliterator.SIZED));
+
+        Spliterator<Node<Integer, String>> left = right.trySplit();
+        assertNotNull(left);
+        assertFalse(left.hasCharacteristics(Spliterator.SIZED));
+
+        Set<Integer> keys = new HashSet<>();
+        left.forEachRemaining(node -> assertTrue(keys.add(node.getKey())));
+        while (right.tryAdvance(node -> assertTrue(keys.add(node.getKey())))) {
+            //обход по одному узлу
+        }
+        assertEquals(40, keys.size());
+    }
+
+    @Test
+    void spliteratorDetectsModification() {
+        HashTable<Integer, String> table = new HashTable<>();
+        table.add(1, "one");
+        table.add(2, "two");
+
+        assertThrows(ConcurrentModificationException.class,
+                () -> table.spliterator().forEachRemaining(node -> table.add(node.getKey() + 100, "x")));
+    }
+
+    @Test
+    void parallelForEachVisitsAllPairs() {
+        HashTable<Integer, Integer> table = new HashTable<>();
+        for (int i = 0; i < 50_000; i++) {
+            table.add(i, 1);
+        }
+
+        for (long threshold : new long[]{1, 1000, Long.MAX_VALUE}) {
+            LongAdder sum = new LongAdder();
+            Set<Integer> keys = ConcurrentHashMap.newKeySet();
+            table.forEach(threshold, (key, value) -> {
+                sum.add(value);
+                keys.add(key);
+            });
+            assertEquals(50_000, sum.sum());
+            assertEquals(50_000, keys.size());
+        }
+        assertThrows(IllegalArgumentException.class, () -> table.forEach(0, (key, value) -> { }));
+    }
+
+    @Test
+    void putAllPresizesAndReplacesValues() {
+        HashTable<Integer, String> source = new HashTable<>();
+        for (int i = 0; i < 1000; i++) {
+            source.add(i, "s" + i);
+        }
+        HashTable<Integer, String> target = new HashTable<>(2, 0.75f);
+        target.add(0, "old");
+        target.add(5000, "kept");
+
+        target.putAll(source);
+
+        assertEquals(1001, target.getSize());
+        assertEquals("s0", target.get(0));
+        assertEquals("kept", target.get(5000));
+        assertEquals(2048, target.table.length);
+    }
+
+    @Test
+    void putAllFinishesIncrementalMigration() {
+        HashTable<Integer, Integer> target = new HashTable<>(4, 0.75f, ResizeMode.INCREMENTAL);
+        for (int i = 0; i < 4; i++) {
+            target.add(i, i);
+        }
+        assertNotNull(target.oldTable);
+
+        OpenAddressingHashTable<Integer, Integer> source = new OpenAddressingHashTable<>();
+        for (int i = 0; i < 100; i++) {
+            source.add(i, -i);
+        }
+        target.putAll(source);
+
+        assertNull(target.oldTable);
+        assertEquals(100, target.getSize());
+        assertEquals(source, target);
+    }
+
+    @Test
+    void computeIfAbsentComputesOnlyMissingValues() {
+        HashTable<String, Integer> table = new HashTable<>();
+        table.add("a", 1);
+        table.add("n", null);
+
+        assertEquals(1, (int) table.computeIfAbsent("a", key -> 100));
+        assertEquals(2, (int) table.computeIfAbsent("n", key -> 2));
+        assertEquals(3, (int) table.computeIfAbsent("b", key -> 3));
+        assertNull(table.computeIfAbsent("c", key -> null));
+
+        assertEquals(3, table.getSize());
+        assertFalse(table.contains("c"));
+        assertThrows(ConcurrentModificationException.class,
+                () -> table.computeIfAbsent("d", key -> table.add("e", 5)));
+    }
+
+    @Test
+    void mergeCombinesAndRemoves() {
+        HashTable<String, Integer> table = new HashTable<>();
+        for (String word : "a b a c a b".split(" ")) {
+            table.merge(word, 1, Integer::sum);
+        }
+
+        assertEquals(3, (int) table.get("a"));
+        assertEquals(2, (int) table.get("b"));
+        assertEquals(1, (int) table.get("c"));
+
+        assertNull(table.merge("c", 1, (oldValue, value) -> null));
+        assertFalse(table.contains("c"));
+        assertThrows(NullPointerException.class, () -> table.merge("a", null, Integer::sum));
+    }
 }
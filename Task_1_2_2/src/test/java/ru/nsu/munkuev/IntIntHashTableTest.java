@@ -0,0 +1,134 @@
+package ru.nsu.munkuev;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+
+class IntIntHashTableTest {
+
+    @Test
+    void emptyTableReturnsNoEntryValue() {
+        IntIntHashTable table = new IntIntHashTable(8, 0.5f, -1);
+
+        assertEquals(0, table.getSize());
+        assertEquals(-1, table.get(5));
+        assertEquals(-1, table.remove(5));
+        assertEquals(7, table.getOrDefault(5, 7));
+        assertFalse(table.contains(5));
+        assertEquals("[]", table.toString());
+    }
+
+    @Test
+    void addGetUpdateRemove() {
+        IntIntHashTable table = new IntIntHashTable();
+
+        assertEquals(0, table.add(1, 10));
+        assertEquals(0, table.add(-2, 20));
+        assertEquals(10, table.add(1, 11));
+        assertEquals(2, table.getSize());
+        assertEquals(11, table.get(1));
+        assertEquals(20, table.get(-2));
+
+        assertEquals(20, table.remove(-2));
+        assertFalse(table.contains(-2));
+        assertEquals(1, table.getSize());
+    }
+
+    @Test
+    void zeroKeyIsStoredSeparately() {
+        IntIntHashTable table = new IntIntHashTable(8, 0.5f, -1);
+
+        assertFalse(table.contains(0));
+        assertEquals(-1, table.add(0, 100));
+        assertTrue(table.contains(0));
+        assertEquals(100, table.get(0));
+        assertEquals(1, table.getSize());
+
+        assertEquals(100, table.add(0, 200));
+        assertEquals(200, table.remove(0));
+        assertFalse(table.contains(0));
+        assertEquals(0, table.getSize());
+    }
+
+    @Test
+    void constructorThrowsOnIllegalArguments() {
+        assertThrows(IllegalArgumentException.class, () -> new IntIntHashTable(0, 0.5f));
+        assertThrows(IllegalArgumentException.class, () -> new IntIntHashTable(8, 1.5f));
+    }
+
+    @Test
+    void randomOperationsMatchHashMap() {
+        IntIntHashTable table = new IntIntHashTable(2, 0.75f, Integer.MIN_VALUE);
+        Map<Integer, Integer> expected = new HashMap<>();
+        Random random = new Random(7);
+
+        for (int step = 0; step < 100_000; step++) {
+            int key = random.nextInt(2000) - 1000;
+            if (random.nextInt(3) == 0) {
+                assertEquals((int) expected.getOrDefault(key, Integer.MIN_VALUE), table.remove(key));
+                expected.remove(key);
+            }
+            else {
+                assertEquals((int) expected.getOrDefault(key, Integer.MIN_VALUE), table.add(key, step));
+                expected.put(key, step);
+            }
+        }
+
+        assertEquals(expected.size(), table.getSize());
+        Map<Integer, Integer> seen = new HashMap<>();
+        table.forEach(seen::put);
+        assertEquals(expected, seen);
+    }
+
+    @Test
+    void keysDifferingInHighBitsDoNotCollapse() {
+        IntIntHashTable table = new IntIntHashTable();
+        for (int i = 1; i <= 1000; i++) {
+            table.add(i << 20, i);
+        }
+
+        assertEquals(1000, table.getSize());
+        for (int i = 1; i <= 1000; i++) {
+            assertEquals(i, table.get(i << 20));
+        }
+    }
+
+    @Test
+    void clearRemovesAllPairs() {
+        IntIntHashTable table = new IntIntHashTable();
+        table.add(0, 1);
+        table.add(1, 2);
+
+        table.clear();
+
+        assertEquals(0, table.getSize());
+        assertFalse(table.contains(0));
+        assertFalse(table.contains(1));
+    }
+
+    @Test
+    void equalsHashCodeAndToString() {
+        IntIntHashTable t1 = new IntIntHashTable();
+        IntIntHashTable t2 = new IntIntHashTable(64, 0.25f);
+        t1.add(0, 5);
+        t1.add(3, 4);
+        t2.add(3, 4);
+        t2.add(0, 5);
+
+        assertEquals(t1, t2);
+        assertEquals(t1.hashCode(), t2.hashCode());
+        assertEquals("[(0, 5), (3, 4)]", t1.toString());
+
+        t2.add(3, 6);
+        assertNotEquals(t1, t2);
+    }
+}
@@ -0,0 +1,90 @@
+package ru.nsu.munkuev;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+
+class IntObjHashTableTest {
+
+    @Test
+    void addGetUpdateRemove() {
+        IntObjHashTable<String> table = new IntObjHashTable<>();
+
+        assertNull(table.add(1, "one"));
+        assertNull(table.add(2, "two"));
+        assertEquals("one", table.add(1, "newOne"));
+        assertEquals("newOne", table.get(1));
+        assertEquals(2, table.getSize());
+
+        assertEquals("two", table.remove(2));
+        assertNull(table.remove(2));
+        assertNull(table.get(2));
+        assertEquals(1, table.getSize());
+    }
+
+    @Test
+    void zeroKeyAndNullValues() {
+        IntObjHashTable<String> table = new IntObjHashTable<>();
+
+        assertNull(table.add(0, "zero"));
+        assertNull(table.add(5, null));
+        assertTrue(table.contains(0));
+        assertTrue(table.contains(5));
+        assertNull(table.get(5));
+        assertEquals(2, table.getSize());
+
+        assertEquals("zero", table.remove(0));
+        assertFalse(table.contains(0));
+        assertNull(table.get(0));
+    }
+
+    @Test
+    void randomOperationsMatchHashMap() {
+        IntObjHashTable<String> table = new IntObjHashTable<>(2, 0.75f);
+        Map<Integer, String> expected = new HashMap<>();
+        Random random = new Random(3);
+
+        for (int step = 0; step < 50_000; step++) {
+            int key = random.nextInt(1000) - 500;
+            if (random.nextInt(3) == 0) {
+                assertEquals(expected.remove(key), table.remove(key));
+            }
+            else {
+                String value = "v" + step;
+                assertEquals(expected.put(key, value), table.add(key, value));
+            }
+        }
+
+        assertEquals(expected.size(), table.getSize());
+        Map<Integer, String> seen = new HashMap<>();
+        table.forEach(seen::put);
+        assertEquals(expected, seen);
+    }
+
+    @Test
+    void equalsClearAndToString() {
+        IntObjHashTable<String> t1 = new IntObjHashTable<>();
+        IntObjHashTable<String> t2 = new IntObjHashTable<>();
+        t1.add(0, "a");
+        t1.add(7, null);
+        t2.add(7, null);
+        t2.add(0, "a");
+
+        assertEquals(t1, t2);
+        assertEquals(t1.hashCode(), t2.hashCode());
+        assertEquals("[(0, a), (7, null)]", t1.toString());
+
+        t2.clear();
+        assertEquals(0, t2.getSize());
+        assertNotEquals(t1, t2);
+    }
+}
@@ -0,0 +1,87 @@
+package ru.nsu.munkuev;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+
+class LongLongHashTableTest {
+
+    @Test
+    void addGetUpdateRemove() {
+        LongLongHashTable table = new LongLongHashTable(8, 0.5f, -1L);
+
+        assertEquals(-1L, table.get(1L << 40));
+        assertEquals(-1L, table.add(1L << 40, 10L));
+        assertEquals(10L, table.add(1L << 40, 11L));
+        assertEquals(11L, table.get(1L << 40));
+        assertEquals(-1L, table.get(1L));
+        assertEquals(1, table.getSize());
+
+        assertEquals(11L, table.remove(1L << 40));
+        assertEquals(-1L, table.remove(1L << 40));
+        assertEquals(0, table.getSize());
+    }
+
+    @Test
+    void zeroKeyIsStoredSeparately() {
+        LongLongHashTable table = new LongLongHashTable();
+
+        table.add(0L, Long.MAX_VALUE);
+        assertTrue(table.contains(0L));
+        assertEquals(Long.MAX_VALUE, table.get(0L));
+        assertEquals(1, table.getSize());
+
+        table.remove(0L);
+        assertFalse(table.contains(0L));
+    }
+
+    @Test
+    void randomOperationsMatchHashMap() {
+        LongLongHashTable table = new LongLongHashTable(2, 0.75f, Long.MIN_VALUE);
+        Map<Long, Long> expected = new HashMap<>();
+        Random random = new Random(11);
+
+        for (int step = 0; step < 100_000; step++) {
+            //ключи различаются только старшими битами
+            long key = (long) random.nextInt(2000) << 32;
+            if (random.nextInt(3) == 0) {
+                assertEquals((long) expected.getOrDefault(key, Long.MIN_VALUE), table.remove(key));
+                expected.remove(key);
+            }
+            else {
+                assertEquals((long) expected.getOrDefault(key, Long.MIN_VALUE), table.add(key, step));
+                expected.put(key, (long) step);
+            }
+        }
+
+        assertEquals(expected.size(), table.getSize());
+        Map<Long, Long> seen = new HashMap<>();
+        table.forEach(seen::put);
+        assertEquals(expected, seen);
+    }
+
+    @Test
+    void equalsAndClear() {
+        LongLongHashTable t1 = new LongLongHashTable();
+        LongLongHashTable t2 = new LongLongHashTable();
+        t1.add(0L, 1L);
+        t1.add(-5L, 2L);
+        t2.add(-5L, 2L);
+        t2.add(0L, 1L);
+
+        assertEquals(t1, t2);
+        assertEquals(t1.hashCode(), t2.hashCode());
+
+        t1.clear();
+        assertEquals(0, t1.getSize());
+        assertNotEquals(t1, t2);
+    }
+}
@@ -0,0 +1,121 @@
+package ru.nsu.munkuev;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+
+class MappedLongLongHashTableTest {
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void addGetRemoveAgainstMapping() throws IOException {
+        try (MappedLongLongHashTable table = MappedLongLongHashTable.create(dir.resolve("t.bin"), 100, -1L)) {
+            assertEquals(256, table.getCapacity());
+            assertEquals(-1L, table.get(5L));
+
+            assertEquals(-1L, table.add(5L, 50L));
+            assertEquals(50L, table.add(5L, 55L));
+            assertEquals(-1L, table.add(0L, 7L));
+            assertEquals(2, table.getSize());
+            assertEquals(55L, table.get(5L));
+            assertEquals(7L, table.get(0L));
+
+            assertEquals(55L, table.remove(5L));
+            assertEquals(7L, table.remove(0L));
+            assertFalse(table.contains(5L));
+            assertFalse(table.contains(0L));
+            assertEquals(0, table.getSize());
+        }
+    }
+
+    @Test
+    void reopenedTableKeepsEntries() throws IOException {
+        Path file = dir.resolve("persistent.bin");
+        Map<Long, Long> expected = new HashMap<>();
+        Random random = new Random(23);
+
+        try (MappedLongLongHashTable table = MappedLongLongHashTable.create(file, 10_000)) {
+            for (int step = 0; step < 30_000; step++) {
+                long key = random.nextInt(8000) - 4000L;
+                if (random.nextInt(4) == 0) {
+                    assertEquals((long) expected.getOrDefault(key, 0L), table.remove(key));
+                    expected.remove(key);
+                }
+                else {
+                    assertEquals((long) expected.getOrDefault(key, 0L), table.add(key, step));
+                    expected.put(key, (long) step);
+                }
+            }
+        }
+
+        try (MappedLongLongHashTable table = MappedLongLongHashTable.open(file)) {
+            assertEquals(expected.size(), table.getSize());
+            assertEquals(0L, table.getNoEntryValue());
+
+            Map<Long, Long> actual = new HashMap<>();
+            table.forEach(actual::put);
+            assertEquals(expected, actual);
+
+            for (Map.Entry<Long, Long> entry : expected.entrySet()) {
+                assertEquals((long) entry.getValue(), table.get(entry.getKey()));
+            }
+        }
+    }
+
+    @Test
+    void fullTableRejectsNewKeys() throws IOException {
+        try (MappedLongLongHashTable table = MappedLongLongHashTable.create(dir.resolve("full.bin"), 2)) {
+            //вместимость 4, заполнить можно 3 ячейки
+            table.add(1L, 1L);
+            table.add(2L, 2L);
+            table.add(3L, 3L);
+
+            assertThrows(IllegalStateException.class, () -> table.add(4L, 4L));
+            assertEquals(3L, table.add(3L, 30L));
+            assertEquals(0L, table.add(0L, -1L), "zero key is stored outside of slots");
+            assertEquals(4, table.getSize());
+        }
+    }
+
+    @Test
+    void clearEmptiesPersistedTable() throws IOException {
+        Path file = dir.resolve("clear.bin");
+        try (MappedLongLongHashTable table = MappedLongLongHashTable.create(file, 16)) {
+            table.add(1L, 10L);
+            table.add(0L, 20L);
+            table.clear();
+        }
+
+        try (MappedLongLongHashTable table = MappedLongLongHashTable.open(file)) {
+            assertEquals(0, table.getSize());
+            assertFalse(table.contains(1L));
+            assertFalse(table.contains(0L));
+            table.add(1L, 11L);
+            assertTrue(table.contains(1L));
+        }
+    }
+
+    @Test
+    void createRefusesExistingFileAndOpenRejectsForeignFile() throws IOException {
+        Path file = dir.resolve("foreign.bin");
+        Files.write(file, new byte[128]);
+
+        assertThrows(IOException.class, () -> MappedLongLongHashTable.create(file, 16));
+        assertThrows(IOException.class, () -> MappedLongLongHashTable.open(file));
+        assertThrows(IllegalArgumentException.class, () -> MappedLongLongHashTable.create(dir.resolve("x.bin"), 0));
+    }
+}
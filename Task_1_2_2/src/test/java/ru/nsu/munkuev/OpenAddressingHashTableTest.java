@@ -0,0 +1,266 @@
+package ru.nsu.munkuev;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ConcurrentModificationException;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+
+class OpenAddressingHashTableTest {
+
+    /**
+     * Ключ с управляемым хешем, чтобы получать коллизии и кластеры в заданных ячейках.
+     */
+    private static final class Key {
+        private final int id;
+        private final int hash;
+
+        Key(int id, int hash) {
+            this.id = id;
+            this.hash = hash;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            return o instanceof Key && ((Key) o).id == id;
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+    }
+
+
+    @Test
+    void defaultConstructorCreatesEmptyTable() {
+        OpenAddressingHashTable<Integer, String> table = new OpenAddressingHashTable<>();
+
+        assertEquals(0, table.getSize());
+        assertEquals(16, table.capacity());
+        assertEquals("[]", table.toString());
+        assertNull(table.get(1));
+        assertFalse(table.contains(1));
+    }
+
+    @Test
+    void capacityIsRoundedUpToPowerOfTwo() {
+        assertEquals(8, new OpenAddressingHashTable<Integer, String>(5, 0.5f).capacity());
+        assertEquals(1, new OpenAddressingHashTable<Integer, String>(1, 0.5f).capacity());
+    }
+
+    @Test
+    void constructorThrowsOnIllegalArguments() {
+        assertThrows(IllegalArgumentException.class, () -> new OpenAddressingHashTable<Integer, String>(0, 0.5f));
+        assertThrows(IllegalArgumentException.class, () -> new OpenAddressingHashTable<Integer, String>(8, 0f));
+        assertThrows(IllegalArgumentException.class, () -> new OpenAddressingHashTable<Integer, String>(8, 1f));
+        assertThrows(IllegalArgumentException.class, () -> new OpenAddressingHashTable<Integer, String>(8, Float.NaN));
+    }
+
+    @Test
+    void addGetUpdateRemove() {
+        SymbolTable<Integer, String> table = new OpenAddressingHashTable<>();
+
+        assertNull(table.add(1, "one"));
+        assertNull(table.add(2, "two"));
+        assertEquals("one", table.add(1, "newOne"));
+        assertEquals(2, table.getSize());
+        assertEquals("newOne", table.get(1));
+
+        assertEquals("two", table.remove(2));
+        assertNull(table.remove(2));
+        assertFalse(table.contains(2));
+        assertEquals(1, table.getSize());
+    }
+
+    @Test
+    void nullValuesAreStored() {
+        SymbolTable<Integer, String> table = new OpenAddressingHashTable<>();
+        table.add(1, null);
+
+        assertTrue(table.contains(1));
+        assertNull(table.get(1));
+        assertEquals(1, table.getSize());
+    }
+
+    @Test
+    void operationsWithNullKeyThrowNullPointerException() {
+        SymbolTable<String, String> table = new OpenAddressingHashTable<>();
+
+        assertThrows(NullPointerException.class, () -> table.add(null, "x"));
+        assertThrows(NullPointerException.class, () -> table.get(null));
+        assertThrows(NullPointerException.class, () -> table.remove(null));
+        assertThrows(NullPointerException.class, () -> table.contains(null));
+    }
+
+    @Test
+    void resizePreservesEntries() {
+        OpenAddressingHashTable<Integer, Integer> table = new OpenAddressingHashTable<>(2, 0.5f);
+        for (int i = 0; i < 1000; i++) {
+            table.add(i, i * i);
+        }
+
+        assertEquals(1000, table.getSize());
+        assertTrue(table.capacity() >= 2000);
+        for (int i = 0; i < 1000; i++) {
+            assertEquals(i * i, (int) table.get(i));
+        }
+    }
+
+    @Test
+    void backwardShiftKeepsClusterReachable() {
+        OpenAddressingHashTable<Key, String> table = new OpenAddressingHashTable<>(16, 0.75f);
+        Key a = new Key(1, 3);
+        Key b = new Key(2, 3);
+        Key c = new Key(3, 4);
+        Key d = new Key(4, 3);
+
+        //кластер в ячейках 3..6: a(3), b(3), c(4), d(3)
+        table.add(a, "a");
+        table.add(b, "b");
+        table.add(c, "c");
+        table.add(d, "d");
+
+        assertEquals("a", table.remove(a));
+        assertEquals("b", table.get(b));
+        assertEquals("c", table.get(c));
+        assertEquals("d", table.get(d));
+
+        assertEquals("c", table.remove(c));
+        assertEquals("b", table.get(b));
+        assertEquals("d", table.get(d));
+        assertEquals(2, table.getSize());
+    }
+
+    @Test
+    void backwardShiftWrapsAroundTableEnd() {
+        OpenAddressingHashTable<Key, String> table = new OpenAddressingHashTable<>(8, 0.75f);
+        Key a = new Key(1, 6);
+        Key b = new Key(2, 7);
+        Key c = new Key(3, 6);
+        Key d = new Key(4, 0);
+
+        //кластер 6, 7, 0, 1: a(6), b(7), c(6), d(0)
+        table.add(a, "a");
+        table.add(b, "b");
+        table.add(c, "c");
+        table.add(d, "d");
+
+        table.remove(b);
+        assertEquals("a", table.get(a));
+        assertEquals("c", table.get(c));
+        assertEquals("d", table.get(d));
+        assertFalse(table.contains(b));
+    }
+
+    @Test
+    void randomOperationsMatchHashMap() {
+        OpenAddressingHashTable<Integer, Integer> table = new OpenAddressingHashTable<>(4, 0.7f);
+        Map<Integer, Integer> expected = new HashMap<>();
+        Random random = new Random(42);
+
+        for (int step = 0; step < 50_000; step++) {
+            int key = random.nextInt(500);
+            if (random.nextInt(3) == 0) {
+                assertEquals(expected.remove(key), table.remove(key));
+            }
+            else {
+                assertEquals(expected.put(key, step), table.add(key, step));
+            }
+        }
+
+        assertEquals(expected.size(), table.getSize());
+        for (int key = 0; key < 500; key++) {
+            assertEquals(expected.get(key), table.get(key));
+        }
+    }
+
+    @Test
+    void iteratorReturnsAllPairsAndDetectsModification() {
+        OpenAddressingHashTable<Integer, String> table = new OpenAddressingHashTable<>();
+        table.add(1, "one");
+        table.add(2, "two");
+        table.add(3, "three");
+
+        Map<Integer, String> seen = new HashMap<>();
+        for (Node<Integer, String> node : table) {
+            seen.put(node.getKey(), node.getValue());
+        }
+        assertEquals(Map.of(1, "one", 2, "two", 3, "three"), seen);
+
+        Iterator<Node<Integer, String>> it = table.iterator();
+        it.next();
+        table.remove(3);
+        assertThrows(ConcurrentModificationException.class, it::next);
+    }
+
+    @Test
+    void iteratorOnEmptyTableHasNoElements() {
+        Iterator<Node<Integer, String>> it = new OpenAddressingHashTable<Integer, String>().iterator();
+
+        assertFalse(it.hasNext());
+        assertThrows(NoSuchElementException.class, it::next);
+    }
+
+    @Test
+    void clearRemovesAllElements() {
+        OpenAddressingHashTable<Integer, String> table = new OpenAddressingHashTable<>();
+        table.add(1, "one");
+        table.add(2, "two");
+
+        table.clear();
+
+        assertEquals(0, table.getSize());
+        assertEquals("[]", table.toString());
+        assertFalse(table.iterator().hasNext());
+    }
+
+    @Test
+    void equalsAndHashCodeAcrossImplementations() {
+        SymbolTable<Integer, String> chained = new HashTable<>();
+        SymbolTable<Integer, String> open = new OpenAddressingHashTable<>();
+        for (int i = 0; i < 20; i++) {
+            chained.add(i, "v" + i);
+            open.add(i, "v" + i);
+        }
+
+        assertEquals(chained, open);
+        assertEquals(open, chained);
+        assertEquals(chained.hashCode(), open.hashCode());
+
+        open.add(5, "other");
+        assertNotEquals(chained, open);
+        assertNotEquals(open, chained);
+    }
+
+    @Test
+    void equalsDistinguishesNullValueFromMissingKey() {
+        SymbolTable<Integer, String> t1 = new OpenAddressingHashTable<>();
+        SymbolTable<Integer, String> t2 = new HashTable<>();
+        t1.add(1, null);
+        t2.add(2, null);
+
+        assertNotEquals(t1, t2);
+        assertNotEquals(t2, t1);
+    }
+
+    @Test
+    void toStringContainsAllPairs() {
+        OpenAddressingHashTable<Integer, String> table = new OpenAddressingHashTable<>();
+        table.add(1, "one");
+        table.add(2, "two");
+
+        assertEquals("[(1, one), (2, two)]", table.toString());
+    }
+}